@@ -0,0 +1,279 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.near;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.BiConsumer;
+
+import org.springframework.cache.Cache;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Cache decorator which layers a local cache over a target {@link Cache},
+ * typically a bounded in-memory cache over a remote or serializing one.
+ *
+ * <p>Lookups are served from the local cache if possible, falling back to
+ * the target cache and populating the local cache with the value found there.
+ * All write operations are performed against the target cache and reflected
+ * in the local cache right away, notifying the specified invalidation listener
+ * so that the local caches of other nodes can drop their now stale entries.
+ * A value found in the target cache is not kept locally if a write or
+ * invalidation for the same key happened while it was being looked up.
+ *
+ * <p><b>Note:</b> The local cache does not observe modifications performed
+ * against the target cache directly, or through other nodes without
+ * invalidation broadcast. Those become visible once the corresponding
+ * local entries have expired or have been evicted.
+ *
+ * @since 5.3.10
+ * @see NearCacheManagerProxy
+ */
+public class NearCacheDecorator implements Cache {
+
+	/* Number of write counters that keys are spread across */
+	private static final int WRITE_COUNTER_STRIPES = 64;
+
+
+	private final Cache targetCache;
+
+	private final Cache localCache;
+
+	@Nullable
+	private final BiConsumer<String, Object> invalidationListener;
+
+	private final AtomicLongArray writeCounters = new AtomicLongArray(WRITE_COUNTER_STRIPES);
+
+
+	/**
+	 * Create a new NearCacheDecorator for the given target Cache.
+	 * @param targetCache the target Cache to decorate
+	 * @param localCache the local Cache to serve lookups from
+	 */
+	public NearCacheDecorator(Cache targetCache, Cache localCache) {
+		this(targetCache, localCache, null);
+	}
+
+	/**
+	 * Create a new NearCacheDecorator for the given target Cache.
+	 * @param targetCache the target Cache to decorate
+	 * @param localCache the local Cache to serve lookups from
+	 * @param invalidationListener a listener to notify with the cache name and
+	 * the modified key ({@code null} for the entire cache) after each write
+	 * operation, or {@code null} for none
+	 */
+	public NearCacheDecorator(Cache targetCache, Cache localCache,
+			@Nullable BiConsumer<String, Object> invalidationListener) {
+
+		Assert.notNull(targetCache, "Target Cache must not be null");
+		Assert.notNull(localCache, "Local Cache must not be null");
+		this.targetCache = targetCache;
+		this.localCache = localCache;
+		this.invalidationListener = invalidationListener;
+	}
+
+
+	/**
+	 * Return the target Cache that this Cache should delegate to.
+	 */
+	public Cache getTargetCache() {
+		return this.targetCache;
+	}
+
+	/**
+	 * Return the local Cache that lookups are served from.
+	 */
+	public Cache getLocalCache() {
+		return this.localCache;
+	}
+
+	@Override
+	public String getName() {
+		return this.targetCache.getName();
+	}
+
+	@Override
+	public Object getNativeCache() {
+		return this.targetCache.getNativeCache();
+	}
+
+	@Override
+	@Nullable
+	public ValueWrapper get(Object key) {
+		ValueWrapper localValue = this.localCache.get(key);
+		if (localValue != null) {
+			return localValue;
+		}
+		long writeCount = getWriteCount(key);
+		ValueWrapper targetValue = this.targetCache.get(key);
+		if (targetValue != null) {
+			populateLocal(key, targetValue.get(), writeCount);
+		}
+		return targetValue;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	@Nullable
+	public <T> T get(Object key, @Nullable Class<T> type) {
+		ValueWrapper wrapper = get(key);
+		Object value = (wrapper != null ? wrapper.get() : null);
+		if (value != null && type != null && !type.isInstance(value)) {
+			throw new IllegalStateException(
+					"Cached value is not of required type [" + type.getName() + "]: " + value);
+		}
+		return (T) value;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	@Nullable
+	public <T> T get(Object key, Callable<T> valueLoader) {
+		ValueWrapper localValue = this.localCache.get(key);
+		if (localValue != null) {
+			return (T) localValue.get();
+		}
+		long writeCount = getWriteCount(key);
+		T value = this.targetCache.get(key, valueLoader);
+		populateLocal(key, value, writeCount);
+		return value;
+	}
+
+	@Override
+	public void put(Object key, @Nullable Object value) {
+		long writeCount = getWriteCount(key);
+		this.targetCache.put(key, value);
+		written(key);
+		populateLocal(key, value, writeCount + 1);
+		invalidated(key);
+	}
+
+	@Override
+	@Nullable
+	public ValueWrapper putIfAbsent(Object key, @Nullable Object value) {
+		long writeCount = getWriteCount(key);
+		ValueWrapper existingValue = this.targetCache.putIfAbsent(key, value);
+		if (existingValue != null) {
+			populateLocal(key, existingValue.get(), writeCount);
+		}
+		else {
+			written(key);
+			populateLocal(key, value, writeCount + 1);
+			invalidated(key);
+		}
+		return existingValue;
+	}
+
+	@Override
+	public void evict(Object key) {
+		this.targetCache.evict(key);
+		written(key);
+		this.localCache.evict(key);
+		invalidated(key);
+	}
+
+	@Override
+	public boolean evictIfPresent(Object key) {
+		boolean present = this.targetCache.evictIfPresent(key);
+		written(key);
+		this.localCache.evict(key);
+		invalidated(key);
+		return present;
+	}
+
+	@Override
+	public void clear() {
+		this.targetCache.clear();
+		written(null);
+		this.localCache.clear();
+		invalidated(null);
+	}
+
+	@Override
+	public boolean invalidate() {
+		boolean notEmpty = this.targetCache.invalidate();
+		written(null);
+		this.localCache.clear();
+		invalidated(null);
+		return notEmpty;
+	}
+
+	/**
+	 * Drop the local entry for the given key, or all local entries if the
+	 * key is {@code null}, without touching the target cache.
+	 * <p>Typically called on receipt of an invalidation from another node.
+	 * @param key the key to drop, or {@code null} for the entire local cache
+	 */
+	public void invalidateLocal(@Nullable Object key) {
+		written(key);
+		if (key != null) {
+			this.localCache.evict(key);
+		}
+		else {
+			this.localCache.clear();
+		}
+	}
+
+	private long getWriteCount(Object key) {
+		return this.writeCounters.get(getWriteCounterIndex(key));
+	}
+
+	private int getWriteCounterIndex(Object key) {
+		return (key.hashCode() & Integer.MAX_VALUE) % WRITE_COUNTER_STRIPES;
+	}
+
+	/**
+	 * Put a value obtained from the target cache into the local cache, unless
+	 * the key has been written or invalidated since the given write count was
+	 * taken, in which case the value may be stale.
+	 * <p>Writers count their write after modifying the target cache but before
+	 * modifying the local cache: either the concurrent write is detected here,
+	 * or its local modification is applied after the local put below.
+	 * Writers populate the local cache with their own value through this method
+	 * as well, passing the count taken before modifying the target cache plus
+	 * their own write: a concurrent writer may have modified the target cache
+	 * after them but counted its write before them.
+	 */
+	private void populateLocal(Object key, @Nullable Object value, long writeCount) {
+		this.localCache.put(key, value);
+		if (getWriteCount(key) != writeCount) {
+			this.localCache.evict(key);
+		}
+	}
+
+	/**
+	 * Count a write for the given key, or for all keys if {@code null}.
+	 */
+	private void written(@Nullable Object key) {
+		if (key != null) {
+			this.writeCounters.incrementAndGet(getWriteCounterIndex(key));
+		}
+		else {
+			for (int i = 0; i < WRITE_COUNTER_STRIPES; i++) {
+				this.writeCounters.incrementAndGet(i);
+			}
+		}
+	}
+
+	private void invalidated(@Nullable Object key) {
+		if (this.invalidationListener != null) {
+			this.invalidationListener.accept(getName(), key);
+		}
+	}
+
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.near;
+
+import org.springframework.context.ApplicationEvent;
+import org.springframework.lang.Nullable;
+
+/**
+ * Event published by a {@link NearCacheManagerProxy} after a write operation,
+ * signalling that local entries for the given key (or the entire cache) are
+ * stale on all other nodes.
+ *
+ * <p>The event is serializable as long as its key is, so that it can be
+ * relayed to the application contexts of other nodes through a messaging
+ * bridge and republished there. Each {@code NearCacheManagerProxy} ignores
+ * events originating from itself.
+ *
+ * @since 5.3.10
+ * @see NearCacheManagerProxy#setBroadcastInvalidation
+ */
+@SuppressWarnings("serial")
+public class NearCacheInvalidationEvent extends ApplicationEvent {
+
+	private final String origin;
+
+	private final String cacheName;
+
+	@Nullable
+	private final Object key;
+
+
+	/**
+	 * Create a new NearCacheInvalidationEvent.
+	 * @param source the object on which the event initially occurred
+	 * @param origin the identifier of the publishing {@link NearCacheManagerProxy}
+	 * @param cacheName the name of the affected cache
+	 * @param key the affected key, or {@code null} for the entire cache
+	 */
+	public NearCacheInvalidationEvent(Object source, String origin, String cacheName, @Nullable Object key) {
+		super(source);
+		this.origin = origin;
+		this.cacheName = cacheName;
+		this.key = key;
+	}
+
+
+	/**
+	 * Return the identifier of the publishing {@link NearCacheManagerProxy}.
+	 * @see NearCacheManagerProxy#getId()
+	 */
+	public String getOrigin() {
+		return this.origin;
+	}
+
+	/**
+	 * Return the name of the affected cache.
+	 */
+	public String getCacheName() {
+		return this.cacheName;
+	}
+
+	/**
+	 * Return the affected key, or {@code null} if the entire cache is affected.
+	 */
+	@Nullable
+	public Object getKey() {
+		return this.key;
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + ": cache '" + this.cacheName + "', " +
+				(this.key != null ? "key [" + this.key + "]" : "all keys") + ", origin '" + this.origin + "'";
+	}
+
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.near;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.BoundedConcurrentMapCache;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ApplicationEventPublisherAware;
+import org.springframework.context.ApplicationListener;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Proxy for a target {@link CacheManager}, exposing {@link NearCacheDecorator}
+ * objects which serve lookups from a bounded local cache in front of the
+ * target caches. This is primarily useful with remote or serializing cache
+ * providers, avoiding a network hop and deserialization for frequently
+ * accessed entries.
+ *
+ * <p>Local caches are {@link BoundedConcurrentMapCache} instances, limited to
+ * the {@linkplain #setMaximumSize maximum size} and optionally expiring their
+ * entries after a {@linkplain #setTimeToLive time to live}, which bounds the
+ * staleness of entries modified through other nodes.
+ *
+ * <p>Write operations through the decorators update or invalidate the local
+ * cache right away. With {@linkplain #setBroadcastInvalidation broadcast
+ * invalidation}, a {@link NearCacheInvalidationEvent} is published for each
+ * of them as well; such events received from other proxies, e.g. relayed from
+ * other nodes by a messaging bridge, drop the corresponding local entries.
+ *
+ * @since 5.3.10
+ * @see #setTargetCacheManager
+ * @see NearCacheDecorator
+ * @see NearCacheInvalidationEvent
+ */
+public class NearCacheManagerProxy implements CacheManager, ApplicationEventPublisherAware,
+		ApplicationListener<NearCacheInvalidationEvent>, InitializingBean {
+
+	@Nullable
+	private CacheManager targetCacheManager;
+
+	private long maximumSize = 1000;
+
+	@Nullable
+	private Duration timeToLive;
+
+	private boolean broadcastInvalidation = false;
+
+	@Nullable
+	private ApplicationEventPublisher applicationEventPublisher;
+
+	private final String id = UUID.randomUUID().toString();
+
+	private final ConcurrentMap<String, NearCacheDecorator> cacheMap = new ConcurrentHashMap<>(16);
+
+
+	/**
+	 * Create a new NearCacheManagerProxy, setting the target CacheManager
+	 * through the {@link #setTargetCacheManager} bean property.
+	 */
+	public NearCacheManagerProxy() {
+	}
+
+	/**
+	 * Create a new NearCacheManagerProxy for the given target CacheManager.
+	 * @param targetCacheManager the target CacheManager to proxy
+	 */
+	public NearCacheManagerProxy(CacheManager targetCacheManager) {
+		Assert.notNull(targetCacheManager, "Target CacheManager must not be null");
+		this.targetCacheManager = targetCacheManager;
+	}
+
+
+	/**
+	 * Set the target CacheManager to proxy.
+	 */
+	public void setTargetCacheManager(CacheManager targetCacheManager) {
+		this.targetCacheManager = targetCacheManager;
+	}
+
+	/**
+	 * Set the maximum number of entries in each local cache.
+	 * <p>Default is 1000.
+	 */
+	public void setMaximumSize(long maximumSize) {
+		Assert.isTrue(maximumSize > 0, "Maximum size must be greater than 0");
+		this.maximumSize = maximumSize;
+	}
+
+	/**
+	 * Return the maximum number of entries in each local cache.
+	 */
+	public long getMaximumSize() {
+		return this.maximumSize;
+	}
+
+	/**
+	 * Set the time to live for entries in the local caches,
+	 * or {@code null} for entries to be held until evicted.
+	 * <p>Default is none.
+	 */
+	public void setTimeToLive(@Nullable Duration timeToLive) {
+		this.timeToLive = timeToLive;
+	}
+
+	/**
+	 * Return the time to live for entries in the local caches, if any.
+	 */
+	@Nullable
+	public Duration getTimeToLive() {
+		return this.timeToLive;
+	}
+
+	/**
+	 * Specify whether to publish a {@link NearCacheInvalidationEvent} for each
+	 * write operation performed through the exposed caches.
+	 * <p>Default is "false". Note that received events are always processed.
+	 */
+	public void setBroadcastInvalidation(boolean broadcastInvalidation) {
+		this.broadcastInvalidation = broadcastInvalidation;
+	}
+
+	/**
+	 * Return whether invalidation events are published for write operations.
+	 */
+	public boolean isBroadcastInvalidation() {
+		return this.broadcastInvalidation;
+	}
+
+	@Override
+	public void setApplicationEventPublisher(ApplicationEventPublisher applicationEventPublisher) {
+		this.applicationEventPublisher = applicationEventPublisher;
+	}
+
+	/**
+	 * Return the identifier of this proxy, exposed as the
+	 * {@linkplain NearCacheInvalidationEvent#getOrigin() origin}
+	 * of the invalidation events published by it.
+	 */
+	public String getId() {
+		return this.id;
+	}
+
+	@Override
+	public void afterPropertiesSet() {
+		if (this.targetCacheManager == null) {
+			throw new IllegalArgumentException("Property 'targetCacheManager' is required");
+		}
+		if (this.broadcastInvalidation && this.applicationEventPublisher == null) {
+			throw new IllegalArgumentException(
+					"Property 'applicationEventPublisher' is required for broadcast invalidation");
+		}
+	}
+
+
+	@Override
+	@Nullable
+	public Cache getCache(String name) {
+		NearCacheDecorator cache = this.cacheMap.get(name);
+		if (cache == null) {
+			Assert.state(this.targetCacheManager != null, "No target CacheManager set");
+			Cache targetCache = this.targetCacheManager.getCache(name);
+			if (targetCache == null) {
+				return null;
+			}
+			NearCacheDecorator newCache = new NearCacheDecorator(targetCache, createLocalCache(name),
+					(this.broadcastInvalidation ? this::publishInvalidation : null));
+			cache = this.cacheMap.putIfAbsent(name, newCache);
+			if (cache == null) {
+				cache = newCache;
+			}
+		}
+		return cache;
+	}
+
+	@Override
+	public Collection<String> getCacheNames() {
+		Assert.state(this.targetCacheManager != null, "No target CacheManager set");
+		return this.targetCacheManager.getCacheNames();
+	}
+
+	/**
+	 * Create the local cache for the given name.
+	 * <p>The default implementation creates a {@link BoundedConcurrentMapCache}
+	 * according to the configured maximum size and time to live.
+	 * @param name the name of the cache
+	 * @return the local cache
+	 */
+	protected Cache createLocalCache(String name) {
+		return new BoundedConcurrentMapCache(name, this.maximumSize, null, this.timeToLive, true);
+	}
+
+	/**
+	 * Drop the local entries affected by an invalidation event received
+	 * from another proxy, typically on a different node.
+	 */
+	@Override
+	public void onApplicationEvent(NearCacheInvalidationEvent event) {
+		if (!this.id.equals(event.getOrigin())) {
+			NearCacheDecorator cache = this.cacheMap.get(event.getCacheName());
+			if (cache != null) {
+				cache.invalidateLocal(event.getKey());
+			}
+		}
+	}
+
+	private void publishInvalidation(String cacheName, @Nullable Object key) {
+		Assert.state(this.applicationEventPublisher != null, "No ApplicationEventPublisher set");
+		this.applicationEventPublisher.publishEvent(new NearCacheInvalidationEvent(this, this.id, cacheName, key));
+	}
+
+}
@@ -0,0 +1,11 @@
+/**
+ * Near cache decorators for the org.springframework.cache package.
+ * Provides a bounded local cache layer on top of a remote-capable cache,
+ * with optional invalidation broadcast through application events.
+ */
+@NonNullApi
+@NonNullFields
+package org.springframework.cache.near;
+
+import org.springframework.lang.NonNullApi;
+import org.springframework.lang.NonNullFields;
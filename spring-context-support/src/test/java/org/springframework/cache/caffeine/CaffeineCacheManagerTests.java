@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -64,6 +64,29 @@ public class CaffeineCacheManagerTests {
 		assertThat(cache1.get("key3")).isNull();
 	}
 
+	@Test
+	public void testAsyncCacheMode() {
+		CaffeineCacheManager cm = new CaffeineCacheManager("c1");
+		CaffeineCache cache1 = (CaffeineCache) cm.getCache("c1");
+		assertThat(cache1.getAsyncCache()).isNull();
+
+		cm.setAsyncCacheMode(true);
+		assertThat(cm.isAsyncCacheMode()).isTrue();
+		CaffeineCache cache1x = (CaffeineCache) cm.getCache("c1");
+		assertThat(cache1x).isNotSameAs(cache1);
+		assertThat(cache1x.getAsyncCache()).isNotNull();
+		CaffeineCache cache2 = (CaffeineCache) cm.getCache("c2");
+		assertThat(cache2).isNull();
+
+		cache1x.put("key1", "value1");
+		assertThat(cache1x.get("key1").get()).isEqualTo("value1");
+		assertThat(cache1x.retrieve("key1").join().get()).isEqualTo("value1");
+
+		cm.registerCustomCache("c3", Caffeine.newBuilder().buildAsync());
+		CaffeineCache cache3 = (CaffeineCache) cm.getCache("c3");
+		assertThat(cache3.getAsyncCache()).isNotNull();
+	}
+
 	@Test
 	public void testStaticMode() {
 		CaffeineCacheManager cm = new CaffeineCacheManager("c1", "c2");
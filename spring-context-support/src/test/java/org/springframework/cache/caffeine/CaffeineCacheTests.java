@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,10 @@
 
 package org.springframework.cache.caffeine;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -111,4 +115,70 @@ class CaffeineCacheTests extends AbstractValueAdaptingCacheTests<CaffeineCache>
 		assertThat(cache.get(key).get()).isEqualTo(value);
 	}
 
+	@Test
+	void testRetrieve() {
+		CaffeineCache cache = getCache();
+		assertThat(cache.retrieve("key").join()).isNull();
+
+		cache.put("key", "value");
+		assertThat(cache.retrieve("key").join().get()).isEqualTo("value");
+		assertThat(cache.retrieve("key", () -> CompletableFuture.completedFuture("other")).join()).isEqualTo("value");
+		assertThat(cache.retrieve("key2", () -> CompletableFuture.completedFuture("value2")).join()).isEqualTo("value2");
+		assertThat(cache.get("key2").get()).isEqualTo("value2");
+	}
+
+	@Test
+	void testAsyncCacheRetrieve() {
+		AsyncCache<Object, Object> nativeCache = Caffeine.newBuilder().buildAsync();
+		CaffeineCache cache = new CaffeineCache(CACHE_NAME, nativeCache, true);
+		assertThat(cache.getAsyncCache()).isSameAs(nativeCache);
+		assertThat(cache.retrieve("key").join()).isNull();
+
+		cache.put("key", "value");
+		assertThat(cache.retrieve("key").join().get()).isEqualTo("value");
+		assertThat(cache.get("key").get()).isEqualTo("value");
+
+		cache.put("nullKey", null);
+		assertThat(cache.retrieve("nullKey").join().get()).isNull();
+
+		cache.evict("key");
+		assertThat(cache.retrieve("key").join()).isNull();
+	}
+
+	@Test
+	void testAsyncCacheRetrieveWithLoaderCoalescesConcurrentLoads() {
+		CaffeineCache cache = new CaffeineCache(CACHE_NAME, Caffeine.newBuilder().buildAsync(), true);
+		AtomicInteger counter = new AtomicInteger();
+		CompletableFuture<String> pending = new CompletableFuture<>();
+
+		CompletableFuture<String> first = cache.retrieve("key", () -> {
+			counter.incrementAndGet();
+			return pending;
+		});
+		CompletableFuture<String> second = cache.retrieve("key", () -> {
+			counter.incrementAndGet();
+			return CompletableFuture.completedFuture("other");
+		});
+		assertThat(cache.retrieve("key")).isNotDone();
+		assertThat(first).isNotDone();
+		assertThat(second).isNotDone();
+
+		pending.complete("value");
+		assertThat(first.join()).isEqualTo("value");
+		assertThat(second.join()).isEqualTo("value");
+		assertThat(counter.get()).isEqualTo(1);
+		assertThat(cache.get("key").get()).isEqualTo("value");
+	}
+
+	@Test
+	void testAsyncCacheRetrieveWithLoaderNullValue() {
+		CaffeineCache cache = new CaffeineCache(CACHE_NAME, Caffeine.newBuilder().buildAsync(), true);
+		assertThat(cache.retrieve("key", () -> CompletableFuture.completedFuture(null)).join()).isNull();
+		assertThat(cache.get("key")).isNotNull();
+
+		CaffeineCache cacheNoNull = new CaffeineCache(CACHE_NAME_NO_NULL, Caffeine.newBuilder().buildAsync(), false);
+		assertThat(cacheNoNull.retrieve("key", () -> CompletableFuture.completedFuture(null)).join()).isNull();
+		assertThat(cacheNoNull.get("key")).isNull();
+	}
+
 }
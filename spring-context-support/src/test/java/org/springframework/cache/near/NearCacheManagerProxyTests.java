@@ -0,0 +1,339 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.near;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.BoundedConcurrentMapCache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.lang.Nullable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Tests for {@link NearCacheManagerProxy} and {@link NearCacheDecorator},
+ * using a {@link ConcurrentMapCacheManager} as stand-in for a remote provider.
+ *
+ * @since 5.3.10
+ */
+class NearCacheManagerProxyTests {
+
+	private final ConcurrentMapCacheManager targetCacheManager = new ConcurrentMapCacheManager("testCache");
+
+	private final List<Object> events = new ArrayList<>();
+
+	private NearCacheManagerProxy cacheManager;
+
+
+	@BeforeEach
+	void setup() {
+		this.cacheManager = new NearCacheManagerProxy(this.targetCacheManager);
+		this.cacheManager.setApplicationEventPublisher(this.events::add);
+		this.cacheManager.afterPropertiesSet();
+	}
+
+
+	@Test
+	void getCache() {
+		Cache cache = this.cacheManager.getCache("testCache");
+		assertThat(cache).isInstanceOf(NearCacheDecorator.class);
+		assertThat(this.cacheManager.getCache("testCache")).isSameAs(cache);
+		assertThat(cache.getName()).isEqualTo("testCache");
+		assertThat(cache.getNativeCache()).isSameAs(targetCache().getNativeCache());
+		assertThat(this.cacheManager.getCache("unknown")).isNull();
+		assertThat(this.cacheManager.getCacheNames()).containsExactly("testCache");
+	}
+
+	@Test
+	void lookupServedFromLocalCache() {
+		targetCache().put("key", "value");
+		Cache cache = this.cacheManager.getCache("testCache");
+		assertThat(cache.get("key").get()).isEqualTo("value");
+
+		// Modified behind the back of the near cache: stale local entry
+		targetCache().put("key", "other");
+		assertThat(cache.get("key", String.class)).isEqualTo("value");
+		assertThat(cache.get("missing")).isNull();
+		assertThat(localCache(cache).get("missing")).isNull();
+	}
+
+	@Test
+	void nullValueServedFromLocalCache() {
+		targetCache().put("key", null);
+		Cache cache = this.cacheManager.getCache("testCache");
+		assertThat(cache.get("key").get()).isNull();
+		assertThat(localCache(cache).get("key")).isNotNull();
+		assertThat(cache.get("key", () -> "loaded")).isNull();
+	}
+
+	@Test
+	void getWithValueLoader() {
+		Cache cache = this.cacheManager.getCache("testCache");
+		assertThat(cache.get("key", () -> "loaded")).isEqualTo("loaded");
+		assertThat(targetCache().get("key").get()).isEqualTo("loaded");
+		assertThat(localCache(cache).get("key").get()).isEqualTo("loaded");
+		assertThat(cache.get("key", () -> "other")).isEqualTo("loaded");
+	}
+
+	@Test
+	void getWithWrongType() {
+		Cache cache = this.cacheManager.getCache("testCache");
+		cache.put("key", "value");
+		assertThatIllegalStateException().isThrownBy(() -> cache.get("key", Integer.class));
+	}
+
+	@Test
+	void writeThroughToBothCaches() {
+		Cache cache = this.cacheManager.getCache("testCache");
+		cache.put("key", "value");
+		assertThat(targetCache().get("key").get()).isEqualTo("value");
+		assertThat(localCache(cache).get("key").get()).isEqualTo("value");
+
+		assertThat(cache.putIfAbsent("key", "other").get()).isEqualTo("value");
+		assertThat(cache.putIfAbsent("key2", "value2")).isNull();
+		assertThat(localCache(cache).get("key2").get()).isEqualTo("value2");
+		assertThat(this.events).isEmpty();
+	}
+
+	@Test
+	void evictAndClearThroughBothCaches() {
+		Cache cache = this.cacheManager.getCache("testCache");
+		cache.put("key", "value");
+		cache.put("key2", "value2");
+
+		cache.evict("key");
+		assertThat(targetCache().get("key")).isNull();
+		assertThat(localCache(cache).get("key")).isNull();
+		assertThat(cache.evictIfPresent("key2")).isTrue();
+		assertThat(localCache(cache).get("key2")).isNull();
+
+		cache.put("key", "value");
+		cache.clear();
+		assertThat(targetCache().get("key")).isNull();
+		assertThat(localCache(cache).get("key")).isNull();
+		cache.put("key", "value");
+		assertThat(cache.invalidate()).isTrue();
+		assertThat(localCache(cache).get("key")).isNull();
+	}
+
+	@Test
+	void localEntriesExpire() throws InterruptedException {
+		this.cacheManager = new NearCacheManagerProxy(this.targetCacheManager);
+		this.cacheManager.setTimeToLive(Duration.ofMillis(20));
+		Cache cache = this.cacheManager.getCache("testCache");
+		cache.put("key", "value");
+		targetCache().put("key", "other");
+		assertThat(cache.get("key").get()).isEqualTo("value");
+
+		Thread.sleep(50);
+		assertThat(cache.get("key").get()).isEqualTo("other");
+	}
+
+	@Test
+	void localCacheBounded() {
+		this.cacheManager = new NearCacheManagerProxy(this.targetCacheManager);
+		this.cacheManager.setMaximumSize(2);
+		Cache cache = this.cacheManager.getCache("testCache");
+		for (int i = 0; i < 10; i++) {
+			cache.put(i, i);
+		}
+		BoundedConcurrentMapCache localCache = (BoundedConcurrentMapCache) localCache(cache);
+		localCache.cleanUp();
+		assertThat(localCache.estimatedSize()).isEqualTo(2);
+		assertThat(cache.get(0).get()).isEqualTo(0);
+	}
+
+	@Test
+	void broadcastInvalidation() {
+		this.cacheManager.setBroadcastInvalidation(true);
+		Cache cache = this.cacheManager.getCache("testCache");
+		cache.put("key", "value");
+		cache.evict("key");
+		cache.clear();
+
+		assertThat(this.events).hasSize(3);
+		NearCacheInvalidationEvent event = (NearCacheInvalidationEvent) this.events.get(1);
+		assertThat(event.getSource()).isSameAs(this.cacheManager);
+		assertThat(event.getOrigin()).isEqualTo(this.cacheManager.getId());
+		assertThat(event.getCacheName()).isEqualTo("testCache");
+		assertThat(event.getKey()).isEqualTo("key");
+		assertThat(((NearCacheInvalidationEvent) this.events.get(2)).getKey()).isNull();
+	}
+
+	@Test
+	void broadcastInvalidationRequiresPublisher() {
+		NearCacheManagerProxy cacheManager = new NearCacheManagerProxy(this.targetCacheManager);
+		cacheManager.setBroadcastInvalidation(true);
+		assertThatIllegalArgumentException().isThrownBy(cacheManager::afterPropertiesSet);
+	}
+
+	@Test
+	void receivedInvalidationDropsLocalEntries() {
+		NearCacheManagerProxy otherCacheManager = new NearCacheManagerProxy(this.targetCacheManager);
+		Cache cache = this.cacheManager.getCache("testCache");
+		cache.put("key", "value");
+		cache.put("key2", "value2");
+		targetCache().put("key", "other");
+
+		// Own events are ignored
+		this.cacheManager.onApplicationEvent(
+				new NearCacheInvalidationEvent(this.cacheManager, this.cacheManager.getId(), "testCache", "key"));
+		assertThat(cache.get("key").get()).isEqualTo("value");
+
+		this.cacheManager.onApplicationEvent(
+				new NearCacheInvalidationEvent(otherCacheManager, otherCacheManager.getId(), "testCache", "key"));
+		assertThat(cache.get("key").get()).isEqualTo("other");
+		assertThat(localCache(cache).get("key2").get()).isEqualTo("value2");
+
+		this.cacheManager.onApplicationEvent(
+				new NearCacheInvalidationEvent(otherCacheManager, otherCacheManager.getId(), "testCache", null));
+		assertThat(localCache(cache).get("key2")).isNull();
+		assertThat(targetCache().get("key2").get()).isEqualTo("value2");
+	}
+
+	@Test
+	void writeDuringLookupDropsStaleLocalValue() throws Exception {
+		Function<Cache, Object> get = cache -> cache.get("key").get();
+		assertNoStaleLocalValue(get, cache -> cache.put("key", "other"), "other");
+		assertNoStaleLocalValue(get, cache -> cache.evict("key"), null);
+		assertNoStaleLocalValue(get, Cache::clear, null);
+		assertNoStaleLocalValue(get, cache -> {
+			cache.getTargetCache().put("key", "other");
+			cache.invalidateLocal("key");
+		}, "other");
+
+		Function<Cache, Object> getWithValueLoader = cache -> cache.get("key", () -> "loaded");
+		assertNoStaleLocalValue(getWithValueLoader, cache -> cache.put("key", "other"), "other");
+		assertNoStaleLocalValue(getWithValueLoader, cache -> cache.evictIfPresent("key"), "loaded");
+	}
+
+	/**
+	 * Perform the given lookup against a near cache whose target cache holds
+	 * {@code "value"}, and the given write while the lookup is paused right
+	 * after reading from the target cache. Then assert that the near cache
+	 * serves the given value rather than the one read by the paused lookup.
+	 */
+	@Test
+	void concurrentPutsDoNotLeaveStaleLocalValue() throws Exception {
+		CountDownLatch firstWritten = new CountDownLatch(1);
+		CountDownLatch secondWritten = new CountDownLatch(1);
+		AtomicBoolean paused = new AtomicBoolean();
+		Cache targetCache = new ConcurrentMapCache("testCache") {
+			@Override
+			public void put(Object key, @Nullable Object value) {
+				super.put(key, value);
+				if (paused.compareAndSet(false, true)) {
+					firstWritten.countDown();
+					try {
+						secondWritten.await(5, TimeUnit.SECONDS);
+					}
+					catch (InterruptedException ex) {
+						throw new IllegalStateException(ex);
+					}
+				}
+			}
+		};
+		NearCacheDecorator cache = new NearCacheDecorator(targetCache, new ConcurrentMapCache("testCache"));
+
+		CompletableFuture<Void> first = CompletableFuture.runAsync(() -> cache.put("key", "first"));
+		assertThat(firstWritten.await(5, TimeUnit.SECONDS)).isTrue();
+		cache.put("key", "second");
+		secondWritten.countDown();
+		first.get(5, TimeUnit.SECONDS);
+
+		assertThat(targetCache.get("key").get()).isEqualTo("second");
+		assertThat(cache.get("key").get()).isEqualTo("second");
+	}
+
+	private void assertNoStaleLocalValue(Function<Cache, Object> lookup, Consumer<NearCacheDecorator> write,
+			@Nullable Object expected) throws Exception {
+
+		CountDownLatch lookedUp = new CountDownLatch(1);
+		CountDownLatch written = new CountDownLatch(1);
+		AtomicBoolean paused = new AtomicBoolean();
+		Cache targetCache = new ConcurrentMapCache("testCache") {
+			@Override
+			@Nullable
+			protected Object lookup(Object key) {
+				Object value = super.lookup(key);
+				pause();
+				return value;
+			}
+
+			@Override
+			@Nullable
+			public <T> T get(Object key, Callable<T> valueLoader) {
+				T value = super.get(key, valueLoader);
+				pause();
+				return value;
+			}
+
+			private void pause() {
+				if (paused.compareAndSet(false, true)) {
+					lookedUp.countDown();
+					try {
+						written.await(5, TimeUnit.SECONDS);
+					}
+					catch (InterruptedException ex) {
+						throw new IllegalStateException(ex);
+					}
+				}
+			}
+		};
+		targetCache.put("key", "value");
+		NearCacheDecorator cache = new NearCacheDecorator(targetCache, new ConcurrentMapCache("testCache"));
+
+		CompletableFuture<Object> result = CompletableFuture.supplyAsync(() -> lookup.apply(cache));
+		assertThat(lookedUp.await(5, TimeUnit.SECONDS)).isTrue();
+		write.accept(cache);
+		written.countDown();
+		assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+
+		if (expected != null) {
+			assertThat(lookup.apply(cache)).isEqualTo(expected);
+		}
+		else {
+			assertThat(cache.getLocalCache().get("key")).isNull();
+			assertThat(cache.get("key")).isNull();
+		}
+	}
+
+	private Cache targetCache() {
+		return this.targetCacheManager.getCache("testCache");
+	}
+
+	private Cache localCache(Cache cache) {
+		return ((NearCacheDecorator) cache).getLocalCache();
+	}
+
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.concurrent;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.infra.Blackhole;
+
+import org.springframework.cache.Cache;
+
+/**
+ * Benchmarks comparing the unbounded {@link ConcurrentMapCache} against the
+ * {@link BoundedConcurrentMapCache} under read-heavy and write-heavy mixes.
+ *
+ * @since 5.3.10
+ */
+@BenchmarkMode(Mode.Throughput)
+@Threads(4)
+public class ConcurrentMapCacheBenchmark {
+
+	@Benchmark
+	public void readHeavy(BenchmarkState state, Blackhole bh) {
+		access(state, 90, bh);
+	}
+
+	@Benchmark
+	public void writeHeavy(BenchmarkState state, Blackhole bh) {
+		access(state, 25, bh);
+	}
+
+	private void access(BenchmarkState state, int readPercentage, Blackhole bh) {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		Integer key = state.keys[random.nextInt(state.keys.length)];
+		if (random.nextInt(100) < readPercentage) {
+			bh.consume(state.cache.get(key));
+		}
+		else {
+			state.cache.put(key, key);
+		}
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkState {
+
+		@Param({"unbounded", "bounded", "bounded-ttl"})
+		public String cacheType;
+
+		@Param({"10000"})
+		public int maximumSize;
+
+		Cache cache;
+
+		Integer[] keys;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			switch (this.cacheType) {
+				case "bounded":
+					this.cache = new BoundedConcurrentMapCache("benchmark", this.maximumSize);
+					break;
+				case "bounded-ttl":
+					this.cache = new BoundedConcurrentMapCache("benchmark", this.maximumSize,
+							null, Duration.ofMinutes(10), true);
+					break;
+				default:
+					this.cache = new ConcurrentMapCache("benchmark");
+			}
+			// Twice as many keys as the size limit, for a hit ratio of about 50% when bounded
+			this.keys = new Integer[this.maximumSize * 2];
+			for (int i = 0; i < this.keys.length; i++) {
+				this.keys[i] = i;
+				if (i < this.maximumSize) {
+					this.cache.put(this.keys[i], this.keys[i]);
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.concurrent;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import org.springframework.core.task.AsyncTaskExecutor;
+
+/**
+ * Benchmark for running a batch of concurrent blocking tasks on a thread pool
+ * versus the {@link VirtualThreadTaskExecutor}. Run on a JVM with virtual thread
+ * support for the latter, falling back to a platform thread per task otherwise.
+ *
+ * @since 5.3.10
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BlockingTaskExecutorBenchmark {
+
+	@Benchmark
+	public void blockingTasks(BenchmarkState state) throws InterruptedException {
+		CountDownLatch latch = new CountDownLatch(state.tasks);
+		for (int i = 0; i < state.tasks; i++) {
+			state.executor.execute(() -> {
+				try {
+					Thread.sleep(state.blockMillis);
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+				latch.countDown();
+			});
+		}
+		latch.await();
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkState {
+
+		@Param({"threadPool", "virtualThread"})
+		public String executorType;
+
+		@Param({"10000"})
+		public int tasks;
+
+		@Param({"10"})
+		public int blockMillis;
+
+		@Param({"200"})
+		public int poolSize;
+
+		AsyncTaskExecutor executor;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			if ("virtualThread".equals(this.executorType)) {
+				this.executor = new VirtualThreadTaskExecutor();
+			}
+			else {
+				ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+				executor.setCorePoolSize(this.poolSize);
+				executor.setMaxPoolSize(this.poolSize);
+				executor.initialize();
+				this.executor = executor;
+			}
+		}
+
+		@TearDown(Level.Trial)
+		public void shutdown() {
+			if (this.executor instanceof ThreadPoolTaskExecutor) {
+				((ThreadPoolTaskExecutor) this.executor).shutdown();
+			}
+		}
+	}
+
+}
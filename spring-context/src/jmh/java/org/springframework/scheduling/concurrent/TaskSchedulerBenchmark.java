@@ -0,0 +1,94 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.concurrent;
+
+import java.util.Date;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import org.springframework.scheduling.TaskScheduler;
+
+/**
+ * Benchmark for scheduling and cancelling timeouts that never fire on the
+ * {@link ThreadPoolTaskScheduler} versus the {@link TimerWheelTaskScheduler},
+ * with a backlog of already scheduled timeouts.
+ *
+ * @since 5.3.10
+ */
+@BenchmarkMode(Mode.Throughput)
+@Threads(4)
+public class TaskSchedulerBenchmark {
+
+	private static final Runnable NO_OP = () -> {};
+
+
+	@Benchmark
+	public boolean scheduleAndCancel(BenchmarkState state) {
+		long delay = 60_000 + ThreadLocalRandom.current().nextInt(60_000);
+		ScheduledFuture<?> future = state.scheduler.schedule(NO_OP, new Date(System.currentTimeMillis() + delay));
+		return future.cancel(false);
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkState {
+
+		@Param({"threadPool", "timerWheel"})
+		public String schedulerType;
+
+		@Param({"200000"})
+		public int backlog;
+
+		TaskScheduler scheduler;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			if ("timerWheel".equals(this.schedulerType)) {
+				TimerWheelTaskScheduler scheduler = new TimerWheelTaskScheduler();
+				scheduler.afterPropertiesSet();
+				this.scheduler = scheduler;
+			}
+			else {
+				ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+				scheduler.setRemoveOnCancelPolicy(true);
+				scheduler.afterPropertiesSet();
+				this.scheduler = scheduler;
+			}
+			long now = System.currentTimeMillis();
+			for (int i = 0; i < this.backlog; i++) {
+				this.scheduler.schedule(NO_OP, new Date(now + 600_000 + i));
+			}
+		}
+
+		@TearDown(Level.Trial)
+		public void shutdown() {
+			((ExecutorConfigurationSupport) this.scheduler).shutdown();
+		}
+	}
+
+}
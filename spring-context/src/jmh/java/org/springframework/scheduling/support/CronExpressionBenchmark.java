@@ -0,0 +1,74 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.support;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks for {@link CronExpression#next} with common and sparse
+ * expressions, the latter including a Quartz-style expression that is
+ * evaluated field by field rather than in compiled form.
+ *
+ * @since 5.3.10
+ */
+@BenchmarkMode(Mode.Throughput)
+public class CronExpressionBenchmark {
+
+	@Benchmark
+	public LocalDateTime nextLocalDateTime(BenchmarkState state) {
+		return state.expression.next(state.localDateTime);
+	}
+
+	@Benchmark
+	public ZonedDateTime nextZonedDateTime(BenchmarkState state) {
+		return state.expression.next(state.zonedDateTime);
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkState {
+
+		@Param({"*/10 * * * * *", "0 0 * * * *", "0 */15 9-17 * * MON-FRI", "0 0 0 1 * *",
+				"0 0 0 29 2 *", "0 0 0 13 * FRI", "0 0 0 L * *"})
+		public String cron;
+
+		CronExpression expression;
+
+		LocalDateTime localDateTime;
+
+		ZonedDateTime zonedDateTime;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.expression = CronExpression.parse(this.cron);
+			this.localDateTime = LocalDateTime.of(2021, 4, 15, 10, 23, 45);
+			this.zonedDateTime = ZonedDateTime.of(this.localDateTime, ZoneId.of("Europe/Amsterdam"));
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,9 +16,14 @@
 
 package org.springframework.cache;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 import org.springframework.lang.Nullable;
+import org.springframework.util.CollectionUtils;
 
 /**
  * Interface that defines common cache operations.
@@ -100,6 +105,80 @@ public interface Cache {
 	@Nullable
 	<T> T get(Object key, Callable<T> valueLoader);
 
+	/**
+	 * Return the value to which this cache maps the specified key, wrapped
+	 * in a {@link CompletableFuture}. This operation must not block but is
+	 * allowed to return a completed {@link CompletableFuture} if the
+	 * corresponding value is immediately available.
+	 * <p>The default implementation delegates to {@link #get(Object)},
+	 * returning a completed future. Cache providers with native support for
+	 * asynchronous retrieval are encouraged to override this method.
+	 * @param key the key whose associated value is to be returned
+	 * @return a future completed with the value wrapper for the key (which
+	 * may also hold a cached {@code null} value), or completed with
+	 * {@code null} if the cache contains no mapping for this key
+	 * @since 5.3.10
+	 * @see #retrieve(Object, Supplier)
+	 */
+	default CompletableFuture<ValueWrapper> retrieve(Object key) {
+		return CompletableFuture.completedFuture(get(key));
+	}
+
+	/**
+	 * Return the value to which this cache maps the specified key, obtaining
+	 * that value from {@code valueLoader} if necessary. This is the asynchronous
+	 * counterpart of {@link #get(Object, Callable)}, for use with value loaders
+	 * that produce their value in a non-blocking fashion.
+	 * <p>If possible, implementations should ensure that the loading operation
+	 * is coalesced so that the specified {@code valueLoader} is only called
+	 * once in case of concurrent access on the same key, with all callers
+	 * sharing the outcome of the same future.
+	 * <p>The default implementation delegates to {@link #get(Object)} and
+	 * {@link #put(Object, Object)}, storing the value once the future returned
+	 * by the {@code valueLoader} has completed successfully.
+	 * @param key the key whose associated value is to be returned
+	 * @param valueLoader the supplier of a future for the value to be cached
+	 * @return a future for the value to which this cache maps the specified key
+	 * @since 5.3.10
+	 * @see #get(Object, Callable)
+	 */
+	@SuppressWarnings("unchecked")
+	default <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+		ValueWrapper existingValue = get(key);
+		if (existingValue != null) {
+			return CompletableFuture.completedFuture((T) existingValue.get());
+		}
+		return valueLoader.get().thenApply(value -> {
+			put(key, value);
+			return value;
+		});
+	}
+
+	/**
+	 * Return the values to which this cache maps the specified keys.
+	 * <p>Keys that this cache contains no mapping for are not included in the
+	 * returned map, whereas cached {@code null} values are included through a
+	 * {@link ValueWrapper} holding {@code null}.
+	 * <p>The default implementation delegates to {@link #get(Object)} for each
+	 * key. Cache providers with native support for bulk retrieval are
+	 * encouraged to override this method.
+	 * @param keys the keys whose associated values are to be returned
+	 * @return a map from each cached key to its value wrapper,
+	 * in the iteration order of the given keys
+	 * @since 5.3.10
+	 * @see #putAll(Map)
+	 */
+	default Map<Object, ValueWrapper> getAll(Collection<?> keys) {
+		Map<Object, ValueWrapper> result = CollectionUtils.newLinkedHashMap(keys.size());
+		for (Object key : keys) {
+			ValueWrapper wrapper = get(key);
+			if (wrapper != null) {
+				result.put(key, wrapper);
+			}
+		}
+		return result;
+	}
+
 	/**
 	 * Associate the specified value with the specified key in this cache.
 	 * <p>If the cache previously contained a mapping for this key, the old
@@ -114,6 +193,20 @@ public interface Cache {
 	 */
 	void put(Object key, @Nullable Object value);
 
+	/**
+	 * Associate the specified values with their keys in this cache.
+	 * <p>The same deferral semantics as for {@link #put(Object, Object)} apply.
+	 * <p>The default implementation delegates to {@link #put(Object, Object)}
+	 * for each entry. Cache providers with native support for bulk storage
+	 * are encouraged to override this method.
+	 * @param entries the keys and values to be associated
+	 * @since 5.3.10
+	 * @see #getAll(Collection)
+	 */
+	default void putAll(Map<?, ?> entries) {
+		entries.forEach(this::put);
+	}
+
 	/**
 	 * Atomically associate the specified value with the specified key in this cache
 	 * if it is not set already.
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -179,4 +179,36 @@ public @interface Cacheable {
 	 */
 	boolean sync() default false;
 
+	/**
+	 * Cache the entries of a {@link java.util.Map} returned for a collection of
+	 * keys individually, rather than the entire map under a single key.
+	 * <p>In bulk mode, the {@link #key() key} of the operation must evaluate to
+	 * a {@link java.util.Collection}, typically the collection-typed argument of
+	 * a method such as {@code Map<Long, Product> findByIds(Collection<Long> ids)}.
+	 * Each element of that collection is used as the cache key for the
+	 * corresponding entry of the returned map, matching the keys of single-valued
+	 * methods such as {@code Product findById(Long id)} on the same cache.
+	 * <p>Cached entries are retrieved in bulk through
+	 * {@link org.springframework.cache.Cache#getAll}, and the underlying method is
+	 * only invoked for the keys not found in any of the caches: if the key
+	 * collection is a method argument, it is replaced with a collection of the
+	 * missing keys for the invocation. The returned entries are stored through
+	 * {@link org.springframework.cache.Cache#putAll}, subject to {@link #unless()}
+	 * with {@code #result} referring to each individual value, and merged with
+	 * the cached entries into a map in the iteration order of the key collection.
+	 * <p>Bulk mode comes with the following limitations:
+	 * <ol>
+	 * <li>The method must declare a {@code Map} return type</li>
+	 * <li>Only one bulk operation may be specified and no other cache-related
+	 * operation can be combined</li>
+	 * <li>{@link #sync()} is not supported</li>
+	 * <li>The key collection is only replaced in proxy mode; with AspectJ weaving,
+	 * the method is invoked with all keys as soon as one of them is missing</li>
+	 * </ol>
+	 * @since 5.3.10
+	 * @see org.springframework.cache.Cache#getAll
+	 * @see org.springframework.cache.Cache#putAll
+	 */
+	boolean bulk() default false;
+
 }
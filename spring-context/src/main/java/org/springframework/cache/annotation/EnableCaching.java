@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -204,4 +204,14 @@ public @interface EnableCaching {
 	 */
 	int order() default Ordered.LOWEST_PRECEDENCE;
 
+	/**
+	 * Indicate whether concurrent cache misses for the same cache keys should be
+	 * coalesced into a single invocation of the underlying method, with all other
+	 * invocations waiting for its result.
+	 * <p>The default is {@code false}.
+	 * @since 5.3.10
+	 * @see org.springframework.cache.interceptor.CacheAspectSupport#setCoalesceMisses
+	 */
+	boolean coalesceMisses() default false;
+
 }
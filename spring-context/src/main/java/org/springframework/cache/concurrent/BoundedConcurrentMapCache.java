@@ -0,0 +1,1061 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.concurrent;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Queue;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.core.serializer.support.SerializationDelegate;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.CollectionUtils;
+
+/**
+ * {@link org.springframework.cache.Cache} implementation based on a
+ * {@link ConcurrentHashMap}, bounded by a maximum size (or weight) with
+ * segmented least-recently-used eviction and optional expiration.
+ *
+ * <p>New entries are admitted to a probation segment and promoted to a
+ * protected segment, holding up to 80% of the maximum weight, once they are
+ * read again. Eviction picks the least recently used entry in probation
+ * first, so that a one-time scan over many keys does not flush entries which
+ * are read repeatedly; protected entries are demoted back to probation when
+ * the protected segment overflows.
+ *
+ * <p>Lookups never block: accesses are recorded in a lossy ring buffer and
+ * writes are queued, with the eviction order being maintained in batches by
+ * whichever thread manages to acquire the eviction lock. As a consequence,
+ * the cache may temporarily exceed its maximum size under heavy concurrent
+ * writes, and access order is approximate under heavy concurrent reads.
+ *
+ * <p>Entries expire after either a fixed time-to-live or a time-to-live
+ * determined per entry by an {@link Expiry}. Expired entries are never
+ * returned; they are removed on access or reclaimed in expiration order
+ * during the next maintenance cycle, which happens as part of regular cache
+ * operations or explicitly via {@link #cleanUp()}. A fixed time-to-live is
+ * tracked in constant time per write, whereas an {@code Expiry} requires a
+ * sorted expiration order at logarithmic cost per write.
+ *
+ * <p>Hit, miss, eviction and expiration counts are recorded for each cache
+ * and exposed through {@link #getStatistics()}.
+ *
+ * <p>This is a lightweight alternative to a dedicated caching library such
+ * as Caffeine, for simple bounded caching needs without extra dependencies.
+ * Typically used through {@link ConcurrentMapCacheManager#setMaximumSize}
+ * and related bean properties.
+ *
+ * @since 5.3.10
+ * @see ConcurrentMapCacheManager
+ * @see ConcurrentMapCache
+ */
+public class BoundedConcurrentMapCache extends AbstractValueAdaptingCache {
+
+	private static final int READ_BUFFER_SIZE = 128;
+
+	private static final int READ_BUFFER_MASK = READ_BUFFER_SIZE - 1;
+
+	private static final int READ_BUFFER_DRAIN_THRESHOLD = 32;
+
+	private static final int WRITE_BUFFER_DRAIN_THRESHOLD = 128;
+
+	private static final Comparator<Node> EXPIRATION_ORDER = (node1, node2) -> {
+		long diff = node1.expiresAt - node2.expiresAt;
+		return (diff != 0 ? (diff < 0 ? -1 : 1) : Long.compare(node1.sequence, node2.sequence));
+	};
+
+
+	private final String name;
+
+	private final long maximumWeight;
+
+	private final long maximumProtectedWeight;
+
+	@Nullable
+	private final Weigher weigher;
+
+	private final long timeToLiveNanos;
+
+	@Nullable
+	private final Expiry expiry;
+
+	@Nullable
+	private final SerializationDelegate serialization;
+
+	private final ConcurrentMap<Object, Node> store = new ConcurrentHashMap<>(256);
+
+	private final ReentrantLock evictionLock = new ReentrantLock();
+
+	private final AtomicReferenceArray<Node> readBuffer = new AtomicReferenceArray<>(READ_BUFFER_SIZE);
+
+	private final AtomicLong readBufferWriteCount = new AtomicLong();
+
+	private volatile long readBufferReadCount;
+
+	private final Queue<Runnable> writeBuffer = new ConcurrentLinkedQueue<>();
+
+	private final AtomicInteger pendingWrites = new AtomicInteger();
+
+	private final NodeList probation = new NodeList(true);
+
+	private final NodeList protectedSegment = new NodeList(true);
+
+	private final NodeList writeOrder = new NodeList(false);
+
+	@Nullable
+	private final NavigableSet<Node> expirationOrder;
+
+	private long linkSequence;
+
+	private volatile long weightedSize;
+
+	private long protectedWeight;
+
+	private final LongAdder hitCount = new LongAdder();
+
+	private final LongAdder missCount = new LongAdder();
+
+	private final LongAdder evictionCount = new LongAdder();
+
+	private final LongAdder expirationCount = new LongAdder();
+
+
+	/**
+	 * Create a new BoundedConcurrentMapCache with the specified name and
+	 * maximum number of entries.
+	 * @param name the name of the cache
+	 * @param maximumSize the maximum number of entries in the cache
+	 */
+	public BoundedConcurrentMapCache(String name, long maximumSize) {
+		this(name, maximumSize, null, (Expiry) null, true, null);
+	}
+
+	/**
+	 * Create a new BoundedConcurrentMapCache with the specified name and settings.
+	 * @param name the name of the cache
+	 * @param maximumWeight the maximum total weight of the entries in the cache,
+	 * or the maximum number of entries if no {@code weigher} is specified
+	 * ({@code Long.MAX_VALUE} for an unbounded cache with time-to-live only)
+	 * @param weigher the weigher to determine the weight of each entry,
+	 * or {@code null} for a weight of 1 per entry
+	 * @param timeToLive the time-to-live for each entry, measured from its
+	 * creation or latest replacement, or {@code null} for no expiration
+	 * @param allowNullValues whether to accept and convert {@code null}
+	 * values for this cache
+	 */
+	public BoundedConcurrentMapCache(String name, long maximumWeight, @Nullable Weigher weigher,
+			@Nullable Duration timeToLive, boolean allowNullValues) {
+
+		this(name, maximumWeight, weigher, fixedExpiry(timeToLive), allowNullValues, null);
+	}
+
+	/**
+	 * Create a new BoundedConcurrentMapCache with the specified name and settings,
+	 * determining the time-to-live per entry.
+	 * @param name the name of the cache
+	 * @param maximumWeight the maximum total weight of the entries in the cache,
+	 * or the maximum number of entries if no {@code weigher} is specified
+	 * ({@code Long.MAX_VALUE} for an unbounded cache with expiration only)
+	 * @param weigher the weigher to determine the weight of each entry,
+	 * or {@code null} for a weight of 1 per entry
+	 * @param expiry the strategy to determine the time-to-live of each entry
+	 * @param allowNullValues whether to accept and convert {@code null}
+	 * values for this cache
+	 */
+	public BoundedConcurrentMapCache(String name, long maximumWeight, @Nullable Weigher weigher,
+			Expiry expiry, boolean allowNullValues) {
+
+		this(name, maximumWeight, weigher, expiry, allowNullValues, null);
+		Assert.notNull(expiry, "Expiry must not be null");
+	}
+
+	/**
+	 * Create a new BoundedConcurrentMapCache with the specified name and settings.
+	 * If the {@link SerializationDelegate} is specified, store-by-value is enabled.
+	 * @param name the name of the cache
+	 * @param maximumWeight the maximum total weight of the entries in the cache,
+	 * or the maximum number of entries if no {@code weigher} is specified
+	 * @param weigher the weigher to determine the weight of each entry,
+	 * or {@code null} for a weight of 1 per entry
+	 * @param expiry the strategy to determine the time-to-live of each entry,
+	 * or {@code null} for no expiration
+	 * @param allowNullValues whether to accept and convert {@code null}
+	 * values for this cache
+	 * @param serialization the {@link SerializationDelegate} to use
+	 * to serialize cache entry or {@code null} to store the reference
+	 * @see #fixedExpiry(Duration)
+	 */
+	protected BoundedConcurrentMapCache(String name, long maximumWeight, @Nullable Weigher weigher,
+			@Nullable Expiry expiry, boolean allowNullValues, @Nullable SerializationDelegate serialization) {
+
+		super(allowNullValues);
+		Assert.notNull(name, "Name must not be null");
+		Assert.isTrue(maximumWeight >= 0, "Maximum weight must not be negative");
+		this.name = name;
+		this.maximumWeight = maximumWeight;
+		this.maximumProtectedWeight = maximumWeight - maximumWeight / 5;
+		this.weigher = weigher;
+		if (expiry instanceof FixedExpiry) {
+			this.timeToLiveNanos = ((FixedExpiry) expiry).timeToLiveNanos;
+			this.expiry = null;
+		}
+		else {
+			this.timeToLiveNanos = 0;
+			this.expiry = expiry;
+		}
+		this.expirationOrder = (this.expiry != null ? new TreeSet<>(EXPIRATION_ORDER) : null);
+		this.serialization = serialization;
+	}
+
+
+	/**
+	 * Return an {@link Expiry} with the same time-to-live for every entry,
+	 * which a BoundedConcurrentMapCache tracks in constant time per write.
+	 * @param timeToLive the time-to-live for each entry, measured from its
+	 * creation or latest replacement, or {@code null} for no expiration
+	 * @return the corresponding {@code Expiry}, or {@code null} if no
+	 * time-to-live has been specified
+	 */
+	@Nullable
+	public static Expiry fixedExpiry(@Nullable Duration timeToLive) {
+		if (timeToLive == null) {
+			return null;
+		}
+		Assert.isTrue(!timeToLive.isNegative(), "Time-to-live must not be negative");
+		return new FixedExpiry(timeToLive);
+	}
+
+
+	/**
+	 * Return whether this cache stores a copy of each entry ({@code true}) or
+	 * a reference ({@code false}, default).
+	 */
+	public final boolean isStoreByValue() {
+		return (this.serialization != null);
+	}
+
+	/**
+	 * Return the maximum total weight of the entries in this cache
+	 * (the maximum number of entries unless a weigher is specified).
+	 */
+	public final long getMaximumWeight() {
+		return this.maximumWeight;
+	}
+
+	/**
+	 * Return the current total weight of the entries in this cache,
+	 * as of the latest maintenance cycle.
+	 */
+	public long getWeightedSize() {
+		return this.weightedSize;
+	}
+
+	/**
+	 * Return the approximate number of entries in this cache,
+	 * possibly including expired entries which have not been reclaimed yet.
+	 */
+	public long estimatedSize() {
+		return this.store.size();
+	}
+
+	/**
+	 * Return a snapshot of the statistics for this cache.
+	 */
+	public Statistics getStatistics() {
+		return new Statistics(this.hitCount.sum(), this.missCount.sum(),
+				this.evictionCount.sum(), this.expirationCount.sum());
+	}
+
+	/**
+	 * Perform any pending maintenance: applying recorded accesses and writes
+	 * to the eviction order, reclaiming expired entries and evicting entries
+	 * beyond the maximum weight.
+	 */
+	public void cleanUp() {
+		this.evictionLock.lock();
+		try {
+			drainBuffers();
+		}
+		finally {
+			this.evictionLock.unlock();
+		}
+	}
+
+	@Override
+	public final String getName() {
+		return this.name;
+	}
+
+	/**
+	 * This implementation returns the cache itself, with no separate
+	 * native cache underneath.
+	 */
+	@Override
+	public final Object getNativeCache() {
+		return this;
+	}
+
+	@Override
+	@Nullable
+	protected Object lookup(Object key) {
+		Node node = this.store.get(key);
+		if (node == null) {
+			this.missCount.increment();
+			return null;
+		}
+		if (isExpired(node)) {
+			if (this.store.remove(key, node)) {
+				this.expirationCount.increment();
+				afterWrite(node, null);
+			}
+			this.missCount.increment();
+			return null;
+		}
+		this.hitCount.increment();
+		afterRead(node);
+		return node.value;
+	}
+
+	/**
+	 * This implementation records all accesses and expired entries first,
+	 * performing maintenance at most once for all given keys.
+	 */
+	@Override
+	public Map<Object, ValueWrapper> getAll(Collection<?> keys) {
+		Map<Object, ValueWrapper> result = CollectionUtils.newLinkedHashMap(keys.size());
+		boolean drain = false;
+		for (Object key : keys) {
+			Node node = this.store.get(key);
+			if (node == null) {
+				this.missCount.increment();
+			}
+			else if (isExpired(node)) {
+				if (this.store.remove(key, node)) {
+					this.expirationCount.increment();
+					scheduleWrite(node, null);
+					drain = true;
+				}
+				this.missCount.increment();
+			}
+			else {
+				this.hitCount.increment();
+				drain |= recordRead(node);
+				result.put(key, toValueWrapper(node.value));
+			}
+		}
+		if (drain) {
+			afterWrites();
+		}
+		return result;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	@Nullable
+	public <T> T get(Object key, Callable<T> valueLoader) {
+		Node node = this.store.get(key);
+		if (node != null && !isExpired(node)) {
+			this.hitCount.increment();
+			afterRead(node);
+			return (T) fromStoreValue(node.value);
+		}
+		ComputeIfAbsentFunction function = new ComputeIfAbsentFunction(k -> {
+			try {
+				return createNode(k, valueLoader.call());
+			}
+			catch (Throwable ex) {
+				throw new ValueRetrievalException(k, valueLoader, ex);
+			}
+		});
+		node = this.store.compute(key, function);
+		if (function.created != null) {
+			this.missCount.increment();
+		}
+		else {
+			this.hitCount.increment();
+		}
+		afterCompute(function, node);
+		return (T) fromStoreValue(node.value);
+	}
+
+	@Override
+	public void put(Object key, @Nullable Object value) {
+		Node node = createNode(key, value);
+		Node previous = this.store.put(key, node);
+		afterWrite(previous, node);
+	}
+
+	/**
+	 * This implementation queues all writes first, performing maintenance
+	 * at most once for all given entries.
+	 */
+	@Override
+	public void putAll(Map<?, ?> entries) {
+		if (entries.isEmpty()) {
+			return;
+		}
+		entries.forEach((key, value) -> {
+			Node node = createNode(key, value);
+			Node previous = this.store.put(key, node);
+			scheduleWrite(previous, node);
+		});
+		afterWrites();
+	}
+
+	@Override
+	@Nullable
+	public ValueWrapper putIfAbsent(Object key, @Nullable Object value) {
+		ComputeIfAbsentFunction function = new ComputeIfAbsentFunction(k -> createNode(k, value));
+		Node node = this.store.compute(key, function);
+		afterCompute(function, node);
+		return (function.created != null ? null : toValueWrapper(node.value));
+	}
+
+	@Override
+	public void evict(Object key) {
+		evictIfPresent(key);
+	}
+
+	@Override
+	public boolean evictIfPresent(Object key) {
+		Node node = this.store.remove(key);
+		if (node != null) {
+			afterWrite(node, null);
+			return true;
+		}
+		return false;
+	}
+
+	@Override
+	public void clear() {
+		for (Object key : this.store.keySet()) {
+			evictIfPresent(key);
+		}
+	}
+
+	@Override
+	public boolean invalidate() {
+		boolean notEmpty = !this.store.isEmpty();
+		clear();
+		return notEmpty;
+	}
+
+	@Override
+	protected Object toStoreValue(@Nullable Object userValue) {
+		Object storeValue = super.toStoreValue(userValue);
+		if (this.serialization != null) {
+			try {
+				return this.serialization.serializeToByteArray(storeValue);
+			}
+			catch (Throwable ex) {
+				throw new IllegalArgumentException("Failed to serialize cache value '" + userValue +
+						"'. Does it implement Serializable?", ex);
+			}
+		}
+		else {
+			return storeValue;
+		}
+	}
+
+	@Override
+	protected Object fromStoreValue(@Nullable Object storeValue) {
+		if (storeValue != null && this.serialization != null) {
+			try {
+				return super.fromStoreValue(this.serialization.deserializeFromByteArray((byte[]) storeValue));
+			}
+			catch (Throwable ex) {
+				throw new IllegalArgumentException("Failed to deserialize cache value '" + storeValue + "'", ex);
+			}
+		}
+		else {
+			return super.fromStoreValue(storeValue);
+		}
+	}
+
+
+	private Node createNode(Object key, @Nullable Object value) {
+		int weight = 1;
+		if (this.weigher != null) {
+			weight = this.weigher.weigh(key, value);
+			Assert.isTrue(weight >= 0, "Weigher must not return a negative weight");
+		}
+		boolean expires = false;
+		long expiresAt = 0;
+		if (this.timeToLiveNanos > 0) {
+			expires = true;
+			expiresAt = System.nanoTime() + this.timeToLiveNanos;
+		}
+		else if (this.expiry != null) {
+			Duration timeToLive = this.expiry.getTimeToLive(key, value);
+			if (timeToLive != null) {
+				Assert.isTrue(!timeToLive.isNegative(), "Expiry must not return a negative time-to-live");
+				expires = true;
+				expiresAt = System.nanoTime() + timeToLive.toNanos();
+			}
+		}
+		return new Node(key, toStoreValue(value), weight, expires, expiresAt);
+	}
+
+	private boolean isExpired(Node node) {
+		return (node.expires && System.nanoTime() - node.expiresAt >= 0);
+	}
+
+	private void afterCompute(ComputeIfAbsentFunction function, Node node) {
+		if (function.created != null) {
+			if (function.expired != null) {
+				this.expirationCount.increment();
+			}
+			afterWrite(function.expired, function.created);
+		}
+		else {
+			afterRead(node);
+		}
+	}
+
+	/**
+	 * Record a read access to the given node in the lossy read buffer,
+	 * triggering maintenance once enough reads have been buffered.
+	 */
+	private void afterRead(Node node) {
+		if (recordRead(node)) {
+			tryDrainBuffers();
+		}
+	}
+
+	/**
+	 * Record a read access to the given node in the lossy read buffer.
+	 * @return whether enough reads have been buffered to trigger maintenance
+	 */
+	private boolean recordRead(Node node) {
+		long writeCount = this.readBufferWriteCount.get();
+		long pendingReads = writeCount - this.readBufferReadCount;
+		if (pendingReads < READ_BUFFER_SIZE && this.readBufferWriteCount.compareAndSet(writeCount, writeCount + 1)) {
+			this.readBuffer.lazySet((int) (writeCount & READ_BUFFER_MASK), node);
+			pendingReads++;
+		}
+		return (pendingReads >= READ_BUFFER_DRAIN_THRESHOLD);
+	}
+
+	/**
+	 * Queue the replacement of the given previous node (if any) with the
+	 * given new node (if any) in the eviction order, and perform maintenance.
+	 */
+	private void afterWrite(@Nullable Node previous, @Nullable Node node) {
+		scheduleWrite(previous, node);
+		afterWrites();
+	}
+
+	/**
+	 * Queue the replacement of the given previous node (if any) with the
+	 * given new node (if any) in the eviction order. A replacing node takes
+	 * over the segment of the previous node.
+	 */
+	private void scheduleWrite(@Nullable Node previous, @Nullable Node node) {
+		if (previous != null) {
+			previous.retired = true;
+		}
+		this.writeBuffer.add(() -> {
+			boolean promoted = false;
+			if (previous != null) {
+				promoted = previous.linked && previous.protectedSegment;
+				unlinkNode(previous);
+			}
+			if (node != null) {
+				linkNode(node, promoted);
+			}
+		});
+		this.pendingWrites.incrementAndGet();
+	}
+
+	/**
+	 * Perform maintenance after queueing writes. Maintenance is skipped if
+	 * another thread is performing it already, unless too many writes are pending.
+	 */
+	private void afterWrites() {
+		if (this.pendingWrites.get() < WRITE_BUFFER_DRAIN_THRESHOLD) {
+			tryDrainBuffers();
+		}
+		else {
+			cleanUp();
+		}
+	}
+
+	private void tryDrainBuffers() {
+		if (this.evictionLock.tryLock()) {
+			try {
+				drainBuffers();
+			}
+			finally {
+				this.evictionLock.unlock();
+			}
+		}
+	}
+
+	private void drainBuffers() {
+		drainReadBuffer();
+		drainWriteBuffer();
+		expireEntries();
+		evictEntries();
+	}
+
+	private void drainReadBuffer() {
+		long readCount = this.readBufferReadCount;
+		long writeCount = this.readBufferWriteCount.get();
+		for (; readCount < writeCount; readCount++) {
+			int index = (int) (readCount & READ_BUFFER_MASK);
+			Node node = this.readBuffer.get(index);
+			if (node == null) {
+				// Not published yet by the recording thread
+				break;
+			}
+			this.readBuffer.lazySet(index, null);
+			if (node.linked) {
+				onAccess(node);
+			}
+		}
+		this.readBufferReadCount = readCount;
+	}
+
+	private void drainWriteBuffer() {
+		Runnable task;
+		while ((task = this.writeBuffer.poll()) != null) {
+			this.pendingWrites.decrementAndGet();
+			task.run();
+		}
+	}
+
+	/**
+	 * Apply a read access to the given linked node: move it to the end of
+	 * the protected segment, promoting it from probation if necessary.
+	 */
+	private void onAccess(Node node) {
+		if (node.protectedSegment) {
+			this.protectedSegment.moveToEnd(node);
+			return;
+		}
+		this.probation.remove(node);
+		node.protectedSegment = true;
+		this.protectedSegment.addLast(node);
+		this.protectedWeight += node.weight;
+		while (this.protectedWeight > this.maximumProtectedWeight) {
+			Node demoted = this.protectedSegment.first();
+			if (demoted == null) {
+				break;
+			}
+			this.protectedSegment.remove(demoted);
+			demoted.protectedSegment = false;
+			this.protectedWeight -= demoted.weight;
+			this.probation.addLast(demoted);
+		}
+	}
+
+	private void expireEntries() {
+		long now = System.nanoTime();
+		if (this.timeToLiveNanos > 0) {
+			Node node = this.writeOrder.first();
+			while (node != null && now - node.expiresAt >= 0) {
+				expireNode(node);
+				node = this.writeOrder.first();
+			}
+		}
+		else if (this.expirationOrder != null) {
+			while (!this.expirationOrder.isEmpty()) {
+				Node node = this.expirationOrder.first();
+				if (now - node.expiresAt < 0) {
+					break;
+				}
+				expireNode(node);
+			}
+		}
+	}
+
+	private void expireNode(Node node) {
+		if (this.store.remove(node.key, node)) {
+			this.expirationCount.increment();
+		}
+		node.retired = true;
+		unlinkNode(node);
+	}
+
+	private void evictEntries() {
+		while (this.weightedSize > this.maximumWeight) {
+			Node node = this.probation.first();
+			if (node == null) {
+				node = this.protectedSegment.first();
+				if (node == null) {
+					break;
+				}
+			}
+			if (this.store.remove(node.key, node)) {
+				this.evictionCount.increment();
+			}
+			node.retired = true;
+			unlinkNode(node);
+		}
+	}
+
+	private void linkNode(Node node, boolean promoted) {
+		if (!node.retired && !node.linked) {
+			node.linked = true;
+			node.protectedSegment = promoted;
+			if (promoted) {
+				this.protectedSegment.addLast(node);
+				this.protectedWeight += node.weight;
+			}
+			else {
+				this.probation.addLast(node);
+			}
+			if (this.timeToLiveNanos > 0) {
+				this.writeOrder.addLast(node);
+			}
+			else if (this.expirationOrder != null && node.expires) {
+				node.sequence = this.linkSequence++;
+				this.expirationOrder.add(node);
+			}
+			this.weightedSize += node.weight;
+		}
+	}
+
+	private void unlinkNode(Node node) {
+		if (node.linked) {
+			node.linked = false;
+			if (node.protectedSegment) {
+				this.protectedSegment.remove(node);
+				this.protectedWeight -= node.weight;
+			}
+			else {
+				this.probation.remove(node);
+			}
+			if (this.timeToLiveNanos > 0) {
+				this.writeOrder.remove(node);
+			}
+			else if (this.expirationOrder != null && node.expires) {
+				this.expirationOrder.remove(node);
+			}
+			this.weightedSize -= node.weight;
+		}
+	}
+
+
+	/**
+	 * Strategy for determining the weight of a cache entry, to be compared
+	 * against the maximum weight of a {@link BoundedConcurrentMapCache}.
+	 */
+	@FunctionalInterface
+	public interface Weigher {
+
+		/**
+		 * Return the weight of the given cache entry.
+		 * @param key the key of the entry
+		 * @param value the user-level value of the entry (may be {@code null})
+		 * @return the weight (must not be negative)
+		 */
+		int weigh(Object key, @Nullable Object value);
+	}
+
+
+	/**
+	 * Strategy for determining the time-to-live of a cache entry in a
+	 * {@link BoundedConcurrentMapCache}, as an alternative to a fixed
+	 * time-to-live for all entries.
+	 * @see BoundedConcurrentMapCache#fixedExpiry(Duration)
+	 */
+	@FunctionalInterface
+	public interface Expiry {
+
+		/**
+		 * Return the time-to-live of the given cache entry, measured from its
+		 * creation or latest replacement.
+		 * @param key the key of the entry
+		 * @param value the user-level value of the entry (may be {@code null})
+		 * @return the time-to-live (must not be negative),
+		 * or {@code null} for no expiration of the entry
+		 */
+		@Nullable
+		Duration getTimeToLive(Object key, @Nullable Object value);
+	}
+
+
+	/**
+	 * {@link Expiry} with the same time-to-live for every entry, recognized
+	 * by the cache in order to track expiration in write order.
+	 */
+	private static final class FixedExpiry implements Expiry {
+
+		private final Duration timeToLive;
+
+		private final long timeToLiveNanos;
+
+		FixedExpiry(Duration timeToLive) {
+			this.timeToLive = timeToLive;
+			this.timeToLiveNanos = timeToLive.toNanos();
+		}
+
+		@Override
+		public Duration getTimeToLive(Object key, @Nullable Object value) {
+			return this.timeToLive;
+		}
+	}
+
+
+	/**
+	 * Snapshot of the statistics of a {@link BoundedConcurrentMapCache}.
+	 */
+	public static final class Statistics {
+
+		private final long hitCount;
+
+		private final long missCount;
+
+		private final long evictionCount;
+
+		private final long expirationCount;
+
+		Statistics(long hitCount, long missCount, long evictionCount, long expirationCount) {
+			this.hitCount = hitCount;
+			this.missCount = missCount;
+			this.evictionCount = evictionCount;
+			this.expirationCount = expirationCount;
+		}
+
+		/**
+		 * Return the number of lookups which found a cached value.
+		 */
+		public long getHitCount() {
+			return this.hitCount;
+		}
+
+		/**
+		 * Return the number of lookups which found no (or an expired) cached value.
+		 */
+		public long getMissCount() {
+			return this.missCount;
+		}
+
+		/**
+		 * Return the ratio of hits to lookups, or 1.0 if there were no lookups.
+		 */
+		public double getHitRate() {
+			long requestCount = this.hitCount + this.missCount;
+			return (requestCount == 0 ? 1.0 : (double) this.hitCount / requestCount);
+		}
+
+		/**
+		 * Return the number of entries evicted due to the maximum weight.
+		 */
+		public long getEvictionCount() {
+			return this.evictionCount;
+		}
+
+		/**
+		 * Return the number of entries removed due to their time-to-live.
+		 */
+		public long getExpirationCount() {
+			return this.expirationCount;
+		}
+
+		@Override
+		public String toString() {
+			return "hits=" + this.hitCount + ", misses=" + this.missCount +
+					", evictions=" + this.evictionCount + ", expirations=" + this.expirationCount;
+		}
+	}
+
+
+	/**
+	 * {@link ConcurrentMap#compute} function which keeps a present and
+	 * unexpired node, and otherwise creates a new one.
+	 */
+	private class ComputeIfAbsentFunction implements BiFunction<Object, Node, Node> {
+
+		private final Function<Object, Node> nodeFactory;
+
+		@Nullable
+		private Node expired;
+
+		@Nullable
+		private Node created;
+
+		public ComputeIfAbsentFunction(Function<Object, Node> nodeFactory) {
+			this.nodeFactory = nodeFactory;
+		}
+
+		@Override
+		public Node apply(Object key, @Nullable Node existing) {
+			if (existing != null && !isExpired(existing)) {
+				return existing;
+			}
+			this.expired = existing;
+			this.created = this.nodeFactory.apply(key);
+			return this.created;
+		}
+	}
+
+
+	/**
+	 * Cache entry, linked into the access order of its segment and into the
+	 * expiration order (if any) while guarded by the eviction lock.
+	 */
+	private static final class Node {
+
+		final Object key;
+
+		final Object value;
+
+		final int weight;
+
+		final boolean expires;
+
+		final long expiresAt;
+
+		volatile boolean retired;
+
+		boolean linked;
+
+		boolean protectedSegment;
+
+		long sequence;
+
+		@Nullable
+		Node prevInAccessOrder;
+
+		@Nullable
+		Node nextInAccessOrder;
+
+		@Nullable
+		Node prevInWriteOrder;
+
+		@Nullable
+		Node nextInWriteOrder;
+
+		Node(Object key, Object value, int weight, boolean expires, long expiresAt) {
+			this.key = key;
+			this.value = value;
+			this.weight = weight;
+			this.expires = expires;
+			this.expiresAt = expiresAt;
+		}
+	}
+
+
+	/**
+	 * Intrusive doubly-linked list of nodes in either access or write order.
+	 */
+	private static final class NodeList {
+
+		private final boolean accessOrder;
+
+		@Nullable
+		private Node first;
+
+		@Nullable
+		private Node last;
+
+		NodeList(boolean accessOrder) {
+			this.accessOrder = accessOrder;
+		}
+
+		@Nullable
+		Node first() {
+			return this.first;
+		}
+
+		void addLast(Node node) {
+			Node last = this.last;
+			setPrevious(node, last);
+			setNext(node, null);
+			if (last == null) {
+				this.first = node;
+			}
+			else {
+				setNext(last, node);
+			}
+			this.last = node;
+		}
+
+		void remove(Node node) {
+			Node prev = getPrevious(node);
+			Node next = getNext(node);
+			if (prev == null) {
+				this.first = next;
+			}
+			else {
+				setNext(prev, next);
+			}
+			if (next == null) {
+				this.last = prev;
+			}
+			else {
+				setPrevious(next, prev);
+			}
+			setPrevious(node, null);
+			setNext(node, null);
+		}
+
+		void moveToEnd(Node node) {
+			if (node != this.last) {
+				remove(node);
+				addLast(node);
+			}
+		}
+
+		@Nullable
+		private Node getPrevious(Node node) {
+			return (this.accessOrder ? node.prevInAccessOrder : node.prevInWriteOrder);
+		}
+
+		@Nullable
+		private Node getNext(Node node) {
+			return (this.accessOrder ? node.nextInAccessOrder : node.nextInWriteOrder);
+		}
+
+		private void setPrevious(Node node, @Nullable Node prev) {
+			if (this.accessOrder) {
+				node.prevInAccessOrder = prev;
+			}
+			else {
+				node.prevInWriteOrder = prev;
+			}
+		}
+
+		private void setNext(Node node, @Nullable Node next) {
+			if (this.accessOrder) {
+				node.nextInAccessOrder = next;
+			}
+			else {
+				node.nextInWriteOrder = next;
+			}
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,7 @@
 
 package org.springframework.cache.concurrent;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -28,6 +29,7 @@ import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.core.serializer.support.SerializationDelegate;
 import org.springframework.lang.Nullable;
+import org.springframework.util.ObjectUtils;
 
 /**
  * {@link CacheManager} implementation that lazily builds {@link ConcurrentMapCache}
@@ -35,9 +37,13 @@ import org.springframework.lang.Nullable;
  * the set of cache names is pre-defined through {@link #setCacheNames}, with no
  * dynamic creation of further cache regions at runtime.
  *
- * <p>Note: This is by no means a sophisticated CacheManager; it comes with no
- * cache configuration options. However, it may be useful for testing or simple
- * caching scenarios. For advanced local caching needs, consider
+ * <p>Note: This is by no means a sophisticated CacheManager; it comes with
+ * only basic cache configuration options. By default, caches are unbounded;
+ * a {@link #setMaximumSize maximum size} (or {@link #setWeigher weight}) and a
+ * {@link #setTimeToLive time-to-live} may be configured, in which case
+ * {@link BoundedConcurrentMapCache} instances are built instead. It may be
+ * useful for testing or simple caching scenarios. For advanced local caching
+ * needs, consider
  * {@link org.springframework.cache.jcache.JCacheCacheManager},
  * {@link org.springframework.cache.ehcache.EhCacheCacheManager},
  * {@link org.springframework.cache.caffeine.CaffeineCacheManager}.
@@ -56,6 +62,17 @@ public class ConcurrentMapCacheManager implements CacheManager, BeanClassLoaderA
 
 	private boolean storeByValue = false;
 
+	private long maximumSize = -1;
+
+	@Nullable
+	private BoundedConcurrentMapCache.Weigher weigher;
+
+	@Nullable
+	private Duration timeToLive;
+
+	@Nullable
+	private BoundedConcurrentMapCache.Expiry expiry;
+
 	@Nullable
 	private SerializationDelegate serialization;
 
@@ -146,6 +163,99 @@ public class ConcurrentMapCacheManager implements CacheManager, BeanClassLoaderA
 		return this.storeByValue;
 	}
 
+	/**
+	 * Specify the maximum number of entries for each cache in this cache manager,
+	 * or the maximum total weight if a {@link #setWeigher weigher} is specified.
+	 * <p>Default is none, i.e. unbounded caches. Setting a maximum size leads to
+	 * the creation of {@link BoundedConcurrentMapCache} instances with
+	 * segmented least-recently-used eviction.
+	 * <p>Note: A change of the maximum size will reset all existing caches,
+	 * if any, to reconfigure them with the new size limit.
+	 * @since 5.3.10
+	 * @see BoundedConcurrentMapCache
+	 */
+	public void setMaximumSize(long maximumSize) {
+		if (maximumSize != this.maximumSize) {
+			this.maximumSize = maximumSize;
+			recreateCaches();
+		}
+	}
+
+	/**
+	 * Return the maximum number of entries (or maximum total weight) for
+	 * each cache in this cache manager, or -1 if the caches are unbounded.
+	 * @since 5.3.10
+	 */
+	public long getMaximumSize() {
+		return this.maximumSize;
+	}
+
+	/**
+	 * Specify the weigher to apply to each cache entry, turning the
+	 * {@link #setMaximumSize maximum size} into a maximum total weight.
+	 * <p>Note: A change of the weigher will reset all existing caches,
+	 * if any, to reconfigure them with the new weigher.
+	 * @since 5.3.10
+	 */
+	public void setWeigher(@Nullable BoundedConcurrentMapCache.Weigher weigher) {
+		if (weigher != this.weigher) {
+			this.weigher = weigher;
+			recreateCaches();
+		}
+	}
+
+	/**
+	 * Specify the time-to-live for each entry in the caches of this cache
+	 * manager, measured from the creation or latest replacement of the entry.
+	 * <p>Default is none, i.e. no expiration. Setting a time-to-live leads to
+	 * the creation of {@link BoundedConcurrentMapCache} instances, unbounded
+	 * in size unless a {@link #setMaximumSize maximum size} is specified as well.
+	 * <p>Note: A change of the time-to-live will reset all existing caches,
+	 * if any, to reconfigure them with the new expiration requirement.
+	 * @since 5.3.10
+	 */
+	public void setTimeToLive(@Nullable Duration timeToLive) {
+		if (!ObjectUtils.nullSafeEquals(timeToLive, this.timeToLive)) {
+			this.timeToLive = timeToLive;
+			recreateCaches();
+		}
+	}
+
+	/**
+	 * Return the time-to-live for each entry in the caches of this
+	 * cache manager, or {@code null} for no expiration.
+	 * @since 5.3.10
+	 */
+	@Nullable
+	public Duration getTimeToLive() {
+		return this.timeToLive;
+	}
+
+	/**
+	 * Specify a strategy to determine the time-to-live per entry in the caches
+	 * of this cache manager, taking precedence over a fixed
+	 * {@link #setTimeToLive time-to-live}.
+	 * <p>Note: A change of the expiry will reset all existing caches,
+	 * if any, to reconfigure them with the new expiration requirement.
+	 * @since 5.3.10
+	 */
+	public void setExpiry(@Nullable BoundedConcurrentMapCache.Expiry expiry) {
+		if (expiry != this.expiry) {
+			this.expiry = expiry;
+			recreateCaches();
+		}
+	}
+
+	/**
+	 * Return the strategy to determine the time-to-live per entry in the
+	 * caches of this cache manager, if any.
+	 * @since 5.3.10
+	 */
+	@Nullable
+	public BoundedConcurrentMapCache.Expiry getExpiry() {
+		return this.expiry;
+	}
+
 	@Override
 	public void setBeanClassLoader(ClassLoader classLoader) {
 		this.serialization = new SerializationDelegate(classLoader);
@@ -184,12 +294,21 @@ public class ConcurrentMapCacheManager implements CacheManager, BeanClassLoaderA
 	}
 
 	/**
-	 * Create a new ConcurrentMapCache instance for the specified cache name.
+	 * Create a new ConcurrentMapCache instance for the specified cache name,
+	 * or a {@link BoundedConcurrentMapCache} if a maximum size, time-to-live
+	 * or expiry has been specified.
 	 * @param name the name of the cache
 	 * @return the ConcurrentMapCache (or a decorator thereof)
 	 */
 	protected Cache createConcurrentMapCache(String name) {
 		SerializationDelegate actualSerialization = (isStoreByValue() ? this.serialization : null);
+		BoundedConcurrentMapCache.Expiry actualExpiry = (this.expiry != null ? this.expiry :
+				BoundedConcurrentMapCache.fixedExpiry(this.timeToLive));
+		if (this.maximumSize >= 0 || actualExpiry != null) {
+			long maximumWeight = (this.maximumSize >= 0 ? this.maximumSize : Long.MAX_VALUE);
+			return new BoundedConcurrentMapCache(name, maximumWeight, this.weigher, actualExpiry,
+					isAllowNullValues(), actualSerialization);
+		}
 		return new ConcurrentMapCache(name, new ConcurrentHashMap<>(256), isAllowNullValues(), actualSerialization);
 	}
 
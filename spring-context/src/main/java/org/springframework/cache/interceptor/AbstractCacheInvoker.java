@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,14 @@
 
 package org.springframework.cache.interceptor;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
 import org.springframework.cache.Cache;
 import org.springframework.lang.Nullable;
 import org.springframework.util.function.SingletonSupplier;
@@ -23,6 +31,7 @@ import org.springframework.util.function.SingletonSupplier;
 /**
  * A base component for invoking {@link Cache} operations and using a
  * configurable {@link CacheErrorHandler} when an exception occurs.
+ * Optionally records metrics through a {@link CacheMetricsRecorder}.
  *
  * @author Stephane Nicoll
  * @author Juergen Hoeller
@@ -33,6 +42,9 @@ public abstract class AbstractCacheInvoker {
 
 	protected SingletonSupplier<CacheErrorHandler> errorHandler;
 
+	@Nullable
+	private CacheMetricsRecorder metricsRecorder;
+
 
 	protected AbstractCacheInvoker() {
 		this.errorHandler = SingletonSupplier.of(SimpleCacheErrorHandler::new);
@@ -59,6 +71,26 @@ public abstract class AbstractCacheInvoker {
 		return this.errorHandler.obtain();
 	}
 
+	/**
+	 * Set the {@link CacheMetricsRecorder} to notify of the outcome and duration
+	 * of each cache operation. By default, no metrics are recorded and cache
+	 * operations are not timed.
+	 * @since 5.3.10
+	 * @see SimpleCacheMetricsRecorder
+	 */
+	public void setMetricsRecorder(@Nullable CacheMetricsRecorder metricsRecorder) {
+		this.metricsRecorder = metricsRecorder;
+	}
+
+	/**
+	 * Return the {@link CacheMetricsRecorder} to use, if any.
+	 * @since 5.3.10
+	 */
+	@Nullable
+	public CacheMetricsRecorder getMetricsRecorder() {
+		return this.metricsRecorder;
+	}
+
 
 	/**
 	 * Execute {@link Cache#get(Object)} on the specified {@link Cache} and
@@ -70,7 +102,14 @@ public abstract class AbstractCacheInvoker {
 	@Nullable
 	protected Cache.ValueWrapper doGet(Cache cache, Object key) {
 		try {
-			return cache.get(key);
+			CacheMetricsRecorder recorder = this.metricsRecorder;
+			if (recorder == null) {
+				return cache.get(key);
+			}
+			long start = System.nanoTime();
+			Cache.ValueWrapper result = cache.get(key);
+			recorder.recordGet(cache, key, result != null, System.nanoTime() - start);
+			return result;
 		}
 		catch (RuntimeException ex) {
 			getErrorHandler().handleCacheGetError(ex, cache, key);
@@ -78,31 +117,165 @@ public abstract class AbstractCacheInvoker {
 		}
 	}
 
+	/**
+	 * Execute {@link Cache#getAll(Collection)} on the specified {@link Cache}
+	 * and invoke the error handler if an exception occurs. Return an empty map
+	 * if the handler does not throw any exception, which simulates a cache
+	 * miss for all keys in case of error.
+	 * @since 5.3.10
+	 * @see Cache#getAll(Collection)
+	 */
+	protected Map<Object, Cache.ValueWrapper> doGetAll(Cache cache, Collection<?> keys) {
+		try {
+			CacheMetricsRecorder recorder = this.metricsRecorder;
+			if (recorder == null) {
+				return cache.getAll(keys);
+			}
+			long start = System.nanoTime();
+			Map<Object, Cache.ValueWrapper> result = cache.getAll(keys);
+			long duration = (keys.isEmpty() ? 0 : (System.nanoTime() - start) / keys.size());
+			for (Object key : keys) {
+				recorder.recordGet(cache, key, result.containsKey(key), duration);
+			}
+			return result;
+		}
+		catch (RuntimeException ex) {
+			getErrorHandler().handleCacheGetError(ex, cache, keys);
+			return Collections.emptyMap();  // If the exception is handled, return a cache miss
+		}
+	}
+
+	/**
+	 * Execute {@link Cache#retrieve(Object)} on the specified {@link Cache} and
+	 * invoke the error handler if an exception occurs, either on invocation or
+	 * on completion of the returned future. Complete with {@code null} if the
+	 * handler does not throw any exception, which simulates a cache miss in
+	 * case of error.
+	 * @since 5.3.10
+	 * @see Cache#retrieve(Object)
+	 */
+	protected CompletableFuture<Cache.ValueWrapper> doRetrieve(Cache cache, Object key) {
+		CompletableFuture<Cache.ValueWrapper> result;
+		try {
+			result = cache.retrieve(key);
+		}
+		catch (RuntimeException ex) {
+			getErrorHandler().handleCacheGetError(ex, cache, key);
+			return CompletableFuture.completedFuture(null);  // If the exception is handled, return a cache miss
+		}
+		return result.exceptionally(ex -> {
+			Throwable cause = (ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex);
+			if (!(cause instanceof RuntimeException)) {
+				throw new CompletionException(cause);
+			}
+			getErrorHandler().handleCacheGetError((RuntimeException) cause, cache, key);
+			return null;  // If the exception is handled, return a cache miss
+		});
+	}
+
+	/**
+	 * Execute {@link Cache#retrieve(Object, Supplier)} on the specified
+	 * {@link Cache} and invoke the error handler if an exception occurs,
+	 * either on invocation or on completion of the returned future. A failure
+	 * of the value loader itself is passed through as is. A failure to store
+	 * a loaded value is reported as a put error, completing with the loaded
+	 * value if the handler does not throw any exception; any other failure is
+	 * reported as a get error, falling back to the given value loader.
+	 * @since 5.3.10
+	 * @see Cache#retrieve(Object, Supplier)
+	 */
+	protected <T> CompletableFuture<T> doRetrieve(Cache cache, Object key, Supplier<CompletableFuture<T>> valueLoader) {
+		TrackingValueLoader<T> trackingLoader = new TrackingValueLoader<>(valueLoader);
+		CompletableFuture<T> result;
+		try {
+			result = cache.retrieve(key, trackingLoader);
+		}
+		catch (RuntimeException ex) {
+			getErrorHandler().handleCacheGetError(ex, cache, key);
+			return valueLoader.get();
+		}
+		return result.handle((value, ex) -> {
+			if (ex == null) {
+				return CompletableFuture.completedFuture(value);
+			}
+			Throwable cause = (ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex);
+			if (ex instanceof ValueLoaderFailure || cause instanceof ValueLoaderFailure) {
+				throw new CompletionException(cause instanceof ValueLoaderFailure ? cause.getCause() : cause);
+			}
+			if (!(cause instanceof RuntimeException)) {
+				throw new CompletionException(cause);
+			}
+			if (trackingLoader.loaded) {
+				getErrorHandler().handleCachePutError((RuntimeException) cause, cache, key, trackingLoader.value);
+				return CompletableFuture.completedFuture(trackingLoader.value);
+			}
+			getErrorHandler().handleCacheGetError((RuntimeException) cause, cache, key);
+			return valueLoader.get();  // If the exception is handled, fall back to the value loader
+		}).thenCompose(Function.identity());
+	}
+
 	/**
 	 * Execute {@link Cache#put(Object, Object)} on the specified {@link Cache}
 	 * and invoke the error handler if an exception occurs.
 	 */
 	protected void doPut(Cache cache, Object key, @Nullable Object result) {
 		try {
+			CacheMetricsRecorder recorder = this.metricsRecorder;
+			if (recorder == null) {
+				cache.put(key, result);
+				return;
+			}
+			long start = System.nanoTime();
 			cache.put(key, result);
+			recorder.recordPut(cache, key, System.nanoTime() - start);
 		}
 		catch (RuntimeException ex) {
 			getErrorHandler().handleCachePutError(ex, cache, key, result);
 		}
 	}
 
+	/**
+	 * Execute {@link Cache#putAll(Map)} on the specified {@link Cache}
+	 * and invoke the error handler if an exception occurs.
+	 * @since 5.3.10
+	 * @see Cache#putAll(Map)
+	 */
+	protected void doPutAll(Cache cache, Map<?, ?> entries) {
+		try {
+			CacheMetricsRecorder recorder = this.metricsRecorder;
+			if (recorder == null) {
+				cache.putAll(entries);
+				return;
+			}
+			long start = System.nanoTime();
+			cache.putAll(entries);
+			long duration = (entries.isEmpty() ? 0 : (System.nanoTime() - start) / entries.size());
+			for (Object key : entries.keySet()) {
+				recorder.recordPut(cache, key, duration);
+			}
+		}
+		catch (RuntimeException ex) {
+			getErrorHandler().handleCachePutError(ex, cache, entries.keySet(), entries);
+		}
+	}
+
 	/**
 	 * Execute {@link Cache#evict(Object)}/{@link Cache#evictIfPresent(Object)} on the
 	 * specified {@link Cache} and invoke the error handler if an exception occurs.
 	 */
 	protected void doEvict(Cache cache, Object key, boolean immediate) {
 		try {
+			CacheMetricsRecorder recorder = this.metricsRecorder;
+			long start = (recorder != null ? System.nanoTime() : 0);
 			if (immediate) {
 				cache.evictIfPresent(key);
 			}
 			else {
 				cache.evict(key);
 			}
+			if (recorder != null) {
+				recorder.recordEvict(cache, key, System.nanoTime() - start);
+			}
 		}
 		catch (RuntimeException ex) {
 			getErrorHandler().handleCacheEvictError(ex, cache, key);
@@ -115,16 +288,73 @@ public abstract class AbstractCacheInvoker {
 	 */
 	protected void doClear(Cache cache, boolean immediate) {
 		try {
+			CacheMetricsRecorder recorder = this.metricsRecorder;
+			long start = (recorder != null ? System.nanoTime() : 0);
 			if (immediate) {
 				cache.invalidate();
 			}
 			else {
 				cache.clear();
 			}
+			if (recorder != null) {
+				recorder.recordClear(cache, System.nanoTime() - start);
+			}
 		}
 		catch (RuntimeException ex) {
 			getErrorHandler().handleCacheClearError(ex, cache);
 		}
 	}
 
+
+	/**
+	 * Value loader which records a successfully loaded value and marks a failure
+	 * to load, in order to tell them apart from failures of the cache itself.
+	 */
+	private static class TrackingValueLoader<T> implements Supplier<CompletableFuture<T>> {
+
+		private final Supplier<CompletableFuture<T>> valueLoader;
+
+		private volatile boolean loaded;
+
+		@Nullable
+		private volatile T value;
+
+		TrackingValueLoader(Supplier<CompletableFuture<T>> valueLoader) {
+			this.valueLoader = valueLoader;
+		}
+
+		@Override
+		public CompletableFuture<T> get() {
+			CompletableFuture<T> future;
+			try {
+				future = this.valueLoader.get();
+			}
+			catch (Throwable ex) {
+				future = new CompletableFuture<>();
+				future.completeExceptionally(ex);
+			}
+			return future.handle((value, ex) -> {
+				if (ex != null) {
+					throw new ValueLoaderFailure(ex instanceof CompletionException && ex.getCause() != null ?
+							ex.getCause() : ex);
+				}
+				this.value = value;
+				this.loaded = true;
+				return value;
+			});
+		}
+	}
+
+
+	/**
+	 * Marker for a failure of the value loader, as opposed to the cache.
+	 */
+	@SuppressWarnings("serial")
+	private static class ValueLoaderFailure extends CompletionException {
+
+		ValueLoaderFailure(Throwable cause) {
+			super(cause);
+		}
+	}
+
 }
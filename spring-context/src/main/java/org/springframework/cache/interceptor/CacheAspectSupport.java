@@ -21,14 +21,24 @@ import java.lang.reflect.Proxy;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import org.springframework.aop.framework.AopProxyUtils;
 import org.springframework.aop.support.AopUtils;
@@ -43,6 +53,9 @@ import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.context.expression.AnnotatedElementKey;
 import org.springframework.core.BridgeMethodResolver;
+import org.springframework.core.CollectionFactory;
+import org.springframework.core.ReactiveAdapter;
+import org.springframework.core.ReactiveAdapterRegistry;
 import org.springframework.expression.EvaluationContext;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
@@ -69,6 +82,13 @@ import org.springframework.util.function.SupplierUtils;
  * used for determining caching operations, a {@link KeyGenerator} will build the
  * cache keys, and a {@link CacheResolver} will resolve the actual cache(s) to use.
  *
+ * <p>Methods returning a {@link CompletableFuture} or a reactive type such as
+ * {@link Mono} or {@link Flux} are cached based on their resolved values: the
+ * value of a future or {@code Mono}, and the collected elements of a {@code Flux}.
+ * Cache lookups go through the non-blocking {@link Cache#retrieve} operations,
+ * with concurrent misses for a single {@code @Cacheable} cache coalesced by
+ * the cache provider where supported.
+ *
  * <p>Note: A cache aspect is serializable but does not perform any actual caching
  * after deserialization.
  *
@@ -83,6 +103,14 @@ import org.springframework.util.function.SupplierUtils;
 public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		implements BeanFactoryAware, InitializingBean, SmartInitializingSingleton {
 
+	private static final boolean reactorPresent = ClassUtils.isPresent(
+			"reactor.core.publisher.Flux", CacheAspectSupport.class.getClassLoader());
+
+	/**
+	 * Marker for an in-flight invocation that did not produce a value to share.
+	 */
+	private static final Object NO_SHARED_VALUE = new Object();
+
 	protected final Log logger = LogFactory.getLog(getClass());
 
 	private final Map<CacheOperationCacheKey, CacheOperationMetadata> metadataCache = new ConcurrentHashMap<>(1024);
@@ -100,6 +128,10 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 	@Nullable
 	private BeanFactory beanFactory;
 
+	private boolean coalesceMisses = false;
+
+	private final ConcurrentMap<Object, InFlightInvocation> inFlightInvocations = new ConcurrentHashMap<>(64);
+
 	private boolean initialized = false;
 
 
@@ -148,6 +180,36 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		return this.cacheOperationSource;
 	}
 
+	/**
+	 * Specify whether to coalesce concurrent cache misses for the same cache
+	 * keys into a single invocation of the underlying method.
+	 * <p>Default is "false". If switched to "true", the first invocation that
+	 * misses on the caches of its {@code @Cacheable} operations proceeds to the
+	 * underlying method, while concurrent invocations missing on the same
+	 * caches and keys wait for its result instead of invoking the method
+	 * themselves. This applies to any combination of cache operations, caches,
+	 * conditions and {@code unless} clauses, as opposed to
+	 * {@link org.springframework.cache.annotation.Cacheable#sync()}.
+	 * <p>If the first invocation fails, waiting invocations are released and
+	 * proceed to invoke the underlying method themselves. Invocations returning
+	 * a {@code CompletableFuture} or a reactive type are coalesced without
+	 * blocking; they never block on an in-flight invocation and are never
+	 * blocked upon by synchronous invocations either.
+	 * @since 5.3.10
+	 */
+	public void setCoalesceMisses(boolean coalesceMisses) {
+		this.coalesceMisses = coalesceMisses;
+	}
+
+	/**
+	 * Return whether concurrent cache misses for the same cache keys are
+	 * coalesced into a single invocation of the underlying method.
+	 * @since 5.3.10
+	 */
+	public boolean isCoalesceMisses() {
+		return this.coalesceMisses;
+	}
+
 	/**
 	 * Set the default {@link KeyGenerator} that this cache aspect should delegate to
 	 * if no specific key generator has been set for the operation.
@@ -372,6 +434,12 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 
 	@Nullable
 	private Object execute(final CacheOperationInvoker invoker, Method method, CacheOperationContexts contexts) {
+		// Special handling of asynchronous return types: cache resolved values
+		AsyncResultAdapter asyncResultAdapter = contexts.getAsyncResultAdapter();
+		if (asyncResultAdapter != null) {
+			return asyncResultAdapter.fromFuture(() -> executeAsync(invoker, contexts, asyncResultAdapter));
+		}
+
 		// Special handling of synchronized invocation
 		if (contexts.isSynchronized()) {
 			CacheOperationContext context = contexts.get(CacheableOperation.class).iterator().next();
@@ -393,6 +461,10 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 			}
 		}
 
+		// Special handling of bulk invocation
+		if (contexts.isBulk()) {
+			return executeBulk(invoker, contexts);
+		}
 
 		// Process any early evictions
 		processCacheEvicts(contexts.get(CacheEvictOperation.class), true,
@@ -416,12 +488,27 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 			cacheValue = cacheHit.get();
 			returnValue = wrapCacheValue(method, cacheValue);
 		}
+		else if (cacheHit == null && this.coalesceMisses && !cachePutRequests.isEmpty()) {
+			// Share the invocation with concurrent misses for the same cache keys
+			return executeCoalesced(invoker, method, contexts, cachePutRequests);
+		}
 		else {
 			// Invoke the method if we don't have a cache hit
 			returnValue = invokeOperation(invoker);
 			cacheValue = unwrapReturnValue(returnValue);
 		}
 
+		completeExecution(contexts, cacheValue, cachePutRequests);
+		return returnValue;
+	}
+
+	/**
+	 * Apply any explicit {@code @CachePut}s and collected put requests as well
+	 * as late evictions for the given cache value.
+	 */
+	private void completeExecution(CacheOperationContexts contexts, @Nullable Object cacheValue,
+			List<CachePutRequest> cachePutRequests) {
+
 		// Collect any explicit @CachePuts
 		collectPutRequests(contexts.get(CachePutOperation.class), cacheValue, cachePutRequests);
 
@@ -432,13 +519,300 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 
 		// Process any late evictions
 		processCacheEvicts(contexts.get(CacheEvictOperation.class), false, cacheValue);
+	}
 
-		return returnValue;
+	@Nullable
+	private Object executeCoalesced(CacheOperationInvoker invoker, Method method,
+			CacheOperationContexts contexts, List<CachePutRequest> cachePutRequests) {
+
+		Object inFlightKey = createInFlightKey(cachePutRequests);
+		InFlightInvocation invocation = new InFlightInvocation(false);
+		InFlightInvocation existing = this.inFlightInvocations.putIfAbsent(inFlightKey, invocation);
+
+		if (existing != null) {
+			Object sharedValue = awaitInFlightInvocation(existing);
+			if (sharedValue != NO_SHARED_VALUE) {
+				if (logger.isTraceEnabled()) {
+					logger.trace("Shared result of in-flight invocation for " + inFlightKey);
+				}
+				// The @Cacheable puts have been applied by the in-flight invocation already
+				cachePutRequests.clear();
+				completeExecution(contexts, sharedValue, cachePutRequests);
+				return wrapCacheValue(method, sharedValue);
+			}
+			Object returnValue = invokeOperation(invoker);
+			completeExecution(contexts, unwrapReturnValue(returnValue), cachePutRequests);
+			return returnValue;
+		}
+
+		try {
+			Object returnValue = invokeOperation(invoker);
+			Object cacheValue = unwrapReturnValue(returnValue);
+			completeExecution(contexts, cacheValue, cachePutRequests);
+			invocation.complete(cacheValue);
+			return returnValue;
+		}
+		catch (Throwable ex) {
+			// Release waiting invocations
+			invocation.completeExceptionally(ex);
+			throw ex;
+		}
+		finally {
+			this.inFlightInvocations.remove(inFlightKey, invocation);
+		}
+	}
+
+	/**
+	 * Wait for the given in-flight invocation, unless it has been started by
+	 * the current thread itself or is asynchronous.
+	 * @return the cache value produced by the in-flight invocation, or
+	 * {@link #NO_SHARED_VALUE} if the current thread needs to invoke the
+	 * underlying method itself
+	 */
+	@Nullable
+	private Object awaitInFlightInvocation(InFlightInvocation invocation) {
+		if (invocation.async || invocation.thread == Thread.currentThread()) {
+			return NO_SHARED_VALUE;
+		}
+		try {
+			return invocation.get();
+		}
+		catch (ExecutionException ex) {
+			return NO_SHARED_VALUE;
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			return NO_SHARED_VALUE;
+		}
+	}
+
+	private CompletableFuture<Object> executeCoalescedAsync(CacheOperationInvoker invoker,
+			AsyncResultAdapter adapter, CacheOperationContexts contexts, List<CachePutRequest> cachePutRequests) {
+
+		Object inFlightKey = createInFlightKey(cachePutRequests);
+		InFlightInvocation invocation = new InFlightInvocation(true);
+		InFlightInvocation existing = this.inFlightInvocations.putIfAbsent(inFlightKey, invocation);
+
+		if (existing != null) {
+			return existing.handle((sharedValue, ex) -> {
+				if (ex == null) {
+					// The @Cacheable puts have been applied by the in-flight invocation already
+					cachePutRequests.clear();
+					completeExecution(contexts, sharedValue, cachePutRequests);
+					return CompletableFuture.completedFuture(sharedValue);
+				}
+				return invokeAsync(invoker, adapter).thenApply(cacheValue -> {
+					completeExecution(contexts, cacheValue, cachePutRequests);
+					return cacheValue;
+				});
+			}).thenCompose(Function.identity());
+		}
+
+		CompletableFuture<Object> result = invokeAsync(invoker, adapter).thenApply(cacheValue -> {
+			completeExecution(contexts, cacheValue, cachePutRequests);
+			return cacheValue;
+		});
+		result.whenComplete((cacheValue, ex) -> {
+			this.inFlightInvocations.remove(inFlightKey, invocation);
+			if (ex != null) {
+				invocation.completeExceptionally(ex);
+			}
+			else {
+				invocation.complete(cacheValue);
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * Create a key for an in-flight invocation, identifying
+	 * all caches and keys of the given put requests.
+	 */
+	private Object createInFlightKey(List<CachePutRequest> cachePutRequests) {
+		List<Object> inFlightKey = new ArrayList<>();
+		for (CachePutRequest cachePutRequest : cachePutRequests) {
+			for (Cache cache : cachePutRequest.context.getCaches()) {
+				inFlightKey.add(cache);
+				inFlightKey.add(cachePutRequest.key);
+			}
+		}
+		return inFlightKey;
+	}
+
+	private CompletableFuture<Object> executeAsync(
+			CacheOperationInvoker invoker, CacheOperationContexts contexts, AsyncResultAdapter adapter) {
+
+		// Single @Cacheable cache: delegate to the cache provider for coalesced loading
+		if (contexts.isSynchronized() || (!this.coalesceMisses && contexts.isSingleCacheable())) {
+			CacheOperationContext context = contexts.get(CacheableOperation.class).iterator().next();
+			if (isConditionPassing(context, CacheOperationExpressionEvaluator.NO_RESULT)) {
+				Object key = generateKey(context, CacheOperationExpressionEvaluator.NO_RESULT);
+				Cache cache = context.getCaches().iterator().next();
+				return doRetrieve(cache, key, () -> {
+					if (logger.isTraceEnabled()) {
+						logger.trace("No cache entry for key '" + key + "' in cache " + cache.getName());
+					}
+					return invokeAsync(invoker, adapter);
+				});
+			}
+			else {
+				// No caching required, only call the underlying method
+				return invokeAsync(invoker, adapter);
+			}
+		}
+
+		// Process any early evictions
+		processCacheEvicts(contexts.get(CacheEvictOperation.class), true,
+				CacheOperationExpressionEvaluator.NO_RESULT);
+
+		// Check if we have a cached item matching the conditions
+		return findCachedItemAsync(contexts.get(CacheableOperation.class)).thenCompose(cacheHit -> {
+			// Collect puts from any @Cacheable miss, if no cached item is found
+			List<CachePutRequest> cachePutRequests = new ArrayList<>();
+			if (cacheHit == null) {
+				collectPutRequests(contexts.get(CacheableOperation.class),
+						CacheOperationExpressionEvaluator.NO_RESULT, cachePutRequests);
+			}
+
+			CompletableFuture<Object> result;
+			if (cacheHit != null && !hasCachePut(contexts)) {
+				// If there are no put requests, just use the cache hit
+				result = CompletableFuture.completedFuture(cacheHit.get());
+			}
+			else if (cacheHit == null && this.coalesceMisses && !cachePutRequests.isEmpty()) {
+				// Share the invocation with concurrent misses for the same cache keys
+				return executeCoalescedAsync(invoker, adapter, contexts, cachePutRequests);
+			}
+			else {
+				// Invoke the method if we don't have a cache hit
+				result = invokeAsync(invoker, adapter);
+			}
+
+			return result.thenApply(cacheValue -> {
+				completeExecution(contexts, cacheValue, cachePutRequests);
+				return cacheValue;
+			});
+		});
+	}
+
+	private CompletableFuture<Object> invokeAsync(CacheOperationInvoker invoker, AsyncResultAdapter adapter) {
+		try {
+			return adapter.toFuture(invokeOperation(invoker));
+		}
+		catch (CacheOperationInvoker.ThrowableWrapper ex) {
+			CompletableFuture<Object> result = new CompletableFuture<>();
+			result.completeExceptionally(ex.getOriginal());
+			return result;
+		}
+	}
+
+	@Nullable
+	private Object executeBulk(CacheOperationInvoker invoker, CacheOperationContexts contexts) {
+		CacheOperationContext context = contexts.get(CacheableOperation.class).iterator().next();
+		if (!isConditionPassing(context, CacheOperationExpressionEvaluator.NO_RESULT)) {
+			// No caching required, only call the underlying method
+			return invokeOperation(invoker);
+		}
+		Object key = generateKey(context, CacheOperationExpressionEvaluator.NO_RESULT);
+		if (!(key instanceof Collection)) {
+			throw new IllegalStateException("@Cacheable(bulk=true) requires a Collection key on '" +
+					context.getOperation() + "' but got: " + key);
+		}
+		Collection<?> keys = (Collection<?>) key;
+
+		// Collect cached entries from all caches, until none are missing anymore
+		Map<Object, Object> cachedValues = CollectionUtils.newHashMap(keys.size());
+		Collection<Object> missingKeys = new LinkedHashSet<>(keys);
+		for (Cache cache : context.getCaches()) {
+			if (missingKeys.isEmpty()) {
+				break;
+			}
+			doGetAll(cache, missingKeys).forEach((cachedKey, wrapper) -> {
+				cachedValues.put(cachedKey, wrapper.get());
+				missingKeys.remove(cachedKey);
+			});
+		}
+
+		Map<?, ?> loadedValues = Collections.emptyMap();
+		if (!missingKeys.isEmpty()) {
+			if (logger.isTraceEnabled()) {
+				logger.trace("No cache entries for keys " + missingKeys + " in cache(s) " + context.getCacheNames());
+			}
+			loadedValues = invokeBulkOperation(invoker, contexts.getArgs(), keys, missingKeys);
+			Map<Object, Object> cacheableValues = CollectionUtils.newLinkedHashMap(loadedValues.size());
+			loadedValues.forEach((loadedKey, value) -> {
+				if (context.canPutToCache(value)) {
+					cacheableValues.put(loadedKey, value);
+				}
+			});
+			if (!cacheableValues.isEmpty()) {
+				for (Cache cache : context.getCaches()) {
+					doPutAll(cache, cacheableValues);
+				}
+			}
+		}
+
+		// Merge cached and loaded entries in the order of the requested keys
+		Map<Object, Object> result = CollectionUtils.newLinkedHashMap(cachedValues.size() + loadedValues.size());
+		for (Object element : keys) {
+			if (cachedValues.containsKey(element)) {
+				result.put(element, cachedValues.get(element));
+			}
+			else if (loadedValues.containsKey(element)) {
+				result.put(element, loadedValues.get(element));
+			}
+		}
+		loadedValues.forEach(result::putIfAbsent);
+		return result;
+	}
+
+	/**
+	 * Invoke the underlying method for the given missing keys, replacing the
+	 * key collection in the arguments for the duration of the invocation if
+	 * it has been passed in as an argument.
+	 */
+	private Map<?, ?> invokeBulkOperation(CacheOperationInvoker invoker, Object[] args,
+			Collection<?> keys, Collection<Object> missingKeys) {
+
+		int index = -1;
+		if (missingKeys.size() < keys.size()) {
+			for (int i = 0; i < args.length; i++) {
+				if (args[i] == keys) {
+					index = i;
+					break;
+				}
+			}
+		}
+		Object returnValue;
+		if (index != -1) {
+			Collection<Object> narrowedKeys = CollectionFactory.createApproximateCollection(keys, missingKeys.size());
+			narrowedKeys.addAll(missingKeys);
+			args[index] = narrowedKeys;
+			try {
+				returnValue = invokeOperation(invoker);
+			}
+			finally {
+				args[index] = keys;
+			}
+		}
+		else {
+			returnValue = invokeOperation(invoker);
+		}
+		if (returnValue == null) {
+			return Collections.emptyMap();
+		}
+		if (!(returnValue instanceof Map)) {
+			throw new IllegalStateException(
+					"@Cacheable(bulk=true) requires a Map return value but got: " + returnValue);
+		}
+		return (Map<?, ?>) returnValue;
 	}
 
 	@Nullable
 	private Object handleSynchronizedGet(CacheOperationInvoker invoker, Object key, Cache cache) {
 		InvocationAwareResult invocationResult = new InvocationAwareResult();
+		CacheMetricsRecorder recorder = getMetricsRecorder();
+		long start = (recorder != null ? System.nanoTime() : 0);
 		Object result = cache.get(key, () -> {
 			invocationResult.invoked = true;
 			if (logger.isTraceEnabled()) {
@@ -449,6 +823,10 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		if (!invocationResult.invoked && logger.isTraceEnabled()) {
 			logger.trace("Cache entry for key '" + key + "' found in cache '" + cache.getName() + "'");
 		}
+		if (recorder != null) {
+			// The duration of a miss includes the invocation of the value loader
+			recorder.recordGet(cache, key, !invocationResult.invoked, System.nanoTime() - start);
+		}
 		return result;
 	}
 
@@ -547,6 +925,29 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		return null;
 	}
 
+	/**
+	 * Find a cached item only for {@link CacheableOperation} that passes the condition,
+	 * using non-blocking cache retrieval.
+	 * @param contexts the cacheable operations
+	 * @return a future for the {@link Cache.ValueWrapper} holding the cached item,
+	 * completed with {@code null} if none is found
+	 * @see Cache#retrieve(Object)
+	 */
+	private CompletableFuture<Cache.ValueWrapper> findCachedItemAsync(Collection<CacheOperationContext> contexts) {
+		Object result = CacheOperationExpressionEvaluator.NO_RESULT;
+		CompletableFuture<Cache.ValueWrapper> cached = CompletableFuture.completedFuture(null);
+		for (CacheOperationContext context : contexts) {
+			if (isConditionPassing(context, result)) {
+				Object key = generateKey(context, result);
+				for (Cache cache : context.getCaches()) {
+					cached = cached.thenCompose(wrapper -> (wrapper != null ?
+							CompletableFuture.completedFuture(wrapper) : doRetrieve(cache, key)));
+				}
+			}
+		}
+		return cached;
+	}
+
 	/**
 	 * Collect the {@link CachePutRequest} for all {@link CacheOperation} using
 	 * the specified result item.
@@ -605,16 +1006,36 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 
 		private final MultiValueMap<Class<? extends CacheOperation>, CacheOperationContext> contexts;
 
+		private final Object[] args;
+
 		private final boolean sync;
 
+		private final boolean bulk;
+
+		@Nullable
+		private final AsyncResultAdapter asyncResultAdapter;
+
 		public CacheOperationContexts(Collection<? extends CacheOperation> operations, Method method,
 				Object[] args, Object target, Class<?> targetClass) {
 
+			this.args = args;
 			this.contexts = new LinkedMultiValueMap<>(operations.size());
+			AsyncResultAdapter asyncResultAdapter = null;
 			for (CacheOperation op : operations) {
-				this.contexts.add(op.getClass(), getOperationContext(op, method, args, target, targetClass));
+				CacheOperationContext context = getOperationContext(op, method, args, target, targetClass);
+				this.contexts.add(op.getClass(), context);
+				asyncResultAdapter = context.metadata.asyncResultAdapter;
 			}
 			this.sync = determineSyncFlag(method);
+			this.bulk = determineBulkFlag(method);
+			this.asyncResultAdapter = asyncResultAdapter;
+		}
+
+		/**
+		 * Return the original arguments of the method invocation.
+		 */
+		public Object[] getArgs() {
+			return this.args;
 		}
 
 		public Collection<CacheOperationContext> get(Class<? extends CacheOperation> operationClass) {
@@ -626,6 +1047,37 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 			return this.sync;
 		}
 
+		public boolean isBulk() {
+			return this.bulk;
+		}
+
+		/**
+		 * Determine whether this invocation consists of a single
+		 * {@code @Cacheable} operation on a single cache, without an
+		 * {@code unless} condition: the same constraints as for
+		 * {@code @Cacheable(sync=true)}.
+		 */
+		public boolean isSingleCacheable() {
+			if (this.contexts.size() != 1) {
+				return false;
+			}
+			List<CacheOperationContext> cacheOperationContexts = this.contexts.get(CacheableOperation.class);
+			if (cacheOperationContexts == null || cacheOperationContexts.size() != 1) {
+				return false;
+			}
+			CacheOperationContext cacheOperationContext = cacheOperationContexts.get(0);
+			return (cacheOperationContext.getCaches().size() == 1 &&
+					!StringUtils.hasText(((CacheableOperation) cacheOperationContext.getOperation()).getUnless()));
+		}
+
+		/**
+		 * Return the adapter for an asynchronous method return type, if any.
+		 */
+		@Nullable
+		public AsyncResultAdapter getAsyncResultAdapter() {
+			return this.asyncResultAdapter;
+		}
+
 		private boolean determineSyncFlag(Method method) {
 			List<CacheOperationContext> cacheOperationContexts = this.contexts.get(CacheableOperation.class);
 			if (cacheOperationContexts == null) {  // no @Cacheable operation at all
@@ -661,6 +1113,41 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 			}
 			return false;
 		}
+
+		private boolean determineBulkFlag(Method method) {
+			List<CacheOperationContext> cacheOperationContexts = this.contexts.get(CacheableOperation.class);
+			if (cacheOperationContexts == null) {  // no @Cacheable operation at all
+				return false;
+			}
+			boolean bulkEnabled = false;
+			for (CacheOperationContext cacheOperationContext : cacheOperationContexts) {
+				if (((CacheableOperation) cacheOperationContext.getOperation()).isBulk()) {
+					bulkEnabled = true;
+					break;
+				}
+			}
+			if (bulkEnabled) {
+				if (this.contexts.size() > 1) {
+					throw new IllegalStateException(
+							"@Cacheable(bulk=true) cannot be combined with other cache operations on '" + method + "'");
+				}
+				if (cacheOperationContexts.size() > 1) {
+					throw new IllegalStateException(
+							"Only one @Cacheable(bulk=true) entry is allowed on '" + method + "'");
+				}
+				CacheableOperation operation = (CacheableOperation) cacheOperationContexts.get(0).getOperation();
+				if (operation.isSync()) {
+					throw new IllegalStateException(
+							"@Cacheable(bulk=true) cannot be combined with sync attribute on '" + operation + "'");
+				}
+				if (!method.getReturnType().isAssignableFrom(LinkedHashMap.class)) {
+					throw new IllegalStateException(
+							"@Cacheable(bulk=true) requires a Map return type on '" + method + "'");
+				}
+				return true;
+			}
+			return false;
+		}
 	}
 
 
@@ -684,6 +1171,15 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 
 		private final CacheResolver cacheResolver;
 
+		@Nullable
+		private final AsyncResultAdapter asyncResultAdapter;
+
+		// Lazily compiled key expression, if simple enough
+		@Nullable
+		private volatile SimpleKeyExpression compiledKey;
+
+		private volatile boolean keyCompiled;
+
 		public CacheOperationMetadata(CacheOperation operation, Method method, Class<?> targetClass,
 				KeyGenerator keyGenerator, CacheResolver cacheResolver) {
 
@@ -695,6 +1191,7 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 			this.methodKey = new AnnotatedElementKey(this.targetMethod, targetClass);
 			this.keyGenerator = keyGenerator;
 			this.cacheResolver = cacheResolver;
+			this.asyncResultAdapter = AsyncResultAdapter.forReturnType(this.method.getReturnType());
 		}
 	}
 
@@ -791,12 +1288,26 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		@Nullable
 		protected Object generateKey(@Nullable Object result) {
 			if (StringUtils.hasText(this.metadata.operation.getKey())) {
+				SimpleKeyExpression compiledKey = getCompiledKey();
+				if (compiledKey != null) {
+					return compiledKey.getValue(this.args);
+				}
 				EvaluationContext evaluationContext = createEvaluationContext(result);
 				return evaluator.key(this.metadata.operation.getKey(), this.metadata.methodKey, evaluationContext);
 			}
 			return this.metadata.keyGenerator.generate(this.target, this.metadata.method, this.args);
 		}
 
+		@Nullable
+		private SimpleKeyExpression getCompiledKey() {
+			CacheOperationMetadata metadata = this.metadata;
+			if (!metadata.keyCompiled) {
+				metadata.compiledKey = evaluator.compileKey(metadata.operation.getKey(), metadata.targetMethod);
+				metadata.keyCompiled = true;
+			}
+			return metadata.compiledKey;
+		}
+
 		private EvaluationContext createEvaluationContext(@Nullable Object result) {
 			return evaluator.createEvaluationContext(this.caches, this.metadata.method, this.args,
 					this.target, this.metadata.targetClass, this.metadata.targetMethod, result, beanFactory);
@@ -885,6 +1396,121 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		}
 	}
 
+	/**
+	 * Adapter between an asynchronous method return type and a
+	 * {@link CompletableFuture} for its resolved value, as cached.
+	 */
+	private abstract static class AsyncResultAdapter {
+
+		@Nullable
+		public static AsyncResultAdapter forReturnType(Class<?> returnType) {
+			if (returnType == CompletableFuture.class || returnType == CompletionStage.class) {
+				return CompletableFutureResultAdapter.INSTANCE;
+			}
+			if (reactorPresent) {
+				return ReactiveResultAdapter.forReturnType(returnType);
+			}
+			return null;
+		}
+
+		/**
+		 * Adapt the given method return value to a future for the value to cache.
+		 */
+		public abstract CompletableFuture<Object> toFuture(@Nullable Object returnValue);
+
+		/**
+		 * Adapt the future produced by the given supplier to the method return type.
+		 * The supplier is invoked on demand, i.e. on subscription in case of a
+		 * reactive type.
+		 */
+		@Nullable
+		public abstract Object fromFuture(Supplier<CompletableFuture<Object>> futureSupplier);
+	}
+
+
+	/**
+	 * {@link AsyncResultAdapter} for {@link CompletableFuture} and
+	 * {@link CompletionStage} return types.
+	 */
+	private static class CompletableFutureResultAdapter extends AsyncResultAdapter {
+
+		static final CompletableFutureResultAdapter INSTANCE = new CompletableFutureResultAdapter();
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public CompletableFuture<Object> toFuture(@Nullable Object returnValue) {
+			if (returnValue == null) {
+				return CompletableFuture.completedFuture(null);
+			}
+			return ((CompletionStage<Object>) returnValue).toCompletableFuture();
+		}
+
+		@Override
+		public Object fromFuture(Supplier<CompletableFuture<Object>> futureSupplier) {
+			return futureSupplier.get();
+		}
+	}
+
+
+	/**
+	 * {@link AsyncResultAdapter} for reactive return types, caching the value
+	 * of a single-value publisher and the collected elements (as a {@code List})
+	 * of a multi-value publisher.
+	 */
+	private static class ReactiveResultAdapter extends AsyncResultAdapter {
+
+		private final ReactiveAdapter adapter;
+
+		private ReactiveResultAdapter(ReactiveAdapter adapter) {
+			this.adapter = adapter;
+		}
+
+		@Nullable
+		public static AsyncResultAdapter forReturnType(Class<?> returnType) {
+			ReactiveAdapter adapter = ReactiveAdapterRegistry.getSharedInstance().getAdapter(returnType);
+			return (adapter != null && !adapter.isNoValue() ? new ReactiveResultAdapter(adapter) : null);
+		}
+
+		@Override
+		public CompletableFuture<Object> toFuture(@Nullable Object returnValue) {
+			if (returnValue == null) {
+				return CompletableFuture.completedFuture(null);
+			}
+			Publisher<Object> publisher = this.adapter.toPublisher(returnValue);
+			Mono<Object> mono = (this.adapter.isMultiValue() ?
+					Flux.from(publisher).collectList().cast(Object.class) : Mono.from(publisher));
+			return mono.toFuture();
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public Object fromFuture(Supplier<CompletableFuture<Object>> futureSupplier) {
+			Mono<Object> mono = Mono.defer(() -> Mono.fromFuture(futureSupplier.get()));
+			if (this.adapter.isMultiValue()) {
+				return this.adapter.fromPublisher(mono.flatMapIterable(list -> (List<Object>) list));
+			}
+			return this.adapter.fromPublisher(mono);
+		}
+	}
+
+
+	/**
+	 * Future for the cache value of an in-flight invocation, shared with
+	 * concurrent invocations missing on the same caches and keys.
+	 */
+	@SuppressWarnings("serial")
+	private static final class InFlightInvocation extends CompletableFuture<Object> {
+
+		final boolean async;
+
+		final Thread thread = Thread.currentThread();
+
+		InFlightInvocation(boolean async) {
+			this.async = async;
+		}
+	}
+
+
 	/**
 	 * Internal holder class for recording that a cache method was invoked.
 	 */
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.interceptor;
+
+import org.springframework.cache.Cache;
+
+/**
+ * A strategy for recording the outcome and duration of the cache operations
+ * performed by an {@link AbstractCacheInvoker}, e.g. for tuning cache sizes
+ * based on hit ratios in production.
+ *
+ * <p>Implementations are invoked on the calling thread after each successful
+ * cache operation and therefore need to be thread-safe and cheap. Operations
+ * failing with an exception are not recorded but passed to the
+ * {@link CacheErrorHandler} as usual.
+ *
+ * <p>With {@link org.springframework.cache.annotation.EnableCaching @EnableCaching},
+ * a unique {@code CacheMetricsRecorder} bean in the context is applied automatically.
+ *
+ * @since 5.3.10
+ * @see AbstractCacheInvoker#setMetricsRecorder
+ * @see SimpleCacheMetricsRecorder
+ */
+public interface CacheMetricsRecorder {
+
+	/**
+	 * Record the retrieval of an item from the given cache.
+	 * @param cache the cache
+	 * @param key the key used to get the item
+	 * @param hit whether the cache contained a mapping for the key
+	 * @param durationNanos the duration of the operation in nanoseconds
+	 * @see Cache#get(Object)
+	 */
+	void recordGet(Cache cache, Object key, boolean hit, long durationNanos);
+
+	/**
+	 * Record the update of an item in the given cache.
+	 * @param cache the cache
+	 * @param key the key used to update the item
+	 * @param durationNanos the duration of the operation in nanoseconds
+	 * @see Cache#put(Object, Object)
+	 */
+	void recordPut(Cache cache, Object key, long durationNanos);
+
+	/**
+	 * Record the eviction of an item from the given cache.
+	 * @param cache the cache
+	 * @param key the key used to evict the item
+	 * @param durationNanos the duration of the operation in nanoseconds
+	 * @see Cache#evict(Object)
+	 */
+	void recordEvict(Cache cache, Object key, long durationNanos);
+
+	/**
+	 * Record the clearing of the given cache.
+	 * @param cache the cache
+	 * @param durationNanos the duration of the operation in nanoseconds
+	 * @see Cache#clear()
+	 */
+	void recordClear(Cache cache, long durationNanos);
+
+}
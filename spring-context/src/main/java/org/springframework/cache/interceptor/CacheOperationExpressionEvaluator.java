@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -104,6 +104,25 @@ class CacheOperationExpressionEvaluator extends CachedExpressionEvaluator {
 		return getExpression(this.keyCache, methodKey, keyExpression).getValue(evalContext);
 	}
 
+	/**
+	 * Compile the given key expression for direct evaluation against the
+	 * arguments of the given method, if it is simple enough.
+	 * @param keyExpression the key expression
+	 * @param targetMethod the target method
+	 * @return the compiled expression, or {@code null} if the expression
+	 * needs to be evaluated through {@link #key}
+	 * @since 5.3.10
+	 * @see SimpleKeyExpression
+	 */
+	@Nullable
+	public SimpleKeyExpression compileKey(String keyExpression, Method targetMethod) {
+		if (targetMethod.isVarArgs()) {
+			return null;
+		}
+		return SimpleKeyExpression.compile(keyExpression, targetMethod.getParameterCount(),
+				getParameterNameDiscoverer().getParameterNames(targetMethod));
+	}
+
 	public boolean condition(String conditionExpression, AnnotatedElementKey methodKey, EvaluationContext evalContext) {
 		return (Boolean.TRUE.equals(getExpression(this.conditionCache, methodKey, conditionExpression).getValue(
 				evalContext, Boolean.class)));
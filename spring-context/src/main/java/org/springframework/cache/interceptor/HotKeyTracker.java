@@ -0,0 +1,261 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.interceptor;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * Approximate tracker for the most frequently accessed keys per cache,
+ * based on a sampled count-min sketch.
+ *
+ * <p>Only every n-th access on average is recorded, as per the specified
+ * sample rate, with the estimated access frequency of the recorded keys
+ * kept in a count-min sketch of fixed size. The keys with the highest
+ * estimates are retained as hot key candidates, up to the specified number.
+ * Counts are halved periodically so that the estimates reflect recent access
+ * patterns rather than all-time totals.
+ *
+ * <p>Intended for diagnostics such as cache sizing: estimates may exceed the
+ * actual sampled counts due to hash collisions, but never underestimate them.
+ *
+ * @since 5.3.10
+ * @see SimpleCacheMetricsRecorder#setHotKeyTracker
+ */
+public class HotKeyTracker {
+
+	private static final int DEPTH = 4;
+
+	private static final long[] SEEDS = {
+			0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L};
+
+
+	private final int sampleRate;
+
+	private final int maxHotKeys;
+
+	private final int widthMask;
+
+	private final AtomicLongArray table;
+
+	private final long resetThreshold;
+
+	private final AtomicLong sampleCount = new AtomicLong();
+
+	private final Map<HotKey, Long> candidates = new HashMap<>();
+
+
+	/**
+	 * Create a new {@code HotKeyTracker} sampling every 16th access on average
+	 * and retaining the 10 hottest keys, with a sketch of 4 x 1024 counters.
+	 */
+	public HotKeyTracker() {
+		this(16, 10, 1024);
+	}
+
+	/**
+	 * Create a new {@code HotKeyTracker}.
+	 * @param sampleRate record every n-th access on average ({@code 1} for all)
+	 * @param maxHotKeys the maximum number of hot keys to retain
+	 * @param width the number of counters per row of the sketch,
+	 * rounded up to the next power of two
+	 */
+	public HotKeyTracker(int sampleRate, int maxHotKeys, int width) {
+		Assert.isTrue(sampleRate > 0, "Sample rate must be greater than 0");
+		Assert.isTrue(maxHotKeys > 0, "Maximum number of hot keys must be greater than 0");
+		Assert.isTrue(width > 0 && width <= (1 << 24), "Width must be between 1 and 2^24");
+		int actualWidth = (width == 1 ? 1 : Integer.highestOneBit(width - 1) << 1);
+		this.sampleRate = sampleRate;
+		this.maxHotKeys = maxHotKeys;
+		this.widthMask = actualWidth - 1;
+		this.table = new AtomicLongArray(DEPTH * actualWidth);
+		this.resetThreshold = 10L * actualWidth;
+	}
+
+
+	/**
+	 * Record an access to the given key in the given cache, if sampled.
+	 * @param cacheName the name of the cache
+	 * @param key the accessed key
+	 */
+	public void record(String cacheName, Object key) {
+		if (this.sampleRate > 1 && ThreadLocalRandom.current().nextInt(this.sampleRate) != 0) {
+			return;
+		}
+		HotKey hotKey = new HotKey(cacheName, key);
+		int hash = hotKey.hashCode();
+		long estimate = Long.MAX_VALUE;
+		for (int row = 0; row < DEPTH; row++) {
+			estimate = Math.min(estimate, this.table.incrementAndGet(indexOf(hash, row)));
+		}
+		synchronized (this.candidates) {
+			updateCandidates(hotKey, estimate);
+		}
+		if (this.sampleCount.incrementAndGet() % this.resetThreshold == 0) {
+			age();
+		}
+	}
+
+	private int indexOf(int hash, int row) {
+		long h = (hash + SEEDS[row]) * SEEDS[row];
+		h ^= (h >>> 32);
+		return (row * (this.widthMask + 1)) + ((int) h & this.widthMask);
+	}
+
+	private void updateCandidates(HotKey hotKey, long estimate) {
+		if (this.candidates.containsKey(hotKey) || this.candidates.size() < this.maxHotKeys) {
+			this.candidates.put(hotKey, estimate);
+			return;
+		}
+		HotKey coldest = null;
+		long coldestEstimate = Long.MAX_VALUE;
+		for (Map.Entry<HotKey, Long> entry : this.candidates.entrySet()) {
+			if (entry.getValue() < coldestEstimate) {
+				coldest = entry.getKey();
+				coldestEstimate = entry.getValue();
+			}
+		}
+		if (coldest != null && estimate > coldestEstimate) {
+			this.candidates.remove(coldest);
+			this.candidates.put(hotKey, estimate);
+		}
+	}
+
+	/**
+	 * Halve all counters, decaying the influence of past accesses.
+	 */
+	private void age() {
+		for (int i = 0; i < this.table.length(); i++) {
+			long value;
+			do {
+				value = this.table.get(i);
+			}
+			while (!this.table.compareAndSet(i, value, value >>> 1));
+		}
+		synchronized (this.candidates) {
+			this.candidates.replaceAll((hotKey, estimate) -> estimate >>> 1);
+		}
+	}
+
+	/**
+	 * Return the hot keys retained so far, in order of decreasing estimated
+	 * access frequency (as sampled).
+	 */
+	public List<HotKey> getHotKeys() {
+		List<Map.Entry<HotKey, Long>> entries;
+		synchronized (this.candidates) {
+			entries = new ArrayList<>(this.candidates.entrySet());
+		}
+		entries.sort(Map.Entry.<HotKey, Long>comparingByValue(Comparator.reverseOrder()));
+		List<HotKey> result = new ArrayList<>(entries.size());
+		for (Map.Entry<HotKey, Long> entry : entries) {
+			HotKey hotKey = entry.getKey();
+			result.add(new HotKey(hotKey.cacheName, hotKey.key, entry.getValue() * this.sampleRate));
+		}
+		return result;
+	}
+
+	/**
+	 * Reset all counters and drop all hot key candidates.
+	 */
+	public void reset() {
+		synchronized (this.candidates) {
+			for (int i = 0; i < this.table.length(); i++) {
+				this.table.set(i, 0);
+			}
+			this.candidates.clear();
+			this.sampleCount.set(0);
+		}
+	}
+
+
+	/**
+	 * A key in a given cache, along with its estimated access frequency.
+	 */
+	public static final class HotKey {
+
+		private final String cacheName;
+
+		private final Object key;
+
+		private final long estimatedCount;
+
+		HotKey(String cacheName, Object key) {
+			this(cacheName, key, 0);
+		}
+
+		HotKey(String cacheName, Object key, long estimatedCount) {
+			this.cacheName = cacheName;
+			this.key = key;
+			this.estimatedCount = estimatedCount;
+		}
+
+		/**
+		 * Return the name of the cache.
+		 */
+		public String getCacheName() {
+			return this.cacheName;
+		}
+
+		/**
+		 * Return the key.
+		 */
+		public Object getKey() {
+			return this.key;
+		}
+
+		/**
+		 * Return the estimated number of accesses, extrapolated from the samples.
+		 */
+		public long getEstimatedCount() {
+			return this.estimatedCount;
+		}
+
+		@Override
+		public boolean equals(@Nullable Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof HotKey)) {
+				return false;
+			}
+			HotKey otherKey = (HotKey) other;
+			return (this.cacheName.equals(otherKey.cacheName) && ObjectUtils.nullSafeEquals(this.key, otherKey.key));
+		}
+
+		@Override
+		public int hashCode() {
+			return this.cacheName.hashCode() * 31 + ObjectUtils.nullSafeHashCode(this.key);
+		}
+
+		@Override
+		public String toString() {
+			return this.cacheName + ":" + this.key + "=" + this.estimatedCount;
+		}
+	}
+
+}
@@ -0,0 +1,281 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.interceptor;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.cache.Cache;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.lang.Nullable;
+
+/**
+ * Simple {@link CacheMetricsRecorder} keeping in-memory counters and
+ * timings per cache, with an optional {@link HotKeyTracker} for the
+ * most frequently accessed keys.
+ *
+ * <p>Annotated for exposure through JMX: when registered as a bean in a
+ * context with an {@link org.springframework.jmx.export.annotation.AnnotationMBeanExporter}
+ * (e.g. through {@code @EnableMBeanExport}), a summary of the statistics
+ * and the hot keys are available as MBean attributes.
+ *
+ * @since 5.3.10
+ * @see AbstractCacheInvoker#setMetricsRecorder
+ */
+@ManagedResource(description = "Cache operation metrics")
+public class SimpleCacheMetricsRecorder implements CacheMetricsRecorder {
+
+	private final Map<String, CacheStatistics> statistics = new ConcurrentHashMap<>(16);
+
+	@Nullable
+	private HotKeyTracker hotKeyTracker;
+
+
+	/**
+	 * Set a {@link HotKeyTracker} for sampling the keys of all retrievals.
+	 * <p>Default is none.
+	 */
+	public void setHotKeyTracker(@Nullable HotKeyTracker hotKeyTracker) {
+		this.hotKeyTracker = hotKeyTracker;
+	}
+
+	/**
+	 * Return the {@link HotKeyTracker} in use, if any.
+	 */
+	@Nullable
+	public HotKeyTracker getHotKeyTracker() {
+		return this.hotKeyTracker;
+	}
+
+
+	@Override
+	public void recordGet(Cache cache, Object key, boolean hit, long durationNanos) {
+		CacheStatistics stats = getOrCreateStatistics(cache.getName());
+		if (hit) {
+			stats.hits.increment();
+		}
+		else {
+			stats.misses.increment();
+		}
+		stats.getTime.add(durationNanos);
+		HotKeyTracker hotKeyTracker = this.hotKeyTracker;
+		if (hotKeyTracker != null) {
+			hotKeyTracker.record(cache.getName(), key);
+		}
+	}
+
+	@Override
+	public void recordPut(Cache cache, Object key, long durationNanos) {
+		CacheStatistics stats = getOrCreateStatistics(cache.getName());
+		stats.puts.increment();
+		stats.putTime.add(durationNanos);
+	}
+
+	@Override
+	public void recordEvict(Cache cache, Object key, long durationNanos) {
+		CacheStatistics stats = getOrCreateStatistics(cache.getName());
+		stats.evictions.increment();
+		stats.evictTime.add(durationNanos);
+	}
+
+	@Override
+	public void recordClear(Cache cache, long durationNanos) {
+		getOrCreateStatistics(cache.getName()).clears.increment();
+	}
+
+	private CacheStatistics getOrCreateStatistics(String cacheName) {
+		CacheStatistics stats = this.statistics.get(cacheName);
+		if (stats == null) {
+			stats = this.statistics.computeIfAbsent(cacheName, name -> new CacheStatistics());
+		}
+		return stats;
+	}
+
+
+	/**
+	 * Return the statistics recorded for the given cache.
+	 * @param cacheName the name of the cache
+	 * @return the statistics, or {@code null} if no operation
+	 * has been recorded for the cache yet
+	 */
+	@Nullable
+	public CacheStatistics getStatistics(String cacheName) {
+		return this.statistics.get(cacheName);
+	}
+
+	/**
+	 * Return the names of the caches with recorded statistics.
+	 */
+	@ManagedAttribute(description = "Names of the caches with recorded statistics")
+	public String[] getCacheNames() {
+		return new TreeSet<>(this.statistics.keySet()).toArray(new String[0]);
+	}
+
+	/**
+	 * Return a summary line of the statistics for each cache.
+	 */
+	@ManagedAttribute(description = "Summary of the statistics per cache")
+	public String[] getSummary() {
+		String[] cacheNames = getCacheNames();
+		String[] summary = new String[cacheNames.length];
+		for (int i = 0; i < cacheNames.length; i++) {
+			summary[i] = cacheNames[i] + ": " + this.statistics.get(cacheNames[i]);
+		}
+		return summary;
+	}
+
+	/**
+	 * Return the hot keys identified by the {@link HotKeyTracker},
+	 * if any, in order of decreasing access frequency.
+	 */
+	@ManagedAttribute(description = "Most frequently accessed keys (sampled)")
+	public String[] getHotKeys() {
+		HotKeyTracker hotKeyTracker = this.hotKeyTracker;
+		if (hotKeyTracker == null) {
+			return new String[0];
+		}
+		List<HotKeyTracker.HotKey> hotKeys = hotKeyTracker.getHotKeys();
+		String[] result = new String[hotKeys.size()];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = hotKeys.get(i).toString();
+		}
+		return result;
+	}
+
+	/**
+	 * Drop all statistics recorded so far, including the hot keys.
+	 */
+	@ManagedOperation(description = "Reset all statistics")
+	public void reset() {
+		this.statistics.clear();
+		HotKeyTracker hotKeyTracker = this.hotKeyTracker;
+		if (hotKeyTracker != null) {
+			hotKeyTracker.reset();
+		}
+	}
+
+
+	/**
+	 * Statistics recorded for a specific cache.
+	 */
+	public static final class CacheStatistics {
+
+		private final LongAdder hits = new LongAdder();
+
+		private final LongAdder misses = new LongAdder();
+
+		private final LongAdder puts = new LongAdder();
+
+		private final LongAdder evictions = new LongAdder();
+
+		private final LongAdder clears = new LongAdder();
+
+		private final LongAdder getTime = new LongAdder();
+
+		private final LongAdder putTime = new LongAdder();
+
+		private final LongAdder evictTime = new LongAdder();
+
+		CacheStatistics() {
+		}
+
+		/**
+		 * Return the number of retrievals that found a cached item.
+		 */
+		public long getHitCount() {
+			return this.hits.sum();
+		}
+
+		/**
+		 * Return the number of retrievals that did not find a cached item.
+		 */
+		public long getMissCount() {
+			return this.misses.sum();
+		}
+
+		/**
+		 * Return the ratio of hits among all retrievals, or {@code 0}
+		 * if no retrieval has been recorded.
+		 */
+		public double getHitRatio() {
+			long hits = getHitCount();
+			long total = hits + getMissCount();
+			return (total != 0 ? (double) hits / total : 0);
+		}
+
+		/**
+		 * Return the number of updates.
+		 */
+		public long getPutCount() {
+			return this.puts.sum();
+		}
+
+		/**
+		 * Return the number of evictions.
+		 */
+		public long getEvictionCount() {
+			return this.evictions.sum();
+		}
+
+		/**
+		 * Return the number of times the cache has been cleared.
+		 */
+		public long getClearCount() {
+			return this.clears.sum();
+		}
+
+		/**
+		 * Return the average duration of a retrieval in nanoseconds.
+		 */
+		public long getAverageGetTime() {
+			return average(this.getTime.sum(), getHitCount() + getMissCount());
+		}
+
+		/**
+		 * Return the average duration of an update in nanoseconds.
+		 */
+		public long getAveragePutTime() {
+			return average(this.putTime.sum(), getPutCount());
+		}
+
+		/**
+		 * Return the average duration of an eviction in nanoseconds.
+		 */
+		public long getAverageEvictTime() {
+			return average(this.evictTime.sum(), getEvictionCount());
+		}
+
+		private static long average(long totalTime, long count) {
+			return (count != 0 ? totalTime / count : 0);
+		}
+
+		@Override
+		public String toString() {
+			return "hits=" + getHitCount() + ", misses=" + getMissCount() +
+					", hitRatio=" + String.format("%.3f", getHitRatio()) + ", puts=" + getPutCount() +
+					", evictions=" + getEvictionCount() + ", clears=" + getClearCount() +
+					", avgGetNanos=" + getAverageGetTime() + ", avgPutNanos=" + getAveragePutTime() +
+					", avgEvictNanos=" + getAverageEvictTime();
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -23,11 +23,17 @@ import java.util.Arrays;
 
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
-import org.springframework.util.StringUtils;
+import org.springframework.util.ObjectUtils;
 
 /**
  * A simple key as returned from the {@link SimpleKeyGenerator}.
  *
+ * <p>Keys for up to four elements, as created by {@link #of(Object...)}, hold
+ * their elements in fields rather than in a copied array. All keys are equal to
+ * each other and share the same hash code if their elements are deeply equal,
+ * independent of their internal representation, and are serialized as plain
+ * array-based {@code SimpleKey} instances.
+ *
  * @author Phillip Webb
  * @author Juergen Hoeller
  * @since 4.0
@@ -42,6 +48,7 @@ public class SimpleKey implements Serializable {
 	public static final SimpleKey EMPTY = new SimpleKey();
 
 
+	@Nullable
 	private final Object[] params;
 
 	// Effectively final, just re-calculated on deserialization
@@ -59,11 +66,99 @@ public class SimpleKey implements Serializable {
 		this.hashCode = Arrays.deepHashCode(this.params);
 	}
 
+	/**
+	 * Constructor for field-based subclasses, which need to provide
+	 * {@link #size()} and {@link #get(int)} as well.
+	 * @param hashCode the pre-calculated hash code, as per
+	 * {@link Arrays#deepHashCode} for the elements of the key
+	 */
+	private SimpleKey(int hashCode) {
+		this.params = null;
+		this.hashCode = hashCode;
+	}
+
+
+	/**
+	 * Create a {@link SimpleKey} for the given elements, holding up to
+	 * four elements in fields rather than in a copied array.
+	 * @param elements the elements of the key
+	 * @since 5.3.10
+	 */
+	public static SimpleKey of(Object... elements) {
+		Assert.notNull(elements, "Elements must not be null");
+		switch (elements.length) {
+			case 0:
+				return EMPTY;
+			case 1:
+				return new SimpleKey1(elements[0]);
+			case 2:
+				return new SimpleKey2(elements[0], elements[1]);
+			case 3:
+				return new SimpleKey3(elements[0], elements[1], elements[2]);
+			case 4:
+				return new SimpleKey4(elements[0], elements[1], elements[2], elements[3]);
+			default:
+				return new SimpleKey(elements);
+		}
+	}
+
+
+	/**
+	 * Return the number of elements in this key.
+	 */
+	int size() {
+		Assert.state(this.params != null, "No params");
+		return this.params.length;
+	}
+
+	/**
+	 * Return the element at the given index.
+	 */
+	@Nullable
+	Object get(int index) {
+		Assert.state(this.params != null, "No params");
+		return this.params[index];
+	}
+
+	/**
+	 * Return the elements of this key as an array.
+	 */
+	Object[] toArray() {
+		if (this.params != null) {
+			return this.params;
+		}
+		Object[] elements = new Object[size()];
+		for (int i = 0; i < elements.length; i++) {
+			elements[i] = get(i);
+		}
+		return elements;
+	}
 
 	@Override
 	public boolean equals(@Nullable Object other) {
-		return (this == other ||
-				(other instanceof SimpleKey && Arrays.deepEquals(this.params, ((SimpleKey) other).params)));
+		if (this == other) {
+			return true;
+		}
+		if (!(other instanceof SimpleKey)) {
+			return false;
+		}
+		SimpleKey otherKey = (SimpleKey) other;
+		if (this.hashCode != otherKey.hashCode) {
+			return false;
+		}
+		if (this.params != null && otherKey.params != null) {
+			return Arrays.deepEquals(this.params, otherKey.params);
+		}
+		int size = size();
+		if (size != otherKey.size()) {
+			return false;
+		}
+		for (int i = 0; i < size; i++) {
+			if (!elementEquals(get(i), otherKey.get(i))) {
+				return false;
+			}
+		}
+		return true;
 	}
 
 	@Override
@@ -74,13 +169,283 @@ public class SimpleKey implements Serializable {
 
 	@Override
 	public String toString() {
-		return getClass().getSimpleName() + " [" + StringUtils.arrayToCommaDelimitedString(this.params) + "]";
+		return toString(getClass().getSimpleName());
+	}
+
+	/**
+	 * Build a String representation for the given key type name.
+	 */
+	String toString(String name) {
+		StringBuilder sb = new StringBuilder(name).append(" [");
+		for (int i = 0; i < size(); i++) {
+			if (i > 0) {
+				sb.append(',');
+			}
+			sb.append(get(i));
+		}
+		return sb.append(']').toString();
 	}
 
 	private void readObject(ObjectInputStream ois) throws IOException, ClassNotFoundException {
 		ois.defaultReadObject();
+		Assert.state(this.params != null, "No params");
 		// Re-calculate hashCode field on deserialization
 		this.hashCode = Arrays.deepHashCode(this.params);
 	}
 
+
+	/**
+	 * Compare two elements in the same way as {@link Arrays#deepEquals}.
+	 */
+	private static boolean elementEquals(@Nullable Object element, @Nullable Object otherElement) {
+		if (element instanceof Object[] && otherElement instanceof Object[]) {
+			return Arrays.deepEquals((Object[]) element, (Object[]) otherElement);
+		}
+		return ObjectUtils.nullSafeEquals(element, otherElement);
+	}
+
+	/**
+	 * Calculate the hash code of an element in the same way as
+	 * {@link Arrays#deepHashCode}.
+	 */
+	private static int elementHashCode(@Nullable Object element) {
+		if (element == null) {
+			return 0;
+		}
+		if (!element.getClass().isArray()) {
+			return element.hashCode();
+		}
+		if (element instanceof Object[]) {
+			return Arrays.deepHashCode((Object[]) element);
+		}
+		if (element instanceof boolean[]) {
+			return Arrays.hashCode((boolean[]) element);
+		}
+		if (element instanceof byte[]) {
+			return Arrays.hashCode((byte[]) element);
+		}
+		if (element instanceof char[]) {
+			return Arrays.hashCode((char[]) element);
+		}
+		if (element instanceof double[]) {
+			return Arrays.hashCode((double[]) element);
+		}
+		if (element instanceof float[]) {
+			return Arrays.hashCode((float[]) element);
+		}
+		if (element instanceof int[]) {
+			return Arrays.hashCode((int[]) element);
+		}
+		if (element instanceof long[]) {
+			return Arrays.hashCode((long[]) element);
+		}
+		return Arrays.hashCode((short[]) element);
+	}
+
+
+	/**
+	 * Base class for field-based keys, serialized as array-based keys.
+	 */
+	private abstract static class FieldBasedSimpleKey extends SimpleKey {
+
+		FieldBasedSimpleKey(int hashCode) {
+			super(hashCode);
+		}
+
+		@Override
+		public String toString() {
+			return toString(SimpleKey.class.getSimpleName());
+		}
+
+		protected Object writeReplace() {
+			return new SimpleKey(toArray());
+		}
+	}
+
+
+	private static final class SimpleKey1 extends FieldBasedSimpleKey {
+
+		@Nullable
+		private final Object element1;
+
+		SimpleKey1(@Nullable Object element1) {
+			super(31 + elementHashCode(element1));
+			this.element1 = element1;
+		}
+
+		@Override
+		int size() {
+			return 1;
+		}
+
+		@Override
+		@Nullable
+		Object get(int index) {
+			if (index == 0) {
+				return this.element1;
+			}
+			throw new IndexOutOfBoundsException("Index: " + index);
+		}
+	}
+
+
+	private static final class SimpleKey2 extends FieldBasedSimpleKey {
+
+		@Nullable
+		private final Object element1;
+
+		@Nullable
+		private final Object element2;
+
+		SimpleKey2(@Nullable Object element1, @Nullable Object element2) {
+			super(31 * (31 + elementHashCode(element1)) + elementHashCode(element2));
+			this.element1 = element1;
+			this.element2 = element2;
+		}
+
+		@Override
+		int size() {
+			return 2;
+		}
+
+		@Override
+		@Nullable
+		Object get(int index) {
+			switch (index) {
+				case 0:
+					return this.element1;
+				case 1:
+					return this.element2;
+				default:
+					throw new IndexOutOfBoundsException("Index: " + index);
+			}
+		}
+
+		@Override
+		public boolean equals(@Nullable Object other) {
+			if (other instanceof SimpleKey2) {
+				SimpleKey2 otherKey = (SimpleKey2) other;
+				return (this == other || (hashCode() == otherKey.hashCode() &&
+						elementEquals(this.element1, otherKey.element1) &&
+						elementEquals(this.element2, otherKey.element2)));
+			}
+			return super.equals(other);
+		}
+	}
+
+
+	private static final class SimpleKey3 extends FieldBasedSimpleKey {
+
+		@Nullable
+		private final Object element1;
+
+		@Nullable
+		private final Object element2;
+
+		@Nullable
+		private final Object element3;
+
+		SimpleKey3(@Nullable Object element1, @Nullable Object element2, @Nullable Object element3) {
+			super(31 * (31 * (31 + elementHashCode(element1)) + elementHashCode(element2)) +
+					elementHashCode(element3));
+			this.element1 = element1;
+			this.element2 = element2;
+			this.element3 = element3;
+		}
+
+		@Override
+		int size() {
+			return 3;
+		}
+
+		@Override
+		@Nullable
+		Object get(int index) {
+			switch (index) {
+				case 0:
+					return this.element1;
+				case 1:
+					return this.element2;
+				case 2:
+					return this.element3;
+				default:
+					throw new IndexOutOfBoundsException("Index: " + index);
+			}
+		}
+
+		@Override
+		public boolean equals(@Nullable Object other) {
+			if (other instanceof SimpleKey3) {
+				SimpleKey3 otherKey = (SimpleKey3) other;
+				return (this == other || (hashCode() == otherKey.hashCode() &&
+						elementEquals(this.element1, otherKey.element1) &&
+						elementEquals(this.element2, otherKey.element2) &&
+						elementEquals(this.element3, otherKey.element3)));
+			}
+			return super.equals(other);
+		}
+	}
+
+
+	private static final class SimpleKey4 extends FieldBasedSimpleKey {
+
+		@Nullable
+		private final Object element1;
+
+		@Nullable
+		private final Object element2;
+
+		@Nullable
+		private final Object element3;
+
+		@Nullable
+		private final Object element4;
+
+		SimpleKey4(@Nullable Object element1, @Nullable Object element2,
+				@Nullable Object element3, @Nullable Object element4) {
+
+			super(31 * (31 * (31 * (31 + elementHashCode(element1)) + elementHashCode(element2)) +
+					elementHashCode(element3)) + elementHashCode(element4));
+			this.element1 = element1;
+			this.element2 = element2;
+			this.element3 = element3;
+			this.element4 = element4;
+		}
+
+		@Override
+		int size() {
+			return 4;
+		}
+
+		@Override
+		@Nullable
+		Object get(int index) {
+			switch (index) {
+				case 0:
+					return this.element1;
+				case 1:
+					return this.element2;
+				case 2:
+					return this.element3;
+				case 3:
+					return this.element4;
+				default:
+					throw new IndexOutOfBoundsException("Index: " + index);
+			}
+		}
+
+		@Override
+		public boolean equals(@Nullable Object other) {
+			if (other instanceof SimpleKey4) {
+				SimpleKey4 otherKey = (SimpleKey4) other;
+				return (this == other || (hashCode() == otherKey.hashCode() &&
+						elementEquals(this.element1, otherKey.element1) &&
+						elementEquals(this.element2, otherKey.element2) &&
+						elementEquals(this.element3, otherKey.element3) &&
+						elementEquals(this.element4, otherKey.element4)));
+			}
+			return super.equals(other);
+		}
+	}
+
 }
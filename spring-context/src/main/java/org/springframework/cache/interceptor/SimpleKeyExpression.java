@@ -0,0 +1,210 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.interceptor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.lang.Nullable;
+
+/**
+ * Compiled form of a simple cache key expression, evaluated directly
+ * against the method arguments without an
+ * {@link org.springframework.expression.EvaluationContext}.
+ *
+ * <p>Supported are references to method arguments ({@code #a0}, {@code #p0}
+ * or {@code #name}), single-quoted String literals and their concatenation
+ * through {@code +}, for example {@code "#id"} or {@code "#a0 + '-' + #a1"}.
+ * Concatenations are only compiled if one of their first two terms is a
+ * literal, so that they are guaranteed to yield a String, following SpEL
+ * semantics for the String conversion of the argument values. Any other
+ * expression is left to SpEL.
+ *
+ * @since 5.3.10
+ * @see CacheOperationExpressionEvaluator
+ */
+final class SimpleKeyExpression {
+
+	private static final TypeDescriptor STRING_TYPE = TypeDescriptor.valueOf(String.class);
+
+
+	/**
+	 * The terms of the expression: String literals or argument indexes.
+	 */
+	private final Object[] terms;
+
+
+	private SimpleKeyExpression(Object[] terms) {
+		this.terms = terms;
+	}
+
+
+	/**
+	 * Evaluate this expression against the given method arguments.
+	 * @param args the method arguments
+	 * @return the key
+	 */
+	@Nullable
+	public Object getValue(Object[] args) {
+		if (this.terms.length == 1) {
+			return getTermValue(this.terms[0], args);
+		}
+		StringBuilder sb = new StringBuilder();
+		for (Object term : this.terms) {
+			sb.append(toString(getTermValue(term, args)));
+		}
+		return sb.toString();
+	}
+
+	@Nullable
+	private static Object getTermValue(Object term, Object[] args) {
+		if (term instanceof Integer) {
+			int index = (Integer) term;
+			return (index < args.length ? args[index] : null);
+		}
+		return term;
+	}
+
+	private static String toString(@Nullable Object value) {
+		if (value == null) {
+			return "null";
+		}
+		if (value instanceof String) {
+			return (String) value;
+		}
+		// Same conversion as for a String concatenation in SpEL
+		ConversionService conversionService = DefaultConversionService.getSharedInstance();
+		TypeDescriptor sourceType = TypeDescriptor.forObject(value);
+		if (conversionService.canConvert(sourceType, STRING_TYPE)) {
+			return String.valueOf(conversionService.convert(value, sourceType, STRING_TYPE));
+		}
+		return String.valueOf(value);
+	}
+
+
+	/**
+	 * Compile the given key expression, if possible.
+	 * @param expression the key expression
+	 * @param parameterCount the number of method parameters
+	 * @param parameterNames the method parameter names, if discoverable
+	 * @return the compiled expression, or {@code null} if the expression
+	 * is not simple enough and needs to be evaluated through SpEL
+	 */
+	@Nullable
+	public static SimpleKeyExpression compile(
+			String expression, int parameterCount, @Nullable String[] parameterNames) {
+
+		List<Object> terms = new ArrayList<>();
+		int length = expression.length();
+		int pos = skipWhitespace(expression, 0);
+		while (pos < length) {
+			char ch = expression.charAt(pos);
+			if (ch == '\'') {
+				StringBuilder literal = new StringBuilder();
+				pos++;
+				while (true) {
+					if (pos >= length) {
+						return null;
+					}
+					ch = expression.charAt(pos++);
+					if (ch == '\'') {
+						if (pos < length && expression.charAt(pos) == '\'') {
+							pos++;
+						}
+						else {
+							break;
+						}
+					}
+					literal.append(ch);
+				}
+				terms.add(literal.toString());
+			}
+			else if (ch == '#') {
+				int start = ++pos;
+				while (pos < length && Character.isJavaIdentifierPart(expression.charAt(pos))) {
+					pos++;
+				}
+				Integer index = resolveArgumentIndex(
+						expression.substring(start, pos), parameterCount, parameterNames);
+				if (index == null) {
+					return null;
+				}
+				terms.add(index);
+			}
+			else {
+				return null;
+			}
+			pos = skipWhitespace(expression, pos);
+			if (pos < length) {
+				if (expression.charAt(pos) != '+') {
+					return null;
+				}
+				pos = skipWhitespace(expression, pos + 1);
+				if (pos >= length) {
+					return null;
+				}
+			}
+		}
+		if (terms.isEmpty() || (terms.size() > 1 &&
+				!(terms.get(0) instanceof String) && !(terms.get(1) instanceof String))) {
+			// Numeric addition or operator overloading possible
+			return null;
+		}
+		return new SimpleKeyExpression(terms.toArray());
+	}
+
+	private static int skipWhitespace(String expression, int pos) {
+		while (pos < expression.length() && Character.isWhitespace(expression.charAt(pos))) {
+			pos++;
+		}
+		return pos;
+	}
+
+	@Nullable
+	private static Integer resolveArgumentIndex(
+			String name, int parameterCount, @Nullable String[] parameterNames) {
+
+		if (name.isEmpty() || !Character.isJavaIdentifierStart(name.charAt(0)) ||
+				"root".equals(name) || "this".equals(name) ||
+				CacheOperationExpressionEvaluator.RESULT_VARIABLE.equals(name)) {
+			return null;
+		}
+		// Variables registered later win, as in MethodBasedEvaluationContext
+		int index = -1;
+		if (parameterNames != null) {
+			for (int i = 0; i < parameterNames.length; i++) {
+				if (name.equals(parameterNames[i])) {
+					index = i;
+				}
+			}
+		}
+		if (name.length() > 1 && name.length() < 5 && (name.charAt(0) == 'a' || name.charAt(0) == 'p')) {
+			String digits = name.substring(1);
+			if (digits.chars().allMatch(ch -> ch >= '0' && ch <= '9')) {
+				int argIndex = Integer.parseInt(digits);
+				if (argIndex < parameterCount) {
+					index = Math.max(index, argIndex);
+				}
+			}
+		}
+		return (index != -1 ? index : null);
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -54,7 +54,7 @@ public class SimpleKeyGenerator implements KeyGenerator {
 				return param;
 			}
 		}
-		return new SimpleKey(params);
+		return SimpleKey.of(params);
 	}
 
 }
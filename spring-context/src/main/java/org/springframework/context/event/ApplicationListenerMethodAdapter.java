@@ -24,8 +24,10 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.StringJoiner;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -47,6 +49,7 @@ import org.springframework.core.annotation.Order;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.util.ObjectUtils;
 import org.springframework.util.ReflectionUtils;
 import org.springframework.util.StringUtils;
@@ -62,6 +65,11 @@ import org.springframework.util.concurrent.ListenableFuture;
  * to define any arbitrary event type. If a condition is defined, it is
  * evaluated prior to invoking the underlying method.
  *
+ * <p>The declared event type matching a given event is cached per concrete
+ * event class (and per payload class for simple {@link PayloadApplicationEvent
+ * payload events}), avoiding repeated {@link ResolvableType} assignability
+ * checks for high-frequency events.
+ *
  * @author Stephane Nicoll
  * @author Juergen Hoeller
  * @author Sam Brannen
@@ -90,9 +98,19 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 
 	private final int order;
 
+	private final Map<Class<?>, ResolvableType> eventTypeCache = new ConcurrentReferenceHashMap<>(16);
+
+	private final Map<Class<?>, ResolvableType> payloadTypeCache = new ConcurrentReferenceHashMap<>(16);
+
 	@Nullable
 	private volatile String listenerId;
 
+	@Nullable
+	private final String executorBeanName;
+
+	@Nullable
+	private volatile Executor listenerExecutor;
+
 	@Nullable
 	private ApplicationContext applicationContext;
 
@@ -111,6 +129,7 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 		this.method = BridgeMethodResolver.findBridgedMethod(method);
 		this.targetMethod = (!Proxy.isProxyClass(targetClass) ?
 				AopUtils.getMostSpecificMethod(method, targetClass) : this.method);
+		ReflectionUtils.makeAccessible(this.method);
 		this.methodKey = new AnnotatedElementKey(this.targetMethod, targetClass);
 
 		EventListener ann = AnnotatedElementUtils.findMergedAnnotation(this.targetMethod, EventListener.class);
@@ -119,6 +138,8 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 		this.order = resolveOrder(this.targetMethod);
 		String id = (ann != null ? ann.id() : "");
 		this.listenerId = (!id.isEmpty() ? id : null);
+		String executor = (ann != null ? ann.executor() : "");
+		this.executorBeanName = (!executor.isEmpty() ? executor : null);
 	}
 
 	private static List<ResolvableType> resolveDeclaredEventTypes(Method method, @Nullable EventListener ann) {
@@ -202,6 +223,26 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 		return id;
 	}
 
+	/**
+	 * Return the executor specified through {@link EventListener#executor()},
+	 * lazily retrieved from the ApplicationContext.
+	 * @since 5.3.10
+	 */
+	@Override
+	@Nullable
+	public Executor getListenerExecutor() {
+		if (this.executorBeanName == null) {
+			return null;
+		}
+		Executor executor = this.listenerExecutor;
+		if (executor == null) {
+			Assert.notNull(this.applicationContext, "ApplicationContext must not be null");
+			executor = this.applicationContext.getBean(this.executorBeanName, Executor.class);
+			this.listenerExecutor = executor;
+		}
+		return executor;
+	}
+
 	/**
 	 * Determine the default id for the target listener, to be applied in case of
 	 * no {@link EventListener#id() annotation-specified id value}.
@@ -339,7 +380,6 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 			return null;
 		}
 
-		ReflectionUtils.makeAccessible(this.method);
 		try {
 			return this.method.invoke(bean, args);
 		}
@@ -448,17 +488,43 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 				payloadType = eventType.as(PayloadApplicationEvent.class).getGeneric();
 			}
 		}
+
+		// Cacheable if the outcome is determined by the event class and payload class alone
+		Map<Class<?>, ResolvableType> cache = null;
+		Class<?> cacheKey = null;
+		if (payloadType == null) {
+			cache = this.eventTypeCache;
+			cacheKey = event.getClass();
+		}
+		else if (event.getClass() == PayloadApplicationEvent.class &&
+				payloadType.getType() instanceof Class && !payloadType.hasGenerics()) {
+			cache = this.payloadTypeCache;
+			cacheKey = (Class<?>) payloadType.getType();
+		}
+		if (cache != null) {
+			ResolvableType cached = cache.get(cacheKey);
+			if (cached != null) {
+				return (cached != ResolvableType.NONE ? cached : null);
+			}
+		}
+
+		ResolvableType result = null;
 		for (ResolvableType declaredEventType : this.declaredEventTypes) {
 			Class<?> eventClass = declaredEventType.toClass();
 			if (!ApplicationEvent.class.isAssignableFrom(eventClass) &&
 					payloadType != null && declaredEventType.isAssignableFrom(payloadType)) {
-				return declaredEventType;
+				result = declaredEventType;
+				break;
 			}
 			if (eventClass.isInstance(event)) {
-				return declaredEventType;
+				result = declaredEventType;
+				break;
 			}
 		}
-		return null;
+		if (cache != null) {
+			cache.put(cacheKey, (result != null ? result : ResolvableType.NONE));
+		}
+		return result;
 	}
 
 
@@ -139,4 +139,17 @@ public @interface EventListener {
 	 */
 	String id() default "";
 
+	/**
+	 * The name of an {@link java.util.concurrent.Executor} bean to invoke this
+	 * listener with, overriding the multicaster's common task executor.
+	 * <p>This allows for dispatching events to slow listeners in parallel
+	 * while other listeners are still invoked in the publishing thread.
+	 * The default is {@code ""}, meaning the executor configured on the
+	 * {@link SimpleApplicationEventMulticaster} applies (if any).
+	 * @since 5.3.10
+	 * @see SmartApplicationListener#getListenerExecutor()
+	 * @see SimpleApplicationEventMulticaster#setOrderedListenerInvocation
+	 */
+	String executor() default "";
+
 }
@@ -17,6 +17,7 @@
 package org.springframework.context.event;
 
 import java.util.Map;
+import java.util.concurrent.Executor;
 
 import org.springframework.aop.support.AopUtils;
 import org.springframework.context.ApplicationEvent;
@@ -96,6 +97,13 @@ public class GenericApplicationListenerAdapter implements GenericApplicationList
 				((SmartApplicationListener) this.delegate).getListenerId() : "");
 	}
 
+	@Override
+	@Nullable
+	public Executor getListenerExecutor() {
+		return (this.delegate instanceof SmartApplicationListener ?
+				((SmartApplicationListener) this.delegate).getListenerExecutor() : null);
+	}
+
 
 	@Nullable
 	private static ResolvableType resolveDeclaredEventType(ApplicationListener<ApplicationEvent> listener) {
@@ -16,7 +16,11 @@
 
 package org.springframework.context.event;
 
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -27,6 +31,7 @@ import org.springframework.context.ApplicationListener;
 import org.springframework.context.PayloadApplicationEvent;
 import org.springframework.core.ResolvableType;
 import org.springframework.lang.Nullable;
+import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.util.ErrorHandler;
 
 /**
@@ -41,6 +46,10 @@ import org.springframework.util.ErrorHandler;
  * This allows the danger of a rogue listener blocking the entire application,
  * but adds minimal overhead. Specify an alternative task executor to have
  * listeners executed in different threads, for example from a thread pool.
+ * Individual listeners may also specify an executor of their own through
+ * {@link SmartApplicationListener#getListenerExecutor()} (e.g. via
+ * {@link EventListener#executor()}), allowing slow listeners to be dispatched
+ * in parallel while others remain synchronous.
  *
  * @author Rod Johnson
  * @author Juergen Hoeller
@@ -56,6 +65,11 @@ public class SimpleApplicationEventMulticaster extends AbstractApplicationEventM
 	@Nullable
 	private ErrorHandler errorHandler;
 
+	private boolean orderedListenerInvocation = false;
+
+	private final Map<ApplicationListener<?>, SerialExecutor> serialExecutors =
+			new ConcurrentReferenceHashMap<>(64, ConcurrentReferenceHashMap.ReferenceType.WEAK);
+
 	@Nullable
 	private volatile Log lazyLogger;
 
@@ -126,6 +140,32 @@ public class SimpleApplicationEventMulticaster extends AbstractApplicationEventM
 		return this.errorHandler;
 	}
 
+	/**
+	 * Specify whether each listener should receive events in publication order
+	 * even when being invoked asynchronously.
+	 * <p>Default is {@code false}, simply handing each listener invocation to
+	 * the applicable executor, so that a listener might see events out of order
+	 * when running on a thread pool. Switch this flag to {@code true} for queuing
+	 * the invocations per listener: each listener then processes one event at
+	 * a time in publication order, while different listeners still run in
+	 * parallel. This has no effect on synchronously invoked listeners.
+	 * @since 5.3.10
+	 * @see #setTaskExecutor
+	 * @see SmartApplicationListener#getListenerExecutor()
+	 */
+	public void setOrderedListenerInvocation(boolean orderedListenerInvocation) {
+		this.orderedListenerInvocation = orderedListenerInvocation;
+	}
+
+	/**
+	 * Return whether each listener receives events in publication order
+	 * even when being invoked asynchronously.
+	 * @since 5.3.10
+	 */
+	public boolean isOrderedListenerInvocation() {
+		return this.orderedListenerInvocation;
+	}
+
 	@Override
 	public void multicastEvent(ApplicationEvent event) {
 		multicastEvent(event, resolveDefaultEventType(event));
@@ -134,8 +174,8 @@ public class SimpleApplicationEventMulticaster extends AbstractApplicationEventM
 	@Override
 	public void multicastEvent(final ApplicationEvent event, @Nullable ResolvableType eventType) {
 		ResolvableType type = (eventType != null ? eventType : resolveDefaultEventType(event));
-		Executor executor = getTaskExecutor();
 		for (ApplicationListener<?> listener : getApplicationListeners(event, type)) {
+			Executor executor = determineExecutor(listener);
 			if (executor != null) {
 				executor.execute(() -> invokeListener(listener, event));
 			}
@@ -145,6 +185,45 @@ public class SimpleApplicationEventMulticaster extends AbstractApplicationEventM
 		}
 	}
 
+	/**
+	 * Determine the executor to invoke the given listener with.
+	 * <p>The default implementation uses the listener-specific executor
+	 * exposed by a {@link SmartApplicationListener}, if any, falling back to
+	 * the common {@link #getTaskExecutor() task executor}. If
+	 * {@link #setOrderedListenerInvocation ordered invocation} is enabled,
+	 * the chosen executor is decorated for serial execution per listener.
+	 * @param listener the ApplicationListener to invoke
+	 * @return the executor to use, or {@code null} for invoking the
+	 * listener synchronously in the calling thread
+	 * @since 5.3.10
+	 */
+	@Nullable
+	protected Executor determineExecutor(ApplicationListener<?> listener) {
+		Executor executor = null;
+		if (listener instanceof SmartApplicationListener) {
+			executor = ((SmartApplicationListener) listener).getListenerExecutor();
+		}
+		if (executor == null) {
+			executor = getTaskExecutor();
+		}
+		if (executor != null && this.orderedListenerInvocation) {
+			return getSerialExecutor(listener, executor);
+		}
+		return executor;
+	}
+
+	private Executor getSerialExecutor(ApplicationListener<?> listener, Executor executor) {
+		SerialExecutor serialExecutor = this.serialExecutors.get(listener);
+		while (serialExecutor == null || serialExecutor.executor != executor) {
+			SerialExecutor newExecutor = new SerialExecutor(executor);
+			boolean registered = (serialExecutor == null ?
+					this.serialExecutors.putIfAbsent(listener, newExecutor) == null :
+					this.serialExecutors.replace(listener, serialExecutor, newExecutor));
+			serialExecutor = (registered ? newExecutor : this.serialExecutors.get(listener));
+		}
+		return serialExecutor;
+	}
+
 	private ResolvableType resolveDefaultEventType(ApplicationEvent event) {
 		return ResolvableType.forInstance(event);
 	}
@@ -215,4 +294,59 @@ public class SimpleApplicationEventMulticaster extends AbstractApplicationEventM
 		return false;
 	}
 
+
+	/**
+	 * Executor decorator that runs the submitted tasks one at a time in
+	 * submission order, without holding a thread of the target executor
+	 * while there is nothing to do.
+	 */
+	private static final class SerialExecutor implements Executor {
+
+		final Executor executor;
+
+		private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+
+		private final AtomicInteger pending = new AtomicInteger();
+
+		SerialExecutor(Executor executor) {
+			this.executor = executor;
+		}
+
+		@Override
+		public void execute(Runnable task) {
+			this.tasks.add(task);
+			if (this.pending.getAndIncrement() == 0) {
+				try {
+					this.executor.execute(this::drain);
+				}
+				catch (RuntimeException ex) {
+					// Rejected: discard our task and hand over remaining ones, if any
+					this.tasks.remove(task);
+					if (this.pending.decrementAndGet() > 0) {
+						this.executor.execute(this::drain);
+					}
+					throw ex;
+				}
+			}
+		}
+
+		private void drain() {
+			do {
+				Runnable task = this.tasks.poll();
+				try {
+					if (task != null) {
+						task.run();
+					}
+				}
+				catch (Throwable ex) {
+					if (this.pending.decrementAndGet() > 0) {
+						this.executor.execute(this::drain);
+					}
+					throw ex;
+				}
+			}
+			while (this.pending.decrementAndGet() > 0);
+		}
+	}
+
 }
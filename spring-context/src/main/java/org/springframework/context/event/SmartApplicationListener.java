@@ -16,6 +16,8 @@
 
 package org.springframework.context.event;
 
+import java.util.concurrent.Executor;
+
 import org.springframework.context.ApplicationEvent;
 import org.springframework.context.ApplicationListener;
 import org.springframework.core.Ordered;
@@ -70,4 +72,18 @@ public interface SmartApplicationListener extends ApplicationListener<Applicatio
 		return "";
 	}
 
+	/**
+	 * Return a specific executor to invoke this listener with.
+	 * <p>The default implementation returns {@code null}, leaving the choice
+	 * up to the multicaster, e.g. its common
+	 * {@link SimpleApplicationEventMulticaster#setTaskExecutor task executor}.
+	 * @since 5.3.10
+	 * @see EventListener#executor
+	 * @see SimpleApplicationEventMulticaster#determineExecutor
+	 */
+	@Nullable
+	default Executor getListenerExecutor() {
+		return null;
+	}
+
 }
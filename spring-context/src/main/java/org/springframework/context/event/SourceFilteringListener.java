@@ -16,6 +16,8 @@
 
 package org.springframework.context.event;
 
+import java.util.concurrent.Executor;
+
 import org.springframework.context.ApplicationEvent;
 import org.springframework.context.ApplicationListener;
 import org.springframework.core.Ordered;
@@ -94,6 +96,12 @@ public class SourceFilteringListener implements GenericApplicationListener {
 		return (this.delegate != null ? this.delegate.getListenerId() : "");
 	}
 
+	@Override
+	@Nullable
+	public Executor getListenerExecutor() {
+		return (this.delegate != null ? this.delegate.getListenerExecutor() : null);
+	}
+
 
 	/**
 	 * Actually process the event, after having filtered according to the
@@ -0,0 +1,519 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.concurrent;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.support.PeriodicTrigger;
+import org.springframework.scheduling.support.SimpleTriggerContext;
+import org.springframework.scheduling.support.TaskUtils;
+import org.springframework.util.Assert;
+import org.springframework.util.ErrorHandler;
+
+/**
+ * Implementation of Spring's {@link TaskScheduler} interface based on a hashed
+ * timer wheel, for a large number of scheduled tasks such as timeouts which
+ * are frequently scheduled and cancelled before they fire.
+ *
+ * <p>Scheduling and cancelling a task are O(1) operations that only append the
+ * task to a lock-free queue; a single timer thread moves the queued tasks into
+ * the buckets of the wheel and, once per tick, hands the expired tasks of the
+ * current bucket over to a thread pool for execution. In contrast to a
+ * {@link ThreadPoolTaskScheduler}, there is no lock shared between scheduling
+ * threads and no O(log n) heap maintenance, at the expense of the precision of
+ * the execution times: tasks are executed at the end of the tick they fall into,
+ * as per the {@link #setTickDuration "tickDuration"} property.
+ *
+ * <p>Repeating tasks, including those driven by a
+ * {@link org.springframework.scheduling.support.CronTrigger}, are rescheduled
+ * onto the wheel after each execution, reusing the same {@link ScheduledFuture}.
+ *
+ * @since 5.3.10
+ * @see #setTickDuration
+ * @see #setTicksPerWheel
+ * @see #setPoolSize
+ * @see ThreadPoolTaskScheduler
+ */
+@SuppressWarnings("serial")
+public class TimerWheelTaskScheduler extends ExecutorConfigurationSupport implements TaskScheduler {
+
+	private long tickNanos = TimeUnit.MILLISECONDS.toNanos(10);
+
+	private int ticksPerWheel = 512;
+
+	private int poolSize = 1;
+
+	@Nullable
+	private volatile ErrorHandler errorHandler;
+
+	private Clock clock = Clock.systemDefaultZone();
+
+	private final Queue<WheelTask> pendingTasks = new ConcurrentLinkedQueue<>();
+
+	private final Queue<WheelTask> cancelledTasks = new ConcurrentLinkedQueue<>();
+
+	@Nullable
+	private Thread timerThread;
+
+	private volatile boolean running;
+
+	private volatile long startTime;
+
+
+	/**
+	 * Set the duration of a tick of the wheel, i.e. the precision of the
+	 * execution times. Default is 10 milliseconds.
+	 */
+	public void setTickDuration(Duration tickDuration) {
+		Assert.isTrue(!tickDuration.isNegative() && !tickDuration.isZero(), "'tickDuration' must be positive");
+		this.tickNanos = tickDuration.toNanos();
+	}
+
+	/**
+	 * Set the number of ticks per revolution of the wheel, rounded up to the
+	 * next power of two. Default is 512.
+	 * <p>Tasks scheduled further ahead than a revolution of the wheel are placed
+	 * into the same buckets as earlier tasks and skipped until their round is due.
+	 */
+	public void setTicksPerWheel(int ticksPerWheel) {
+		Assert.isTrue(ticksPerWheel > 0 && ticksPerWheel <= (1 << 20), "'ticksPerWheel' must be between 1 and 2^20");
+		this.ticksPerWheel = (ticksPerWheel == 1 ? 1 : Integer.highestOneBit(ticksPerWheel - 1) << 1);
+	}
+
+	/**
+	 * Set the number of threads executing the expired tasks.
+	 * Default is 1.
+	 */
+	public void setPoolSize(int poolSize) {
+		Assert.isTrue(poolSize > 0, "'poolSize' must be 1 or higher");
+		this.poolSize = poolSize;
+	}
+
+	/**
+	 * Set a custom {@link ErrorHandler} strategy.
+	 */
+	public void setErrorHandler(ErrorHandler errorHandler) {
+		this.errorHandler = errorHandler;
+	}
+
+	/**
+	 * Set the clock to use for scheduling purposes.
+	 * <p>The default clock is the system clock for the default time zone.
+	 * @see Clock#systemDefaultZone()
+	 */
+	public void setClock(Clock clock) {
+		this.clock = clock;
+	}
+
+	@Override
+	public Clock getClock() {
+		return this.clock;
+	}
+
+
+	@Override
+	protected ExecutorService initializeExecutor(
+			ThreadFactory threadFactory, RejectedExecutionHandler rejectedExecutionHandler) {
+
+		ExecutorService executor = new ThreadPoolExecutor(this.poolSize, this.poolSize, 0, TimeUnit.MILLISECONDS,
+				new LinkedBlockingQueue<>(), threadFactory, rejectedExecutionHandler);
+		this.startTime = System.nanoTime();
+		this.running = true;
+		this.timerThread = threadFactory.newThread(new Worker(executor));
+		this.timerThread.start();
+		return executor;
+	}
+
+	/**
+	 * Stop the timer thread, cancelling all tasks that are not due yet,
+	 * and shut down the thread pool.
+	 * @see #setWaitForTasksToCompleteOnShutdown
+	 */
+	@Override
+	public void shutdown() {
+		this.running = false;
+		Thread timerThread = this.timerThread;
+		if (timerThread != null) {
+			LockSupport.unpark(timerThread);
+			try {
+				timerThread.join(TimeUnit.NANOSECONDS.toMillis(this.tickNanos) + 1000);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		super.shutdown();
+	}
+
+
+	// TaskScheduler implementation
+
+	@Override
+	@Nullable
+	public ScheduledFuture<?> schedule(Runnable task, Trigger trigger) {
+		ErrorHandler errorHandler = this.errorHandler;
+		if (errorHandler == null) {
+			errorHandler = TaskUtils.getDefaultErrorHandler(true);
+		}
+		WheelTask wheelTask = new WheelTask(TaskUtils.decorateTaskWithErrorHandler(task, errorHandler, true), trigger);
+		return (wheelTask.scheduleNext() ? wheelTask : null);
+	}
+
+	@Override
+	public ScheduledFuture<?> schedule(Runnable task, Date startTime) {
+		WheelTask wheelTask = new WheelTask(errorHandlingTask(task, false), null);
+		wheelTask.schedule(startTime.getTime() - this.clock.millis());
+		return wheelTask;
+	}
+
+	@Override
+	public ScheduledFuture<?> scheduleAtFixedRate(Runnable task, Date startTime, long period) {
+		return schedulePeriodic(task, startTime.getTime() - this.clock.millis(), period, true);
+	}
+
+	@Override
+	public ScheduledFuture<?> scheduleAtFixedRate(Runnable task, long period) {
+		return schedulePeriodic(task, 0, period, true);
+	}
+
+	@Override
+	public ScheduledFuture<?> scheduleWithFixedDelay(Runnable task, Date startTime, long delay) {
+		return schedulePeriodic(task, startTime.getTime() - this.clock.millis(), delay, false);
+	}
+
+	@Override
+	public ScheduledFuture<?> scheduleWithFixedDelay(Runnable task, long delay) {
+		return schedulePeriodic(task, 0, delay, false);
+	}
+
+	private ScheduledFuture<?> schedulePeriodic(Runnable task, long initialDelay, long period, boolean fixedRate) {
+		PeriodicTrigger trigger = new PeriodicTrigger(period, TimeUnit.MILLISECONDS);
+		trigger.setInitialDelay(Math.max(initialDelay, 0));
+		trigger.setFixedRate(fixedRate);
+		WheelTask wheelTask = new WheelTask(errorHandlingTask(task, true), trigger);
+		wheelTask.scheduleNext();
+		return wheelTask;
+	}
+
+	private Runnable errorHandlingTask(Runnable task, boolean isRepeatingTask) {
+		return TaskUtils.decorateTaskWithErrorHandler(task, this.errorHandler, isRepeatingTask);
+	}
+
+	private long elapsedNanos() {
+		return System.nanoTime() - this.startTime;
+	}
+
+
+	/**
+	 * A task on the wheel, doubling as its {@link ScheduledFuture} handle.
+	 * The bucket links are only accessed by the timer thread.
+	 */
+	private class WheelTask extends FutureTask<Object> implements ScheduledFuture<Object> {
+
+		@Nullable
+		private final Trigger trigger;
+
+		@Nullable
+		private final SimpleTriggerContext triggerContext;
+
+		@Nullable
+		private Date scheduledExecutionTime;
+
+		/** Deadline in nanoseconds relative to the start time of the scheduler. */
+		private volatile long deadline;
+
+		private long remainingRounds;
+
+		@Nullable
+		private Bucket bucket;
+
+		@Nullable
+		private WheelTask prev;
+
+		@Nullable
+		private WheelTask next;
+
+		WheelTask(Runnable task, @Nullable Trigger trigger) {
+			super(task, null);
+			this.trigger = trigger;
+			this.triggerContext = (trigger != null ? new SimpleTriggerContext(clock) : null);
+		}
+
+		void schedule(long delayMillis) {
+			Assert.state(timerThread != null, "TimerWheelTaskScheduler not initialized");
+			if (!running) {
+				throw new TaskRejectedException("TimerWheelTaskScheduler has been shut down: " + this);
+			}
+			long delayNanos = TimeUnit.MILLISECONDS.toNanos(delayMillis);
+			long deadline = elapsedNanos() + delayNanos;
+			this.deadline = (delayNanos > 0 && deadline < 0 ? Long.MAX_VALUE : deadline);
+			pendingTasks.add(this);
+		}
+
+		/**
+		 * Schedule the next execution as per the trigger.
+		 * @return {@code false} if the trigger does not fire anymore
+		 */
+		boolean scheduleNext() {
+			Assert.state(this.trigger != null && this.triggerContext != null, "No trigger");
+			synchronized (this.triggerContext) {
+				this.scheduledExecutionTime = this.trigger.nextExecutionTime(this.triggerContext);
+				if (this.scheduledExecutionTime == null) {
+					return false;
+				}
+				schedule(this.scheduledExecutionTime.getTime() - this.triggerContext.getClock().millis());
+				return true;
+			}
+		}
+
+		@Override
+		public void run() {
+			if (this.trigger == null || this.triggerContext == null) {
+				super.run();
+				return;
+			}
+			Date actualExecutionTime = new Date(this.triggerContext.getClock().millis());
+			boolean completed = runAndReset();
+			Date completionTime = new Date(this.triggerContext.getClock().millis());
+			if (!completed) {
+				return;
+			}
+			synchronized (this.triggerContext) {
+				Assert.state(this.scheduledExecutionTime != null, "No scheduled execution");
+				this.triggerContext.update(this.scheduledExecutionTime, actualExecutionTime, completionTime);
+				if (!isCancelled() && running && !scheduleNext()) {
+					set(null);
+				}
+			}
+		}
+
+		void reject(Throwable ex) {
+			setException(ex);
+		}
+
+		@Override
+		public boolean cancel(boolean mayInterruptIfRunning) {
+			boolean cancelled = super.cancel(mayInterruptIfRunning);
+			if (cancelled) {
+				cancelledTasks.add(this);
+			}
+			return cancelled;
+		}
+
+		@Override
+		public long getDelay(TimeUnit unit) {
+			return unit.convert(this.deadline - elapsedNanos(), TimeUnit.NANOSECONDS);
+		}
+
+		@Override
+		public int compareTo(Delayed other) {
+			if (this == other) {
+				return 0;
+			}
+			long diff = getDelay(TimeUnit.NANOSECONDS) - other.getDelay(TimeUnit.NANOSECONDS);
+			return (diff == 0 ? 0 : ((diff < 0) ? -1 : 1));
+		}
+	}
+
+
+	/**
+	 * A bucket of the wheel: a doubly linked list of tasks.
+	 */
+	private static class Bucket {
+
+		@Nullable
+		private WheelTask head;
+
+		@Nullable
+		private WheelTask tail;
+
+		void add(WheelTask task) {
+			task.bucket = this;
+			if (this.tail == null) {
+				this.head = task;
+				this.tail = task;
+			}
+			else {
+				this.tail.next = task;
+				task.prev = this.tail;
+				this.tail = task;
+			}
+		}
+
+		@Nullable
+		WheelTask remove(WheelTask task) {
+			WheelTask next = task.next;
+			if (task.prev != null) {
+				task.prev.next = next;
+			}
+			if (task.next != null) {
+				task.next.prev = task.prev;
+			}
+			if (task == this.head) {
+				this.head = next;
+			}
+			if (task == this.tail) {
+				this.tail = task.prev;
+			}
+			task.prev = null;
+			task.next = null;
+			task.bucket = null;
+			return next;
+		}
+
+		void expire(long tickDeadline, List<WheelTask> expired) {
+			WheelTask task = this.head;
+			while (task != null) {
+				if (task.isCancelled()) {
+					task = remove(task);
+				}
+				else if (task.remainingRounds <= 0 && task.deadline <= tickDeadline) {
+					WheelTask next = remove(task);
+					expired.add(task);
+					task = next;
+				}
+				else {
+					task.remainingRounds--;
+					task = task.next;
+				}
+			}
+		}
+
+		void clear(List<WheelTask> remaining) {
+			WheelTask task = this.head;
+			while (task != null) {
+				remaining.add(task);
+				task = remove(task);
+			}
+		}
+	}
+
+
+	/**
+	 * The timer thread: advances the wheel tick by tick, handing expired
+	 * tasks over to the executor.
+	 */
+	private class Worker implements Runnable {
+
+		private final ExecutorService executor;
+
+		private final Bucket[] wheel;
+
+		private final int mask;
+
+		private final long tickNanos;
+
+		private final List<WheelTask> expired = new ArrayList<>();
+
+		private long tick;
+
+		Worker(ExecutorService executor) {
+			this.executor = executor;
+			this.wheel = new Bucket[ticksPerWheel];
+			for (int i = 0; i < this.wheel.length; i++) {
+				this.wheel[i] = new Bucket();
+			}
+			this.mask = this.wheel.length - 1;
+			this.tickNanos = TimerWheelTaskScheduler.this.tickNanos;
+		}
+
+		@Override
+		public void run() {
+			while (running) {
+				long tickDeadline = this.tickNanos * (this.tick + 1);
+				long sleepNanos = tickDeadline - elapsedNanos();
+				if (sleepNanos > 0) {
+					LockSupport.parkNanos(this, sleepNanos);
+					continue;
+				}
+				removeCancelledTasks();
+				transferPendingTasks();
+				this.wheel[(int) (this.tick & this.mask)].expire(tickDeadline, this.expired);
+				for (WheelTask task : this.expired) {
+					try {
+						this.executor.execute(task);
+					}
+					catch (RejectedExecutionException ex) {
+						task.reject(new TaskRejectedException(
+								"Executor [" + this.executor + "] did not accept task: " + task, ex));
+					}
+				}
+				this.expired.clear();
+				this.tick++;
+			}
+			cancelRemainingTasks();
+		}
+
+		private void removeCancelledTasks() {
+			WheelTask task;
+			while ((task = cancelledTasks.poll()) != null) {
+				Bucket bucket = task.bucket;
+				if (bucket != null) {
+					bucket.remove(task);
+				}
+			}
+		}
+
+		private void transferPendingTasks() {
+			WheelTask task;
+			while ((task = pendingTasks.poll()) != null) {
+				if (task.isCancelled()) {
+					continue;
+				}
+				long dueTick = Math.max(task.deadline / this.tickNanos, this.tick);
+				task.remainingRounds = (dueTick - this.tick) / this.wheel.length;
+				this.wheel[(int) (dueTick & this.mask)].add(task);
+			}
+		}
+
+		private void cancelRemainingTasks() {
+			List<WheelTask> remaining = new ArrayList<>();
+			for (Bucket bucket : this.wheel) {
+				bucket.clear(remaining);
+			}
+			remaining.addAll(pendingTasks);
+			pendingTasks.clear();
+			cancelledTasks.clear();
+			for (WheelTask task : remaining) {
+				task.cancel(false);
+			}
+			cancelledTasks.clear();
+		}
+	}
+
+}
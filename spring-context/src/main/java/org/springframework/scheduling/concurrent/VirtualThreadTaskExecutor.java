@@ -0,0 +1,126 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.concurrent;
+
+import java.lang.reflect.Method;
+
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * {@link org.springframework.core.task.AsyncListenableTaskExecutor} implementation
+ * that fires up a new virtual thread for each task, on a JVM that supports
+ * virtual threads (JDK 21+, or earlier JDKs with preview features enabled).
+ * Falls back to a new platform thread per task otherwise, behaving like a
+ * plain {@link SimpleAsyncTaskExecutor}.
+ *
+ * <p>Virtual threads are cheap to create and to block, so this executor is a
+ * good fit for a large number of concurrent tasks performing blocking I/O,
+ * e.g. for {@code @Async} methods, as {@code AsyncTaskExecutor} for Spring MVC's
+ * async request processing or as the task executor of a
+ * {@code DefaultMessageListenerContainer}, without being capped by the size
+ * of a thread pool. The number of concurrent tasks can still be limited
+ * through the {@link #setConcurrencyLimit "concurrencyLimit"} property,
+ * e.g. to protect a downstream resource.
+ *
+ * <p>Virtual threads are always daemon threads and run at normal priority,
+ * so the {@code daemon}, {@code threadPriority} and {@code threadGroup}
+ * settings only apply when falling back to platform threads.
+ *
+ * @since 5.3.10
+ * @see #isVirtualThreadSupported()
+ * @see org.springframework.scheduling.annotation.EnableAsync
+ */
+@SuppressWarnings("serial")
+public class VirtualThreadTaskExecutor extends SimpleAsyncTaskExecutor {
+
+	@Nullable
+	private static final Method ofVirtualMethod;
+
+	@Nullable
+	private static final Method nameMethod;
+
+	@Nullable
+	private static final Method unstartedMethod;
+
+	static {
+		Method ofVirtual = ClassUtils.getMethodIfAvailable(Thread.class, "ofVirtual");
+		Method name = null;
+		Method unstarted = null;
+		if (ofVirtual != null) {
+			try {
+				Class<?> builderClass = ClassUtils.forName(
+						"java.lang.Thread$Builder", VirtualThreadTaskExecutor.class.getClassLoader());
+				name = builderClass.getMethod("name", String.class);
+				unstarted = builderClass.getMethod("unstarted", Runnable.class);
+				// Fails with UnsupportedOperationException if preview features are not enabled
+				ofVirtual.invoke(null);
+			}
+			catch (Throwable ex) {
+				ofVirtual = null;
+			}
+		}
+		ofVirtualMethod = ofVirtual;
+		nameMethod = name;
+		unstartedMethod = unstarted;
+	}
+
+
+	/**
+	 * Create a new VirtualThreadTaskExecutor with default thread name prefix.
+	 */
+	public VirtualThreadTaskExecutor() {
+		super();
+	}
+
+	/**
+	 * Create a new VirtualThreadTaskExecutor with the given thread name prefix.
+	 * @param threadNamePrefix the prefix to use for the names of newly created threads
+	 */
+	public VirtualThreadTaskExecutor(String threadNamePrefix) {
+		super(threadNamePrefix);
+	}
+
+
+	/**
+	 * Create a new virtual thread for the given {@link Runnable}, if supported,
+	 * or a platform thread as per the local properties of this executor otherwise.
+	 * @see #isVirtualThreadSupported()
+	 */
+	@Override
+	public Thread createThread(Runnable runnable) {
+		if (ofVirtualMethod == null || nameMethod == null || unstartedMethod == null) {
+			return super.createThread(runnable);
+		}
+		Object builder = ReflectionUtils.invokeMethod(ofVirtualMethod, null);
+		builder = ReflectionUtils.invokeMethod(nameMethod, builder, nextThreadName());
+		Thread thread = (Thread) ReflectionUtils.invokeMethod(unstartedMethod, builder, runnable);
+		return (thread != null ? thread : super.createThread(runnable));
+	}
+
+
+	/**
+	 * Return whether the current JVM supports virtual threads, i.e. whether
+	 * this executor creates virtual threads rather than platform threads.
+	 */
+	public static boolean isVirtualThreadSupported() {
+		return (ofVirtualMethod != null && nameMethod != null && unstartedMethod != null);
+	}
+
+}
@@ -205,6 +205,14 @@ final class BitsCronField extends CronField {
 		}
 	}
 
+	/**
+	 * Return the bits set for this field, indexed by field value.
+	 * @since 5.3.10
+	 */
+	long getBits() {
+		return this.bits;
+	}
+
 	boolean getBit(int index) {
 		return (this.bits & (1L << index)) != 0;
 	}
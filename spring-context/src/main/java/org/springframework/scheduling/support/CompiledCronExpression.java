@@ -0,0 +1,285 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.support;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.Year;
+import java.time.ZonedDateTime;
+import java.time.temporal.Temporal;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Compiled form of a {@link CronExpression} consisting of plain
+ * {@link BitsCronField BitsCronFields} only, i.e. without Quartz-specific
+ * {@code L}, {@code W} or {@code #} entries.
+ *
+ * <p>Calculates the next match by searching the bit sets of the fields on
+ * plain {@code int} date-time components, only creating the resulting
+ * temporal at the end rather than adjusting a temporal field by field.
+ * Supports {@link LocalDateTime}, {@link OffsetDateTime} and
+ * {@link ZonedDateTime} values, for the latter as long as there is no
+ * time-zone transition (e.g. DST) before the next match.
+ *
+ * @since 5.3.10
+ * @see CronExpression#next(Temporal)
+ */
+final class CompiledCronExpression {
+
+	/**
+	 * The maximum number of years to search: a full cycle of the Gregorian
+	 * calendar, after which there is no match for an expression at all.
+	 */
+	private static final int MAX_YEARS = 400;
+
+	private static final long DAYS_0000_TO_1970 = (146097 * 5L) - (30L * 365L + 7L);
+
+
+	private final long seconds;
+
+	private final long minutes;
+
+	private final long hours;
+
+	private final long daysOfMonth;
+
+	private final long months;
+
+	private final long daysOfWeek;
+
+
+	private CompiledCronExpression(long seconds, long minutes, long hours,
+			long daysOfMonth, long months, long daysOfWeek) {
+
+		this.seconds = seconds;
+		this.minutes = minutes;
+		this.hours = hours;
+		this.daysOfMonth = daysOfMonth;
+		this.months = months;
+		this.daysOfWeek = daysOfWeek;
+	}
+
+
+	/**
+	 * Compile the given fields, if possible.
+	 * @return the compiled expression, or {@code null} if any of the
+	 * fields is not a {@link BitsCronField}
+	 */
+	@Nullable
+	static CompiledCronExpression compile(CronField seconds, CronField minutes, CronField hours,
+			CronField daysOfMonth, CronField months, CronField daysOfWeek) {
+
+		if (seconds instanceof BitsCronField && minutes instanceof BitsCronField &&
+				hours instanceof BitsCronField && daysOfMonth instanceof BitsCronField &&
+				months instanceof BitsCronField && daysOfWeek instanceof BitsCronField) {
+			return new CompiledCronExpression(((BitsCronField) seconds).getBits(),
+					((BitsCronField) minutes).getBits(), ((BitsCronField) hours).getBits(),
+					((BitsCronField) daysOfMonth).getBits(), ((BitsCronField) months).getBits(),
+					((BitsCronField) daysOfWeek).getBits());
+		}
+		return null;
+	}
+
+
+	/**
+	 * Calculate the next temporal that matches, if the type of the
+	 * given temporal is supported.
+	 * @param temporal the seed value
+	 * @return the next match, {@code null} if there is none, or the
+	 * given temporal itself if the calculation needs to be performed
+	 * through the {@link CronField CronFields} instead
+	 */
+	@Nullable
+	@SuppressWarnings("unchecked")
+	<T extends Temporal & Comparable<? super T>> T next(T temporal) {
+		Class<?> type = temporal.getClass();
+		if (type == LocalDateTime.class) {
+			return (T) next((LocalDateTime) temporal);
+		}
+		else if (type == OffsetDateTime.class) {
+			OffsetDateTime dateTime = (OffsetDateTime) temporal;
+			LocalDateTime result = next(dateTime.toLocalDateTime());
+			return (result != null ? (T) OffsetDateTime.of(result, dateTime.getOffset()) : null);
+		}
+		else if (type == ZonedDateTime.class) {
+			ZonedDateTime dateTime = (ZonedDateTime) temporal;
+			LocalDateTime result = next(dateTime.toLocalDateTime());
+			if (result == null) {
+				return temporal;
+			}
+			ZoneRules rules = dateTime.getZone().getRules();
+			if (!rules.isFixedOffset()) {
+				ZoneOffsetTransition transition = rules.nextTransition(dateTime.toInstant());
+				if (transition != null &&
+						result.toEpochSecond(dateTime.getOffset()) >= transition.toEpochSecond()) {
+					// Local time may be skipped or repeated: adjust through the fields
+					return temporal;
+				}
+			}
+			return (T) ZonedDateTime.ofLocal(result, dateTime.getZone(), dateTime.getOffset());
+		}
+		return temporal;
+	}
+
+	/**
+	 * Calculate the next date-time after the given one that matches,
+	 * at the precision of seconds.
+	 */
+	@Nullable
+	LocalDateTime next(LocalDateTime dateTime) {
+		int year = dateTime.getYear();
+		int month = dateTime.getMonthValue();
+		int day = dateTime.getDayOfMonth();
+		int hour = dateTime.getHour();
+		int minute = dateTime.getMinute();
+		int second = dateTime.getSecond() + 1;
+		int maxYear = (int) Math.min((long) year + MAX_YEARS, Year.MAX_VALUE);
+
+		while (year <= maxYear) {
+			int nextMonth = nextSetBit(this.months, month);
+			if (nextMonth == -1) {
+				year++;
+				month = 1;
+				day = 1;
+				hour = minute = second = 0;
+				continue;
+			}
+			if (nextMonth != month) {
+				month = nextMonth;
+				day = 1;
+				hour = minute = second = 0;
+			}
+
+			int nextDay = nextDay(year, month, day);
+			if (nextDay == -1) {
+				month++;
+				day = 1;
+				hour = minute = second = 0;
+				continue;
+			}
+			if (nextDay != day) {
+				day = nextDay;
+				hour = minute = second = 0;
+			}
+
+			int nextHour = nextSetBit(this.hours, hour);
+			if (nextHour == -1) {
+				day++;
+				hour = minute = second = 0;
+				continue;
+			}
+			if (nextHour != hour) {
+				hour = nextHour;
+				minute = second = 0;
+			}
+
+			int nextMinute = nextSetBit(this.minutes, minute);
+			if (nextMinute == -1) {
+				hour++;
+				minute = second = 0;
+				continue;
+			}
+			if (nextMinute != minute) {
+				minute = nextMinute;
+				second = 0;
+			}
+
+			int nextSecond = nextSetBit(this.seconds, second);
+			if (nextSecond == -1) {
+				minute++;
+				second = 0;
+				continue;
+			}
+			return LocalDateTime.of(year, month, day, hour, minute, nextSecond);
+		}
+		return null;
+	}
+
+	/**
+	 * Return the first day of the given month from the given day on that
+	 * matches both the days of month and the days of week, or -1 if none.
+	 */
+	private int nextDay(int year, int month, int fromDay) {
+		int length = lengthOfMonth(year, month);
+		if (fromDay > length) {
+			return -1;
+		}
+		// ISO day of week of the first day of the month: 1 (Monday) to 7 (Sunday)
+		int firstDayOfWeek = (int) Math.floorMod(epochDay(year, month, 1) + 3, 7L) + 1;
+		for (int day = nextSetBit(this.daysOfMonth, fromDay); day != -1 && day <= length;
+				day = nextSetBit(this.daysOfMonth, day + 1)) {
+			int dayOfWeek = (firstDayOfWeek + day - 2) % 7 + 1;
+			if ((this.daysOfWeek & (1L << dayOfWeek)) != 0) {
+				return day;
+			}
+		}
+		return -1;
+	}
+
+	private static int nextSetBit(long bits, int fromIndex) {
+		if (fromIndex > 63) {
+			return -1;
+		}
+		long result = bits & (-1L << fromIndex);
+		return (result != 0 ? Long.numberOfTrailingZeros(result) : -1);
+	}
+
+	private static int lengthOfMonth(int year, int month) {
+		switch (month) {
+			case 2:
+				return (isLeapYear(year) ? 29 : 28);
+			case 4:
+			case 6:
+			case 9:
+			case 11:
+				return 30;
+			default:
+				return 31;
+		}
+	}
+
+	private static boolean isLeapYear(long year) {
+		return ((year & 3) == 0) && ((year % 100) != 0 || (year % 400) == 0);
+	}
+
+	/**
+	 * Same calculation as {@link java.time.LocalDate#toEpochDay()}.
+	 */
+	private static long epochDay(int year, int month, int day) {
+		long y = year;
+		long total = 365 * y;
+		if (y >= 0) {
+			total += (y + 3) / 4 - (y + 99) / 100 + (y + 399) / 400;
+		}
+		else {
+			total -= y / -4 - y / -100 + y / -400;
+		}
+		total += ((367 * month - 362) / 12);
+		total += day - 1;
+		if (month > 2) {
+			total--;
+			if (!isLeapYear(year)) {
+				total--;
+			}
+		}
+		return total - DAYS_0000_TO_1970;
+	}
+
+}
@@ -54,6 +54,9 @@ public final class CronExpression {
 
 	private final CronField[] fields;
 
+	@Nullable
+	private final CompiledCronExpression compiled;
+
 	private final String expression;
 
 
@@ -69,6 +72,7 @@ public final class CronExpression {
 		// reverse order, to make big changes first
 		// to make sure we end up at 0 nanos, we add an extra field
 		this.fields = new CronField[]{daysOfWeek, months, daysOfMonth, hours, minutes, seconds, CronField.zeroNanos()};
+		this.compiled = CompiledCronExpression.compile(seconds, minutes, hours, daysOfMonth, months, daysOfWeek);
 		this.expression = expression;
 	}
 
@@ -243,6 +247,12 @@ public final class CronExpression {
 	 */
 	@Nullable
 	public <T extends Temporal & Comparable<? super T>> T next(T temporal) {
+		if (this.compiled != null) {
+			T result = this.compiled.next(temporal);
+			if (result != temporal) {
+				return result;
+			}
+		}
 		return nextOrSame(ChronoUnit.NANOS.addTo(temporal, 1));
 	}
 
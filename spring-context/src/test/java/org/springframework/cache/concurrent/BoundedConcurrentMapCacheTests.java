@@ -0,0 +1,296 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.concurrent;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.cache.Cache;
+import org.springframework.context.testfixture.cache.AbstractValueAdaptingCacheTests;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for {@link BoundedConcurrentMapCache}.
+ *
+ * @since 5.3.10
+ */
+public class BoundedConcurrentMapCacheTests extends AbstractValueAdaptingCacheTests<BoundedConcurrentMapCache> {
+
+	private BoundedConcurrentMapCache cache;
+
+	private BoundedConcurrentMapCache cacheNoNull;
+
+
+	@BeforeEach
+	public void setup() {
+		this.cache = new BoundedConcurrentMapCache(CACHE_NAME, 100);
+		this.cacheNoNull = new BoundedConcurrentMapCache(CACHE_NAME_NO_NULL, 100, null, (Duration) null, false);
+	}
+
+	@Override
+	protected BoundedConcurrentMapCache getCache() {
+		return getCache(true);
+	}
+
+	@Override
+	protected BoundedConcurrentMapCache getCache(boolean allowNull) {
+		return (allowNull ? this.cache : this.cacheNoNull);
+	}
+
+	@Override
+	protected Object getNativeCache() {
+		return this.cache;
+	}
+
+
+	@Test
+	public void evictLeastRecentlyUsed() {
+		BoundedConcurrentMapCache cache = new BoundedConcurrentMapCache(CACHE_NAME, 3);
+		cache.put("a", "A");
+		cache.put("b", "B");
+		cache.put("c", "C");
+		assertThat(cache.get("a").get()).isEqualTo("A");
+
+		cache.put("d", "D");
+		cache.cleanUp();
+		assertThat(cache.estimatedSize()).isEqualTo(3);
+		assertThat(cache.get("b")).isNull();
+		assertThat(cache.get("a").get()).isEqualTo("A");
+		assertThat(cache.get("c").get()).isEqualTo("C");
+		assertThat(cache.get("d").get()).isEqualTo("D");
+		assertThat(cache.getStatistics().getEvictionCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void scanDoesNotEvictFrequentlyReadEntries() {
+		BoundedConcurrentMapCache cache = new BoundedConcurrentMapCache(CACHE_NAME, 10);
+		for (int i = 0; i < 5; i++) {
+			cache.put("hot" + i, i);
+		}
+		for (int i = 0; i < 5; i++) {
+			assertThat(cache.get("hot" + i)).isNotNull();
+		}
+		cache.cleanUp();
+
+		for (int i = 0; i < 100; i++) {
+			cache.put("scan" + i, i);
+		}
+		cache.cleanUp();
+		assertThat(cache.estimatedSize()).isEqualTo(10);
+		for (int i = 0; i < 5; i++) {
+			assertThat(cache.get("hot" + i).get()).isEqualTo(i);
+		}
+		assertThat(cache.getStatistics().getEvictionCount()).isEqualTo(95);
+	}
+
+	@Test
+	public void demoteWhenProtectedSegmentOverflows() {
+		BoundedConcurrentMapCache cache = new BoundedConcurrentMapCache(CACHE_NAME, 5);
+		for (int i = 0; i < 5; i++) {
+			cache.put("a" + i, i);
+		}
+		// At most 4 entries fit into the protected segment: "a0" is demoted again
+		for (int i = 0; i < 5; i++) {
+			assertThat(cache.get("a" + i)).isNotNull();
+		}
+		cache.cleanUp();
+
+		cache.put("b", "B");
+		cache.cleanUp();
+		assertThat(cache.get("a0")).isNull();
+		assertThat(cache.get("b")).isNotNull();
+		assertThat(cache.get("a1")).isNotNull();
+	}
+
+	@Test
+	public void replaceDoesNotIncreaseSize() {
+		BoundedConcurrentMapCache cache = new BoundedConcurrentMapCache(CACHE_NAME, 2);
+		cache.put("a", "A");
+		cache.put("a", "A2");
+		cache.put("b", "B");
+		cache.cleanUp();
+		assertThat(cache.getWeightedSize()).isEqualTo(2);
+		assertThat(cache.get("a").get()).isEqualTo("A2");
+		assertThat(cache.getStatistics().getEvictionCount()).isEqualTo(0);
+
+		cache.evict("a");
+		cache.cleanUp();
+		assertThat(cache.getWeightedSize()).isEqualTo(1);
+	}
+
+	@Test
+	public void evictByWeight() {
+		BoundedConcurrentMapCache cache = new BoundedConcurrentMapCache(CACHE_NAME, 10,
+				(key, value) -> ((String) value).length(), (Duration) null, true);
+		cache.put("a", "12345");
+		cache.put("b", "1234");
+		cache.cleanUp();
+		assertThat(cache.getWeightedSize()).isEqualTo(9);
+
+		cache.put("c", "12");
+		cache.cleanUp();
+		assertThat(cache.getWeightedSize()).isEqualTo(6);
+		assertThat(cache.get("a")).isNull();
+	}
+
+	@Test
+	public void negativeWeightRejected() {
+		BoundedConcurrentMapCache cache = new BoundedConcurrentMapCache(CACHE_NAME, 10,
+				(key, value) -> -1, (Duration) null, true);
+		assertThatIllegalArgumentException().isThrownBy(() -> cache.put("a", "A"));
+	}
+
+	@Test
+	public void expireAfterTimeToLive() throws InterruptedException {
+		BoundedConcurrentMapCache cache = new BoundedConcurrentMapCache(CACHE_NAME, Long.MAX_VALUE,
+				null, Duration.ofMillis(20), true);
+		cache.put("a", "A");
+		cache.put("b", "B");
+		assertThat(cache.get("a").get()).isEqualTo("A");
+
+		Thread.sleep(50);
+		assertThat(cache.get("a")).isNull();
+		assertThat(cache.putIfAbsent("c", "C")).isNull();
+		assertThat(cache.get("a", () -> "A2")).isEqualTo("A2");
+		cache.cleanUp();
+		assertThat(cache.estimatedSize()).isEqualTo(2);
+		assertThat(cache.getStatistics().getExpirationCount()).isEqualTo(2);
+	}
+
+	@Test
+	public void expireAfterTimeToLivePerEntry() throws InterruptedException {
+		BoundedConcurrentMapCache cache = new BoundedConcurrentMapCache(CACHE_NAME, Long.MAX_VALUE, null,
+				(key, value) -> ("short".equals(value) ? Duration.ofMillis(20) : null), true);
+		cache.put("a", "short");
+		cache.put("b", "long");
+		cache.put("c", "short");
+		cache.put("c", "long");
+
+		Thread.sleep(50);
+		assertThat(cache.get("b").get()).isEqualTo("long");
+		assertThat(cache.get("c").get()).isEqualTo("long");
+		cache.cleanUp();
+		assertThat(cache.estimatedSize()).isEqualTo(2);
+		assertThat(cache.get("a")).isNull();
+		assertThat(cache.getStatistics().getExpirationCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void negativeTimeToLivePerEntryRejected() {
+		BoundedConcurrentMapCache cache = new BoundedConcurrentMapCache(CACHE_NAME, 10, null,
+				(key, value) -> Duration.ofMillis(-1), true);
+		assertThatIllegalArgumentException().isThrownBy(() -> cache.put("a", "A"));
+	}
+
+	@Test
+	public void timeToLiveNotExpired() {
+		BoundedConcurrentMapCache cache = new BoundedConcurrentMapCache(CACHE_NAME, 10,
+				null, Duration.ofHours(1), true);
+		cache.put("a", "A");
+		assertThat(cache.putIfAbsent("a", "A2").get()).isEqualTo("A");
+		assertThat(cache.get("a", () -> "A3")).isEqualTo("A");
+		cache.cleanUp();
+		assertThat(cache.getStatistics().getExpirationCount()).isEqualTo(0);
+	}
+
+	@Test
+	public void bulkOperations() throws InterruptedException {
+		BoundedConcurrentMapCache cache = new BoundedConcurrentMapCache(CACHE_NAME, 2, null,
+				(key, value) -> ("short".equals(value) ? Duration.ofMillis(20) : null), true);
+		Map<String, Object> entries = new LinkedHashMap<>();
+		entries.put("a", "short");
+		entries.put("b", "long");
+		entries.put("c", null);
+		cache.putAll(entries);
+		cache.cleanUp();
+		assertThat(cache.estimatedSize()).isEqualTo(2);
+		assertThat(cache.getStatistics().getEvictionCount()).isEqualTo(1);
+
+		cache.put("a", "short");
+		Thread.sleep(50);
+		Map<Object, Cache.ValueWrapper> result = cache.getAll(Arrays.asList("a", "b", "c", "d"));
+		assertThat(result).containsOnlyKeys("c");
+		assertThat(result.get("c").get()).isNull();
+		cache.cleanUp();
+		assertThat(cache.estimatedSize()).isEqualTo(1);
+
+		BoundedConcurrentMapCache.Statistics statistics = cache.getStatistics();
+		assertThat(statistics.getHitCount()).isEqualTo(1);
+		assertThat(statistics.getMissCount()).isEqualTo(3);
+		assertThat(statistics.getExpirationCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void recordStatistics() {
+		BoundedConcurrentMapCache cache = new BoundedConcurrentMapCache(CACHE_NAME, 10);
+		assertThat(cache.getStatistics().getHitRate()).isEqualTo(1.0);
+		cache.put("a", "A");
+		cache.get("a");
+		cache.get("a", String.class);
+		cache.get("b");
+		cache.get("b", () -> "B");
+		cache.get("b", () -> "B2");
+
+		BoundedConcurrentMapCache.Statistics statistics = cache.getStatistics();
+		assertThat(statistics.getHitCount()).isEqualTo(3);
+		assertThat(statistics.getMissCount()).isEqualTo(2);
+		assertThat(statistics.getHitRate()).isEqualTo(0.6);
+	}
+
+	@Test
+	public void concurrentAccessStaysBounded() throws Exception {
+		BoundedConcurrentMapCache cache = new BoundedConcurrentMapCache(CACHE_NAME, 50);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int i = 0; i < 4; i++) {
+				int offset = i;
+				futures.add(executor.submit(() -> {
+					for (int j = 0; j < 10000; j++) {
+						String key = String.valueOf((j * 7 + offset) % 200);
+						if (cache.get(key) == null) {
+							cache.put(key, key);
+						}
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get(10, TimeUnit.SECONDS);
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+		cache.cleanUp();
+		assertThat(cache.estimatedSize()).isEqualTo(50);
+		assertThat(cache.getWeightedSize()).isEqualTo(50);
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,8 @@
 
 package org.springframework.cache.concurrent;
 
+import java.time.Duration;
+
 import org.junit.jupiter.api.Test;
 
 import org.springframework.cache.Cache;
@@ -67,6 +69,35 @@ public class ConcurrentMapCacheManagerTests {
 		assertThat(cache1.get("key3")).isNull();
 	}
 
+	@Test
+	public void testBoundedMode() {
+		ConcurrentMapCacheManager cm = new ConcurrentMapCacheManager("c1");
+		Cache cache1 = cm.getCache("c1");
+		assertThat(cache1 instanceof ConcurrentMapCache).isTrue();
+
+		cm.setMaximumSize(2);
+		BoundedConcurrentMapCache cache1x = (BoundedConcurrentMapCache) cm.getCache("c1");
+		assertThat(cache1x.getMaximumWeight()).isEqualTo(2);
+		cache1x.put("key1", "value1");
+		cache1x.put("key2", "value2");
+		cache1x.put("key3", "value3");
+		cache1x.cleanUp();
+		assertThat(cache1x.estimatedSize()).isEqualTo(2);
+
+		cm.setMaximumSize(-1);
+		cm.setTimeToLive(Duration.ofMinutes(1));
+		BoundedConcurrentMapCache cache1y = (BoundedConcurrentMapCache) cm.getCache("c1");
+		assertThat(cache1y.getMaximumWeight()).isEqualTo(Long.MAX_VALUE);
+
+		cm.setTimeToLive(null);
+		assertThat(cm.getCache("c1") instanceof ConcurrentMapCache).isTrue();
+
+		cm.setExpiry((key, value) -> Duration.ofMinutes(1));
+		assertThat(cm.getCache("c1") instanceof BoundedConcurrentMapCache).isTrue();
+		cm.setExpiry(null);
+		assertThat(cm.getCache("c1") instanceof ConcurrentMapCache).isTrue();
+	}
+
 	@Test
 	public void testStaticMode() {
 		ConcurrentMapCacheManager cm = new ConcurrentMapCacheManager("c1", "c2");
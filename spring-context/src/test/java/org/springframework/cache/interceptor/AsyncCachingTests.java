@@ -0,0 +1,200 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.interceptor;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Tests for caching methods with {@link CompletableFuture}, {@link Mono}
+ * and {@link Flux} return types.
+ *
+ * @since 5.3.10
+ */
+class AsyncCachingTests {
+
+	private AnnotationConfigApplicationContext context;
+
+	private AsyncService service;
+
+	private AtomicLong counter;
+
+	private Cache cache;
+
+
+	@BeforeEach
+	void setup() {
+		this.context = new AnnotationConfigApplicationContext(Config.class);
+		this.service = this.context.getBean(AsyncService.class);
+		this.counter = this.context.getBean(AtomicLong.class);
+		this.cache = this.context.getBean(CacheManager.class).getCache("testCache");
+	}
+
+	@AfterEach
+	void close() {
+		this.context.close();
+	}
+
+
+	@Test
+	void cacheCompletableFutureValue() {
+		Long first = this.service.cacheFuture("key").join();
+		assertThat(this.service.cacheFuture("key").join()).isEqualTo(first);
+		assertThat(this.service.cacheFuture("other").join()).isNotEqualTo(first);
+		assertThat(this.cache.get("key").get()).isEqualTo(first);
+	}
+
+	@Test
+	void cacheMonoValue() {
+		Mono<Long> mono = this.service.cacheMono("key");
+		assertThat(this.counter.get()).isEqualTo(0);
+
+		Long first = mono.block();
+		assertThat(mono.block()).isEqualTo(first);
+		assertThat(this.service.cacheMono("key").block()).isEqualTo(first);
+		assertThat(this.counter.get()).isEqualTo(1);
+		assertThat(this.cache.get("key").get()).isEqualTo(first);
+	}
+
+	@Test
+	void cacheEmptyMono() {
+		assertThat(this.service.cacheEmptyMono("key").block()).isNull();
+		assertThat(this.service.cacheEmptyMono("key").block()).isNull();
+		assertThat(this.counter.get()).isEqualTo(1);
+	}
+
+	@Test
+	void cacheFluxElements() {
+		List<Long> first = this.service.cacheFlux("key").collectList().block();
+		assertThat(first).hasSize(2);
+		assertThat(this.service.cacheFlux("key").collectList().block()).isEqualTo(first);
+		assertThat(this.counter.get()).isEqualTo(2);
+		assertThat(this.cache.get("key").get()).isEqualTo(first);
+	}
+
+	@Test
+	void failedMonoIsNotCached() {
+		assertThatIllegalStateException().isThrownBy(() -> this.service.failingMono("key").block());
+		assertThat(this.cache.get("key")).isNull();
+		assertThatIllegalStateException().isThrownBy(() -> this.service.failingMono("key").block());
+		assertThat(this.counter.get()).isEqualTo(2);
+	}
+
+	@Test
+	void unlessEvaluatedAgainstResolvedValue() {
+		assertThat(this.service.unlessMono("key").block()).isEqualTo(1L);
+		assertThat(this.cache.get("key")).isNull();
+		assertThat(this.service.unlessMono("key").block()).isEqualTo(2L);
+		assertThat(this.cache.get("key").get()).isEqualTo(2L);
+		assertThat(this.service.unlessMono("key").block()).isEqualTo(2L);
+	}
+
+	@Test
+	void cachePutResolvedValue() {
+		Long first = this.service.putMono("key").block();
+		assertThat(this.cache.get("key").get()).isEqualTo(first);
+		Long second = this.service.putMono("key").block();
+		assertThat(second).isNotEqualTo(first);
+		assertThat(this.cache.get("key").get()).isEqualTo(second);
+	}
+
+
+	@Configuration
+	@EnableCaching
+	static class Config {
+
+		@Bean
+		CacheManager cacheManager() {
+			return new ConcurrentMapCacheManager("testCache");
+		}
+
+		@Bean
+		AtomicLong counter() {
+			return new AtomicLong();
+		}
+
+		@Bean
+		AsyncService asyncService() {
+			return new AsyncService(counter());
+		}
+	}
+
+
+	@Cacheable("testCache")
+	static class AsyncService {
+
+		private final AtomicLong counter;
+
+		AsyncService(AtomicLong counter) {
+			this.counter = counter;
+		}
+
+		public CompletableFuture<Long> cacheFuture(Object arg) {
+			return CompletableFuture.completedFuture(this.counter.incrementAndGet());
+		}
+
+		public Mono<Long> cacheMono(Object arg) {
+			return Mono.fromSupplier(this.counter::incrementAndGet);
+		}
+
+		public Mono<Long> cacheEmptyMono(Object arg) {
+			this.counter.incrementAndGet();
+			return Mono.empty();
+		}
+
+		public Flux<Long> cacheFlux(Object arg) {
+			return Flux.fromIterable(Arrays.asList(this.counter.incrementAndGet(), this.counter.incrementAndGet()));
+		}
+
+		public Mono<Long> failingMono(Object arg) {
+			this.counter.incrementAndGet();
+			return Mono.error(new IllegalStateException("failed"));
+		}
+
+		@Cacheable(cacheNames = "testCache", unless = "#result < 2")
+		public Mono<Long> unlessMono(Object arg) {
+			return Mono.fromSupplier(this.counter::incrementAndGet);
+		}
+
+		@CachePut("testCache")
+		public Mono<Long> putMono(Object arg) {
+			return Mono.fromSupplier(this.counter::incrementAndGet);
+		}
+	}
+
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.interceptor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheConfig;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Tests for {@link Cacheable#bulk()}.
+ *
+ * @since 5.3.10
+ */
+class BulkCachingTests {
+
+	private AnnotationConfigApplicationContext context;
+
+	private ProductService service;
+
+	private List<List<Long>> invocations;
+
+	private Cache cache;
+
+
+	@BeforeEach
+	void setup() {
+		this.context = new AnnotationConfigApplicationContext(Config.class);
+		this.service = this.context.getBean(ProductService.class);
+		this.invocations = this.context.getBean(Config.class).invocations;
+		this.cache = this.context.getBean(CacheManager.class).getCache("products");
+	}
+
+	@AfterEach
+	void close() {
+		this.context.close();
+	}
+
+
+	@Test
+	void loadOnlyMissingKeys() {
+		assertThat(this.service.findByIds(Arrays.asList(1L, 2L))).containsOnlyKeys(1L, 2L);
+		assertThat(this.invocations).containsExactly(Arrays.asList(1L, 2L));
+		assertThat(this.cache.get(1L).get()).isEqualTo("product-1");
+
+		Map<Long, String> result = this.service.findByIds(Arrays.asList(3L, 2L, 1L));
+		assertThat(result.keySet()).containsExactly(3L, 2L, 1L);
+		assertThat(result.values()).containsExactly("product-3", "product-2", "product-1");
+		assertThat(this.invocations).containsExactly(Arrays.asList(1L, 2L), Arrays.asList(3L));
+
+		assertThat(this.service.findByIds(Arrays.asList(2L, 3L))).containsOnlyKeys(2L, 3L);
+		assertThat(this.invocations).hasSize(2);
+	}
+
+	@Test
+	void shareEntriesWithSingleValuedMethod() {
+		this.service.findById(1L);
+		this.service.findByIds(Arrays.asList(1L, 2L));
+		assertThat(this.invocations).containsExactly(Arrays.asList(1L), Arrays.asList(2L));
+		assertThat(this.service.findById(2L)).isEqualTo("product-2");
+		assertThat(this.invocations).hasSize(2);
+	}
+
+	@Test
+	void narrowedKeysRetainCollectionType() {
+		this.service.findByIdSet(new TreeSet<>(Arrays.asList(1L, 2L)));
+		this.service.findByIdSet(new TreeSet<>(Arrays.asList(1L, 2L, 3L)));
+		assertThat(this.invocations).containsExactly(Arrays.asList(1L, 2L), Arrays.asList(3L));
+	}
+
+	@Test
+	void missingEntriesAreNotCached() {
+		Map<Long, String> result = this.service.findByIds(Arrays.asList(1L, -1L));
+		assertThat(result).containsOnlyKeys(1L);
+		assertThat(this.cache.get(-1L)).isNull();
+		this.service.findByIds(Arrays.asList(1L, -1L));
+		assertThat(this.invocations).containsExactly(Arrays.asList(1L, -1L), Arrays.asList(-1L));
+	}
+
+	@Test
+	void unlessEvaluatedPerEntry() {
+		this.service.findByIdsUnless(Arrays.asList(1L, 2L));
+		assertThat(this.cache.get(1L)).isNull();
+		assertThat(this.cache.get(2L).get()).isEqualTo("product-2");
+	}
+
+	@Test
+	void conditionNotPassing() {
+		this.service.findByIdsConditional(Arrays.asList(1L, 2L));
+		assertThat(this.cache.get(1L)).isNull();
+		assertThat(this.invocations).hasSize(1);
+	}
+
+	@Test
+	void invalidReturnType() {
+		assertThatIllegalStateException().isThrownBy(() -> this.service.invalidReturnType(Arrays.asList(1L)));
+	}
+
+	@Test
+	void invalidCombination() {
+		assertThatIllegalStateException().isThrownBy(() -> this.service.invalidCombination(Arrays.asList(1L)));
+	}
+
+
+	@Configuration
+	@EnableCaching
+	static class Config {
+
+		final List<List<Long>> invocations = new ArrayList<>();
+
+		@Bean
+		CacheManager cacheManager() {
+			return new ConcurrentMapCacheManager("products", "other");
+		}
+
+		@Bean
+		ProductService productService() {
+			return new ProductService(this.invocations);
+		}
+	}
+
+
+	@CacheConfig(cacheNames = "products")
+	static class ProductService {
+
+		private final List<List<Long>> invocations;
+
+		ProductService(List<List<Long>> invocations) {
+			this.invocations = invocations;
+		}
+
+		@Cacheable
+		public String findById(Long id) {
+			return find(Arrays.asList(id)).get(id);
+		}
+
+		@Cacheable(bulk = true)
+		public Map<Long, String> findByIds(Collection<Long> ids) {
+			return find(ids);
+		}
+
+		@Cacheable(bulk = true)
+		public Map<Long, String> findByIdSet(Set<Long> ids) {
+			assertThat(ids).isInstanceOf(TreeSet.class);
+			return find(ids);
+		}
+
+		@Cacheable(bulk = true, unless = "#result == 'product-1'")
+		public Map<Long, String> findByIdsUnless(Collection<Long> ids) {
+			return find(ids);
+		}
+
+		@Cacheable(bulk = true, condition = "#ids.size() > 2")
+		public Map<Long, String> findByIdsConditional(Collection<Long> ids) {
+			return find(ids);
+		}
+
+		@Cacheable(bulk = true)
+		public List<String> invalidReturnType(Collection<Long> ids) {
+			return new ArrayList<>(find(ids).values());
+		}
+
+		@Cacheable(bulk = true)
+		@CachePut("other")
+		public Map<Long, String> invalidCombination(Collection<Long> ids) {
+			return find(ids);
+		}
+
+		private Map<Long, String> find(Collection<Long> ids) {
+			this.invocations.add(new ArrayList<>(ids));
+			Map<Long, String> result = new LinkedHashMap<>();
+			for (Long id : ids) {
+				if (id > 0) {
+					result.put(id, "product-" + id);
+				}
+			}
+			return result;
+		}
+	}
+
+}
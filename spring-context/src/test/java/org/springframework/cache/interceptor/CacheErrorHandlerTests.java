@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,8 @@
 package org.springframework.cache.interceptor;
 
 import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -38,11 +40,15 @@ import org.springframework.context.annotation.Configuration;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willCallRealMethod;
 import static org.mockito.BDDMockito.willReturn;
 import static org.mockito.BDDMockito.willThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 /**
  * @author Stephane Nicoll
@@ -125,6 +131,60 @@ public class CacheErrorHandlerTests {
 			.withMessage("Test exception on put");
 	}
 
+	@Test
+	public void retrieveGetFail() {
+		UnsupportedOperationException exception = new UnsupportedOperationException("Test exception on get");
+		CompletableFuture<Object> failed = new CompletableFuture<>();
+		failed.completeExceptionally(exception);
+		given(this.cache.retrieve(eq(0L), any())).willReturn(failed);
+
+		CompletableFuture<Object> result = this.cacheInterceptor.doRetrieve(this.cache, 0L,
+				() -> CompletableFuture.completedFuture(0L));
+		assertThat(result.join()).isEqualTo(0L);
+		verify(this.errorHandler).handleCacheGetError(exception, this.cache, 0L);
+	}
+
+	@Test
+	public void retrievePutFail() {
+		UnsupportedOperationException exception = new UnsupportedOperationException("Test exception on put");
+		willCallRealMethod().given(this.cache).retrieve(eq(0L), any());
+		willThrow(exception).given(this.cache).put(0L, 0L);
+
+		CompletableFuture<Object> result = this.cacheInterceptor.doRetrieve(this.cache, 0L,
+				() -> CompletableFuture.completedFuture(0L));
+		assertThat(result.join()).isEqualTo(0L);
+		verify(this.errorHandler).handleCachePutError(exception, this.cache, 0L, 0L);
+	}
+
+	@Test
+	public void retrievePutFailProperException() {
+		UnsupportedOperationException exception = new UnsupportedOperationException("Test exception on put");
+		willCallRealMethod().given(this.cache).retrieve(eq(0L), any());
+		willThrow(exception).given(this.cache).put(0L, 0L);
+
+		this.cacheInterceptor.setErrorHandler(new SimpleCacheErrorHandler());
+
+		CompletableFuture<Object> result = this.cacheInterceptor.doRetrieve(this.cache, 0L,
+				() -> CompletableFuture.completedFuture(0L));
+		assertThatExceptionOfType(CompletionException.class).isThrownBy(result::join)
+				.withCause(exception);
+	}
+
+	@Test
+	public void retrieveValueLoaderFailNotHandled() {
+		IllegalStateException exception = new IllegalStateException("Test exception on load");
+		willCallRealMethod().given(this.cache).retrieve(eq(0L), any());
+
+		CompletableFuture<Object> result = this.cacheInterceptor.doRetrieve(this.cache, 0L, () -> {
+			CompletableFuture<Object> failed = new CompletableFuture<>();
+			failed.completeExceptionally(exception);
+			return failed;
+		});
+		assertThatExceptionOfType(CompletionException.class).isThrownBy(result::join)
+				.withCause(exception);
+		verifyNoInteractions(this.errorHandler);
+	}
+
 	@Test
 	public void evictFail() {
 		UnsupportedOperationException exception = new UnsupportedOperationException("Test exception on evict");
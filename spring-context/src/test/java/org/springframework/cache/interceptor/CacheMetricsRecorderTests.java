@@ -0,0 +1,211 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.interceptor;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.interceptor.SimpleCacheMetricsRecorder.CacheStatistics;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableMBeanExport;
+import org.springframework.jmx.support.MBeanServerFactoryBean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link CacheMetricsRecorder} support, using a
+ * {@link SimpleCacheMetricsRecorder} with a {@link HotKeyTracker}.
+ *
+ * @since 5.3.10
+ */
+class CacheMetricsRecorderTests {
+
+	private AnnotationConfigApplicationContext context;
+
+	private SimpleService service;
+
+	private SimpleCacheMetricsRecorder recorder;
+
+
+	@BeforeEach
+	void setup() {
+		this.context = new AnnotationConfigApplicationContext(Config.class);
+		this.service = this.context.getBean(SimpleService.class);
+		this.recorder = this.context.getBean(SimpleCacheMetricsRecorder.class);
+	}
+
+	@AfterEach
+	void close() {
+		this.context.close();
+	}
+
+
+	@Test
+	void recordHitsMissesAndPuts() {
+		this.service.get("a");
+		this.service.get("a");
+		this.service.get("a");
+		this.service.get("b");
+
+		CacheStatistics stats = this.recorder.getStatistics("test");
+		assertThat(stats.getHitCount()).isEqualTo(2);
+		assertThat(stats.getMissCount()).isEqualTo(2);
+		assertThat(stats.getHitRatio()).isEqualTo(0.5);
+		assertThat(stats.getPutCount()).isEqualTo(2);
+		assertThat(stats.getAverageGetTime()).isNotNegative();
+		assertThat(this.recorder.getCacheNames()).containsExactly("test");
+		assertThat(this.recorder.getStatistics("other")).isNull();
+	}
+
+	@Test
+	void recordEvictionsAndClears() {
+		this.service.get("a");
+		this.service.evict("a");
+		this.service.clear();
+
+		CacheStatistics stats = this.recorder.getStatistics("test");
+		assertThat(stats.getEvictionCount()).isEqualTo(1);
+		assertThat(stats.getClearCount()).isEqualTo(1);
+		String[] summary = this.recorder.getSummary();
+		assertThat(summary).hasSize(1);
+		assertThat(summary[0]).startsWith("test: hits=0, misses=1").contains("evictions=1, clears=1");
+	}
+
+	@Test
+	void recordSynchronizedGet() {
+		assertThat(this.service.getSync("a")).isEqualTo(1L);
+		assertThat(this.service.getSync("a")).isEqualTo(1L);
+
+		CacheStatistics stats = this.recorder.getStatistics("sync");
+		assertThat(stats.getHitCount()).isEqualTo(1);
+		assertThat(stats.getMissCount()).isEqualTo(1);
+	}
+
+	@Test
+	void trackHotKeys() {
+		for (int i = 0; i < 100; i++) {
+			this.service.get("hot");
+			if (i % 10 == 0) {
+				this.service.get("warm");
+			}
+			this.service.get("cold" + i);
+		}
+
+		List<HotKeyTracker.HotKey> hotKeys = this.recorder.getHotKeyTracker().getHotKeys();
+		assertThat(hotKeys).hasSize(3);
+		assertThat(hotKeys.get(0).getCacheName()).isEqualTo("test");
+		assertThat(hotKeys.get(0).getKey()).isEqualTo("hot");
+		assertThat(hotKeys.get(0).getEstimatedCount()).isGreaterThanOrEqualTo(100);
+		assertThat(hotKeys.get(1).getKey()).isEqualTo("warm");
+		assertThat(this.recorder.getHotKeys()[0]).startsWith("test:hot=");
+
+		this.recorder.reset();
+		assertThat(this.recorder.getCacheNames()).isEmpty();
+		assertThat(this.recorder.getHotKeys()).isEmpty();
+	}
+
+	@Test
+	void exposeThroughJmx() throws Exception {
+		this.service.get("a");
+		this.service.get("a");
+
+		MBeanServer server = this.context.getBean(MBeanServer.class);
+		Set<ObjectName> names = server.queryNames(new ObjectName("*:type=SimpleCacheMetricsRecorder,*"), null);
+		assertThat(names).hasSize(1);
+		ObjectName name = names.iterator().next();
+		assertThat((String[]) server.getAttribute(name, "CacheNames")).containsExactly("test");
+		String[] summary = (String[]) server.getAttribute(name, "Summary");
+		assertThat(summary).hasSize(1);
+		assertThat(summary[0]).startsWith("test: hits=1, misses=1");
+
+		server.invoke(name, "reset", null, null);
+		assertThat(this.recorder.getCacheNames()).isEmpty();
+	}
+
+
+	@Configuration
+	@EnableCaching
+	@EnableMBeanExport(server = "server")
+	static class Config {
+
+		@Bean
+		CacheManager cacheManager() {
+			return new ConcurrentMapCacheManager();
+		}
+
+		@Bean
+		SimpleCacheMetricsRecorder cacheMetricsRecorder() {
+			SimpleCacheMetricsRecorder recorder = new SimpleCacheMetricsRecorder();
+			recorder.setHotKeyTracker(new HotKeyTracker(1, 3, 64));
+			return recorder;
+		}
+
+		@Bean
+		MBeanServerFactoryBean server() {
+			return new MBeanServerFactoryBean();
+		}
+
+		@Bean
+		SimpleService service() {
+			return new SimpleService(new AtomicLong());
+		}
+	}
+
+
+	static class SimpleService {
+
+		private final AtomicLong counter;
+
+		SimpleService(AtomicLong counter) {
+			this.counter = counter;
+		}
+
+		@Cacheable("test")
+		public Object get(Object key) {
+			return this.counter.incrementAndGet();
+		}
+
+		@Cacheable(cacheNames = "sync", sync = true)
+		public Object getSync(Object key) {
+			return this.counter.incrementAndGet();
+		}
+
+		@CacheEvict("test")
+		public void evict(Object key) {
+		}
+
+		@CacheEvict(cacheNames = "test", allEntries = true)
+		public void clear() {
+		}
+	}
+
+}
@@ -0,0 +1,236 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.interceptor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for coalescing concurrent cache misses into a single invocation.
+ *
+ * @since 5.3.10
+ * @see CacheAspectSupport#setCoalesceMisses
+ */
+class CacheMissCoalescingTests {
+
+	private static final int THREADS = 4;
+
+	private AnnotationConfigApplicationContext context;
+
+	private SlowService service;
+
+	private AtomicLong counter;
+
+	private CacheManager cacheManager;
+
+	private ExecutorService executor;
+
+
+	@BeforeEach
+	void setup() {
+		this.context = new AnnotationConfigApplicationContext(Config.class);
+		this.service = this.context.getBean(SlowService.class);
+		this.counter = this.context.getBean(AtomicLong.class);
+		this.cacheManager = this.context.getBean(CacheManager.class);
+		this.executor = Executors.newFixedThreadPool(THREADS);
+	}
+
+	@AfterEach
+	void close() {
+		this.executor.shutdownNow();
+		this.context.close();
+	}
+
+
+	@Test
+	void concurrentMissesInvokeMethodOnce() throws Exception {
+		List<Future<Long>> results = submit(() -> this.service.load("key"));
+		this.service.release();
+
+		for (Future<Long> result : results) {
+			assertThat(result.get(10, TimeUnit.SECONDS)).isEqualTo(1L);
+		}
+		assertThat(this.counter.get()).isEqualTo(1);
+		assertThat(this.cacheManager.getCache("first").get("key").get()).isEqualTo(1L);
+	}
+
+	@Test
+	void concurrentMissesWithMultipleCachesAndCondition() throws Exception {
+		List<Future<Long>> results = submit(() -> this.service.loadMultiple("key"));
+		this.service.release();
+
+		for (Future<Long> result : results) {
+			assertThat(result.get(10, TimeUnit.SECONDS)).isEqualTo(1L);
+		}
+		assertThat(this.counter.get()).isEqualTo(1);
+		assertThat(this.cacheManager.getCache("first").get("key").get()).isEqualTo(1L);
+		assertThat(this.cacheManager.getCache("second").get("key").get()).isEqualTo(1L);
+
+		// Not coalesced: the condition does not apply
+		assertThat(this.service.loadMultiple("skip")).isEqualTo(2L);
+		assertThat(this.service.loadMultiple("skip")).isEqualTo(3L);
+	}
+
+	@Test
+	void failedInvocationReleasesWaitingInvocations() throws Exception {
+		this.service.failNext();
+		List<Future<Long>> results = submit(() -> this.service.load("key"));
+		this.service.release();
+
+		int failures = 0;
+		for (Future<Long> result : results) {
+			try {
+				assertThat(result.get(10, TimeUnit.SECONDS)).isPositive();
+			}
+			catch (Exception ex) {
+				assertThat(ex).hasRootCauseInstanceOf(IllegalStateException.class);
+				failures++;
+			}
+		}
+		assertThat(failures).isEqualTo(1);
+		assertThat(this.cacheManager.getCache("first").get("key")).isNotNull();
+	}
+
+	@Test
+	void concurrentAsyncMissesInvokeMethodOnce() throws Exception {
+		List<Future<Long>> results = submit(() -> this.service.loadAsync("key").join());
+		this.service.release();
+
+		for (Future<Long> result : results) {
+			assertThat(result.get(10, TimeUnit.SECONDS)).isEqualTo(1L);
+		}
+		assertThat(this.counter.get()).isEqualTo(1);
+		assertThat(this.cacheManager.getCache("first").get("key").get()).isEqualTo(1L);
+	}
+
+	private List<Future<Long>> submit(Callable<Long> task) throws InterruptedException {
+		List<Future<Long>> results = new ArrayList<>();
+		for (int i = 0; i < THREADS; i++) {
+			results.add(this.executor.submit(task));
+		}
+		// Give all threads a chance to miss on the cache before releasing the first invocation
+		assertThat(this.service.awaitInvocation()).isTrue();
+		Thread.sleep(100);
+		return results;
+	}
+
+
+	@Configuration
+	@EnableCaching(coalesceMisses = true)
+	static class Config {
+
+		@Bean
+		CacheManager cacheManager() {
+			return new ConcurrentMapCacheManager("first", "second");
+		}
+
+		@Bean
+		AtomicLong counter() {
+			return new AtomicLong();
+		}
+
+		@Bean
+		SlowService slowService() {
+			return new SlowService(counter());
+		}
+	}
+
+
+	static class SlowService {
+
+		private final AtomicLong counter;
+
+		private final CountDownLatch invoked = new CountDownLatch(1);
+
+		private final CountDownLatch released = new CountDownLatch(1);
+
+		private volatile boolean failNext;
+
+		SlowService(AtomicLong counter) {
+			this.counter = counter;
+		}
+
+		@Cacheable("first")
+		public Long load(Object key) throws InterruptedException {
+			return invoke();
+		}
+
+		@Cacheable(cacheNames = {"first", "second"}, condition = "#key != 'skip'")
+		public Long loadMultiple(Object key) throws InterruptedException {
+			return invoke();
+		}
+
+		@Cacheable("first")
+		public CompletableFuture<Long> loadAsync(Object key) {
+			this.invoked.countDown();
+			return CompletableFuture.supplyAsync(() -> {
+				try {
+					this.released.await(10, TimeUnit.SECONDS);
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+				return this.counter.incrementAndGet();
+			});
+		}
+
+		private Long invoke() throws InterruptedException {
+			this.invoked.countDown();
+			this.released.await(10, TimeUnit.SECONDS);
+			if (this.failNext) {
+				this.failNext = false;
+				throw new IllegalStateException("failed");
+			}
+			return this.counter.incrementAndGet();
+		}
+
+		boolean awaitInvocation() throws InterruptedException {
+			return this.invoked.await(10, TimeUnit.SECONDS);
+		}
+
+		void failNext() {
+			this.failNext = true;
+		}
+
+		void release() {
+			this.released.countDown();
+		}
+	}
+
+}
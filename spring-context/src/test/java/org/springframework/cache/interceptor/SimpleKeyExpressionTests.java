@@ -0,0 +1,107 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.interceptor;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.context.expression.AnnotatedElementKey;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.util.ReflectionUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link SimpleKeyExpression}, verifying that compiled key
+ * expressions evaluate to the same keys as their SpEL counterparts.
+ *
+ * @since 5.3.10
+ */
+class SimpleKeyExpressionTests {
+
+	private final CacheOperationExpressionEvaluator evaluator = new CacheOperationExpressionEvaluator();
+
+	private final Method method = ReflectionUtils.findMethod(
+			SimpleKeyExpressionTests.class, "find", String.class, int.class, Object.class);
+
+
+	@Test
+	void compileSimpleExpressions() {
+		assertCompiled("#name", "a", 1, null);
+		assertCompiled("#a1", "a", 1, null);
+		assertCompiled("#p2", "a", 1, TimeUnit.DAYS);
+		assertCompiled(" 'constant' ");
+		assertCompiled("'it''s'");
+		assertCompiled("#a0 + '-' + #a1", "a", 1, null);
+		assertCompiled("#a0 + '-' + #a1", null, 1, null);
+		assertCompiled("'x' + #count + #count", "a", 1, null);
+		assertCompiled("#count+'-'+#other+':'+#name", "a", 1, TimeUnit.SECONDS);
+		assertCompiled("#name + ':' + #other", "a", 1, Arrays.asList(1, 2));
+	}
+
+	@Test
+	void leaveComplexExpressionsToSpel() {
+		assertNotCompiled("#count + #count");
+		assertNotCompiled("#a0.length()");
+		assertNotCompiled("#root.methodName");
+		assertNotCompiled("#result");
+		assertNotCompiled("#a3");
+		assertNotCompiled("#unknown");
+		assertNotCompiled("#name + ");
+		assertNotCompiled("'unterminated");
+		assertNotCompiled("T(java.lang.String).valueOf(#count)");
+		assertNotCompiled("#name - '-'");
+		assertNotCompiled("@bean");
+	}
+
+	@Test
+	void leaveVarargsMethodsToSpel() {
+		Method varargs = ReflectionUtils.findMethod(SimpleKeyExpressionTests.class, "findAll", String[].class);
+		assertThat(this.evaluator.compileKey("#a0", varargs)).isNull();
+	}
+
+	private void assertCompiled(String expression, Object... args) {
+		SimpleKeyExpression compiled = this.evaluator.compileKey(expression, this.method);
+		assertThat(compiled).as(expression).isNotNull();
+		Object[] fullArgs = (args.length == 0 ? new Object[3] : args);
+		EvaluationContext context = this.evaluator.createEvaluationContext(
+				Collections.singleton(new ConcurrentMapCache("test")), this.method, fullArgs, this,
+				SimpleKeyExpressionTests.class, this.method, CacheOperationExpressionEvaluator.NO_RESULT, null);
+		Object expected = this.evaluator.key(
+				expression, new AnnotatedElementKey(this.method, SimpleKeyExpressionTests.class), context);
+		assertThat(compiled.getValue(fullArgs)).as(expression).isEqualTo(expected);
+	}
+
+	private void assertNotCompiled(String expression) {
+		assertThat(this.evaluator.compileKey(expression, this.method)).as(expression).isNull();
+	}
+
+
+	Object find(String name, int count, Object other) {
+		return null;
+	}
+
+	Object findAll(String... names) {
+		return null;
+	}
+
+}
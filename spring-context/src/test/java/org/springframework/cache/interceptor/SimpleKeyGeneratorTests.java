@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -124,6 +124,35 @@ public class SimpleKeyGeneratorTests {
 		assertThat(k1).isNotEqualTo(k3);
 	}
 
+	@Test
+	public void fieldBasedKeysEqualToArrayBasedKeys() {
+		Object[][] elementSets = {
+				{null}, {new int[] {1, 2}}, {"a", 1}, {"a", null, new String[] {"b"}},
+				{"a", 1, 2L, new Object[] {"c", new int[] {3}}}, {"a", "b", "c", "d", "e"}};
+		for (Object[] elements : elementSets) {
+			SimpleKey fieldBased = SimpleKey.of(elements);
+			SimpleKey arrayBased = new SimpleKey(elements);
+			assertThat(fieldBased.hashCode()).isEqualTo(arrayBased.hashCode());
+			assertThat(fieldBased).isEqualTo(arrayBased);
+			assertThat(arrayBased).isEqualTo(fieldBased);
+			assertThat(fieldBased).isEqualTo(SimpleKey.of(elements.clone()));
+			assertThat(fieldBased.toString()).isEqualTo(arrayBased.toString());
+		}
+		assertThat(SimpleKey.of("a", 1)).isNotEqualTo(SimpleKey.of("a", 2));
+		assertThat(SimpleKey.of("a", 1)).isNotEqualTo(new SimpleKey("a", 1, null));
+		assertThat(SimpleKey.of()).isSameAs(SimpleKey.EMPTY);
+	}
+
+	@Test
+	public void fieldBasedKeysSerializedAsArrayBasedKeys() throws Exception {
+		SimpleKey key = SimpleKey.of("a", 1);
+		Object deserialized = SerializationTestUtils.serializeAndDeserialize(key);
+		assertThat(deserialized.getClass()).isEqualTo(SimpleKey.class);
+		assertThat(deserialized).isEqualTo(key);
+		assertThat(key).isEqualTo(deserialized);
+		assertThat(deserialized.hashCode()).isEqualTo(key.hashCode());
+	}
+
 
 	private Object generateKey(Object[] arguments) {
 		return this.generator.generate(null, null, arguments);
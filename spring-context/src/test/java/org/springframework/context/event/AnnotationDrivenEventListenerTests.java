@@ -28,6 +28,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 
 import javax.annotation.PostConstruct;
@@ -599,6 +600,20 @@ public class AnnotationDrivenEventListenerTests {
 		this.eventCollector.assertTotalEventsCount(4);
 	}
 
+	@Test
+	public void conditionMatchRepeatedly() {
+		load(ConditionalEventListener.class);
+		TestEventListener listener = this.context.getBean(ConditionalEventListener.class);
+
+		// Beyond the threshold for compiling the condition expressions
+		for (int i = 0; i < 150; i++) {
+			this.context.publishEvent("OK");
+			this.context.publishEvent("NOT OK");
+			this.context.publishEvent(new TestEvent(this, "KO"));
+		}
+		assertThat(this.eventCollector.getEvents(listener)).hasSize(150).containsOnly("OK");
+	}
+
 	@Test
 	public void conditionDoesNotMatch() {
 		long maxLong = Long.MAX_VALUE;
@@ -642,6 +657,19 @@ public class AnnotationDrivenEventListenerTests {
 		assertThat(listener.order).contains("first", "second", "third");
 	}
 
+	@Test
+	public void listenerWithSpecificExecutor() {
+		load(ExecutorEventListener.class, RecordingExecutor.class);
+		ExecutorEventListener listener = this.context.getBean(ExecutorEventListener.class);
+		RecordingExecutor executor = this.context.getBean(RecordingExecutor.class);
+		TestEvent event = new TestEvent(this, "test");
+
+		this.context.publishEvent(event);
+		this.eventCollector.assertEvent(listener, event);
+		this.eventCollector.assertTotalEventsCount(1);
+		assertThat(executor.invocations).isEqualTo(1);
+	}
+
 	@Test
 	public void missingListenerBeanIgnored() {
 		load(MissingEventListener.class);
@@ -831,6 +859,29 @@ public class AnnotationDrivenEventListenerTests {
 	}
 
 
+	@Component
+	static class ExecutorEventListener extends AbstractTestEventListener {
+
+		@EventListener(executor = "recordingExecutor")
+		public void handle(TestEvent event) {
+			collectEvent(event);
+		}
+	}
+
+
+	@Component("recordingExecutor")
+	static class RecordingExecutor implements Executor {
+
+		int invocations;
+
+		@Override
+		public void execute(Runnable command) {
+			this.invocations++;
+			command.run();
+		}
+	}
+
+
 	@Configuration
 	@Import(BasicConfiguration.class)
 	@EnableAsync(proxyTargetClass = true)
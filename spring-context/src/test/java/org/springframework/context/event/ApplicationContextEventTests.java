@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,7 +20,11 @@ import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import org.aopalliance.intercept.MethodInvocation;
 import org.junit.jupiter.api.Test;
@@ -154,6 +158,52 @@ public class ApplicationContextEventTests extends AbstractApplicationEventListen
 		verify(listener, times(2)).onApplicationEvent(evt);
 	}
 
+	@Test
+	public void simpleApplicationEventMulticasterWithListenerExecutor() {
+		List<Runnable> listenerTasks = new ArrayList<>();
+		MyExecutorListener listener = new MyExecutorListener(listenerTasks::add);
+		@SuppressWarnings("unchecked")
+		ApplicationListener<ApplicationEvent> otherListener = mock(ApplicationListener.class);
+		ApplicationEvent evt = new ContextClosedEvent(new StaticApplicationContext());
+
+		SimpleApplicationEventMulticaster smc = new SimpleApplicationEventMulticaster();
+		smc.addApplicationListener(listener);
+		smc.addApplicationListener(otherListener);
+
+		smc.multicastEvent(evt);
+		verify(otherListener, times(1)).onApplicationEvent(evt);
+		assertThat(listener.seenEvents).isEmpty();
+		assertThat(listenerTasks).hasSize(1);
+		listenerTasks.get(0).run();
+		assertThat(listener.seenEvents).containsExactly(evt);
+	}
+
+	@Test
+	public void simpleApplicationEventMulticasterWithOrderedListenerInvocation() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			MyExecutorListener listener = new MyExecutorListener(null);
+			SimpleApplicationEventMulticaster smc = new SimpleApplicationEventMulticaster();
+			smc.setTaskExecutor(executor);
+			smc.setOrderedListenerInvocation(true);
+			smc.addApplicationListener(listener);
+
+			List<ApplicationEvent> events = new ArrayList<>();
+			for (int i = 0; i < 100; i++) {
+				ApplicationEvent evt = new MyEvent(this);
+				events.add(evt);
+				smc.multicastEvent(evt);
+			}
+			executor.shutdown();
+			assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+			assertThat(listener.seenEvents).containsExactlyElementsOf(events);
+			assertThat(listener.concurrentInvocation).isFalse();
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
 	@Test
 	public void simpleApplicationEventMulticasterWithException() {
 		@SuppressWarnings("unchecked")
@@ -732,4 +782,41 @@ public class ApplicationContextEventTests extends AbstractApplicationEventListen
 		}
 	}
 
+
+	public static class MyExecutorListener implements SmartApplicationListener {
+
+		private final Executor executor;
+
+		public final List<ApplicationEvent> seenEvents = new CopyOnWriteArrayList<>();
+
+		private volatile boolean active;
+
+		public volatile boolean concurrentInvocation;
+
+		public MyExecutorListener(Executor executor) {
+			this.executor = executor;
+		}
+
+		@Override
+		public boolean supportsEventType(Class<? extends ApplicationEvent> eventType) {
+			return true;
+		}
+
+		@Override
+		public Executor getListenerExecutor() {
+			return this.executor;
+		}
+
+		@Override
+		public void onApplicationEvent(ApplicationEvent event) {
+			if (this.active) {
+				this.concurrentInvocation = true;
+			}
+			this.active = true;
+			Thread.yield();
+			this.seenEvents.add(event);
+			this.active = false;
+		}
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -274,6 +274,32 @@ public class ApplicationListenerMethodAdapterTests extends AbstractApplicationEv
 		verify(this.sampleEvents, never()).handleString(anyString());
 	}
 
+	@Test
+	public void invokeListenerWithPayloadRepeatedly() {
+		Method method = ReflectionUtils.findMethod(SampleEvents.class, "handleString", String.class);
+		ApplicationListenerMethodAdapter adapter = createTestInstance(method);
+		for (int i = 0; i < 3; i++) {
+			adapter.onApplicationEvent(new PayloadApplicationEvent<>(this, "test"));
+			adapter.onApplicationEvent(new PayloadApplicationEvent<>(this, 123L));
+		}
+		verify(this.sampleEvents, times(3)).handleString("test");
+		verify(this.sampleEvents, times(3)).handleString(anyString());
+	}
+
+	@Test
+	public void invokeListenerWithGenericPayloadRepeatedly() {
+		Method method = ReflectionUtils.findMethod(
+				SampleEvents.class, "handleGenericStringPayload", EntityWrapper.class);
+		ApplicationListenerMethodAdapter adapter = createTestInstance(method);
+		EntityWrapper<String> payload = new EntityWrapper<>("test");
+		for (int i = 0; i < 3; i++) {
+			adapter.onApplicationEvent(new PayloadApplicationEvent<>(this, payload));
+			adapter.onApplicationEvent(new PayloadApplicationEvent<>(this, new EntityWrapper<>(123)));
+		}
+		verify(this.sampleEvents, times(3)).handleGenericStringPayload(payload);
+		verify(this.sampleEvents, times(3)).handleGenericStringPayload(any());
+	}
+
 	@Test
 	public void invokeListenerWithAnnotationValue() {
 		Method method = ReflectionUtils.findMethod(SampleEvents.class, "handleStringAnnotationClasses");
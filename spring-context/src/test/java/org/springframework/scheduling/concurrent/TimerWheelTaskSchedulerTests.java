@@ -0,0 +1,190 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.concurrent;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.support.CronTrigger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Tests for {@link TimerWheelTaskScheduler}.
+ *
+ * @since 5.3.10
+ */
+class TimerWheelTaskSchedulerTests {
+
+	private final TimerWheelTaskScheduler scheduler = new TimerWheelTaskScheduler();
+
+
+	@BeforeEach
+	void setup() {
+		this.scheduler.setTickDuration(Duration.ofMillis(1));
+		this.scheduler.setTicksPerWheel(16);
+		this.scheduler.setThreadNamePrefix("wheel-");
+		this.scheduler.afterPropertiesSet();
+	}
+
+	@AfterEach
+	void shutdown() {
+		this.scheduler.destroy();
+	}
+
+
+	@Test
+	void scheduleOneTimeTask() throws Exception {
+		AtomicReference<String> threadName = new AtomicReference<>();
+		ScheduledFuture<?> future = this.scheduler.schedule(
+				() -> threadName.set(Thread.currentThread().getName()), new Date(System.currentTimeMillis() + 20));
+		assertThat(future.getDelay(TimeUnit.MILLISECONDS)).isBetween(0L, 20L);
+		assertThat(future.get(1, TimeUnit.SECONDS)).isNull();
+		assertThat(future.isDone()).isTrue();
+		assertThat(threadName.get()).startsWith("wheel-");
+	}
+
+	@Test
+	void scheduleBeyondOneRevolution() throws Exception {
+		// 16 ticks of 1 ms per revolution
+		long start = System.nanoTime();
+		ScheduledFuture<?> future = this.scheduler.schedule(() -> {}, new Date(System.currentTimeMillis() + 50));
+		future.get(1, TimeUnit.SECONDS);
+		assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(45));
+	}
+
+	@Test
+	void scheduleInThePast() throws Exception {
+		ScheduledFuture<?> future = this.scheduler.schedule(() -> {}, new Date(System.currentTimeMillis() - 1000));
+		future.get(1, TimeUnit.SECONDS);
+	}
+
+	@Test
+	void executeInDeadlineOrder() throws Exception {
+		List<Integer> order = new ArrayList<>();
+		CountDownLatch latch = new CountDownLatch(3);
+		long now = System.currentTimeMillis();
+		for (int i : new int[] {3, 1, 2}) {
+			this.scheduler.schedule(() -> {
+				synchronized (order) {
+					order.add(i);
+				}
+				latch.countDown();
+			}, new Date(now + i * 10));
+		}
+		assertThat(latch.await(1, TimeUnit.SECONDS)).isTrue();
+		assertThat(order).containsExactly(1, 2, 3);
+	}
+
+	@Test
+	void cancelledTaskDoesNotRun() throws Exception {
+		AtomicInteger count = new AtomicInteger();
+		ScheduledFuture<?> future = this.scheduler.schedule(count::incrementAndGet,
+				new Date(System.currentTimeMillis() + 20));
+		assertThat(future.cancel(false)).isTrue();
+		assertThat(future.isCancelled()).isTrue();
+		Thread.sleep(50);
+		assertThat(count.get()).isEqualTo(0);
+	}
+
+	@Test
+	void failingTaskCompletesExceptionally() {
+		ScheduledFuture<?> future = this.scheduler.schedule(() -> {
+			throw new IllegalStateException("failed");
+		}, new Date());
+		assertThatExceptionOfType(ExecutionException.class)
+				.isThrownBy(() -> future.get(1, TimeUnit.SECONDS))
+				.withCauseInstanceOf(IllegalStateException.class);
+	}
+
+	@Test
+	void scheduleAtFixedRate() throws Exception {
+		CountDownLatch latch = new CountDownLatch(3);
+		ScheduledFuture<?> future = this.scheduler.scheduleAtFixedRate(latch::countDown, 5);
+		assertThat(latch.await(1, TimeUnit.SECONDS)).isTrue();
+		assertThat(future.isDone()).isFalse();
+		future.cancel(false);
+		assertThat(future.isDone()).isTrue();
+	}
+
+	@Test
+	void scheduleWithFixedDelayContinuesAfterFailure() throws Exception {
+		AtomicInteger count = new AtomicInteger();
+		CountDownLatch latch = new CountDownLatch(3);
+		ScheduledFuture<?> future = this.scheduler.scheduleWithFixedDelay(() -> {
+			latch.countDown();
+			if (count.incrementAndGet() == 1) {
+				throw new IllegalStateException("failed");
+			}
+		}, 5);
+		assertThat(latch.await(1, TimeUnit.SECONDS)).isTrue();
+		future.cancel(false);
+	}
+
+	@Test
+	void scheduleWithTrigger() throws Exception {
+		CountDownLatch latch = new CountDownLatch(2);
+		ScheduledFuture<?> future = this.scheduler.schedule(latch::countDown, new CronTrigger("* * * * * *"));
+		assertThat((Object) future).isNotNull();
+		assertThat(latch.await(3, TimeUnit.SECONDS)).isTrue();
+		future.cancel(false);
+		assertThat(future.isCancelled()).isTrue();
+	}
+
+	@Test
+	void scheduleWithExhaustedTrigger() throws Exception {
+		AtomicInteger count = new AtomicInteger();
+		ScheduledFuture<?> future = this.scheduler.schedule(count::incrementAndGet,
+				triggerContext -> (triggerContext.lastScheduledExecutionTime() == null ? new Date() : null));
+		assertThat((Object) future).isNotNull();
+		assertThat(future.get(1, TimeUnit.SECONDS)).isNull();
+		assertThat(count.get()).isEqualTo(1);
+
+		assertThat((Object) this.scheduler.schedule(count::incrementAndGet, triggerContext -> null)).isNull();
+	}
+
+	@Test
+	void shutdownCancelsPendingTasks() {
+		ScheduledFuture<?> future = this.scheduler.schedule(() -> {}, new Date(System.currentTimeMillis() + 60000));
+		this.scheduler.shutdown();
+		assertThat(future.isCancelled()).isTrue();
+		assertThatExceptionOfType(TaskRejectedException.class).isThrownBy(() ->
+				this.scheduler.schedule(() -> {}, new Date()));
+	}
+
+	@Test
+	void scheduleBeforeInitialization() {
+		assertThatIllegalStateException().isThrownBy(() ->
+				new TimerWheelTaskScheduler().schedule(() -> {}, new Date()));
+	}
+
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.concurrent;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.concurrent.ListenableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link VirtualThreadTaskExecutor}, passing on any JVM
+ * with virtual threads being used where supported.
+ *
+ * @since 5.3.10
+ */
+class VirtualThreadTaskExecutorTests {
+
+	private final VirtualThreadTaskExecutor executor = new VirtualThreadTaskExecutor("test-");
+
+
+	@Test
+	void createVirtualThreadIfSupported() {
+		Thread thread = this.executor.createThread(() -> {});
+		assertThat(thread.getName()).isEqualTo("test-1");
+		assertThat(thread.isDaemon()).isEqualTo(VirtualThreadTaskExecutor.isVirtualThreadSupported());
+		Method isVirtual = ClassUtils.getMethodIfAvailable(Thread.class, "isVirtual");
+		if (isVirtual != null) {
+			assertThat(ReflectionUtils.invokeMethod(isVirtual, thread))
+					.isEqualTo(VirtualThreadTaskExecutor.isVirtualThreadSupported());
+		}
+	}
+
+	@Test
+	void submitListenable() throws Exception {
+		ListenableFuture<String> future = this.executor.submitListenable(() -> Thread.currentThread().getName());
+		assertThat(future.get(1, TimeUnit.SECONDS)).startsWith("test-");
+	}
+
+	@Test
+	void manyConcurrentBlockingTasks() throws Exception {
+		CountDownLatch latch = new CountDownLatch(1);
+		List<Future<?>> futures = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			futures.add(this.executor.submit(() -> {
+				latch.await();
+				return null;
+			}));
+		}
+		latch.countDown();
+		for (Future<?> future : futures) {
+			future.get(1, TimeUnit.SECONDS);
+		}
+	}
+
+	@Test
+	void concurrencyLimit() throws Exception {
+		this.executor.setConcurrencyLimit(2);
+		AtomicInteger active = new AtomicInteger();
+		AtomicInteger maxActive = new AtomicInteger();
+		List<Future<?>> futures = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			futures.add(this.executor.submit(() -> {
+				maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+				Thread.sleep(5);
+				active.decrementAndGet();
+				return null;
+			}));
+		}
+		for (Future<?> future : futures) {
+			future.get(1, TimeUnit.SECONDS);
+		}
+		assertThat(maxActive.get()).isLessThanOrEqualTo(2);
+	}
+
+}
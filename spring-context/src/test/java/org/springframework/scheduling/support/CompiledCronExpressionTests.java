@@ -0,0 +1,125 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.support;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Date;
+import java.util.Random;
+import java.util.TimeZone;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link CompiledCronExpression}, verifying the results against
+ * the independent {@link CronSequenceGenerator} implementation.
+ *
+ * @since 5.3.10
+ */
+class CompiledCronExpressionTests {
+
+	private static final String[] EXPRESSIONS = {
+			"* * * * * *", "0 * * * * *", "*/7 * * * * *", "0 0 * * * *", "0 */15 9-17 * * MON-FRI",
+			"0 0 0 * * *", "0 0 0 1 * *", "0 0 0 31 * *", "0 0 12 * * SUN", "30 45 23 28-31 * *",
+			"0 0 0 1 1 *", "0 0 6,19 * * *", "0 0/30 8-10 * * *", "0 0 0 * 2 0"
+	};
+
+
+	@Test
+	void compileBitsFieldsOnly() {
+		assertThat(CronExpression.parse("0 0 0 * * *").next(LocalDateTime.of(2021, 1, 1, 0, 0)))
+				.isEqualTo(LocalDateTime.of(2021, 1, 2, 0, 0));
+		assertThat(compile("0 0 0 * * *")).isNotNull();
+		assertThat(compile("0 0 0 L * *")).isNull();
+		assertThat(compile("0 0 0 ? * MON#1")).isNull();
+	}
+
+	@Test
+	@SuppressWarnings("deprecation")
+	void sameResultsAsCronSequenceGenerator() {
+		TimeZone utc = TimeZone.getTimeZone("UTC");
+		Random random = new Random(42);
+		for (String expression : EXPRESSIONS) {
+			CompiledCronExpression compiled = compile(expression);
+			CronSequenceGenerator generator = new CronSequenceGenerator(expression, utc);
+			for (int i = 0; i < 200; i++) {
+				long millis = 1_500_000_000_000L + (long) (random.nextDouble() * 400_000_000_000L);
+				LocalDateTime dateTime = LocalDateTime.ofEpochSecond(millis / 1000, 0, ZoneOffset.UTC);
+				Date expected = generator.next(new Date(millis));
+				LocalDateTime result = compiled.next(dateTime);
+				assertThat(result.toInstant(ZoneOffset.UTC).toEpochMilli())
+						.as(expression + " after " + dateTime).isEqualTo(expected.getTime());
+			}
+		}
+	}
+
+	@Test
+	void sparseExpressions() {
+		LocalDateTime start = LocalDateTime.of(2021, 3, 1, 0, 0);
+		assertThat(compile("0 0 0 29 2 *").next(start)).isEqualTo(LocalDateTime.of(2024, 2, 29, 0, 0));
+		assertThat(compile("0 0 0 29 2 MON").next(start)).isEqualTo(LocalDateTime.of(2044, 2, 29, 0, 0));
+		assertThat(compile("0 0 0 13 * FRI").next(start)).isEqualTo(LocalDateTime.of(2021, 8, 13, 0, 0));
+		assertThat(compile("0 0 0 30 2 *").next(start)).isNull();
+		assertThat(compile("59 59 23 31 12 *").next(LocalDateTime.of(2021, 12, 31, 23, 59, 59)))
+				.isEqualTo(LocalDateTime.of(2022, 12, 31, 23, 59, 59));
+	}
+
+	@Test
+	void nanosecondsSkipToNextSecond() {
+		CronExpression expression = CronExpression.parse("* * * * * *");
+		assertThat(expression.next(LocalDateTime.of(2021, 1, 1, 0, 0, 0, 1)))
+				.isEqualTo(LocalDateTime.of(2021, 1, 1, 0, 0, 1));
+	}
+
+	@Test
+	void offsetAndZonedDateTime() {
+		CronExpression expression = CronExpression.parse("0 0 12 * * *");
+		OffsetDateTime offsetDateTime = OffsetDateTime.of(2021, 6, 1, 13, 0, 0, 0, ZoneOffset.ofHours(2));
+		assertThat(expression.next(offsetDateTime))
+				.isEqualTo(OffsetDateTime.of(2021, 6, 2, 12, 0, 0, 0, ZoneOffset.ofHours(2)));
+
+		ZoneId zone = ZoneId.of("Europe/Amsterdam");
+		ZonedDateTime zonedDateTime = ZonedDateTime.of(2021, 6, 1, 13, 0, 0, 0, zone);
+		assertThat(expression.next(zonedDateTime)).isEqualTo(ZonedDateTime.of(2021, 6, 2, 12, 0, 0, 0, zone));
+	}
+
+	@Test
+	void daylightSavingTransitionFallsBackToFields() {
+		ZoneId zone = ZoneId.of("Europe/Amsterdam");
+		CronExpression expression = CronExpression.parse("0 30 2 * * *");
+		// 02:30 does not exist on 2021-03-28, so that day is skipped
+		ZonedDateTime dateTime = ZonedDateTime.of(2021, 3, 27, 3, 0, 0, 0, zone);
+		assertThat(expression.next(dateTime)).isEqualTo(ZonedDateTime.of(2021, 3, 29, 2, 30, 0, 0, zone));
+
+		expression = CronExpression.parse("0 0 12 * * *");
+		dateTime = ZonedDateTime.of(2021, 10, 30, 13, 0, 0, 0, zone);
+		assertThat(expression.next(dateTime)).isEqualTo(ZonedDateTime.of(2021, 10, 31, 12, 0, 0, 0, zone));
+	}
+
+	private static CompiledCronExpression compile(String expression) {
+		String[] fields = expression.split(" ");
+		return CompiledCronExpression.compile(CronField.parseSeconds(fields[0]), CronField.parseMinutes(fields[1]),
+				CronField.parseHours(fields[2]), CronField.parseDaysOfMonth(fields[3]),
+				CronField.parseMonth(fields[4]), CronField.parseDaysOfWeek(fields[5]));
+	}
+
+}
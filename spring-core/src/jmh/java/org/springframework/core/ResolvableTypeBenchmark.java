@@ -0,0 +1,102 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for {@link ResolvableType} creation and assignability checks,
+ * as performed for each event multicast, converter lookup and codec selection.
+ *
+ * @since 5.3.10
+ */
+@BenchmarkMode(Mode.Throughput)
+public class ResolvableTypeBenchmark {
+
+	@Benchmark
+	public void forClass(BenchmarkState state, Blackhole bh) {
+		bh.consume(ResolvableType.forClass(state.type));
+	}
+
+	@Benchmark
+	public void forInstance(BenchmarkState state, Blackhole bh) {
+		bh.consume(ResolvableType.forInstance(state.instance));
+	}
+
+	@Benchmark
+	public void forClassWithGenerics(BenchmarkState state, Blackhole bh) {
+		bh.consume(ResolvableType.forClassWithGenerics(List.class, String.class));
+	}
+
+	@Benchmark
+	public void isAssignableFromClass(BenchmarkState state, Blackhole bh) {
+		bh.consume(state.declaredType.isAssignableFrom(state.type));
+	}
+
+	@Benchmark
+	public void isAssignableFromResolvableType(BenchmarkState state, Blackhole bh) {
+		bh.consume(state.declaredType.isAssignableFrom(ResolvableType.forInstance(state.instance)));
+	}
+
+	@Benchmark
+	public void isAssignableFromGenericType(BenchmarkState state, Blackhole bh) {
+		bh.consume(state.genericDeclaredType.isAssignableFrom(state.type));
+	}
+
+	@Benchmark
+	public void isAssignableFromUncachedType(BenchmarkState state, Blackhole bh) {
+		bh.consume(state.genericDeclaredType.isAssignableFrom(state.genericType));
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkState {
+
+		Class<?> type = StringList.class;
+
+		Object instance = new StringList();
+
+		ResolvableType declaredType;
+
+		ResolvableType genericDeclaredType;
+
+		ResolvableType genericType;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.declaredType = ResolvableType.forClass(List.class);
+			this.genericDeclaredType = ResolvableType.forClassWithGenerics(List.class, CharSequence.class);
+			this.genericType = ResolvableType.forClassWithGenerics(ArrayList.class, CharSequence.class);
+		}
+	}
+
+
+	@SuppressWarnings("serial")
+	static class StringList extends ArrayList<CharSequence> {
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,6 +20,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -33,6 +34,7 @@ import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.infra.Blackhole;
 
+import org.springframework.core.convert.ConversionService;
 import org.springframework.core.convert.TypeDescriptor;
 import org.springframework.util.CollectionUtils;
 
@@ -102,6 +104,38 @@ public class GenericConversionServiceBenchmark {
 	}
 
 
+	@Benchmark
+	public void convertStringToInteger(SimpleBenchmarkState state, Blackhole bh) {
+		bh.consume(state.conversionService.convert(state.source, Integer.class));
+	}
+
+	@Benchmark
+	public void convertStringToIntegerWithSharedInstance(SimpleBenchmarkState state, Blackhole bh) {
+		bh.consume(state.sharedConversionService.convert(state.source, Integer.class));
+	}
+
+	@Benchmark
+	public void canConvertStringToInteger(SimpleBenchmarkState state, Blackhole bh) {
+		bh.consume(state.conversionService.canConvert(String.class, Integer.class));
+	}
+
+	@Benchmark
+	public void convertStringToEnum(SimpleBenchmarkState state, Blackhole bh) {
+		bh.consume(state.conversionService.convert("SECONDS", TimeUnit.class));
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class SimpleBenchmarkState {
+
+		DefaultConversionService conversionService = new DefaultConversionService();
+
+		ConversionService sharedConversionService = DefaultConversionService.getSharedInstance();
+
+		String source = "42";
+	}
+
+
 	@State(Scope.Benchmark)
 	public static class BenchmarkState {
 
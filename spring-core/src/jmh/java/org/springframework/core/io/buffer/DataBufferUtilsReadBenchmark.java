@@ -0,0 +1,108 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import reactor.core.publisher.Flux;
+
+/**
+ * Benchmark for reading a file with {@link DataBufferUtils#read(Path, DataBufferFactory, int, java.nio.file.OpenOption...)}
+ * compared to {@link DataBufferUtils#readMapped(Path, DataBufferFactory, int)}.
+ * Each buffer is copied into a direct buffer, as when writing to a socket.
+ *
+ * @since 5.3.10
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class DataBufferUtilsReadBenchmark {
+
+	@Benchmark
+	public long read(BenchmarkState state) {
+		return state.consume(DataBufferUtils.read(state.path, state.bufferFactory, BenchmarkState.BUFFER_SIZE));
+	}
+
+	@Benchmark
+	public long readMapped(BenchmarkState state) {
+		return state.consume(DataBufferUtils.readMapped(state.path, state.bufferFactory, BenchmarkState.BUFFER_SIZE));
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkState {
+
+		static final int BUFFER_SIZE = 8192;
+
+		@Param({"10", "256", "2048"})
+		public int fileSizeInMb;
+
+		Path path;
+
+		DataBufferFactory bufferFactory = DefaultDataBufferFactory.sharedInstance;
+
+		final ByteBuffer target = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+		@Setup(Level.Trial)
+		public void setup() throws IOException {
+			this.path = Files.createTempFile("DataBufferUtilsReadBenchmark", null);
+			byte[] chunk = new byte[1024 * 1024];
+			new Random(42).nextBytes(chunk);
+			try (FileChannel channel = FileChannel.open(this.path, StandardOpenOption.WRITE)) {
+				for (int i = 0; i < this.fileSizeInMb; i++) {
+					channel.write(ByteBuffer.wrap(chunk));
+				}
+			}
+		}
+
+		@TearDown(Level.Trial)
+		public void tearDown() throws IOException {
+			Files.deleteIfExists(this.path);
+		}
+
+		long consume(Flux<DataBuffer> buffers) {
+			Long count = buffers
+					.map(dataBuffer -> {
+						int length = dataBuffer.readableByteCount();
+						this.target.clear();
+						this.target.put(dataBuffer.asByteBuffer());
+						DataBufferUtils.release(dataBuffer);
+						return (long) length;
+					})
+					.reduce(0L, Long::sum)
+					.block();
+			return (count != null ? count : 0);
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -94,6 +94,12 @@ public class ResolvableType implements Serializable {
 	private static final ConcurrentReferenceHashMap<ResolvableType, ResolvableType> cache =
 			new ConcurrentReferenceHashMap<>(256);
 
+	private static final ConcurrentReferenceHashMap<Class<?>, ResolvableType> classCache =
+			new ConcurrentReferenceHashMap<>(256);
+
+	private static final ConcurrentReferenceHashMap<AssignabilityKey, Boolean> assignableCache =
+			new ConcurrentReferenceHashMap<>(256);
+
 
 	/**
 	 * The underlying Java type being managed.
@@ -133,6 +139,13 @@ public class ResolvableType implements Serializable {
 	@Nullable
 	private volatile ResolvableType[] generics;
 
+	/**
+	 * Whether this is a shared {@link #forClass} instance, memoizing its
+	 * {@link #isAssignableFrom(ResolvableType)} results against plain
+	 * {@code Class}-based types.
+	 */
+	private transient boolean shared;
+
 
 	/**
 	 * Private constructor used to create a new {@link ResolvableType} for cache key purposes,
@@ -260,7 +273,7 @@ public class ResolvableType implements Serializable {
 	 * @see #isAssignableFrom(ResolvableType)
 	 */
 	public boolean isAssignableFrom(Class<?> other) {
-		return isAssignableFrom(forClass(other), null);
+		return isAssignableFrom(forClass(other));
 	}
 
 	/**
@@ -275,9 +288,30 @@ public class ResolvableType implements Serializable {
 	 * {@code ResolvableType}; {@code false} otherwise
 	 */
 	public boolean isAssignableFrom(ResolvableType other) {
+		Assert.notNull(other, "ResolvableType must not be null");
+		if (this.shared && other.isPlainClass()) {
+			// Outcome fully determined by both classes -> memoize
+			AssignabilityKey key = new AssignabilityKey((Class<?>) this.type, (Class<?>) other.type);
+			Boolean assignable = assignableCache.get(key);
+			if (assignable == null) {
+				assignable = isAssignableFrom(other, null);
+				assignableCache.put(key, assignable);
+			}
+			return assignable;
+		}
 		return isAssignableFrom(other, null);
 	}
 
+	/**
+	 * Determine whether this type is a plain wrapper for a {@code Class},
+	 * without any context that could influence the resolution of generics.
+	 */
+	private boolean isPlainClass() {
+		return (this.type instanceof Class && this.typeProvider == null &&
+				this.variableResolver == null && this.componentType == null &&
+				getClass() == ResolvableType.class);
+	}
+
 	private boolean isAssignableFrom(ResolvableType other, @Nullable Map<Type, Type> matchedBefore) {
 		Assert.notNull(other, "ResolvableType must not be null");
 
@@ -960,6 +994,14 @@ public class ResolvableType implements Serializable {
 		return new DefaultVariableResolver(this);
 	}
 
+	/**
+	 * Custom serialization support for shared {@link #forClass} instances,
+	 * writing a plain wrapper without any lazily introspected state.
+	 */
+	private Object writeReplace() {
+		return (this.shared ? new ResolvableType(this.resolved) : this);
+	}
+
 	/**
 	 * Custom serialization support for {@link #NONE}.
 	 */
@@ -1007,7 +1049,19 @@ public class ResolvableType implements Serializable {
 	 * @see #forClassWithGenerics(Class, Class...)
 	 */
 	public static ResolvableType forClass(@Nullable Class<?> clazz) {
-		return new ResolvableType(clazz);
+		// Shared instance per class, keeping its lazily introspected
+		// super types, interfaces, generics and assignability results
+		Class<?> key = (clazz != null ? clazz : Object.class);
+		ResolvableType resolvableType = classCache.get(key);
+		if (resolvableType == null) {
+			resolvableType = new ResolvableType(key);
+			resolvableType.shared = true;
+			ResolvableType existing = classCache.putIfAbsent(key, resolvableType);
+			if (existing != null) {
+				resolvableType = existing;
+			}
+		}
+		return resolvableType;
 	}
 
 	/**
@@ -1450,6 +1504,8 @@ public class ResolvableType implements Serializable {
 	 */
 	public static void clearCache() {
 		cache.clear();
+		classCache.clear();
+		assignableCache.clear();
 		SerializableTypeWrapper.cache.clear();
 	}
 
@@ -1593,6 +1649,39 @@ public class ResolvableType implements Serializable {
 	}
 
 
+	/**
+	 * Key for memoized assignability results between two plain classes.
+	 */
+	private static final class AssignabilityKey {
+
+		private final Class<?> target;
+
+		private final Class<?> source;
+
+		AssignabilityKey(Class<?> target, Class<?> source) {
+			this.target = target;
+			this.source = source;
+		}
+
+		@Override
+		public boolean equals(@Nullable Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof AssignabilityKey)) {
+				return false;
+			}
+			AssignabilityKey otherKey = (AssignabilityKey) other;
+			return (this.target == otherKey.target && this.source == otherKey.source);
+		}
+
+		@Override
+		public int hashCode() {
+			return (this.target.hashCode() * 31 + this.source.hashCode());
+		}
+	}
+
+
 	/**
 	 * Internal helper to handle bounds from {@link WildcardType WildcardTypes}.
 	 */
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -46,10 +46,12 @@ public class DefaultConversionService extends GenericConversionService {
 
 	/**
 	 * Create a new {@code DefaultConversionService} with the set of
-	 * {@linkplain DefaultConversionService#addDefaultConverters(ConverterRegistry) default converters}.
+	 * {@linkplain DefaultConversionService#addDefaultConverters(ConverterRegistry) default converters},
+	 * {@linkplain #precomputeConverterCache() pre-populating} the converter cache.
 	 */
 	public DefaultConversionService() {
 		addDefaultConverters(this);
+		precomputeConverterCache();
 	}
 
 
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,10 +17,14 @@
 package org.springframework.core.convert.support;
 
 import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Deque;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -28,6 +32,7 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import org.springframework.core.DecoratingProxy;
 import org.springframework.core.ResolvableType;
@@ -74,11 +79,46 @@ public class GenericConversionService implements ConfigurableConversionService {
 	 */
 	private static final GenericConverter NO_MATCH = new NoOpConverter("NO_MATCH");
 
+	/**
+	 * Simple types with a dedicated slot in the array-based converter cache.
+	 */
+	private static final Class<?>[] SIMPLE_TYPES = {
+			boolean.class, Boolean.class, byte.class, Byte.class, char.class, Character.class,
+			double.class, Double.class, float.class, Float.class, int.class, Integer.class,
+			long.class, Long.class, short.class, Short.class, String.class,
+			BigInteger.class, BigDecimal.class};
+
+	/**
+	 * Slot index for enum types in the array-based converter cache, only used
+	 * for conversions from and to {@code String} through the default converters.
+	 */
+	private static final int ENUM_INDEX = SIMPLE_TYPES.length;
+
+	private static final int SIMPLE_CACHE_STRIDE = SIMPLE_TYPES.length + 1;
+
+	private static final Map<Class<?>, Integer> simpleTypeIndexes = new HashMap<>(32);
+
+	private static final Map<Class<?>, Boolean> simpleEnumTypes = new ConcurrentReferenceHashMap<>(64);
+
+	private static final int STRING_INDEX;
+
+	static {
+		for (int i = 0; i < SIMPLE_TYPES.length; i++) {
+			simpleTypeIndexes.put(SIMPLE_TYPES[i], i);
+		}
+		STRING_INDEX = simpleTypeIndexes.get(String.class);
+	}
+
 
 	private final Converters converters = new Converters();
 
 	private final Map<ConverterCacheKey, GenericConverter> converterCache = new ConcurrentReferenceHashMap<>(64);
 
+	private volatile AtomicReferenceArray<GenericConverter> simpleConverterCache =
+			new AtomicReferenceArray<>(SIMPLE_CACHE_STRIDE * SIMPLE_CACHE_STRIDE);
+
+	private volatile boolean enumConverterCacheable;
+
 
 	// ConverterRegistry implementation
 
@@ -252,24 +292,111 @@ public class GenericConversionService implements ConfigurableConversionService {
 	 */
 	@Nullable
 	protected GenericConverter getConverter(TypeDescriptor sourceType, TypeDescriptor targetType) {
+		// Fast path for conversions between plain simple types, e.g. request parameter binding
+		int simpleIndex = getSimpleCacheIndex(sourceType, targetType);
+		AtomicReferenceArray<GenericConverter> simpleCache = this.simpleConverterCache;
+		if (simpleIndex >= 0) {
+			GenericConverter converter = simpleCache.get(simpleIndex);
+			if (converter != null) {
+				return (converter != NO_MATCH ? converter : null);
+			}
+		}
+
 		ConverterCacheKey key = new ConverterCacheKey(sourceType, targetType);
 		GenericConverter converter = this.converterCache.get(key);
-		if (converter != null) {
-			return (converter != NO_MATCH ? converter : null);
+		if (converter == null) {
+			converter = this.converters.find(sourceType, targetType);
+			if (converter == null) {
+				converter = getDefaultConverter(sourceType, targetType);
+			}
+			if (converter == null) {
+				converter = NO_MATCH;
+			}
+			this.converterCache.put(key, converter);
+		}
+		if (simpleIndex >= 0) {
+			simpleCache.set(simpleIndex, converter);
 		}
+		return (converter != NO_MATCH ? converter : null);
+	}
 
-		converter = this.converters.find(sourceType, targetType);
-		if (converter == null) {
-			converter = getDefaultConverter(sourceType, targetType);
+	/**
+	 * Determine the slot in the array-based converter cache for the given types:
+	 * only available for unannotated {@link #SIMPLE_TYPES simple types}, where the
+	 * {@code Class} pair fully determines the {@link ConverterCacheKey}, as well as
+	 * for conversions between {@code String} and enums without interfaces, which
+	 * share a slot per direction as long as only the default converters apply.
+	 * @return the slot index, or -1 if the types are not eligible
+	 */
+	private int getSimpleCacheIndex(TypeDescriptor sourceType, TypeDescriptor targetType) {
+		int sourceIndex = getSimpleTypeIndex(sourceType.getType());
+		if (sourceIndex < 0) {
+			return -1;
+		}
+		int targetIndex = getSimpleTypeIndex(targetType.getType());
+		if (targetIndex < 0) {
+			return -1;
+		}
+		if ((sourceIndex == ENUM_INDEX || targetIndex == ENUM_INDEX) &&
+				(sourceIndex != STRING_INDEX && targetIndex != STRING_INDEX || !this.enumConverterCacheable)) {
+			return -1;
 		}
+		if (sourceType.getAnnotations().length > 0 || targetType.getAnnotations().length > 0) {
+			return -1;
+		}
+		return sourceIndex * SIMPLE_CACHE_STRIDE + targetIndex;
+	}
 
-		if (converter != null) {
-			this.converterCache.put(key, converter);
-			return converter;
+	private static int getSimpleTypeIndex(Class<?> type) {
+		Integer index = simpleTypeIndexes.get(type);
+		if (index != null) {
+			return index;
 		}
+		if (type.isEnum()) {
+			// Enum interfaces are part of the converter lookup and thus vary per enum type
+			Boolean simple = simpleEnumTypes.computeIfAbsent(type, key -> key.getInterfaces().length == 0);
+			return (simple ? ENUM_INDEX : -1);
+		}
+		return -1;
+	}
 
-		this.converterCache.put(key, NO_MATCH);
-		return null;
+	/**
+	 * Pre-populate the converter cache for all conversions between common
+	 * simple types (primitives, wrappers, {@code String}, {@code BigInteger},
+	 * {@code BigDecimal}) as well as between {@code String} and enums, avoiding
+	 * type hierarchy lookups on first use of the corresponding conversions.
+	 * <p>Any subsequent converter registration invalidates the cache again.
+	 * @since 5.3.10
+	 */
+	public void precomputeConverterCache() {
+		for (Class<?> sourceType : SIMPLE_TYPES) {
+			for (Class<?> targetType : SIMPLE_TYPES) {
+				getConverter(TypeDescriptor.valueOf(sourceType), TypeDescriptor.valueOf(targetType));
+			}
+		}
+		if (this.enumConverterCacheable) {
+			getConverter(TypeDescriptor.valueOf(String.class), TypeDescriptor.valueOf(SimpleEnum.class));
+			getConverter(TypeDescriptor.valueOf(SimpleEnum.class), TypeDescriptor.valueOf(String.class));
+		}
+	}
+
+	/**
+	 * Determine whether conversions between {@code String} and enums without
+	 * interfaces resolve to the same converter for every such enum: that is,
+	 * if the default {@link StringToEnumConverterFactory} and
+	 * {@link EnumToStringConverter} are the only converters registered for
+	 * {@code Enum} and no converters are registered for specific enum types.
+	 */
+	private boolean isEnumConverterCacheable() {
+		if (this.converters.hasEnumTypeConverters()) {
+			return false;
+		}
+		GenericConverter stringToEnum = this.converters.getSingleConverter(String.class, Enum.class);
+		GenericConverter enumToString = this.converters.getSingleConverter(Enum.class, String.class);
+		return (stringToEnum instanceof ConverterFactoryAdapter &&
+				((ConverterFactoryAdapter) stringToEnum).converterFactory.getClass() == StringToEnumConverterFactory.class &&
+				enumToString instanceof ConverterAdapter &&
+				((ConverterAdapter) enumToString).converter.getClass() == EnumToStringConverter.class);
 	}
 
 	/**
@@ -305,6 +432,8 @@ public class GenericConversionService implements ConfigurableConversionService {
 
 	private void invalidateCache() {
 		this.converterCache.clear();
+		this.enumConverterCacheable = isEnumConverterCacheable();
+		this.simpleConverterCache = new AtomicReferenceArray<>(SIMPLE_CACHE_STRIDE * SIMPLE_CACHE_STRIDE);
 	}
 
 	@Nullable
@@ -504,6 +633,8 @@ public class GenericConversionService implements ConfigurableConversionService {
 
 		private final Map<ConvertiblePair, ConvertersForPair> converters = new ConcurrentHashMap<>(256);
 
+		private volatile boolean enumTypeConverters;
+
 		public void add(GenericConverter converter) {
 			Set<ConvertiblePair> convertibleTypes = converter.getConvertibleTypes();
 			if (convertibleTypes == null) {
@@ -514,10 +645,35 @@ public class GenericConversionService implements ConfigurableConversionService {
 			else {
 				for (ConvertiblePair convertiblePair : convertibleTypes) {
 					getMatchableConverters(convertiblePair).add(converter);
+					if (isEnumType(convertiblePair.getSourceType()) || isEnumType(convertiblePair.getTargetType())) {
+						this.enumTypeConverters = true;
+					}
 				}
 			}
 		}
 
+		private static boolean isEnumType(Class<?> type) {
+			return (type != Enum.class && Enum.class.isAssignableFrom(type));
+		}
+
+		/**
+		 * Return whether a converter has ever been registered for a specific
+		 * enum type, as opposed to {@code Enum} in general.
+		 */
+		public boolean hasEnumTypeConverters() {
+			return this.enumTypeConverters;
+		}
+
+		/**
+		 * Return the converter registered for the given pair of types,
+		 * provided that it is the only one.
+		 */
+		@Nullable
+		public GenericConverter getSingleConverter(Class<?> sourceType, Class<?> targetType) {
+			ConvertersForPair convertersForPair = this.converters.get(new ConvertiblePair(sourceType, targetType));
+			return (convertersForPair != null ? convertersForPair.getSingleConverter() : null);
+		}
+
 		private ConvertersForPair getMatchableConverters(ConvertiblePair convertiblePair) {
 			return this.converters.computeIfAbsent(convertiblePair, k -> new ConvertersForPair());
 		}
@@ -657,6 +813,13 @@ public class GenericConversionService implements ConfigurableConversionService {
 			this.converters.addFirst(converter);
 		}
 
+		@Nullable
+		public GenericConverter getSingleConverter() {
+			Iterator<GenericConverter> iterator = this.converters.iterator();
+			GenericConverter converter = (iterator.hasNext() ? iterator.next() : null);
+			return (iterator.hasNext() ? null : converter);
+		}
+
 		@Nullable
 		public GenericConverter getConverter(TypeDescriptor sourceType, TypeDescriptor targetType) {
 			for (GenericConverter converter : this.converters) {
@@ -675,6 +838,14 @@ public class GenericConversionService implements ConfigurableConversionService {
 	}
 
 
+	/**
+	 * Representative enum for the String/enum slots of the array-based
+	 * converter cache, without interfaces like all enums sharing those slots.
+	 */
+	private enum SimpleEnum {
+	}
+
+
 	/**
 	 * Internal converter that performs no operation.
 	 */
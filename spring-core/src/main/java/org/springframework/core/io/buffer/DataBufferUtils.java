@@ -25,6 +25,7 @@ import java.nio.channels.AsynchronousFileChannel;
 import java.nio.channels.Channel;
 import java.nio.channels.Channels;
 import java.nio.channels.CompletionHandler;
+import java.nio.channels.FileChannel;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.WritableByteChannel;
 import java.nio.file.OpenOption;
@@ -184,6 +185,54 @@ public abstract class DataBufferUtils {
 				bufferFactory, bufferSize);
 	}
 
+	/**
+	 * Read the given file {@code Path} into a {@code Flux} of read-only
+	 * {@code DataBuffer}s that wrap slices of the file mapped into memory,
+	 * rather than copying its content into allocated buffers.
+	 * <p>The file is mapped in regions of up to 64 MB on demand, so files
+	 * larger than 2 GB are supported. The file is closed when the flux is
+	 * terminated, while a mapped region remains valid until it is garbage
+	 * collected. Memory mapping is best suited to large files that are read
+	 * frequently; note that the content of the returned buffers is undefined
+	 * if the file is truncated or modified concurrently.
+	 * @param path the path to read bytes from
+	 * @param bufferFactory the factory to wrap the mapped slices with
+	 * @param bufferSize the maximum size of the data buffers
+	 * @return a Flux of data buffers mapped from the given file
+	 * @since 5.3.10
+	 * @see FileChannel#map
+	 */
+	public static Flux<DataBuffer> readMapped(Path path, DataBufferFactory bufferFactory, int bufferSize) {
+		return readMapped(path, 0, bufferFactory, bufferSize);
+	}
+
+	/**
+	 * Read the given file {@code Path} into a {@code Flux} of read-only
+	 * {@code DataBuffer}s that wrap slices of the file mapped into memory,
+	 * starting at the given position.
+	 * @param path the path to read bytes from
+	 * @param position the position to start reading from
+	 * @param bufferFactory the factory to wrap the mapped slices with
+	 * @param bufferSize the maximum size of the data buffers
+	 * @return a Flux of data buffers mapped from the given file
+	 * @since 5.3.10
+	 * @see #readMapped(Path, DataBufferFactory, int)
+	 */
+	public static Flux<DataBuffer> readMapped(
+			Path path, long position, DataBufferFactory bufferFactory, int bufferSize) {
+
+		Assert.notNull(path, "Path must not be null");
+		Assert.notNull(bufferFactory, "BufferFactory must not be null");
+		Assert.isTrue(position >= 0, "'position' must be >= 0");
+		Assert.isTrue(bufferSize > 0, "'bufferSize' must be > 0");
+
+		return Flux.using(() -> FileChannel.open(path, StandardOpenOption.READ),
+				channel -> Flux.generate(new MappedFileGenerator(channel, position, bufferFactory, bufferSize)),
+				DataBufferUtils::closeChannel);
+
+		// No doOnDiscard as operators used do not cache
+	}
+
 	/**
 	 * Read the given {@code Resource} into a {@code Flux} of {@code DataBuffer}s.
 	 * <p>If the resource is a file, it is read into an
@@ -913,6 +962,59 @@ public abstract class DataBufferUtils {
 	}
 
 
+	private static class MappedFileGenerator implements Consumer<SynchronousSink<DataBuffer>> {
+
+		private static final long MAX_REGION_SIZE = 64 * 1024 * 1024;
+
+		private final FileChannel channel;
+
+		private final DataBufferFactory dataBufferFactory;
+
+		private final int bufferSize;
+
+		private long position;
+
+		@Nullable
+		private ByteBuffer region;
+
+		public MappedFileGenerator(
+				FileChannel channel, long position, DataBufferFactory dataBufferFactory, int bufferSize) {
+
+			this.channel = channel;
+			this.position = position;
+			this.dataBufferFactory = dataBufferFactory;
+			this.bufferSize = bufferSize;
+		}
+
+		@Override
+		public void accept(SynchronousSink<DataBuffer> sink) {
+			try {
+				ByteBuffer region = this.region;
+				if (region == null || !region.hasRemaining()) {
+					long size = this.channel.size();
+					if (this.position >= size) {
+						this.region = null;
+						sink.complete();
+						return;
+					}
+					long regionSize = Math.min(MAX_REGION_SIZE, size - this.position);
+					region = this.channel.map(FileChannel.MapMode.READ_ONLY, this.position, regionSize);
+					this.region = region;
+					this.position += regionSize;
+				}
+				int length = Math.min(this.bufferSize, region.remaining());
+				ByteBuffer slice = region.slice();
+				slice.limit(length);
+				region.position(region.position() + length);
+				sink.next(this.dataBufferFactory.wrap(slice));
+			}
+			catch (IOException ex) {
+				sink.error(ex);
+			}
+		}
+	}
+
+
 	private static class ReadCompletionHandler implements CompletionHandler<Integer, DataBuffer> {
 
 		private final AsynchronousFileChannel channel;
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -107,6 +107,30 @@ class ResolvableTypeTests {
 		assertThat(type.isAssignableFrom(ArrayList.class)).isFalse();
 	}
 
+	@Test
+	void forClassReturnsSharedInstance() throws Exception {
+		assertThat(ResolvableType.forClass(ExtendsList.class)).isSameAs(ResolvableType.forClass(ExtendsList.class));
+		assertThat(ResolvableType.forClass(null)).isSameAs(ResolvableType.forClass(Object.class));
+		assertThat(ResolvableType.forInstance("test")).isSameAs(ResolvableType.forClass(String.class));
+		assertThat(ResolvableType.forRawClass(ExtendsList.class)).isNotSameAs(ResolvableType.forClass(ExtendsList.class));
+	}
+
+	@Test
+	void forClassIsAssignableFromRepeatedly() throws Exception {
+		ResolvableType type = ResolvableType.forClass(ExtendsList.class);
+		ResolvableType listOfCharSequence = ResolvableType.forClass(ExtendsList.class).as(List.class);
+		for (int i = 0; i < 3; i++) {
+			assertThat(type.isAssignableFrom(ExtendsList.class)).isTrue();
+			assertThat(type.isAssignableFrom(ResolvableType.forClass(ExtendsList.class))).isTrue();
+			assertThat(type.isAssignableFrom(ArrayList.class)).isFalse();
+			assertThat(type.isAssignableFrom(ResolvableType.forRawClass(ArrayList.class))).isFalse();
+			assertThat(ResolvableType.forClass(List.class).isAssignableFrom(ExtendsList.class)).isTrue();
+			assertThat(listOfCharSequence.isAssignableFrom(ExtendsList.class)).isTrue();
+			assertThat(ResolvableType.forClassWithGenerics(List.class, String.class)
+					.isAssignableFrom(ExtendsList.class)).isFalse();
+		}
+	}
+
 	@Test
 	void forClassWithNull() throws Exception {
 		ResolvableType type = ResolvableType.forClass(null);
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,6 +20,8 @@ import java.awt.Color;
 import java.awt.SystemColor;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -37,6 +39,7 @@ import org.springframework.core.convert.ConversionFailedException;
 import org.springframework.core.convert.ConverterNotFoundException;
 import org.springframework.core.convert.TypeDescriptor;
 import org.springframework.core.convert.converter.ConditionalConverter;
+import org.springframework.core.convert.converter.ConditionalGenericConverter;
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.core.convert.converter.ConverterFactory;
 import org.springframework.core.convert.converter.GenericConverter;
@@ -576,6 +579,87 @@ class GenericConversionServiceTests {
 		assertThat(conversionService.convert("test", TypeDescriptor.valueOf(String.class), new TypeDescriptor(getClass().getField("integerCollection")))).isEqualTo(Collections.singleton("testX"));
 	}
 
+	@Test
+	void simpleTypeConverterCacheInvalidatedOnAddConverter() {
+		conversionService.addConverter(String.class, Integer.class, Integer::valueOf);
+		assertThat(conversionService.convert("3", Integer.class)).isEqualTo(3);
+		assertThat(conversionService.canConvert(String.class, Long.class)).isFalse();
+
+		conversionService.addConverter(String.class, Integer.class, source -> Integer.valueOf(source) * 2);
+		conversionService.addConverter(String.class, Long.class, Long::valueOf);
+		assertThat(conversionService.convert("3", Integer.class)).isEqualTo(6);
+		assertThat(conversionService.convert("3", Long.class)).isEqualTo(3L);
+	}
+
+	@Test
+	void simpleTypeConverterCacheInvalidatedOnRemoveConvertible() {
+		conversionService.addConverter(String.class, Integer.class, Integer::valueOf);
+		assertThat(conversionService.convert("3", Integer.class)).isEqualTo(3);
+
+		conversionService.removeConvertible(String.class, Integer.class);
+		assertThat(conversionService.canConvert(String.class, Integer.class)).isFalse();
+	}
+
+	@Test
+	void simpleTypeConverterCacheBypassedForAnnotatedTarget() throws Exception {
+		conversionService.addConverter(new MyConditionalStringConverter());
+		TypeDescriptor sourceType = TypeDescriptor.valueOf(String.class);
+		TypeDescriptor annotatedType = new TypeDescriptor(getClass().getField("annotatedString"));
+
+		assertThat(conversionService.canConvert(sourceType, TypeDescriptor.valueOf(String.class))).isTrue();
+		assertThat(conversionService.convert("test", sourceType, TypeDescriptor.valueOf(String.class))).isEqualTo("test");
+		assertThat(conversionService.convert("test", sourceType, annotatedType)).isEqualTo("TEST");
+	}
+
+	@Test
+	void precomputeConverterCache() {
+		DefaultConversionService conversionService = new DefaultConversionService();
+		conversionService.precomputeConverterCache();
+
+		assertThat(conversionService.convert("3", Integer.class)).isEqualTo(3);
+		assertThat(conversionService.convert(3, String.class)).isEqualTo("3");
+		assertThat(conversionService.convert("true", boolean.class)).isTrue();
+		assertThat(conversionService.convert("1.5", BigDecimal.class)).isEqualTo(new BigDecimal("1.5"));
+		assertThat(conversionService.convert("B", MyEnum.class)).isEqualTo(MyEnum.B);
+		assertThat(conversionService.canConvert(Boolean.class, BigInteger.class)).isFalse();
+
+		conversionService.addConverter(String.class, Integer.class, source -> 42);
+		assertThat(conversionService.convert("3", Integer.class)).isEqualTo(42);
+	}
+
+	@Test
+	void simpleTypeConverterCacheForEnums() {
+		DefaultConversionService conversionService = new DefaultConversionService();
+		conversionService.addConverter(MyEnumInterface.class, String.class, MyEnumInterface::getCode);
+		assertThat(conversionService.convert("B", PlainEnum.class)).isEqualTo(PlainEnum.B);
+		assertThat(conversionService.convert("B", OtherPlainEnum.class)).isEqualTo(OtherPlainEnum.B);
+		assertThat(conversionService.convert(PlainEnum.A, String.class)).isEqualTo("A");
+		assertThat(conversionService.convert(OtherPlainEnum.B, String.class)).isEqualTo("B");
+		assertThat(conversionService.convert("FIRST", EnumWithSubclass.class)).isEqualTo(EnumWithSubclass.FIRST);
+		assertThat(conversionService.convert(MyEnum.A, String.class)).isEqualTo("1");
+	}
+
+	@Test
+	void simpleTypeConverterCacheForEnumsBypassedForEnumTypeConverter() {
+		DefaultConversionService conversionService = new DefaultConversionService();
+		conversionService.addConverter(String.class, OtherPlainEnum.class, source -> OtherPlainEnum.B);
+		conversionService.addConverter(OtherPlainEnum.class, String.class, source -> "other");
+
+		assertThat(conversionService.convert("A", PlainEnum.class)).isEqualTo(PlainEnum.A);
+		assertThat(conversionService.convert("A", OtherPlainEnum.class)).isEqualTo(OtherPlainEnum.B);
+		assertThat(conversionService.convert(PlainEnum.A, String.class)).isEqualTo("A");
+		assertThat(conversionService.convert(OtherPlainEnum.A, String.class)).isEqualTo("other");
+	}
+
+	@Test
+	void simpleTypeConverterCacheForEnumsBypassedForConditionalEnumConverter() {
+		DefaultConversionService conversionService = new DefaultConversionService();
+		conversionService.addConverter(new ConditionalStringToEnumConverter());
+
+		assertThat(conversionService.convert("A", PlainEnum.class)).isEqualTo(PlainEnum.A);
+		assertThat(conversionService.convert("A", OtherPlainEnum.class)).isEqualTo(OtherPlainEnum.B);
+	}
+
 
 	@ExampleAnnotation(active = true)
 	public String annotatedString;
@@ -798,6 +882,37 @@ class GenericConversionServiceTests {
 	}
 
 
+	private enum PlainEnum {
+
+		A, B
+	}
+
+
+	private enum OtherPlainEnum {
+
+		A, B
+	}
+
+
+	private static class ConditionalStringToEnumConverter implements ConditionalGenericConverter {
+
+		@Override
+		public Set<ConvertiblePair> getConvertibleTypes() {
+			return Collections.singleton(new ConvertiblePair(String.class, Enum.class));
+		}
+
+		@Override
+		public boolean matches(TypeDescriptor sourceType, TypeDescriptor targetType) {
+			return (targetType.getType() == OtherPlainEnum.class);
+		}
+
+		@Override
+		public Object convert(@Nullable Object source, TypeDescriptor sourceType, TypeDescriptor targetType) {
+			return OtherPlainEnum.B;
+		}
+	}
+
+
 	@SuppressWarnings("rawtypes")
 	private static class MyStringToRawCollectionConverter implements Converter<String, Collection> {
 
@@ -934,4 +1049,18 @@ class GenericConversionServiceTests {
 			return Color.decode(source.substring(0, 6));
 		}
 	}
+
+
+	private static class MyConditionalStringConverter implements Converter<String, String>, ConditionalConverter {
+
+		@Override
+		public boolean matches(TypeDescriptor sourceType, TypeDescriptor targetType) {
+			return targetType.hasAnnotation(ExampleAnnotation.class);
+		}
+
+		@Override
+		public String convert(String source) {
+			return source.toUpperCase();
+		}
+	}
 }
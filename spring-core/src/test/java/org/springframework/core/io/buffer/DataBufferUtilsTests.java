@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,6 +20,7 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.net.URI;
 import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
 import java.nio.channels.AsynchronousFileChannel;
 import java.nio.channels.CompletionHandler;
 import java.nio.channels.FileChannel;
@@ -50,6 +51,7 @@ import org.springframework.core.io.Resource;
 import org.springframework.core.testfixture.io.buffer.AbstractDataBufferAllocatingTests;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.isA;
@@ -230,6 +232,70 @@ class DataBufferUtilsTests extends AbstractDataBufferAllocatingTests {
 		verifyReadData(flux);
 	}
 
+	@ParameterizedDataBufferAllocatingTest
+	void readMapped(String displayName, DataBufferFactory bufferFactory) throws Exception {
+		super.bufferFactory = bufferFactory;
+
+		Flux<DataBuffer> flux = DataBufferUtils.readMapped(this.resource.getFile().toPath(), super.bufferFactory, 3);
+
+		verifyReadData(flux);
+	}
+
+	@ParameterizedDataBufferAllocatingTest
+	void readMappedPosition(String displayName, DataBufferFactory bufferFactory) throws Exception {
+		super.bufferFactory = bufferFactory;
+
+		Flux<DataBuffer> flux = DataBufferUtils.readMapped(this.resource.getFile().toPath(), 9, super.bufferFactory, 3);
+
+		StepVerifier.create(flux)
+				.consumeNextWith(stringConsumer("qux"))
+				.expectComplete()
+				.verify(Duration.ofSeconds(5));
+	}
+
+	@ParameterizedDataBufferAllocatingTest
+	void readMappedIsReadOnly(String displayName, DataBufferFactory bufferFactory) throws Exception {
+		super.bufferFactory = bufferFactory;
+
+		Flux<DataBuffer> flux = DataBufferUtils.readMapped(this.resource.getFile().toPath(), super.bufferFactory, 3);
+
+		StepVerifier.create(flux.take(1))
+				.consumeNextWith(dataBuffer -> {
+					try {
+						assertThatExceptionOfType(ReadOnlyBufferException.class)
+								.isThrownBy(() -> dataBuffer.asByteBuffer().put((byte) 'x'));
+					}
+					finally {
+						release(dataBuffer);
+					}
+				})
+				.expectComplete()
+				.verify(Duration.ofSeconds(5));
+	}
+
+	@ParameterizedDataBufferAllocatingTest
+	void readMappedAcrossRegions(String displayName, DataBufferFactory bufferFactory) throws Exception {
+		super.bufferFactory = bufferFactory;
+
+		long length = 65 * 1024 * 1024;
+		try (FileChannel channel = FileChannel.open(this.tempFile, StandardOpenOption.WRITE)) {
+			channel.write(ByteBuffer.wrap("foo".getBytes(StandardCharsets.UTF_8)), length - 3);
+		}
+
+		Flux<DataBuffer> flux = DataBufferUtils.readMapped(this.tempFile, super.bufferFactory, 1024 * 1024);
+
+		StepVerifier.create(flux.doOnNext(this::release).count())
+				.expectNext(65L)
+				.expectComplete()
+				.verify(Duration.ofSeconds(5));
+
+		StepVerifier.create(DataBufferUtils.readMapped(this.tempFile, length - 5, super.bufferFactory, 3))
+				.consumeNextWith(stringConsumer("\0\0f"))
+				.consumeNextWith(stringConsumer("oo"))
+				.expectComplete()
+				.verify(Duration.ofSeconds(5));
+	}
+
 	@ParameterizedDataBufferAllocatingTest
 	void readResource(String displayName, DataBufferFactory bufferFactory) throws Exception {
 		super.bufferFactory = bufferFactory;
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.transaction.reactive;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.reactivestreams.Subscription;
+import reactor.core.Disposable;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.scheduler.Schedulers;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Groups the elements of a {@link Flux} into chunks by size or time, like
+ * {@link Flux#bufferTimeout(int, Duration)}, but without overflowing when a
+ * chunk times out while the downstream has no demand: such a chunk is held
+ * back, and keeps filling up to its maximum size, until it is requested.
+ * At most one chunk is buffered at any time.
+ *
+ * @since 5.3.10
+ * @see TransactionalOperator#executeInChunks
+ */
+final class ChunkedFlux {
+
+	private ChunkedFlux() {
+	}
+
+
+	/**
+	 * Group the given elements into chunks.
+	 * @param source the elements to group
+	 * @param maxSize the maximum number of elements per chunk
+	 * @param maxTime the maximum time between the first element of a chunk
+	 * and its emission, provided that there is demand for it
+	 * @return the chunks
+	 */
+	static <T> Flux<List<T>> chunk(Flux<T> source, int maxSize, Duration maxTime) {
+		return Flux.create(sink -> source.subscribe(new ChunkingSubscriber<>(sink, maxSize, maxTime)));
+	}
+
+
+	private static class ChunkingSubscriber<T> extends BaseSubscriber<T> {
+
+		private final FluxSink<List<T>> sink;
+
+		private final int maxSize;
+
+		private final Duration maxTime;
+
+		private List<T> chunk = new ArrayList<>();
+
+		private long outstanding;
+
+		private boolean timedOut;
+
+		private long chunkCount;
+
+		@Nullable
+		private Disposable timer;
+
+		private boolean done;
+
+		private boolean terminated;
+
+		ChunkingSubscriber(FluxSink<List<T>> sink, int maxSize, Duration maxTime) {
+			this.sink = sink;
+			this.maxSize = maxSize;
+			this.maxTime = maxTime;
+		}
+
+		@Override
+		protected void hookOnSubscribe(Subscription subscription) {
+			this.sink.onRequest(n -> drain());
+			this.sink.onCancel(this::cancelChunking);
+			drain();
+		}
+
+		@Override
+		protected synchronized void hookOnNext(T value) {
+			if (this.terminated) {
+				return;
+			}
+			this.outstanding--;
+			if (this.chunk.isEmpty()) {
+				long chunkCount = this.chunkCount;
+				this.timer = Schedulers.parallel().schedule(() -> onTimeout(chunkCount),
+						this.maxTime.toNanos(), TimeUnit.NANOSECONDS);
+			}
+			this.chunk.add(value);
+			drain();
+		}
+
+		@Override
+		protected synchronized void hookOnComplete() {
+			this.done = true;
+			drain();
+		}
+
+		@Override
+		protected synchronized void hookOnError(Throwable throwable) {
+			if (!this.terminated) {
+				this.terminated = true;
+				resetChunk();
+				this.sink.error(throwable);
+			}
+		}
+
+		private synchronized void onTimeout(long chunkCount) {
+			if (chunkCount == this.chunkCount) {
+				this.timedOut = true;
+				drain();
+			}
+		}
+
+		private synchronized void drain() {
+			if (this.terminated) {
+				return;
+			}
+			if (!this.chunk.isEmpty() && this.sink.requestedFromDownstream() > 0 &&
+					(this.chunk.size() >= this.maxSize || this.timedOut || this.done)) {
+				List<T> chunk = this.chunk;
+				resetChunk();
+				this.sink.next(chunk);
+			}
+			if (this.done) {
+				if (this.chunk.isEmpty()) {
+					this.terminated = true;
+					this.sink.complete();
+				}
+				return;
+			}
+			long n = this.maxSize - this.chunk.size() - this.outstanding;
+			if (n > 0) {
+				this.outstanding += n;
+				request(n);
+			}
+		}
+
+		private void resetChunk() {
+			this.chunk = new ArrayList<>();
+			this.chunkCount++;
+			this.timedOut = false;
+			if (this.timer != null) {
+				this.timer.dispose();
+				this.timer = null;
+			}
+		}
+
+		private synchronized void cancelChunking() {
+			this.terminated = true;
+			cancel();
+			resetChunk();
+		}
+	}
+
+}
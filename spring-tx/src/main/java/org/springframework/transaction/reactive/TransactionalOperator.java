@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,12 +16,18 @@
 
 package org.springframework.transaction.reactive;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+
+import org.reactivestreams.Publisher;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import org.springframework.transaction.ReactiveTransactionManager;
 import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.TransactionException;
+import org.springframework.util.Assert;
 
 /**
  * Operator class that simplifies programmatic transaction demarcation and
@@ -47,6 +53,7 @@ import org.springframework.transaction.TransactionException;
  * @author Juergen Hoeller
  * @since 5.2
  * @see #execute
+ * @see #executeInChunks
  * @see ReactiveTransactionManager
  */
 public interface TransactionalOperator {
@@ -84,6 +91,63 @@ public interface TransactionalOperator {
 	 */
 	<T> Flux<T> execute(TransactionCallback<T> action) throws TransactionException;
 
+	/**
+	 * Group the elements of the given Flux into chunks and execute the given
+	 * action for each chunk within a transaction of its own.
+	 * <p>A chunk is emitted once it holds {@code maxChunkSize} elements or once
+	 * {@code maxChunkTime} has elapsed since its first element, whichever comes
+	 * first, provided that the previous chunk has been processed; until then, a
+	 * timed-out chunk keeps filling up to {@code maxChunkSize} elements, and no
+	 * further elements are requested from the given Flux. Chunks are processed
+	 * sequentially: each one is committed before the next one is started, and a
+	 * failing chunk is rolled back and terminates the returned Flux with the
+	 * corresponding exception.
+	 * <p>The results of a chunk are only passed on after its transaction has been
+	 * committed, so downstream subscribers never observe results of a rolled-back
+	 * chunk.
+	 * @param flux the source elements to process in chunks
+	 * @param maxChunkSize the maximum number of elements per transaction
+	 * @param maxChunkTime the maximum time to wait for a chunk to fill up
+	 * @param chunkAction the action to execute for each chunk within a transaction
+	 * @return the results of all committed chunks, in order
+	 * @since 5.3.10
+	 * @see #executeInChunks(Flux, int, Duration, long, Function)
+	 */
+	default <T, R> Flux<R> executeInChunks(Flux<T> flux, int maxChunkSize, Duration maxChunkTime,
+			Function<? super List<T>, ? extends Publisher<R>> chunkAction) {
+
+		return executeInChunks(flux, maxChunkSize, maxChunkTime, 0, chunkAction);
+	}
+
+	/**
+	 * Group the elements of the given Flux into chunks and execute the given
+	 * action for each chunk within a transaction of its own, retrying a chunk
+	 * in a new transaction if it has been rolled back due to an exception.
+	 * <p>See {@link #executeInChunks(Flux, int, Duration, Function)} for the
+	 * chunking semantics. A chunk that still fails after {@code maxRetries}
+	 * attempts terminates the returned Flux with the last exception.
+	 * @param flux the source elements to process in chunks
+	 * @param maxChunkSize the maximum number of elements per transaction
+	 * @param maxChunkTime the maximum time to wait for a chunk to fill up
+	 * @param maxRetries the number of times to retry a rolled-back chunk
+	 * @param chunkAction the action to execute for each chunk within a transaction
+	 * @return the results of all committed chunks, in order
+	 * @since 5.3.10
+	 */
+	default <T, R> Flux<R> executeInChunks(Flux<T> flux, int maxChunkSize, Duration maxChunkTime,
+			long maxRetries, Function<? super List<T>, ? extends Publisher<R>> chunkAction) {
+
+		Assert.isTrue(maxChunkSize > 0, "Chunk size must be greater than 0");
+		Assert.notNull(maxChunkTime, "Chunk time must not be null");
+		Assert.isTrue(maxRetries >= 0, "Number of retries must not be negative");
+		Assert.notNull(chunkAction, "Chunk action must not be null");
+		return ChunkedFlux.chunk(flux, maxChunkSize, maxChunkTime)
+				.concatMap(chunk -> execute(status -> chunkAction.apply(chunk))
+						.collectList()
+						.retry(maxRetries), 1)
+				.concatMapIterable(Function.identity());
+	}
+
 
 	// Static builder methods
 
@@ -40,8 +40,12 @@ class ReactiveTestTransactionManager extends AbstractReactiveTransactionManager
 
 	protected boolean commit = false;
 
+	protected int commitCount = 0;
+
 	protected boolean rollback = false;
 
+	protected int rollbackCount = 0;
+
 	protected boolean rollbackOnly = false;
 
 	protected boolean cleanup = false;
@@ -79,7 +83,10 @@ class ReactiveTestTransactionManager extends AbstractReactiveTransactionManager
 		if (!TRANSACTION.equals(status.getTransaction())) {
 			return Mono.error(new IllegalArgumentException("Not the same transaction object"));
 		}
-		return Mono.fromRunnable(() -> this.commit = true);
+		return Mono.fromRunnable(() -> {
+			this.commit = true;
+			this.commitCount++;
+		});
 	}
 
 	@Override
@@ -87,7 +94,10 @@ class ReactiveTestTransactionManager extends AbstractReactiveTransactionManager
 		if (!TRANSACTION.equals(status.getTransaction())) {
 			return Mono.error(new IllegalArgumentException("Not the same transaction object"));
 		}
-		return Mono.fromRunnable(() -> this.rollback = true);
+		return Mono.fromRunnable(() -> {
+			this.rollback = true;
+			this.rollbackCount++;
+		});
 	}
 
 	@Override
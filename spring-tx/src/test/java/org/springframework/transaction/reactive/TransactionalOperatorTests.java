@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,7 +16,9 @@
 
 package org.springframework.transaction.reactive;
 
+import java.time.Duration;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.jupiter.api.Test;
 import reactor.core.publisher.Flux;
@@ -120,4 +122,56 @@ public class TransactionalOperatorTests {
 		assertThat(tm.rollback).isTrue();
 	}
 
+	@Test
+	public void commitEachChunk() {
+		TransactionalOperator operator = TransactionalOperator.create(tm, new DefaultTransactionDefinition());
+		operator.executeInChunks(Flux.range(1, 10), 4, Duration.ofSeconds(10),
+						chunk -> Mono.just(chunk.size()))
+				.as(StepVerifier::create)
+				.expectNext(4, 4, 2)
+				.verifyComplete();
+		assertThat(tm.commitCount).isEqualTo(3);
+		assertThat(tm.rollback).isFalse();
+	}
+
+	@Test
+	public void rollbackFailingChunk() {
+		TransactionalOperator operator = TransactionalOperator.create(tm, new DefaultTransactionDefinition());
+		operator.executeInChunks(Flux.range(1, 10), 4, Duration.ofSeconds(10),
+						chunk -> (chunk.contains(5) ? Flux.error(new IllegalStateException()) : Flux.fromIterable(chunk)))
+				.as(StepVerifier::create)
+				.expectNext(1, 2, 3, 4)
+				.verifyError(IllegalStateException.class);
+		assertThat(tm.commitCount).isEqualTo(1);
+		assertThat(tm.rollbackCount).isEqualTo(1);
+	}
+
+	@Test
+	public void retryRolledBackChunk() {
+		AtomicInteger attempts = new AtomicInteger();
+		TransactionalOperator operator = TransactionalOperator.create(tm, new DefaultTransactionDefinition());
+		operator.executeInChunks(Flux.range(1, 6), 3, Duration.ofSeconds(10), 1,
+						chunk -> (chunk.contains(4) && attempts.getAndIncrement() == 0 ?
+								Flux.concat(Flux.fromIterable(chunk), Flux.error(new IllegalStateException())) :
+								Flux.fromIterable(chunk)))
+				.as(StepVerifier::create)
+				.expectNext(1, 2, 3, 4, 5, 6)
+				.verifyComplete();
+		assertThat(tm.commitCount).isEqualTo(2);
+		assertThat(tm.rollbackCount).isEqualTo(1);
+	}
+
+	@Test
+	public void chunkTransactionSlowerThanMaxChunkTime() {
+		TransactionalOperator operator = TransactionalOperator.create(tm, new DefaultTransactionDefinition());
+		StepVerifier.withVirtualTime(() -> operator.executeInChunks(
+						Flux.interval(Duration.ofMillis(100)).take(10), 4, Duration.ofMillis(150),
+						chunk -> Flux.fromIterable(chunk).delaySubscription(Duration.ofMillis(500))))
+				.thenAwait(Duration.ofSeconds(10))
+				.expectNext(0L, 1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L)
+				.verifyComplete();
+		assertThat(tm.commitCount).isGreaterThan(2);
+		assertThat(tm.rollback).isFalse();
+	}
+
 }
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.codec.json;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import reactor.core.publisher.Flux;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Benchmarks for decoding JSON to POJOs using Jackson.
+ *
+ * <p>The {@code decodeStream} benchmarks compare decoding a stream of elements
+ * from a JSON array or a newline-delimited JSON stream, deserialized directly
+ * from their content by the decoder, with deserializing each element from a
+ * {@code TokenBuffer} created by the {@link Jackson2Tokenizer}. Run with
+ * {@code -prof gc} to compare allocation rates.
+ *
+ * @since 5.3.10
+ * @see AbstractJackson2Decoder
+ */
+@BenchmarkMode(Mode.Throughput)
+public class Jackson2JsonDecoderBenchmark {
+
+
+	/**
+	 * Benchmark data holding the JSON representation of a {@link Project} to be
+	 * deserialized by the JSON Decoder. A {@code projectCount} parameter can be
+	 * used to grow the size of the object graph to deserialize.
+	 */
+	@State(Scope.Benchmark)
+	public static class DecodeData {
+
+		@Param({"0", "50", "500"})
+		int projectCount;
+
+		Jackson2JsonDecoder jsonDecoder;
+
+		DefaultDataBufferFactory bufferFactory;
+
+		ResolvableType resolvableType;
+
+		byte[] json;
+
+		@Setup
+		public void setup() throws Exception {
+			ObjectMapper objectMapper = new Jackson2ObjectMapperBuilder().build();
+			this.bufferFactory = new DefaultDataBufferFactory();
+			this.jsonDecoder = new Jackson2JsonDecoder(objectMapper);
+			this.resolvableType = ResolvableType.forClass(Project.class);
+			this.json = objectMapper.writeValueAsBytes(new Project("spring", this.projectCount));
+		}
+
+	}
+
+	/**
+	 * Benchmark data holding a stream of {@link Project} elements, either as
+	 * a JSON array or as newline-delimited JSON, in chunks of 8 KB.
+	 */
+	@State(Scope.Benchmark)
+	public static class DecodeStreamData {
+
+		private static final int CHUNK_SIZE = 8192;
+
+		@Param({"1000", "1000000"})
+		int elementCount;
+
+		@Param({"json", "ndjson"})
+		String format;
+
+		ObjectMapper objectMapper;
+
+		Jackson2JsonDecoder jsonDecoder;
+
+		ObjectReader objectReader;
+
+		ResolvableType resolvableType;
+
+		MediaType mediaType;
+
+		byte[] content;
+
+		@Setup
+		public void setup() throws IOException {
+			this.objectMapper = new Jackson2ObjectMapperBuilder().build();
+			this.jsonDecoder = new Jackson2JsonDecoder(this.objectMapper);
+			this.jsonDecoder.setMaxInMemorySize(-1);
+			this.objectReader = this.objectMapper.readerFor(Project.class);
+			this.resolvableType = ResolvableType.forClass(Project.class);
+			boolean ndjson = "ndjson".equals(this.format);
+			this.mediaType = (ndjson ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON);
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			out.write(ndjson ? ' ' : '[');
+			for (int i = 0; i < this.elementCount; i++) {
+				if (i > 0) {
+					out.write(ndjson ? '\n' : ',');
+				}
+				out.write(this.objectMapper.writeValueAsBytes(new Project("spring" + i, 2)));
+			}
+			out.write(ndjson ? '\n' : ']');
+			this.content = out.toByteArray();
+		}
+
+		Flux<DataBuffer> chunks() {
+			return Flux.range(0, (this.content.length + CHUNK_SIZE - 1) / CHUNK_SIZE)
+					.map(index -> DefaultDataBufferFactory.sharedInstance.wrap(ByteBuffer.wrap(this.content,
+							index * CHUNK_SIZE, Math.min(CHUNK_SIZE, this.content.length - index * CHUNK_SIZE))));
+		}
+	}
+
+	@Benchmark
+	public boolean canDecode(DecodeData data) {
+		return data.jsonDecoder.canDecode(data.resolvableType, MediaType.APPLICATION_JSON);
+	}
+
+	@Benchmark
+	public Object decode(DecodeData data) {
+		return data.jsonDecoder.decode(data.bufferFactory.wrap(data.json), data.resolvableType,
+				MediaType.APPLICATION_JSON, Collections.emptyMap());
+	}
+
+	@Benchmark
+	public Long decodeStream(DecodeStreamData data) {
+		return data.jsonDecoder.decode(data.chunks(), data.resolvableType, data.mediaType, Collections.emptyMap())
+				.count().block();
+	}
+
+	@Benchmark
+	public Long decodeStreamWithTokenizer(DecodeStreamData data) {
+		return Jackson2Tokenizer.tokenize(data.chunks(), data.objectMapper.getFactory(), data.objectMapper,
+						true, false, -1)
+				.handle((tokenBuffer, sink) -> {
+					try {
+						sink.next(data.objectReader.readValue(tokenBuffer.asParser(data.objectMapper)));
+					}
+					catch (IOException ex) {
+						sink.error(ex);
+					}
+				})
+				.count().block();
+	}
+
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.server.reactive;
+
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Benchmarks for accessing the headers of a WebFlux request, as a chain of
+ * filters would, through read-only {@link HttpHeaders} that cache parsed
+ * values compared to {@link HttpHeaders} that parse values on every access.
+ * Each invocation simulates one request with fresh headers.
+ */
+@BenchmarkMode(Mode.Throughput)
+public class RequestHeadersBenchmark {
+
+	@Benchmark
+	public void readOnlyHeaders(BenchmarkData data, Blackhole bh) {
+		HttpHeaders headers = HttpHeaders.readOnlyHttpHeaders(new NettyHeadersAdapter(data.nettyHeaders));
+		for (int i = 0; i < data.filterCount; i++) {
+			consumeHeaders(headers, bh);
+		}
+	}
+
+	@Benchmark
+	public void mutableHeaders(BenchmarkData data, Blackhole bh) {
+		HttpHeaders headers = new HttpHeaders(new NettyHeadersAdapter(data.nettyHeaders));
+		for (int i = 0; i < data.filterCount; i++) {
+			consumeHeaders(headers, bh);
+		}
+	}
+
+	private static void consumeHeaders(HttpHeaders headers, Blackhole bh) {
+		bh.consume(headers.getContentType());
+		bh.consume(headers.getAccept());
+		bh.consume(headers.getContentLength());
+		bh.consume(headers.getHost());
+		bh.consume(headers.getIfNoneMatch());
+		bh.consume(headers.getFirst(HttpHeaders.USER_AGENT));
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkData {
+
+		@Param({"1", "5"})
+		public int filterCount;
+
+		public io.netty.handler.codec.http.HttpHeaders nettyHeaders;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.nettyHeaders = new DefaultHttpHeaders()
+					.add(HttpHeaders.HOST, "example.org:8080")
+					.add(HttpHeaders.USER_AGENT, "Mozilla/5.0 (X11; Linux x86_64; rv:91.0) Gecko/20100101 Firefox/91.0")
+					.add(HttpHeaders.ACCEPT, "text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8")
+					.add(HttpHeaders.ACCEPT_LANGUAGE, "en-US,en;q=0.5")
+					.add(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate, br")
+					.add(HttpHeaders.CONTENT_TYPE, "application/json;charset=UTF-8")
+					.add(HttpHeaders.CONTENT_LENGTH, "1024")
+					.add(HttpHeaders.IF_NONE_MATCH, "\"33a64df551425fcc55e4d42a148795d9f25f89d4\"");
+		}
+	}
+
+}
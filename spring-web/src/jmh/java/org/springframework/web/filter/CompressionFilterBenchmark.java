@@ -0,0 +1,126 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.filter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.zip.GZIPOutputStream;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import reactor.core.publisher.Flux;
+
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Project;
+import org.springframework.web.filter.reactive.CompressionWebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.testfixture.http.server.reactive.MockServerHttpRequest;
+import org.springframework.web.testfixture.server.MockServerWebExchange;
+import org.springframework.web.testfixture.servlet.MockHttpServletRequest;
+import org.springframework.web.testfixture.servlet.MockHttpServletResponse;
+
+/**
+ * Benchmark for compressing JSON responses with the {@link CompressionFilter}
+ * and the {@link CompressionWebFilter}, compared to a {@link GZIPOutputStream}
+ * with a new {@code Deflater} per response.
+ *
+ * @since 5.3.10
+ */
+@BenchmarkMode(Mode.Throughput)
+@Threads(4)
+public class CompressionFilterBenchmark {
+
+	@Benchmark
+	public byte[] gzipOutputStream(BenchmarkState state) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream(state.json.length / 4);
+		try (GZIPOutputStream gzip = new GZIPOutputStream(out, 8192)) {
+			gzip.write(state.json);
+		}
+		return out.toByteArray();
+	}
+
+	@Benchmark
+	public byte[] compressionFilter(BenchmarkState state) throws IOException, ServletException {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/projects");
+		request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate, br");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		state.compressionFilter.doFilter(request, response, state.filterChain);
+		return response.getContentAsByteArray();
+	}
+
+	@Benchmark
+	public void compressionWebFilter(BenchmarkState state) {
+		MockServerWebExchange exchange = MockServerWebExchange.from(
+				MockServerHttpRequest.get("/projects").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate, br"));
+		state.compressionWebFilter.filter(exchange, state.webFilterChain).block();
+		exchange.getResponse().getBody().doOnNext(DataBufferUtils::release).then().block();
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkState {
+
+		private static final int CHUNK_SIZE = 8192;
+
+		@Param({"10", "100", "1000"})
+		public int projectCount;
+
+		byte[] json;
+
+		CompressionFilter compressionFilter;
+
+		FilterChain filterChain;
+
+		CompressionWebFilter compressionWebFilter;
+
+		WebFilterChain webFilterChain;
+
+		@Setup
+		public void setup() throws IOException {
+			this.json = new ObjectMapper().writeValueAsBytes(new Project("spring", this.projectCount));
+			this.compressionFilter = new CompressionFilter();
+			this.filterChain = (request, response) -> {
+				response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+				for (int offset = 0; offset < this.json.length; offset += CHUNK_SIZE) {
+					response.getOutputStream().write(this.json, offset, Math.min(CHUNK_SIZE, this.json.length - offset));
+				}
+			};
+			this.compressionWebFilter = new CompressionWebFilter();
+			this.webFilterChain = exchange -> {
+				exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
+				return exchange.getResponse().writeWith(Flux.range(0, (this.json.length + CHUNK_SIZE - 1) / CHUNK_SIZE)
+						.map(index -> DefaultDataBufferFactory.sharedInstance.wrap(ByteBuffer.wrap(this.json,
+								index * CHUNK_SIZE, Math.min(CHUNK_SIZE, this.json.length - index * CHUNK_SIZE)))));
+			};
+		}
+	}
+
+}
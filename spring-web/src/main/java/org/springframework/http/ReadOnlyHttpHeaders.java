@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,7 @@
 
 package org.springframework.http;
 
+import java.net.InetSocketAddress;
 import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.Collection;
 import java.util.Collections;
@@ -45,6 +46,15 @@ class ReadOnlyHttpHeaders extends HttpHeaders {
 	@Nullable
 	private List<MediaType> cachedAccept;
 
+	@Nullable
+	private Long cachedContentLength;
+
+	@Nullable
+	private InetSocketAddress cachedHost;
+
+	@Nullable
+	private List<String> cachedIfNoneMatch;
+
 
 	ReadOnlyHttpHeaders(MultiValueMap<String, String> headers) {
 		super(headers);
@@ -75,6 +85,43 @@ class ReadOnlyHttpHeaders extends HttpHeaders {
 		}
 	}
 
+	@Override
+	public long getContentLength() {
+		if (this.cachedContentLength != null) {
+			return this.cachedContentLength;
+		}
+		else {
+			long contentLength = super.getContentLength();
+			this.cachedContentLength = contentLength;
+			return contentLength;
+		}
+	}
+
+	@Override
+	@Nullable
+	public InetSocketAddress getHost() {
+		if (this.cachedHost != null) {
+			return this.cachedHost;
+		}
+		else {
+			InetSocketAddress host = super.getHost();
+			this.cachedHost = host;
+			return host;
+		}
+	}
+
+	@Override
+	public List<String> getIfNoneMatch() {
+		if (this.cachedIfNoneMatch != null) {
+			return this.cachedIfNoneMatch;
+		}
+		else {
+			List<String> ifNoneMatch = Collections.unmodifiableList(super.getIfNoneMatch());
+			this.cachedIfNoneMatch = ifNoneMatch;
+			return ifNoneMatch;
+		}
+	}
+
 	@Override
 	public void clearContentHeaders() {
 		// No-op.
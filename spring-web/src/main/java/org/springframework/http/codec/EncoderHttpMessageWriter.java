@@ -16,6 +16,8 @@
 
 package org.springframework.http.codec;
 
+import java.time.Duration;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -67,6 +69,12 @@ public class EncoderHttpMessageWriter<T> implements HttpMessageWriter<T> {
 	@Nullable
 	private final MediaType defaultMediaType;
 
+	private int maxCoalescedElements = 1;
+
+	private int maxCoalescedBytes = 16 * 1024;
+
+	private Duration maxCoalescingDelay = Duration.ZERO;
+
 
 	/**
 	 * Create an instance wrapping the given {@link Encoder}.
@@ -100,6 +108,72 @@ public class EncoderHttpMessageWriter<T> implements HttpMessageWriter<T> {
 		return this.encoder;
 	}
 
+	/**
+	 * Set the maximum number of elements of a streaming media type, such as
+	 * {@code "application/x-ndjson"}, to write together with a single flush.
+	 * <p>By default this is set to 1, i.e. every element is written and
+	 * flushed as soon as it is encoded. A higher value reduces the number of
+	 * writes and flushes for streams of many small elements, within the
+	 * bounds of {@link #setMaxCoalescedBytes} and {@link #setMaxCoalescingDelay}.
+	 * @param maxCoalescedElements the maximum number of elements per flush
+	 * @since 5.3.10
+	 */
+	public void setMaxCoalescedElements(int maxCoalescedElements) {
+		Assert.isTrue(maxCoalescedElements > 0, "'maxCoalescedElements' must be positive");
+		this.maxCoalescedElements = maxCoalescedElements;
+	}
+
+	/**
+	 * Return the configured maximum number of elements per flush.
+	 * @since 5.3.10
+	 */
+	public int getMaxCoalescedElements() {
+		return this.maxCoalescedElements;
+	}
+
+	/**
+	 * Set the number of bytes at which coalesced elements are flushed
+	 * without waiting for further elements.
+	 * <p>By default this is set to 16K.
+	 * @param maxCoalescedBytes the maximum number of bytes per flush
+	 * @since 5.3.10
+	 * @see #setMaxCoalescedElements
+	 */
+	public void setMaxCoalescedBytes(int maxCoalescedBytes) {
+		Assert.isTrue(maxCoalescedBytes > 0, "'maxCoalescedBytes' must be positive");
+		this.maxCoalescedBytes = maxCoalescedBytes;
+	}
+
+	/**
+	 * Return the configured maximum number of bytes per flush.
+	 * @since 5.3.10
+	 */
+	public int getMaxCoalescedBytes() {
+		return this.maxCoalescedBytes;
+	}
+
+	/**
+	 * Set the maximum time an encoded element may be held back while
+	 * waiting for further elements to flush together with.
+	 * <p>By default this is set to zero, in which case only elements that
+	 * are encoded faster than they can be written are coalesced.
+	 * @param maxCoalescingDelay the maximum delay before a flush
+	 * @since 5.3.10
+	 * @see #setMaxCoalescedElements
+	 */
+	public void setMaxCoalescingDelay(Duration maxCoalescingDelay) {
+		Assert.isTrue(!maxCoalescingDelay.isNegative(), "'maxCoalescingDelay' must not be negative");
+		this.maxCoalescingDelay = maxCoalescingDelay;
+	}
+
+	/**
+	 * Return the configured maximum delay before a flush.
+	 * @since 5.3.10
+	 */
+	public Duration getMaxCoalescingDelay() {
+		return this.maxCoalescingDelay;
+	}
+
 	@Override
 	public List<MediaType> getWritableMediaTypes() {
 		return this.mediaTypes;
@@ -141,6 +215,14 @@ public class EncoderHttpMessageWriter<T> implements HttpMessageWriter<T> {
 		}
 
 		if (isStreamingMediaType(contentType)) {
+			if (this.maxCoalescedElements > 1) {
+				FlushCoalescer coalescer = new FlushCoalescer(
+						this.maxCoalescedElements, this.maxCoalescedBytes, this.maxCoalescingDelay);
+				return message.writeAndFlushWith(coalescer.coalesce(body.map(buffer -> {
+					Hints.touchDataBuffer(buffer, hints, logger);
+					return Collections.singletonList(buffer);
+				}), message.bufferFactory()));
+			}
 			return message.writeAndFlushWith(body.map(buffer -> {
 				Hints.touchDataBuffer(buffer, hints, logger);
 				return Mono.just(buffer).doOnDiscard(PooledDataBuffer.class, DataBufferUtils::release);
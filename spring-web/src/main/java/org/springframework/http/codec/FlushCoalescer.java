@@ -0,0 +1,243 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.codec;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
+import reactor.core.Disposable;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.PooledDataBuffer;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Coalesces the encoded elements of a stream, which would otherwise be
+ * written and flushed one at a time, into batches that are joined into a
+ * single buffer and flushed together.
+ *
+ * <p>A batch is emitted once it holds the maximum number of elements or
+ * bytes, or once the first element in it has waited for the maximum delay.
+ * With a delay of zero, elements are only coalesced if they are produced
+ * faster than they can be written, or are available all at once.
+ * Backpressure is preserved: no further elements are requested while a
+ * full batch is waiting for demand.
+ *
+ * @since 5.3.10
+ * @see ServerSentEventHttpMessageWriter#setMaxCoalescedEvents
+ * @see EncoderHttpMessageWriter#setMaxCoalescedElements
+ */
+final class FlushCoalescer {
+
+	private final int maxElements;
+
+	private final int maxBytes;
+
+	private final Duration maxDelay;
+
+	private final Scheduler scheduler;
+
+
+	FlushCoalescer(int maxElements, int maxBytes, Duration maxDelay) {
+		this(maxElements, maxBytes, maxDelay, Schedulers.parallel());
+	}
+
+	FlushCoalescer(int maxElements, int maxBytes, Duration maxDelay, Scheduler scheduler) {
+		Assert.isTrue(maxElements > 0, "'maxElements' must be positive");
+		Assert.isTrue(maxBytes > 0, "'maxBytes' must be positive");
+		Assert.isTrue(!maxDelay.isNegative(), "'maxDelay' must not be negative");
+		this.maxElements = maxElements;
+		this.maxBytes = maxBytes;
+		this.maxDelay = maxDelay;
+		this.scheduler = scheduler;
+	}
+
+
+	/**
+	 * Coalesce the given elements, each consisting of one or more buffers,
+	 * into the publishers to write and flush with
+	 * {@link org.springframework.http.ReactiveHttpOutputMessage#writeAndFlushWith}.
+	 * @param elements the encoded elements
+	 * @param bufferFactory the factory to join the buffers of a batch with
+	 * @return one publisher with a single buffer per batch
+	 */
+	Flux<Publisher<DataBuffer>> coalesce(Flux<List<DataBuffer>> elements, DataBufferFactory bufferFactory) {
+		return Flux.create(sink -> elements.subscribe(new CoalescingSubscriber(sink, bufferFactory)));
+	}
+
+
+	private class CoalescingSubscriber extends BaseSubscriber<List<DataBuffer>> {
+
+		private final FluxSink<Publisher<DataBuffer>> sink;
+
+		private final DataBufferFactory bufferFactory;
+
+		private final List<DataBuffer> batch = new ArrayList<>();
+
+		private int batchElements;
+
+		private long batchBytes;
+
+		private long outstanding;
+
+		private boolean requesting;
+
+		private boolean delayElapsed;
+
+		private long batchCount;
+
+		@Nullable
+		private Disposable timer;
+
+		private boolean done;
+
+		@Nullable
+		private Throwable error;
+
+		private boolean terminated;
+
+		CoalescingSubscriber(FluxSink<Publisher<DataBuffer>> sink, DataBufferFactory bufferFactory) {
+			this.sink = sink;
+			this.bufferFactory = bufferFactory;
+			this.delayElapsed = maxDelay.isZero();
+		}
+
+		@Override
+		protected void hookOnSubscribe(Subscription subscription) {
+			this.sink.onRequest(n -> drain());
+			this.sink.onCancel(this::cancelCoalescing);
+			drain();
+		}
+
+		@Override
+		protected synchronized void hookOnNext(List<DataBuffer> element) {
+			if (this.terminated) {
+				element.forEach(DataBufferUtils::release);
+				return;
+			}
+			this.outstanding--;
+			if (this.batchElements == 0 && !maxDelay.isZero()) {
+				long batchCount = this.batchCount;
+				this.timer = scheduler.schedule(() -> onDelayElapsed(batchCount),
+						maxDelay.toNanos(), TimeUnit.NANOSECONDS);
+			}
+			for (DataBuffer buffer : element) {
+				this.batch.add(buffer);
+				this.batchBytes += buffer.readableByteCount();
+			}
+			this.batchElements++;
+			drain();
+		}
+
+		@Override
+		protected synchronized void hookOnComplete() {
+			this.done = true;
+			drain();
+		}
+
+		@Override
+		protected synchronized void hookOnError(Throwable throwable) {
+			this.done = true;
+			this.error = throwable;
+			drain();
+		}
+
+		private synchronized void onDelayElapsed(long batchCount) {
+			if (batchCount == this.batchCount) {
+				this.delayElapsed = true;
+				drain();
+			}
+		}
+
+		private synchronized void drain() {
+			if (this.terminated) {
+				return;
+			}
+			emitIfReady();
+			if (!this.requesting) {
+				this.requesting = true;
+				try {
+					long n;
+					while (!this.done && !this.terminated && this.batchBytes < maxBytes &&
+							(n = maxElements - this.batchElements - this.outstanding) > 0) {
+						this.outstanding += n;
+						upstream().request(n);
+					}
+				}
+				finally {
+					this.requesting = false;
+				}
+				emitIfReady();
+			}
+			if (this.done && this.batchElements == 0 && !this.terminated) {
+				this.terminated = true;
+				if (this.error != null) {
+					this.sink.error(this.error);
+				}
+				else {
+					this.sink.complete();
+				}
+			}
+		}
+
+		private void emitIfReady() {
+			if (this.batchElements == 0 || this.sink.requestedFromDownstream() == 0) {
+				return;
+			}
+			boolean full = (this.batchElements >= maxElements || this.batchBytes >= maxBytes);
+			if (!full && !this.done && (this.requesting || !this.delayElapsed)) {
+				return;
+			}
+			DataBuffer buffer = (this.batch.size() == 1 ? this.batch.get(0) : this.bufferFactory.join(this.batch));
+			resetBatch();
+			this.sink.next(Mono.just(buffer).doOnDiscard(PooledDataBuffer.class, DataBufferUtils::release));
+		}
+
+		private void resetBatch() {
+			this.batch.clear();
+			this.batchElements = 0;
+			this.batchBytes = 0;
+			this.batchCount++;
+			this.delayElapsed = maxDelay.isZero();
+			if (this.timer != null) {
+				this.timer.dispose();
+				this.timer = null;
+			}
+		}
+
+		private synchronized void cancelCoalescing() {
+			this.terminated = true;
+			cancel();
+			this.batch.forEach(DataBufferUtils::release);
+			resetBatch();
+		}
+	}
+
+}
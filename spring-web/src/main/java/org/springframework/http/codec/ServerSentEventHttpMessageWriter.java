@@ -18,6 +18,7 @@ package org.springframework.http.codec;
 
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -64,6 +65,12 @@ public class ServerSentEventHttpMessageWriter implements HttpMessageWriter<Objec
 	@Nullable
 	private final Encoder<?> encoder;
 
+	private int maxCoalescedEvents = 1;
+
+	private int maxCoalescedBytes = 16 * 1024;
+
+	private Duration maxCoalescingDelay = Duration.ZERO;
+
 
 	/**
 	 * Constructor without an {@code Encoder}. In this mode only {@code String}
@@ -91,6 +98,71 @@ public class ServerSentEventHttpMessageWriter implements HttpMessageWriter<Objec
 		return this.encoder;
 	}
 
+	/**
+	 * Set the maximum number of events to write together with a single flush.
+	 * <p>By default this is set to 1, i.e. every event is written and flushed
+	 * as soon as it is encoded. A higher value reduces the number of writes
+	 * and flushes for streams of many small events, within the bounds of
+	 * {@link #setMaxCoalescedBytes} and {@link #setMaxCoalescingDelay}.
+	 * @param maxCoalescedEvents the maximum number of events per flush
+	 * @since 5.3.10
+	 */
+	public void setMaxCoalescedEvents(int maxCoalescedEvents) {
+		Assert.isTrue(maxCoalescedEvents > 0, "'maxCoalescedEvents' must be positive");
+		this.maxCoalescedEvents = maxCoalescedEvents;
+	}
+
+	/**
+	 * Return the configured maximum number of events per flush.
+	 * @since 5.3.10
+	 */
+	public int getMaxCoalescedEvents() {
+		return this.maxCoalescedEvents;
+	}
+
+	/**
+	 * Set the number of bytes at which coalesced events are flushed
+	 * without waiting for further events.
+	 * <p>By default this is set to 16K.
+	 * @param maxCoalescedBytes the maximum number of bytes per flush
+	 * @since 5.3.10
+	 * @see #setMaxCoalescedEvents
+	 */
+	public void setMaxCoalescedBytes(int maxCoalescedBytes) {
+		Assert.isTrue(maxCoalescedBytes > 0, "'maxCoalescedBytes' must be positive");
+		this.maxCoalescedBytes = maxCoalescedBytes;
+	}
+
+	/**
+	 * Return the configured maximum number of bytes per flush.
+	 * @since 5.3.10
+	 */
+	public int getMaxCoalescedBytes() {
+		return this.maxCoalescedBytes;
+	}
+
+	/**
+	 * Set the maximum time an encoded event may be held back while waiting
+	 * for further events to flush together with.
+	 * <p>By default this is set to zero, in which case only events that are
+	 * encoded faster than they can be written are coalesced.
+	 * @param maxCoalescingDelay the maximum delay before a flush
+	 * @since 5.3.10
+	 * @see #setMaxCoalescedEvents
+	 */
+	public void setMaxCoalescingDelay(Duration maxCoalescingDelay) {
+		Assert.isTrue(!maxCoalescingDelay.isNegative(), "'maxCoalescingDelay' must not be negative");
+		this.maxCoalescingDelay = maxCoalescingDelay;
+	}
+
+	/**
+	 * Return the configured maximum delay before a flush.
+	 * @since 5.3.10
+	 */
+	public Duration getMaxCoalescingDelay() {
+		return this.maxCoalescingDelay;
+	}
+
 	@Override
 	public List<MediaType> getWritableMediaTypes() {
 		return WRITABLE_MEDIA_TYPES;
@@ -111,73 +183,85 @@ public class ServerSentEventHttpMessageWriter implements HttpMessageWriter<Objec
 		DataBufferFactory bufferFactory = message.bufferFactory();
 
 		message.getHeaders().setContentType(mediaType);
+		if (this.maxCoalescedEvents > 1) {
+			FlushCoalescer coalescer = new FlushCoalescer(
+					this.maxCoalescedEvents, this.maxCoalescedBytes, this.maxCoalescingDelay);
+			ResolvableType dataType = getDataType(elementType);
+			MediaType eventMediaType = mediaType;
+			Flux<List<DataBuffer>> events = Flux.from(input)
+					.map(element -> encodeEvent(element, dataType, eventMediaType, bufferFactory, hints));
+			return message.writeAndFlushWith(coalescer.coalesce(events, bufferFactory));
+		}
 		return message.writeAndFlushWith(encode(input, elementType, mediaType, bufferFactory, hints));
 	}
 
 	private Flux<Publisher<DataBuffer>> encode(Publisher<?> input, ResolvableType elementType,
 			MediaType mediaType, DataBufferFactory factory, Map<String, Object> hints) {
 
-		ResolvableType dataType = (ServerSentEvent.class.isAssignableFrom(elementType.toClass()) ?
+		ResolvableType dataType = getDataType(elementType);
+		return Flux.from(input).map(element ->
+				Flux.defer(() -> Flux.fromIterable(encodeEvent(element, dataType, mediaType, factory, hints)))
+						.doOnDiscard(PooledDataBuffer.class, DataBufferUtils::release));
+	}
+
+	private ResolvableType getDataType(ResolvableType elementType) {
+		return (ServerSentEvent.class.isAssignableFrom(elementType.toClass()) ?
 				elementType.getGeneric() : elementType);
+	}
 
-		return Flux.from(input).map(element -> {
-
-			ServerSentEvent<?> sse = (element instanceof ServerSentEvent ?
-					(ServerSentEvent<?>) element : ServerSentEvent.builder().data(element).build());
-
-			StringBuilder sb = new StringBuilder();
-			String id = sse.id();
-			String event = sse.event();
-			Duration retry = sse.retry();
-			String comment = sse.comment();
-			Object data = sse.data();
-			if (id != null) {
-				writeField("id", id, sb);
-			}
-			if (event != null) {
-				writeField("event", event, sb);
-			}
-			if (retry != null) {
-				writeField("retry", retry.toMillis(), sb);
-			}
-			if (comment != null) {
-				sb.append(':').append(StringUtils.replace(comment, "\n", "\n:")).append('\n');
-			}
-			if (data != null) {
-				sb.append("data:");
-			}
-
-			Flux<DataBuffer> result;
-			if (data == null) {
-				result = Flux.just(encodeText(sb + "\n", mediaType, factory));
-			}
-			else if (data instanceof String) {
-				data = StringUtils.replace((String) data, "\n", "\ndata:");
-				result = Flux.just(encodeText(sb + (String) data + "\n\n", mediaType, factory));
-			}
-			else {
-				result = encodeEvent(sb, data, dataType, mediaType, factory, hints);
-			}
-
-			return result.doOnDiscard(PooledDataBuffer.class, DataBufferUtils::release);
-		});
+	private List<DataBuffer> encodeEvent(Object element, ResolvableType dataType,
+			MediaType mediaType, DataBufferFactory factory, Map<String, Object> hints) {
+
+		ServerSentEvent<?> sse = (element instanceof ServerSentEvent ?
+				(ServerSentEvent<?>) element : ServerSentEvent.builder().data(element).build());
+
+		StringBuilder sb = new StringBuilder();
+		String id = sse.id();
+		String event = sse.event();
+		Duration retry = sse.retry();
+		String comment = sse.comment();
+		Object data = sse.data();
+		if (id != null) {
+			writeField("id", id, sb);
+		}
+		if (event != null) {
+			writeField("event", event, sb);
+		}
+		if (retry != null) {
+			writeField("retry", retry.toMillis(), sb);
+		}
+		if (comment != null) {
+			sb.append(':').append(StringUtils.replace(comment, "\n", "\n:")).append('\n');
+		}
+		if (data != null) {
+			sb.append("data:");
+		}
+
+		if (data == null) {
+			return Collections.singletonList(encodeText(sb + "\n", mediaType, factory));
+		}
+		else if (data instanceof String) {
+			data = StringUtils.replace((String) data, "\n", "\ndata:");
+			return Collections.singletonList(encodeText(sb + (String) data + "\n\n", mediaType, factory));
+		}
+		else {
+			return encodeData(sb, data, dataType, mediaType, factory, hints);
+		}
 	}
 
 	@SuppressWarnings("unchecked")
-	private <T> Flux<DataBuffer> encodeEvent(StringBuilder eventContent, T data, ResolvableType dataType,
+	private <T> List<DataBuffer> encodeData(StringBuilder eventContent, T data, ResolvableType dataType,
 			MediaType mediaType, DataBufferFactory factory, Map<String, Object> hints) {
 
 		if (this.encoder == null) {
 			throw new CodecException("No SSE encoder configured and the data is not String.");
 		}
 
-		return Flux.defer(() -> {
-			DataBuffer startBuffer = encodeText(eventContent, mediaType, factory);
-			DataBuffer endBuffer = encodeText("\n\n", mediaType, factory);
-			DataBuffer dataBuffer = ((Encoder<T>) this.encoder).encodeValue(data, factory, dataType, mediaType, hints);
-			Hints.touchDataBuffer(dataBuffer, hints, logger);
-			return Flux.just(startBuffer, dataBuffer, endBuffer);
-		});
+		DataBuffer startBuffer = encodeText(eventContent, mediaType, factory);
+		DataBuffer endBuffer = encodeText("\n\n", mediaType, factory);
+		DataBuffer dataBuffer = ((Encoder<T>) this.encoder).encodeValue(data, factory, dataType, mediaType, hints);
+		Hints.touchDataBuffer(dataBuffer, hints, logger);
+		return Arrays.asList(startBuffer, dataBuffer, endBuffer);
 	}
 
 	private void writeField(String fieldName, Object fieldValue, StringBuilder sb) {
@@ -19,10 +19,13 @@ package org.springframework.http.codec.json;
 import java.io.IOException;
 import java.lang.annotation.Annotation;
 import java.math.BigDecimal;
+import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicReference;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JavaType;
@@ -44,10 +47,12 @@ import org.springframework.core.io.buffer.DataBufferLimitException;
 import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.core.log.LogFormatUtils;
 import org.springframework.http.codec.HttpMessageDecoder;
+import org.springframework.http.converter.json.MapperCacheKey;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
+import org.springframework.util.ConcurrentLruCache;
 import org.springframework.util.MimeType;
 
 /**
@@ -65,6 +70,12 @@ public abstract class AbstractJackson2Decoder extends Jackson2CodecSupport imple
 
 	private int maxInMemorySize = 256 * 1024;
 
+	private final ConcurrentLruCache<MapperCacheKey, Boolean> deserializableCache =
+			new ConcurrentLruCache<>(CACHE_LIMIT, this::canDeserialize);
+
+	private final ConcurrentLruCache<MapperCacheKey, ObjectReader> readerCache =
+			new ConcurrentLruCache<>(CACHE_LIMIT, this::createObjectReader);
+
 
 	/**
 	 * Constructor with a Jackson {@link ObjectMapper} to use.
@@ -107,12 +118,17 @@ public abstract class AbstractJackson2Decoder extends Jackson2CodecSupport imple
 		if (CharSequence.class.isAssignableFrom(elementType.toClass()) || !supportsMimeType(mimeType)) {
 			return false;
 		}
+		return this.deserializableCache.get(MapperCacheKey.forReading(mapper, javaType, null));
+	}
+
+	private boolean canDeserialize(MapperCacheKey key) {
+		JavaType javaType = (JavaType) key.getType();
 		if (!logger.isDebugEnabled()) {
-			return mapper.canDeserialize(javaType);
+			return key.getObjectMapper().canDeserialize(javaType);
 		}
 		else {
 			AtomicReference<Throwable> causeRef = new AtomicReference<>();
-			if (mapper.canDeserialize(javaType, causeRef)) {
+			if (key.getObjectMapper().canDeserialize(javaType, causeRef)) {
 				return true;
 			}
 			logWarningIfNecessary(javaType, causeRef.get());
@@ -135,11 +151,28 @@ public abstract class AbstractJackson2Decoder extends Jackson2CodecSupport imple
 		}
 
 		Flux<DataBuffer> processed = processInput(input, elementType, mimeType, hints);
+		ObjectReader reader = getObjectReader(mapper, elementType, hints);
+
+		if (isSplittable(mapper)) {
+			Flux<ByteBuffer> elements = JsonElementSplitter.split(processed, getMaxInMemorySize());
+			return elements.handle((element, sink) -> {
+				try {
+					int offset = element.arrayOffset() + element.position();
+					Object value = reader.readValue(element.array(), offset, element.remaining());
+					logValue(value, hints);
+					if (value != null) {
+						sink.next(value);
+					}
+				}
+				catch (IOException ex) {
+					sink.error(processException(ex));
+				}
+			});
+		}
+
 		Flux<TokenBuffer> tokens = Jackson2Tokenizer.tokenize(processed, mapper.getFactory(), mapper,
 				true, forceUseOfBigDecimal, getMaxInMemorySize());
 
-		ObjectReader reader = getObjectReader(mapper, elementType, hints);
-
 		return tokens.handle((tokenBuffer, sink) -> {
 			try {
 				Object value = reader.readValue(tokenBuffer.asParser(mapper));
@@ -154,6 +187,21 @@ public abstract class AbstractJackson2Decoder extends Jackson2CodecSupport imple
 		});
 	}
 
+	/**
+	 * Whether the elements of a JSON stream can be located without tokenizing
+	 * the content, and deserialized directly from their bytes: this is the
+	 * case for JSON, unless comments, single quotes, missing values or
+	 * trailing commas are allowed.
+	 */
+	private static boolean isSplittable(ObjectMapper mapper) {
+		return (JsonFactory.FORMAT_NAME_JSON.equals(mapper.getFactory().getFormatName()) &&
+				!mapper.isEnabled(JsonParser.Feature.ALLOW_COMMENTS) &&
+				!mapper.isEnabled(JsonParser.Feature.ALLOW_YAML_COMMENTS) &&
+				!mapper.isEnabled(JsonParser.Feature.ALLOW_SINGLE_QUOTES) &&
+				!mapper.isEnabled(JsonParser.Feature.ALLOW_MISSING_VALUES) &&
+				!mapper.isEnabled(JsonParser.Feature.ALLOW_TRAILING_COMMA));
+	}
+
 	/**
 	 * Process the input publisher into a flux. Default implementation returns
 	 * {@link Flux#from(Publisher)}, but subclasses can choose to customize
@@ -212,9 +260,15 @@ public abstract class AbstractJackson2Decoder extends Jackson2CodecSupport imple
 		}
 		JavaType javaType = getJavaType(elementType.getType(), contextClass);
 		Class<?> jsonView = (hints != null ? (Class<?>) hints.get(Jackson2CodecSupport.JSON_VIEW_HINT) : null);
+		return this.readerCache.get(MapperCacheKey.forReading(mapper, javaType, jsonView));
+	}
+
+	private ObjectReader createObjectReader(MapperCacheKey key) {
+		JavaType javaType = (JavaType) key.getType();
+		Class<?> jsonView = key.getView();
 		return jsonView != null ?
-				mapper.readerWithView(jsonView).forType(javaType) :
-				mapper.readerFor(javaType);
+				key.getObjectMapper().readerWithView(jsonView).forType(javaType) :
+				key.getObjectMapper().readerFor(javaType);
 	}
 
 	@Nullable
@@ -49,12 +49,14 @@ import org.springframework.core.io.buffer.DataBufferFactory;
 import org.springframework.core.log.LogFormatUtils;
 import org.springframework.http.MediaType;
 import org.springframework.http.codec.HttpMessageEncoder;
+import org.springframework.http.converter.json.MapperCacheKey;
 import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
+import org.springframework.util.ConcurrentLruCache;
 import org.springframework.util.MimeType;
 
 /**
@@ -83,6 +85,12 @@ public abstract class AbstractJackson2Encoder extends Jackson2CodecSupport imple
 
 	private final List<MediaType> streamingMediaTypes = new ArrayList<>(1);
 
+	private final ConcurrentLruCache<MapperCacheKey, Boolean> serializableCache =
+			new ConcurrentLruCache<>(CACHE_LIMIT, this::canSerialize);
+
+	private final ConcurrentLruCache<MapperCacheKey, ObjectWriter> writerCache =
+			new ConcurrentLruCache<>(CACHE_LIMIT, this::createObjectWriter);
+
 
 	/**
 	 * Constructor with a Jackson {@link ObjectMapper} to use.
@@ -124,12 +132,17 @@ public abstract class AbstractJackson2Encoder extends Jackson2CodecSupport imple
 		if (Object.class == clazz) {
 			return true;
 		}
+		return this.serializableCache.get(MapperCacheKey.forWriting(mapper, clazz, null));
+	}
+
+	private boolean canSerialize(MapperCacheKey key) {
+		Class<?> clazz = (Class<?>) key.getType();
 		if (!logger.isDebugEnabled()) {
-			return mapper.canSerialize(clazz);
+			return key.getObjectMapper().canSerialize(clazz);
 		}
 		else {
 			AtomicReference<Throwable> causeRef = new AtomicReference<>();
-			if (mapper.canSerialize(clazz, causeRef)) {
+			if (key.getObjectMapper().canSerialize(clazz, causeRef)) {
 				return true;
 			}
 			logWarningIfNecessary(clazz, causeRef.get());
@@ -302,13 +315,21 @@ public abstract class AbstractJackson2Encoder extends Jackson2CodecSupport imple
 		if (jsonView == null && hints != null) {
 			jsonView = (Class<?>) hints.get(Jackson2CodecSupport.JSON_VIEW_HINT);
 		}
-		ObjectWriter writer = (jsonView != null ? mapper.writerWithView(jsonView) : mapper.writer());
-		if (javaType.isContainerType()) {
-			writer = writer.forType(javaType);
-		}
+		ObjectWriter writer = this.writerCache.get(
+				MapperCacheKey.forWriting(mapper, (javaType.isContainerType() ? javaType : null), jsonView));
 		return customizeWriter(writer, mimeType, valueType, hints);
 	}
 
+	private ObjectWriter createObjectWriter(MapperCacheKey key) {
+		Class<?> jsonView = key.getView();
+		ObjectWriter writer = (jsonView != null ?
+				key.getObjectMapper().writerWithView(jsonView) : key.getObjectMapper().writer());
+		if (key.getType() != null) {
+			writer = writer.forType((JavaType) key.getType());
+		}
+		return writer;
+	}
+
 	protected ObjectWriter customizeWriter(ObjectWriter writer, @Nullable MimeType mimeType,
 			ResolvableType elementType, @Nullable Map<String, Object> hints) {
 
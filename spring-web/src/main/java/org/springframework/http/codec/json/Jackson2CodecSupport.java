@@ -72,6 +72,12 @@ public abstract class Jackson2CodecSupport {
 	 */
 	static final String ACTUAL_TYPE_HINT = Jackson2CodecSupport.class.getName() + ".actualType";
 
+	/**
+	 * The maximum number of prepared readers, writers and
+	 * (de-)serializability verdicts to cache per encoder or decoder.
+	 */
+	static final int CACHE_LIMIT = 256;
+
 	private static final String JSON_VIEW_HINT_ERROR =
 			"@JsonView only supported for write hints with exactly 1 class argument: ";
 
@@ -0,0 +1,304 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.codec.json;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import reactor.core.publisher.Flux;
+
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.lang.Nullable;
+
+/**
+ * Splits a UTF-8 JSON stream of arbitrary size, byte array chunks into the
+ * raw content of each top-level value, or of each element of a top-level
+ * array, as soon as it has been received. Unlike {@link Jackson2Tokenizer},
+ * this only keeps track of the nesting of objects, arrays and strings
+ * without tokenizing the content, so that each element can be deserialized
+ * directly from its bytes. This covers newline-delimited JSON streams as
+ * well as JSON arrays.
+ *
+ * <p>Within a top-level array, missing, duplicate and trailing commas
+ * between elements are rejected right away. Malformed content within an
+ * element is not detected here, but passed on as an element for the
+ * deserializer to reject.
+ *
+ * @since 5.3.10
+ * @see Jackson2Tokenizer
+ */
+final class JsonElementSplitter {
+
+	private final int maxInMemorySize;
+
+	private int depth;
+
+	private boolean inTopLevelArray;
+
+	private boolean commaExpected;
+
+	private boolean elementExpected;
+
+	private boolean inElement;
+
+	private boolean inString;
+
+	private boolean inEscape;
+
+	private boolean inScalar;
+
+	private boolean startOfInput = true;
+
+	@Nullable
+	private byte[] pending;
+
+	private int pendingLength;
+
+
+	private JsonElementSplitter(int maxInMemorySize) {
+		this.maxInMemorySize = maxInMemorySize;
+	}
+
+
+	private List<ByteBuffer> split(DataBuffer dataBuffer) {
+		byte[] bytes = new byte[dataBuffer.readableByteCount()];
+		dataBuffer.read(bytes);
+		DataBufferUtils.release(dataBuffer);
+
+		List<ByteBuffer> result = null;
+		int index = 0;
+		if (this.startOfInput && bytes.length > 0) {
+			this.startOfInput = false;
+			if (bytes.length >= 3 && bytes[0] == (byte) 0xEF && bytes[1] == (byte) 0xBB && bytes[2] == (byte) 0xBF) {
+				index = 3;
+			}
+		}
+		int elementStart = 0;
+		int elementDepth = (this.inTopLevelArray ? 1 : 0);
+		for (; index < bytes.length; index++) {
+			byte b = bytes[index];
+			if (this.inString) {
+				if (this.inEscape) {
+					this.inEscape = false;
+				}
+				else if (b == '\\') {
+					this.inEscape = true;
+				}
+				else if (b == '"') {
+					this.inString = false;
+					if (this.depth == elementDepth) {
+						result = endElement(bytes, elementStart, index + 1, result);
+					}
+				}
+				continue;
+			}
+			if (this.inScalar) {
+				if (!isEndOfScalar(b)) {
+					continue;
+				}
+				this.inScalar = false;
+				result = endElement(bytes, elementStart, index, result);
+			}
+			switch (b) {
+				case '{':
+				case '[':
+					if (b == '[' && this.depth == 0 && !this.inElement) {
+						this.inTopLevelArray = true;
+						this.commaExpected = false;
+						this.elementExpected = false;
+						elementDepth = 1;
+					}
+					else if (this.depth == elementDepth) {
+						elementStart = startElement(index, b);
+					}
+					this.depth++;
+					break;
+				case '}':
+				case ']':
+					if (this.depth == elementDepth) {
+						if (b == ']' && this.inTopLevelArray) {
+							if (this.elementExpected) {
+								throw new DecodingException(
+										"JSON decoding error: Unexpected character (']'): expected a value");
+							}
+							this.inTopLevelArray = false;
+							elementDepth = 0;
+							this.depth--;
+						}
+						else {
+							// Unbalanced: let the deserializer reject it
+							elementStart = startElement(index, b);
+							result = endElement(bytes, elementStart, index + 1, result);
+						}
+						break;
+					}
+					this.depth--;
+					if (this.depth == elementDepth) {
+						result = endElement(bytes, elementStart, index + 1, result);
+					}
+					break;
+				case '"':
+					if (this.depth == elementDepth) {
+						elementStart = startElement(index, b);
+					}
+					this.inString = true;
+					break;
+				case ',':
+					if (this.depth == 0) {
+						// Only valid between the elements of an array
+						elementStart = startElement(index, b);
+						result = endElement(bytes, elementStart, index + 1, result);
+					}
+					else if (this.inTopLevelArray && this.depth == 1) {
+						if (!this.commaExpected) {
+							throw new DecodingException(
+									"JSON decoding error: Unexpected character (','): expected a value");
+						}
+						this.commaExpected = false;
+						this.elementExpected = true;
+					}
+					break;
+				case ' ':
+				case '\t':
+				case '\n':
+				case '\r':
+					break;
+				default:
+					if (this.depth == elementDepth) {
+						elementStart = startElement(index, b);
+						this.inScalar = true;
+					}
+			}
+		}
+		if (this.inElement) {
+			append(bytes, elementStart, bytes.length);
+		}
+		return (result != null ? result : Collections.emptyList());
+	}
+
+	private static boolean isEndOfScalar(byte b) {
+		switch (b) {
+			case ' ':
+			case '\t':
+			case '\n':
+			case '\r':
+			case ',':
+			case '{':
+			case '}':
+			case '[':
+			case ']':
+			case '"':
+				return true;
+			default:
+				return false;
+		}
+	}
+
+	private int startElement(int index, byte b) {
+		if (this.inTopLevelArray) {
+			if (this.commaExpected) {
+				throw new DecodingException("JSON decoding error: Unexpected character ('" + (char) (b & 0xFF) +
+						"'): was expecting comma to separate Array entries");
+			}
+			this.commaExpected = true;
+			this.elementExpected = false;
+		}
+		this.inElement = true;
+		return index;
+	}
+
+	private List<ByteBuffer> endElement(byte[] bytes, int start, int end, @Nullable List<ByteBuffer> result) {
+		ByteBuffer element;
+		if (this.pending != null) {
+			append(bytes, start, end);
+			element = ByteBuffer.wrap(this.pending, 0, this.pendingLength);
+			this.pending = null;
+			this.pendingLength = 0;
+		}
+		else {
+			if (this.maxInMemorySize >= 0 && end - start > this.maxInMemorySize) {
+				raiseLimitException();
+			}
+			element = ByteBuffer.wrap(bytes, start, end - start);
+		}
+		this.inElement = false;
+		if (result == null) {
+			result = new ArrayList<>();
+		}
+		result.add(element);
+		return result;
+	}
+
+	private void append(byte[] bytes, int start, int end) {
+		int length = end - start;
+		if (this.maxInMemorySize >= 0 && length > this.maxInMemorySize - this.pendingLength) {
+			raiseLimitException();
+		}
+		if (this.pending == null) {
+			this.pending = Arrays.copyOfRange(bytes, start, start + Math.max(length, 256));
+		}
+		else {
+			if (this.pendingLength + length > this.pending.length) {
+				int capacity = Math.max(this.pendingLength + length, this.pending.length * 2);
+				this.pending = Arrays.copyOf(this.pending, capacity);
+			}
+			System.arraycopy(bytes, start, this.pending, this.pendingLength, length);
+		}
+		this.pendingLength += length;
+	}
+
+	private void raiseLimitException() {
+		throw new DataBufferLimitException(
+				"Exceeded limit on max bytes per JSON object: " + this.maxInMemorySize);
+	}
+
+	private List<ByteBuffer> endOfInput() {
+		if (this.inScalar || this.inElement) {
+			// Incomplete element: let the deserializer report what is missing
+			this.inScalar = false;
+			return endElement(new byte[0], 0, 0, null);
+		}
+		if (this.inTopLevelArray) {
+			throw new DecodingException("JSON decoding error: Unexpected end-of-input: expected close marker for ARRAY");
+		}
+		return Collections.emptyList();
+	}
+
+
+	/**
+	 * Split the given {@code Flux<DataBuffer>} into a {@code Flux<ByteBuffer>}
+	 * with the content of each top-level value, or of each element of a
+	 * top-level array, backed by a heap array.
+	 * @param dataBuffers the source data buffers, with UTF-8 encoded JSON
+	 * @param maxInMemorySize maximum number of bytes per element, or -1 for unlimited
+	 * @return the content of each element
+	 */
+	public static Flux<ByteBuffer> split(Flux<DataBuffer> dataBuffers, int maxInMemorySize) {
+		return Flux.defer(() -> {
+			JsonElementSplitter splitter = new JsonElementSplitter(maxInMemorySize);
+			return dataBuffers.concatMapIterable(splitter::split)
+					.concatWith(Flux.defer(() -> Flux.fromIterable(splitter.endOfInput())));
+		});
+	}
+
+}
@@ -60,6 +60,7 @@ import org.springframework.http.converter.HttpMessageNotWritableException;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
+import org.springframework.util.ConcurrentLruCache;
 import org.springframework.util.StreamUtils;
 import org.springframework.util.TypeUtils;
 
@@ -79,6 +80,8 @@ import org.springframework.util.TypeUtils;
  */
 public abstract class AbstractJackson2HttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
 
+	private static final int CACHE_LIMIT = 256;
+
 	private static final Map<String, JsonEncoding> ENCODINGS;
 
 	static {
@@ -109,6 +112,18 @@ public abstract class AbstractJackson2HttpMessageConverter extends AbstractGener
 	@Nullable
 	private PrettyPrinter ssePrettyPrinter;
 
+	private final ConcurrentLruCache<MapperCacheKey, Boolean> deserializableCache =
+			new ConcurrentLruCache<>(CACHE_LIMIT, this::canDeserialize);
+
+	private final ConcurrentLruCache<MapperCacheKey, Boolean> serializableCache =
+			new ConcurrentLruCache<>(CACHE_LIMIT, this::canSerialize);
+
+	private final ConcurrentLruCache<MapperCacheKey, ObjectReader> readerCache =
+			new ConcurrentLruCache<>(CACHE_LIMIT, this::createObjectReader);
+
+	private final ConcurrentLruCache<MapperCacheKey, ObjectWriter> writerCache =
+			new ConcurrentLruCache<>(CACHE_LIMIT, this::createObjectWriter);
+
 
 	protected AbstractJackson2HttpMessageConverter(ObjectMapper objectMapper) {
 		this.defaultObjectMapper = objectMapper;
@@ -247,12 +262,7 @@ public abstract class AbstractJackson2HttpMessageConverter extends AbstractGener
 		if (objectMapper == null) {
 			return false;
 		}
-		AtomicReference<Throwable> causeRef = new AtomicReference<>();
-		if (objectMapper.canDeserialize(javaType, causeRef)) {
-			return true;
-		}
-		logWarningIfNecessary(javaType, causeRef.get());
-		return false;
+		return this.deserializableCache.get(MapperCacheKey.forReading(objectMapper, javaType, null));
 	}
 
 	@Override
@@ -270,8 +280,23 @@ public abstract class AbstractJackson2HttpMessageConverter extends AbstractGener
 		if (objectMapper == null) {
 			return false;
 		}
+		return this.serializableCache.get(MapperCacheKey.forWriting(objectMapper, clazz, null));
+	}
+
+	private boolean canDeserialize(MapperCacheKey key) {
+		JavaType javaType = (JavaType) key.getType();
+		AtomicReference<Throwable> causeRef = new AtomicReference<>();
+		if (key.getObjectMapper().canDeserialize(javaType, causeRef)) {
+			return true;
+		}
+		logWarningIfNecessary(javaType, causeRef.get());
+		return false;
+	}
+
+	private boolean canSerialize(MapperCacheKey key) {
+		Class<?> clazz = (Class<?>) key.getType();
 		AtomicReference<Throwable> causeRef = new AtomicReference<>();
-		if (objectMapper.canSerialize(clazz, causeRef)) {
+		if (key.getObjectMapper().canSerialize(clazz, causeRef)) {
 			return true;
 		}
 		logWarningIfNecessary(clazz, causeRef.get());
@@ -361,25 +386,18 @@ public abstract class AbstractJackson2HttpMessageConverter extends AbstractGener
 				"UTF-16".equals(charset.name()) ||
 				"UTF-32".equals(charset.name());
 		try {
+			Class<?> deserializationView = null;
 			if (inputMessage instanceof MappingJacksonInputMessage) {
-				Class<?> deserializationView = ((MappingJacksonInputMessage) inputMessage).getDeserializationView();
-				if (deserializationView != null) {
-					ObjectReader objectReader = objectMapper.readerWithView(deserializationView).forType(javaType);
-					if (isUnicode) {
-						return objectReader.readValue(inputMessage.getBody());
-					}
-					else {
-						Reader reader = new InputStreamReader(inputMessage.getBody(), charset);
-						return objectReader.readValue(reader);
-					}
-				}
+				deserializationView = ((MappingJacksonInputMessage) inputMessage).getDeserializationView();
 			}
+			ObjectReader objectReader =
+					this.readerCache.get(MapperCacheKey.forReading(objectMapper, javaType, deserializationView));
 			if (isUnicode) {
-				return objectMapper.readValue(inputMessage.getBody(), javaType);
+				return objectReader.readValue(inputMessage.getBody());
 			}
 			else {
 				Reader reader = new InputStreamReader(inputMessage.getBody(), charset);
-				return objectMapper.readValue(reader, javaType);
+				return objectReader.readValue(reader);
 			}
 		}
 		catch (InvalidDefinitionException ex) {
@@ -438,14 +456,11 @@ public abstract class AbstractJackson2HttpMessageConverter extends AbstractGener
 				javaType = getJavaType(type, null);
 			}
 
-			ObjectWriter objectWriter = (serializationView != null ?
-					objectMapper.writerWithView(serializationView) : objectMapper.writer());
+			ObjectWriter objectWriter = this.writerCache.get(MapperCacheKey.forWriting(objectMapper,
+					(javaType != null && javaType.isContainerType() ? javaType : null), serializationView));
 			if (filters != null) {
 				objectWriter = objectWriter.with(filters);
 			}
-			if (javaType != null && javaType.isContainerType()) {
-				objectWriter = objectWriter.forType(javaType);
-			}
 			SerializationConfig config = objectWriter.getConfig();
 			if (contentType != null && contentType.isCompatibleWith(MediaType.TEXT_EVENT_STREAM) &&
 					config.isEnabled(SerializationFeature.INDENT_OUTPUT)) {
@@ -464,6 +479,24 @@ public abstract class AbstractJackson2HttpMessageConverter extends AbstractGener
 		}
 	}
 
+	private ObjectReader createObjectReader(MapperCacheKey key) {
+		JavaType javaType = (JavaType) key.getType();
+		Class<?> view = key.getView();
+		return (view != null ?
+				key.getObjectMapper().readerWithView(view).forType(javaType) :
+				key.getObjectMapper().readerFor(javaType));
+	}
+
+	private ObjectWriter createObjectWriter(MapperCacheKey key) {
+		Class<?> view = key.getView();
+		ObjectWriter objectWriter = (view != null ?
+				key.getObjectMapper().writerWithView(view) : key.getObjectMapper().writer());
+		if (key.getType() != null) {
+			objectWriter = objectWriter.forType((JavaType) key.getType());
+		}
+		return objectWriter;
+	}
+
 	/**
 	 * Write a prefix before the main content.
 	 * @param generator the generator to use for writing content.
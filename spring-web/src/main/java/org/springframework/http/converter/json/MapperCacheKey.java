@@ -0,0 +1,112 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.converter.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * Cache key for prepared {@code ObjectReader} and {@code ObjectWriter}
+ * instances as well as for (de-)serializability verdicts. Includes the
+ * current configuration of the {@link ObjectMapper} which Jackson
+ * replaces whenever a feature is changed, e.g. for pretty printing.
+ *
+ * <p>Shared by {@link AbstractJackson2HttpMessageConverter} and the Jackson
+ * codecs in {@code org.springframework.http.codec.json}; mainly for
+ * internal use within the framework.
+ *
+ * @since 5.3.10
+ */
+public final class MapperCacheKey {
+
+	private final ObjectMapper objectMapper;
+
+	private final Object config;
+
+	@Nullable
+	private final Object type;
+
+	@Nullable
+	private final Class<?> view;
+
+
+	private MapperCacheKey(ObjectMapper objectMapper, Object config, @Nullable Object type, @Nullable Class<?> view) {
+		this.objectMapper = objectMapper;
+		this.config = config;
+		this.type = type;
+		this.view = view;
+	}
+
+
+	/**
+	 * Create a key for reading with the given {@code ObjectMapper}.
+	 * @param objectMapper the mapper to read with
+	 * @param type the target type, if relevant
+	 * @param view the serialization view, if any
+	 */
+	public static MapperCacheKey forReading(ObjectMapper objectMapper, @Nullable Object type, @Nullable Class<?> view) {
+		return new MapperCacheKey(objectMapper, objectMapper.getDeserializationConfig(), type, view);
+	}
+
+	/**
+	 * Create a key for writing with the given {@code ObjectMapper}.
+	 * @param objectMapper the mapper to write with
+	 * @param type the value type, if relevant
+	 * @param view the serialization view, if any
+	 */
+	public static MapperCacheKey forWriting(ObjectMapper objectMapper, @Nullable Object type, @Nullable Class<?> view) {
+		return new MapperCacheKey(objectMapper, objectMapper.getSerializationConfig(), type, view);
+	}
+
+
+	public ObjectMapper getObjectMapper() {
+		return this.objectMapper;
+	}
+
+	@Nullable
+	public Object getType() {
+		return this.type;
+	}
+
+	@Nullable
+	public Class<?> getView() {
+		return this.view;
+	}
+
+
+	@Override
+	public boolean equals(@Nullable Object other) {
+		if (this == other) {
+			return true;
+		}
+		if (!(other instanceof MapperCacheKey)) {
+			return false;
+		}
+		MapperCacheKey otherKey = (MapperCacheKey) other;
+		return (this.objectMapper == otherKey.objectMapper && this.config == otherKey.config &&
+				ObjectUtils.nullSafeEquals(this.type, otherKey.type) && this.view == otherKey.view);
+	}
+
+	@Override
+	public int hashCode() {
+		return (System.identityHashCode(this.config) * 31 + ObjectUtils.nullSafeHashCode(this.type)) * 31 +
+				ObjectUtils.nullSafeHashCode(this.view);
+	}
+
+}
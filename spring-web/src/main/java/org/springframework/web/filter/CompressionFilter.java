@@ -0,0 +1,510 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.filter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.DeflaterOutputStream;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+import org.springframework.web.util.DeflaterPool;
+import org.springframework.web.util.WebUtils;
+
+/**
+ * {@link javax.servlet.Filter} that compresses the response content with the
+ * {@code "gzip"} or {@code "deflate"} content coding, as negotiated through
+ * the {@code Accept-Encoding} request header, using pooled
+ * {@link java.util.zip.Deflater Deflaters}.
+ *
+ * <p>The content is compressed as it is written, holding back no more than
+ * the {@link #setMinResponseSize minimum response size}: smaller responses
+ * are sent uncompressed. Only responses with a
+ * {@link #setCompressibleMediaTypes compressible media type} and a
+ * {@code 2xx} status are compressed, and not those that already have a
+ * {@code Content-Encoding}. Once compression has started, flushing the
+ * response also flushes the compressor, so that streaming responses are
+ * sent incrementally.
+ *
+ * @since 5.3.10
+ * @see org.springframework.web.filter.reactive.CompressionWebFilter
+ */
+public class CompressionFilter extends OncePerRequestFilter {
+
+	private static final List<MediaType> DEFAULT_COMPRESSIBLE_MEDIA_TYPES = Collections.unmodifiableList(Arrays.asList(
+			new MediaType("text", "*"), MediaType.APPLICATION_JSON, new MediaType("application", "*+json"),
+			MediaType.APPLICATION_XML, new MediaType("application", "*+xml"),
+			new MediaType("application", "javascript"), MediaType.APPLICATION_NDJSON));
+
+	private static final List<MediaType> STREAMING_MEDIA_TYPES = Collections.unmodifiableList(Arrays.asList(
+			MediaType.TEXT_EVENT_STREAM, MediaType.APPLICATION_NDJSON));
+
+
+	private DeflaterPool deflaterPool = new DeflaterPool();
+
+	private int minResponseSize = 2048;
+
+	private final List<MediaType> compressibleMediaTypes = new ArrayList<>(DEFAULT_COMPRESSIBLE_MEDIA_TYPES);
+
+
+	/**
+	 * Set the pool of {@code Deflater} instances to use, e.g. in order to
+	 * share it with other filters, or to use a different compression level.
+	 * <p>By default this is a {@link DeflaterPool} with the default
+	 * compression level.
+	 */
+	public void setDeflaterPool(DeflaterPool deflaterPool) {
+		Assert.notNull(deflaterPool, "DeflaterPool must not be null");
+		this.deflaterPool = deflaterPool;
+	}
+
+	/**
+	 * Return the configured pool of {@code Deflater} instances.
+	 */
+	public DeflaterPool getDeflaterPool() {
+		return this.deflaterPool;
+	}
+
+	/**
+	 * Set the minimum number of bytes of response content for the response
+	 * to be compressed. Up to this number of bytes are held back until the
+	 * decision is made, unless a response with a streaming media type such as
+	 * {@code text/event-stream} is flushed earlier.
+	 * <p>By default this is set to 2048.
+	 */
+	public void setMinResponseSize(int minResponseSize) {
+		Assert.isTrue(minResponseSize >= 0, "'minResponseSize' must not be negative");
+		this.minResponseSize = minResponseSize;
+	}
+
+	/**
+	 * Return the configured minimum response size.
+	 */
+	public int getMinResponseSize() {
+		return this.minResponseSize;
+	}
+
+	/**
+	 * Set the media types of responses to compress.
+	 * <p>By default this is {@code text/*}, JSON, XML, JavaScript and NDJSON.
+	 */
+	public void setCompressibleMediaTypes(List<MediaType> mediaTypes) {
+		Assert.notNull(mediaTypes, "MediaType List must not be null");
+		this.compressibleMediaTypes.clear();
+		this.compressibleMediaTypes.addAll(mediaTypes);
+	}
+
+	/**
+	 * Return the configured media types of responses to compress.
+	 */
+	public List<MediaType> getCompressibleMediaTypes() {
+		return Collections.unmodifiableList(this.compressibleMediaTypes);
+	}
+
+
+	/**
+	 * The default value is {@code false} so that the filter may complete the
+	 * compressed content on the last asynchronously dispatched thread.
+	 */
+	@Override
+	protected boolean shouldNotFilterAsyncDispatch() {
+		return false;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+
+		HttpServletResponse responseToUse = response;
+		if (!isAsyncDispatch(request) && WebUtils.getNativeResponse(response, CompressingResponseWrapper.class) == null) {
+			String contentCoding = this.deflaterPool.getContentCoding(
+					Collections.list(request.getHeaders(HttpHeaders.ACCEPT_ENCODING)));
+			if (contentCoding != null) {
+				responseToUse = new CompressingResponseWrapper(response, contentCoding);
+			}
+		}
+
+		boolean completed = false;
+		try {
+			filterChain.doFilter(request, responseToUse);
+			completed = true;
+		}
+		finally {
+			if (!isAsyncStarted(request)) {
+				CompressingResponseWrapper wrapper =
+						WebUtils.getNativeResponse(responseToUse, CompressingResponseWrapper.class);
+				if (wrapper != null) {
+					if (completed) {
+						wrapper.finishResponse();
+					}
+					else {
+						wrapper.discardCompressor();
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Whether the response should be compressed, once the minimum response
+	 * size is reached or the response is flushed. By default this is
+	 * {@code true} if all of the following match:
+	 * <ul>
+	 * <li>Response status code is in the {@code 2xx} series, other than 204 and 206.</li>
+	 * <li>Response has no Content-Encoding header.</li>
+	 * <li>Response content type is one of the compressible media types.</li>
+	 * </ul>
+	 * @param response the HTTP response
+	 * @return {@code true} if the response should be compressed, {@code false} otherwise
+	 */
+	protected boolean isEligibleForCompression(HttpServletResponse response) {
+		int status = response.getStatus();
+		if (status < 200 || status >= 300 || status == HttpServletResponse.SC_NO_CONTENT ||
+				status == HttpServletResponse.SC_PARTIAL_CONTENT ||
+				response.getHeader(HttpHeaders.CONTENT_ENCODING) != null) {
+			return false;
+		}
+		String contentType = response.getContentType();
+		if (!StringUtils.hasLength(contentType)) {
+			return false;
+		}
+		try {
+			MediaType mediaType = MediaType.parseMediaType(contentType);
+			for (MediaType compressibleMediaType : this.compressibleMediaTypes) {
+				if (compressibleMediaType.includes(mediaType)) {
+					return true;
+				}
+			}
+		}
+		catch (InvalidMediaTypeException ex) {
+			// Not compressible
+		}
+		return false;
+	}
+
+
+	/**
+	 * Holds back content up to the minimum response size, and then either
+	 * compresses the content while it is written, or passes it through.
+	 */
+	private class CompressingResponseWrapper extends HttpServletResponseWrapper {
+
+		private final String contentCoding;
+
+		private final byte[] buffer;
+
+		private int bufferCount;
+
+		@Nullable
+		private Long contentLength;
+
+		@Nullable
+		private ServletOutputStream outputStream;
+
+		@Nullable
+		private PrintWriter writer;
+
+		@Nullable
+		private DeflaterOutputStream compressingStream;
+
+		private boolean compressionDisabled;
+
+		private boolean decided;
+
+		private boolean finishing;
+
+		CompressingResponseWrapper(HttpServletResponse response, String contentCoding) {
+			super(response);
+			this.contentCoding = contentCoding;
+			this.buffer = new byte[minResponseSize];
+		}
+
+		@Override
+		public ServletOutputStream getOutputStream() throws IOException {
+			Assert.state(this.writer == null, "getWriter() has already been called");
+			if (this.outputStream == null) {
+				this.outputStream = new CompressingServletOutputStream(getResponse().getOutputStream());
+			}
+			return this.outputStream;
+		}
+
+		@Override
+		public PrintWriter getWriter() throws IOException {
+			if (this.writer == null) {
+				Assert.state(this.outputStream == null, "getOutputStream() has already been called");
+				String characterEncoding = getCharacterEncoding();
+				this.outputStream = new CompressingServletOutputStream(getResponse().getOutputStream());
+				this.writer = new PrintWriter(new OutputStreamWriter(this.outputStream, characterEncoding));
+			}
+			return this.writer;
+		}
+
+		@Override
+		public void setContentLength(int len) {
+			setContentLengthLong(len);
+		}
+
+		@Override
+		public void setContentLengthLong(long len) {
+			if (!this.decided && len < minResponseSize) {
+				// Pass through from the next write on
+				this.compressionDisabled = true;
+			}
+			if (this.compressingStream == null) {
+				if (this.decided) {
+					super.setContentLengthLong(len);
+				}
+				else {
+					this.contentLength = len;
+				}
+			}
+		}
+
+		@Override
+		public void setHeader(String name, String value) {
+			if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+				setContentLengthLong(Long.parseLong(value));
+			}
+			else {
+				super.setHeader(name, value);
+			}
+		}
+
+		@Override
+		public void addHeader(String name, String value) {
+			if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+				setContentLengthLong(Long.parseLong(value));
+			}
+			else {
+				super.addHeader(name, value);
+			}
+		}
+
+		@Override
+		public void sendError(int sc) throws IOException {
+			decide(false);
+			super.sendError(sc);
+		}
+
+		@Override
+		public void sendError(int sc, String msg) throws IOException {
+			decide(false);
+			super.sendError(sc, msg);
+		}
+
+		@Override
+		public void sendRedirect(String location) throws IOException {
+			decide(false);
+			super.sendRedirect(location);
+		}
+
+		@Override
+		public void flushBuffer() throws IOException {
+			if (this.writer != null) {
+				this.writer.flush();
+			}
+			else if (this.outputStream != null) {
+				this.outputStream.flush();
+			}
+			else {
+				decide(false);
+				super.flushBuffer();
+			}
+		}
+
+		@Override
+		public void resetBuffer() {
+			if (!this.decided) {
+				this.bufferCount = 0;
+			}
+			super.resetBuffer();
+		}
+
+		@Override
+		public void reset() {
+			if (!this.decided) {
+				this.bufferCount = 0;
+				this.contentLength = null;
+				this.compressionDisabled = false;
+			}
+			super.reset();
+		}
+
+		/**
+		 * Decide whether to compress, and write the content held back so far.
+		 */
+		private void decide(boolean compress) throws IOException {
+			if (this.decided) {
+				return;
+			}
+			this.decided = true;
+			HttpServletResponse response = (HttpServletResponse) getResponse();
+			if (compress && isEligibleForCompression(response)) {
+				response.setHeader(HttpHeaders.CONTENT_ENCODING, this.contentCoding);
+				response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+				this.compressingStream = deflaterPool.createOutputStream(
+						response.getOutputStream(), this.contentCoding, true);
+			}
+			else if (this.contentLength != null) {
+				response.setContentLengthLong(this.contentLength);
+			}
+			if (this.bufferCount > 0) {
+				getTarget().write(this.buffer, 0, this.bufferCount);
+				this.bufferCount = 0;
+			}
+		}
+
+		private OutputStream getTarget() throws IOException {
+			return (this.compressingStream != null ? this.compressingStream : getResponse().getOutputStream());
+		}
+
+		/**
+		 * Write remaining content, and complete the compressed content, if any.
+		 */
+		void finishResponse() throws IOException {
+			this.finishing = true;
+			try {
+				if (this.writer != null) {
+					this.writer.flush();
+				}
+				if (!this.decided) {
+					if (this.contentLength == null && this.bufferCount > 0) {
+						this.contentLength = (long) this.bufferCount;
+					}
+					decide(false);
+				}
+				if (this.compressingStream != null) {
+					this.compressingStream.close();
+					this.compressingStream = null;
+				}
+			}
+			catch (Throwable ex) {
+				discardCompressor();
+				throw ex;
+			}
+		}
+
+		/**
+		 * Return the compressor to the pool without completing the compressed
+		 * content, after a failure to produce or to write the response.
+		 */
+		void discardCompressor() {
+			if (this.compressingStream != null) {
+				deflaterPool.discard(this.compressingStream);
+				this.compressingStream = null;
+			}
+		}
+
+		/**
+		 * Whether the content held back so far should be flushed, which is
+		 * only the case for streaming media types, given that message
+		 * converters also flush after writing a complete body.
+		 */
+		private boolean isStreaming() {
+			String contentType = getContentType();
+			if (!StringUtils.hasLength(contentType)) {
+				return false;
+			}
+			try {
+				MediaType mediaType = MediaType.parseMediaType(contentType);
+				for (MediaType streamingMediaType : STREAMING_MEDIA_TYPES) {
+					if (streamingMediaType.isCompatibleWith(mediaType)) {
+						return true;
+					}
+				}
+			}
+			catch (InvalidMediaTypeException ex) {
+				// Not streaming
+			}
+			return false;
+		}
+
+
+		private class CompressingServletOutputStream extends ServletOutputStream {
+
+			private final ServletOutputStream os;
+
+			CompressingServletOutputStream(ServletOutputStream os) {
+				this.os = os;
+			}
+
+			@Override
+			public void write(int b) throws IOException {
+				write(new byte[] {(byte) b}, 0, 1);
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) throws IOException {
+				if (!decided) {
+					if (!compressionDisabled && bufferCount + len <= buffer.length) {
+						System.arraycopy(b, off, buffer, bufferCount, len);
+						bufferCount += len;
+						return;
+					}
+					decide(!compressionDisabled);
+				}
+				getTarget().write(b, off, len);
+			}
+
+			@Override
+			public void flush() throws IOException {
+				if (!decided) {
+					if (finishing || !isStreaming()) {
+						return;
+					}
+					decide(true);
+				}
+				getTarget().flush();
+			}
+
+			@Override
+			public void close() throws IOException {
+				finishResponse();
+				this.os.close();
+			}
+
+			@Override
+			public boolean isReady() {
+				return this.os.isReady();
+			}
+
+			@Override
+			public void setWriteListener(WriteListener writeListener) {
+				this.os.setWriteListener(writeListener);
+			}
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,19 +18,30 @@ package org.springframework.web.filter;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.function.Supplier;
+import java.util.zip.Checksum;
 
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
 import javax.servlet.ServletOutputStream;
 import javax.servlet.ServletRequest;
+import javax.servlet.WriteListener;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
 
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.DigestUtils;
+import org.springframework.util.FastByteArrayOutputStream;
 import org.springframework.util.StringUtils;
 import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.util.ContentCachingResponseWrapper;
@@ -46,6 +57,13 @@ import org.springframework.web.util.WebUtils;
  * (e.g. a {@link org.springframework.web.servlet.View}) is still rendered.
  * As such, this filter only saves bandwidth, not server performance.
  *
+ * <p>By default the entire response content is cached in order to calculate
+ * the ETag. As of 5.3.10, a {@link #setContentCacheLimit content cache limit}
+ * may be set instead, in which case the ETag is calculated incrementally while
+ * the content is written, and responses exceeding the limit are streamed
+ * without an ETag. A faster, non-cryptographic {@link Checksum} may also be
+ * {@link #setChecksumSupplier configured} in place of MD5.
+ *
  * <p><b>NOTE:</b> As of Spring Framework 5.0, this filter uses request/response
  * decorators built on the Servlet 3.1 API.
  *
@@ -64,6 +82,11 @@ public class ShallowEtagHeaderFilter extends OncePerRequestFilter {
 
 	private boolean writeWeakETag = false;
 
+	private int contentCacheLimit = -1;
+
+	@Nullable
+	private Supplier<? extends Checksum> checksumSupplier;
+
 
 	/**
 	 * Set whether the ETag value written to the response should be weak, as per RFC 7232.
@@ -84,6 +107,53 @@ public class ShallowEtagHeaderFilter extends OncePerRequestFilter {
 		return this.writeWeakETag;
 	}
 
+	/**
+	 * Set the maximum number of bytes of response content to cache for the
+	 * purpose of sending a {@code 304 "Not Modified"} status instead. Larger
+	 * responses are streamed to the client as soon as the limit is exceeded,
+	 * without an ETag.
+	 * <p>Setting a limit also switches ETag calculation to incremental hashing
+	 * while the content is written, rather than reading the cached content
+	 * through {@link #generateETagHeaderValue(InputStream, boolean)}.
+	 * <p>By default this is -1, i.e. the entire content is cached.
+	 * @param contentCacheLimit the maximum number of bytes to cache, or -1
+	 * for no limit
+	 * @since 5.3.10
+	 */
+	public void setContentCacheLimit(int contentCacheLimit) {
+		this.contentCacheLimit = contentCacheLimit;
+	}
+
+	/**
+	 * Return the configured content cache limit.
+	 * @since 5.3.10
+	 */
+	public int getContentCacheLimit() {
+		return this.contentCacheLimit;
+	}
+
+	/**
+	 * Set a supplier for a {@link Checksum} to calculate the ETag with, as a
+	 * faster alternative to the default MD5 hash, e.g. {@code CRC32::new} or
+	 * on JDK 9+ {@code CRC32C::new}.
+	 * <p>Setting a checksum supplier switches ETag calculation to incremental
+	 * hashing, see {@link #setContentCacheLimit(int)}.
+	 * <p>By default this is not set, i.e. an MD5 hash is used.
+	 * @since 5.3.10
+	 */
+	public void setChecksumSupplier(@Nullable Supplier<? extends Checksum> checksumSupplier) {
+		this.checksumSupplier = checksumSupplier;
+	}
+
+	/**
+	 * Return the configured checksum supplier, if any.
+	 * @since 5.3.10
+	 */
+	@Nullable
+	public Supplier<? extends Checksum> getChecksumSupplier() {
+		return this.checksumSupplier;
+	}
+
 
 	/**
 	 * The default value is {@code false} so that the filter may delay the generation
@@ -99,8 +169,15 @@ public class ShallowEtagHeaderFilter extends OncePerRequestFilter {
 			throws ServletException, IOException {
 
 		HttpServletResponse responseToUse = response;
-		if (!isAsyncDispatch(request) && !(response instanceof ConditionalContentCachingResponseWrapper)) {
-			responseToUse = new ConditionalContentCachingResponseWrapper(response, request);
+		if (!isAsyncDispatch(request) && !(response instanceof ConditionalContentCachingResponseWrapper) &&
+				!(response instanceof HashingResponseWrapper)) {
+			if (this.contentCacheLimit >= 0 || this.checksumSupplier != null) {
+				Checksum checksum = (this.checksumSupplier != null ? this.checksumSupplier.get() : null);
+				responseToUse = new HashingResponseWrapper(response, request, this.contentCacheLimit, checksum);
+			}
+			else {
+				responseToUse = new ConditionalContentCachingResponseWrapper(response, request);
+			}
 		}
 
 		filterChain.doFilter(request, responseToUse);
@@ -111,6 +188,12 @@ public class ShallowEtagHeaderFilter extends OncePerRequestFilter {
 	}
 
 	private void updateResponse(HttpServletRequest request, HttpServletResponse response) throws IOException {
+		HashingResponseWrapper hashingWrapper = WebUtils.getNativeResponse(response, HashingResponseWrapper.class);
+		if (hashingWrapper != null) {
+			updateResponse(request, hashingWrapper);
+			return;
+		}
+
 		ConditionalContentCachingResponseWrapper wrapper =
 				WebUtils.getNativeResponse(response, ConditionalContentCachingResponseWrapper.class);
 		Assert.notNull(wrapper, "ContentCachingResponseWrapper not found");
@@ -130,6 +213,27 @@ public class ShallowEtagHeaderFilter extends OncePerRequestFilter {
 		wrapper.copyBodyToResponse();
 	}
 
+	private void updateResponse(HttpServletRequest request, HashingResponseWrapper wrapper) throws IOException {
+		if (wrapper.isStreaming()) {
+			// Content already written to the response, too late for an ETag
+			return;
+		}
+		HttpServletResponse rawResponse = (HttpServletResponse) wrapper.getResponse();
+
+		if (isEligibleForEtag(request, wrapper, wrapper.getStatus(), wrapper.getContentInputStream())) {
+			String eTag = wrapper.getHeader(HttpHeaders.ETAG);
+			if (!StringUtils.hasText(eTag)) {
+				eTag = wrapper.getETagHeaderValue(this.writeWeakETag);
+				rawResponse.setHeader(HttpHeaders.ETAG, eTag);
+			}
+			if (new ServletWebRequest(request, rawResponse).checkNotModified(eTag)) {
+				return;
+			}
+		}
+
+		wrapper.copyBodyToResponse();
+	}
+
 	/**
 	 * Whether an ETag should be calculated for the given request and response
 	 * exchange. By default this is {@code true} if all of the following match:
@@ -229,4 +333,324 @@ public class ShallowEtagHeaderFilter extends OncePerRequestFilter {
 		}
 	}
 
+
+	/**
+	 * Caches the response content up to a limit, and calculates the hash for
+	 * the ETag while the content is written. Switches to streaming directly
+	 * to the response once the limit is exceeded, or if content caching is
+	 * {@link #disableContentCaching disabled}, or an ETag has been set.
+	 */
+	private static class HashingResponseWrapper extends HttpServletResponseWrapper {
+
+		private static final char[] HEX_CHARS =
+				{'0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'a', 'b', 'c', 'd', 'e', 'f'};
+
+		private final HttpServletRequest request;
+
+		private final int contentCacheLimit;
+
+		@Nullable
+		private final Checksum checksum;
+
+		@Nullable
+		private final MessageDigest messageDigest;
+
+		private final FastByteArrayOutputStream content = new FastByteArrayOutputStream(1024);
+
+		@Nullable
+		private ServletOutputStream outputStream;
+
+		@Nullable
+		private PrintWriter writer;
+
+		@Nullable
+		private Long contentLength;
+
+		private boolean streaming;
+
+		HashingResponseWrapper(HttpServletResponse response, HttpServletRequest request,
+				int contentCacheLimit, @Nullable Checksum checksum) {
+
+			super(response);
+			this.request = request;
+			this.contentCacheLimit = contentCacheLimit;
+			this.checksum = checksum;
+			this.messageDigest = (checksum == null ? createMd5Digest() : null);
+		}
+
+		private static MessageDigest createMd5Digest() {
+			try {
+				return MessageDigest.getInstance("MD5");
+			}
+			catch (NoSuchAlgorithmException ex) {
+				throw new IllegalStateException("Could not find MessageDigest with algorithm \"MD5\"", ex);
+			}
+		}
+
+		@Override
+		public ServletOutputStream getOutputStream() throws IOException {
+			if (isContentCachingDisabled(this.request) || hasETag()) {
+				startStreaming();
+				return getResponse().getOutputStream();
+			}
+			if (this.outputStream == null) {
+				this.outputStream = new HashingServletOutputStream(getResponse().getOutputStream());
+			}
+			return this.outputStream;
+		}
+
+		@Override
+		public PrintWriter getWriter() throws IOException {
+			if (isContentCachingDisabled(this.request) || hasETag()) {
+				startStreaming();
+				return getResponse().getWriter();
+			}
+			if (this.writer == null) {
+				String characterEncoding = getCharacterEncoding();
+				this.writer = new ResponsePrintWriter(getOutputStream(),
+						(characterEncoding != null ? characterEncoding : WebUtils.DEFAULT_CHARACTER_ENCODING));
+			}
+			return this.writer;
+		}
+
+		@Override
+		public void sendError(int sc) throws IOException {
+			startStreaming();
+			super.sendError(sc);
+		}
+
+		@Override
+		@SuppressWarnings("deprecation")
+		public void sendError(int sc, String msg) throws IOException {
+			startStreaming();
+			super.sendError(sc, msg);
+		}
+
+		@Override
+		public void sendRedirect(String location) throws IOException {
+			startStreaming();
+			super.sendRedirect(location);
+		}
+
+		@Override
+		public void flushBuffer() throws IOException {
+			if (this.streaming) {
+				super.flushBuffer();
+			}
+		}
+
+		@Override
+		public void setContentLength(int len) {
+			setContentLengthLong(len);
+		}
+
+		@Override
+		public void setContentLengthLong(long len) {
+			if (this.streaming) {
+				super.setContentLengthLong(len);
+			}
+			else if (this.contentCacheLimit >= 0 && len > this.contentCacheLimit && this.content.size() == 0) {
+				super.setContentLengthLong(len);
+				this.streaming = true;
+			}
+			else {
+				this.contentLength = len;
+			}
+		}
+
+		@Override
+		public void setBufferSize(int size) {
+			if (this.streaming) {
+				super.setBufferSize(size);
+			}
+		}
+
+		@Override
+		public void resetBuffer() {
+			if (this.streaming) {
+				super.resetBuffer();
+			}
+			resetContent();
+		}
+
+		@Override
+		public void reset() {
+			super.reset();
+			resetContent();
+			this.contentLength = null;
+		}
+
+		private void resetContent() {
+			this.content.reset();
+			if (this.checksum != null) {
+				this.checksum.reset();
+			}
+			else if (this.messageDigest != null) {
+				this.messageDigest.reset();
+			}
+		}
+
+		private boolean hasETag() {
+			return StringUtils.hasText(getHeader(HttpHeaders.ETAG));
+		}
+
+		public boolean isStreaming() {
+			return this.streaming;
+		}
+
+		public InputStream getContentInputStream() {
+			return this.content.getInputStream();
+		}
+
+		/**
+		 * Return the ETag value for the content written so far, in the same
+		 * format as {@link ShallowEtagHeaderFilter#generateETagHeaderValue}.
+		 */
+		public String getETagHeaderValue(boolean isWeak) {
+			StringBuilder builder = new StringBuilder(37);
+			if (isWeak) {
+				builder.append("W/");
+			}
+			builder.append("\"0");
+			if (this.checksum != null) {
+				builder.append(Long.toHexString(this.checksum.getValue()));
+			}
+			else if (this.messageDigest != null) {
+				for (byte b : this.messageDigest.digest()) {
+					builder.append(HEX_CHARS[(b >> 4) & 0xf]).append(HEX_CHARS[b & 0xf]);
+				}
+			}
+			builder.append('"');
+			return builder.toString();
+		}
+
+		/**
+		 * Switch to streaming, writing any cached content to the response.
+		 */
+		private void startStreaming() throws IOException {
+			if (this.streaming) {
+				return;
+			}
+			this.streaming = true;
+			HttpServletResponse rawResponse = (HttpServletResponse) getResponse();
+			if (this.contentLength != null && !rawResponse.isCommitted()) {
+				rawResponse.setContentLengthLong(this.contentLength);
+			}
+			if (this.content.size() > 0) {
+				this.content.writeTo(rawResponse.getOutputStream());
+				this.content.reset();
+			}
+		}
+
+		/**
+		 * Copy the complete cached content to the response.
+		 */
+		public void copyBodyToResponse() throws IOException {
+			if (this.content.size() > 0) {
+				HttpServletResponse rawResponse = (HttpServletResponse) getResponse();
+				if (!rawResponse.isCommitted() && rawResponse.getHeader(HttpHeaders.TRANSFER_ENCODING) == null) {
+					rawResponse.setContentLength(this.content.size());
+				}
+				this.content.writeTo(rawResponse.getOutputStream());
+				this.content.reset();
+			}
+			super.flushBuffer();
+		}
+
+		private void hash(byte[] b, int off, int len) {
+			if (this.checksum != null) {
+				this.checksum.update(b, off, len);
+			}
+			else if (this.messageDigest != null) {
+				this.messageDigest.update(b, off, len);
+			}
+		}
+
+
+		private class HashingServletOutputStream extends ServletOutputStream {
+
+			private final ServletOutputStream os;
+
+			HashingServletOutputStream(ServletOutputStream os) {
+				this.os = os;
+			}
+
+			@Override
+			public void write(int b) throws IOException {
+				write(new byte[] {(byte) b}, 0, 1);
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) throws IOException {
+				if (!streaming && contentCacheLimit >= 0 && content.size() + len > contentCacheLimit) {
+					startStreaming();
+				}
+				if (streaming) {
+					this.os.write(b, off, len);
+				}
+				else {
+					content.write(b, off, len);
+					hash(b, off, len);
+				}
+			}
+
+			@Override
+			public void flush() throws IOException {
+				if (streaming) {
+					this.os.flush();
+				}
+			}
+
+			@Override
+			public boolean isReady() {
+				return this.os.isReady();
+			}
+
+			@Override
+			public void setWriteListener(WriteListener writeListener) {
+				this.os.setWriteListener(writeListener);
+			}
+		}
+
+
+		/**
+		 * Writer that encodes eagerly, without flushing the response while streaming.
+		 */
+		private static class ResponsePrintWriter extends PrintWriter {
+
+			ResponsePrintWriter(ServletOutputStream outputStream, String characterEncoding)
+					throws UnsupportedEncodingException {
+
+				super(new OutputStreamWriter(new OutputStream() {
+					@Override
+					public void write(int b) throws IOException {
+						outputStream.write(b);
+					}
+					@Override
+					public void write(byte[] b, int off, int len) throws IOException {
+						outputStream.write(b, off, len);
+					}
+				}, characterEncoding));
+			}
+
+			@Override
+			public void write(char[] buf, int off, int len) {
+				super.write(buf, off, len);
+				super.flush();
+			}
+
+			@Override
+			public void write(String s, int off, int len) {
+				super.write(s, off, len);
+				super.flush();
+			}
+
+			@Override
+			public void write(int c) {
+				super.write(c);
+				super.flush();
+			}
+		}
+	}
+
 }
@@ -0,0 +1,459 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.filter.reactive;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.DeflaterOutputStream;
+
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ZeroCopyHttpOutputMessage;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.DeflaterPool;
+
+/**
+ * Reactive {@link WebFilter} that compresses the response content with the
+ * {@code "gzip"} or {@code "deflate"} content coding, as negotiated through
+ * the {@code Accept-Encoding} request header, using pooled
+ * {@link java.util.zip.Deflater Deflaters}. The equivalent of
+ * {@link org.springframework.web.filter.CompressionFilter} for WebFlux.
+ *
+ * <p>Data buffers are compressed incrementally as they are written, holding
+ * back no more than the {@link #setMinResponseSize minimum response size}:
+ * smaller responses are sent uncompressed. Only responses with a
+ * {@link #setCompressibleMediaTypes compressible media type} and a
+ * {@code 2xx} status are compressed, and not those that already have a
+ * {@code Content-Encoding}. Zero-copy file transfers through
+ * {@link ZeroCopyHttpOutputMessage} are passed through as they are.
+ *
+ * <p>For streaming responses written through
+ * {@link ServerHttpResponse#writeAndFlushWith}, the compressor is flushed
+ * along with the response, and the minimum response size does not apply.
+ *
+ * @since 5.3.10
+ */
+public class CompressionWebFilter implements WebFilter {
+
+	private static final List<MediaType> DEFAULT_COMPRESSIBLE_MEDIA_TYPES = Collections.unmodifiableList(Arrays.asList(
+			new MediaType("text", "*"), MediaType.APPLICATION_JSON, new MediaType("application", "*+json"),
+			MediaType.APPLICATION_XML, new MediaType("application", "*+xml"),
+			new MediaType("application", "javascript"), MediaType.APPLICATION_NDJSON));
+
+
+	private DeflaterPool deflaterPool = new DeflaterPool();
+
+	private int minResponseSize = 2048;
+
+	private final List<MediaType> compressibleMediaTypes = new ArrayList<>(DEFAULT_COMPRESSIBLE_MEDIA_TYPES);
+
+
+	/**
+	 * Set the pool of {@code Deflater} instances to use, e.g. in order to
+	 * share it with other filters, or to use a different compression level.
+	 * <p>By default this is a {@link DeflaterPool} with the default
+	 * compression level.
+	 */
+	public void setDeflaterPool(DeflaterPool deflaterPool) {
+		Assert.notNull(deflaterPool, "DeflaterPool must not be null");
+		this.deflaterPool = deflaterPool;
+	}
+
+	/**
+	 * Return the configured pool of {@code Deflater} instances.
+	 */
+	public DeflaterPool getDeflaterPool() {
+		return this.deflaterPool;
+	}
+
+	/**
+	 * Set the minimum number of bytes of response content for the response
+	 * to be compressed. Up to this number of bytes are held back until the
+	 * decision is made, unless the {@code Content-Length} is known.
+	 * <p>By default this is set to 2048.
+	 */
+	public void setMinResponseSize(int minResponseSize) {
+		Assert.isTrue(minResponseSize >= 0, "'minResponseSize' must not be negative");
+		this.minResponseSize = minResponseSize;
+	}
+
+	/**
+	 * Return the configured minimum response size.
+	 */
+	public int getMinResponseSize() {
+		return this.minResponseSize;
+	}
+
+	/**
+	 * Set the media types of responses to compress.
+	 * <p>By default this is {@code text/*}, JSON, XML, JavaScript and NDJSON.
+	 */
+	public void setCompressibleMediaTypes(List<MediaType> mediaTypes) {
+		Assert.notNull(mediaTypes, "MediaType List must not be null");
+		this.compressibleMediaTypes.clear();
+		this.compressibleMediaTypes.addAll(mediaTypes);
+	}
+
+	/**
+	 * Return the configured media types of responses to compress.
+	 */
+	public List<MediaType> getCompressibleMediaTypes() {
+		return Collections.unmodifiableList(this.compressibleMediaTypes);
+	}
+
+
+	@Override
+	public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+		String contentCoding = this.deflaterPool.getContentCoding(
+				exchange.getRequest().getHeaders().getOrEmpty(HttpHeaders.ACCEPT_ENCODING));
+		if (contentCoding == null) {
+			return chain.filter(exchange);
+		}
+		ServerHttpResponse response = exchange.getResponse();
+		ServerHttpResponse responseToUse = (response instanceof ZeroCopyHttpOutputMessage ?
+				new ZeroCopyCompressingResponseDecorator(response, contentCoding) :
+				new CompressingResponseDecorator(response, contentCoding));
+		return chain.filter(exchange.mutate().response(responseToUse).build());
+	}
+
+	/**
+	 * Whether the response should be compressed, once the minimum response
+	 * size is reached. By default this is {@code true} if all of the following
+	 * match:
+	 * <ul>
+	 * <li>Response status is not set, or in the {@code 2xx} series other than 204 and 206.</li>
+	 * <li>Response has no Content-Encoding header.</li>
+	 * <li>Response content type is one of the compressible media types.</li>
+	 * </ul>
+	 * @param response the HTTP response
+	 * @return {@code true} if the response should be compressed, {@code false} otherwise
+	 */
+	protected boolean isEligibleForCompression(ServerHttpResponse response) {
+		HttpStatus status = response.getStatusCode();
+		if (status != null && (!status.is2xxSuccessful() ||
+				status == HttpStatus.NO_CONTENT || status == HttpStatus.PARTIAL_CONTENT)) {
+			return false;
+		}
+		HttpHeaders headers = response.getHeaders();
+		MediaType contentType = headers.getContentType();
+		if (contentType == null || headers.containsKey(HttpHeaders.CONTENT_ENCODING)) {
+			return false;
+		}
+		for (MediaType compressibleMediaType : this.compressibleMediaTypes) {
+			if (compressibleMediaType.includes(contentType)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+
+	/**
+	 * Compresses the data buffers written through {@link #writeWith} and
+	 * {@link #writeAndFlushWith}, if eligible.
+	 */
+	private class CompressingResponseDecorator extends ServerHttpResponseDecorator {
+
+		private final String contentCoding;
+
+		CompressingResponseDecorator(ServerHttpResponse delegate, String contentCoding) {
+			super(delegate);
+			this.contentCoding = contentCoding;
+		}
+
+		@Override
+		public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+			long contentLength = getHeaders().getContentLength();
+			if (!isEligibleForCompression(this) || (contentLength != -1 && contentLength < minResponseSize)) {
+				return super.writeWith(body);
+			}
+			return super.writeWith(Flux.defer(() -> {
+				Compressor compressor = new Compressor(contentLength != -1 ? 0 : minResponseSize);
+				return Flux.from(body)
+						.bufferUntil(compressor::update)
+						.concatMapIterable(compressor::compress)
+						.concatWith(Mono.defer(compressor::finish))
+						.doFinally(signal -> compressor.release());
+			}));
+		}
+
+		@Override
+		public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+			if (!isEligibleForCompression(this)) {
+				return super.writeAndFlushWith(body);
+			}
+			return super.writeAndFlushWith(Flux.defer(() -> {
+				Compressor compressor = new Compressor(0);
+				compressor.start();
+				return Flux.from(body)
+						.map(publisher -> Flux.from(publisher)
+								.concatMapIterable(buffer -> compressor.compress(Collections.singletonList(buffer)))
+								.concatWith(Mono.defer(compressor::flush)))
+						.concatWith(Mono.just(Flux.defer(compressor::finish).doFinally(signal -> compressor.release())))
+						.doOnError(ex -> compressor.release())
+						.doOnCancel(compressor::release);
+			}));
+		}
+
+		private void startCompression() {
+			HttpHeaders headers = getHeaders();
+			headers.remove(HttpHeaders.CONTENT_LENGTH);
+			headers.set(HttpHeaders.CONTENT_ENCODING, this.contentCoding);
+			headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+		}
+
+
+		/**
+		 * Holds back buffers up to the minimum response size, and then
+		 * compresses them into new buffers, or passes them through.
+		 */
+		private class Compressor {
+
+			private final int minSize;
+
+			private long contentLength;
+
+			private boolean started;
+
+			@Nullable
+			private DataBufferOutputStream output;
+
+			@Nullable
+			private DeflaterOutputStream compressingStream;
+
+			private boolean released;
+
+			Compressor(int minSize) {
+				this.minSize = minSize;
+			}
+
+			/**
+			 * Whether the buffers held back so far, including the given one,
+			 * should be compressed or passed through.
+			 */
+			boolean update(DataBuffer buffer) {
+				this.contentLength += buffer.readableByteCount();
+				return (this.contentLength >= this.minSize);
+			}
+
+			/**
+			 * Decide whether to compress, once the minimum size has been
+			 * reached, or the content is complete.
+			 */
+			synchronized void start() {
+				if (this.started) {
+					return;
+				}
+				this.started = true;
+				if (this.contentLength >= this.minSize && isEligibleForCompression(getDelegate())) {
+					startCompression();
+					this.output = new DataBufferOutputStream(bufferFactory());
+					this.compressingStream = createOutputStream(this.output);
+				}
+			}
+
+			synchronized List<DataBuffer> compress(List<? extends DataBuffer> buffers) {
+				start();
+				if (this.released) {
+					buffers.forEach(DataBufferUtils::release);
+					return Collections.emptyList();
+				}
+				if (this.compressingStream == null) {
+					return new ArrayList<>(buffers);
+				}
+				try {
+					for (DataBuffer buffer : buffers) {
+						write(buffer);
+					}
+				}
+				catch (IOException ex) {
+					throw new UncheckedIOException(ex);
+				}
+				finally {
+					buffers.forEach(DataBufferUtils::release);
+				}
+				return drain();
+			}
+
+			private DeflaterOutputStream createOutputStream(OutputStream output) {
+				try {
+					return deflaterPool.createOutputStream(output, contentCoding, true);
+				}
+				catch (IOException ex) {
+					throw new UncheckedIOException(ex);
+				}
+			}
+
+			private void write(DataBuffer buffer) throws IOException {
+				Assert.state(this.compressingStream != null, "Not compressing");
+				ByteBuffer byteBuffer = buffer.asByteBuffer();
+				if (byteBuffer.hasArray()) {
+					this.compressingStream.write(byteBuffer.array(),
+							byteBuffer.arrayOffset() + byteBuffer.position(), byteBuffer.remaining());
+				}
+				else {
+					byte[] bytes = new byte[byteBuffer.remaining()];
+					byteBuffer.get(bytes);
+					this.compressingStream.write(bytes);
+				}
+			}
+
+			private List<DataBuffer> drain() {
+				DataBuffer buffer = (this.output != null ? this.output.drain() : null);
+				return (buffer != null ? Collections.singletonList(buffer) : Collections.emptyList());
+			}
+
+			/**
+			 * Flush the compressor, returning the compressed content so far.
+			 */
+			synchronized Mono<DataBuffer> flush() {
+				if (this.compressingStream == null || this.released) {
+					return Mono.empty();
+				}
+				try {
+					this.compressingStream.flush();
+				}
+				catch (IOException ex) {
+					return Mono.error(ex);
+				}
+				return Mono.justOrEmpty(this.output != null ? this.output.drain() : null);
+			}
+
+			/**
+			 * Complete the compressed content, returning the remaining content.
+			 */
+			synchronized Mono<DataBuffer> finish() {
+				if (this.compressingStream == null || this.released) {
+					return Mono.empty();
+				}
+				try {
+					this.compressingStream.close();
+				}
+				catch (IOException ex) {
+					return Mono.error(ex);
+				}
+				return Mono.justOrEmpty(this.output != null ? this.output.drain() : null);
+			}
+
+			/**
+			 * Return the {@code Deflater} to the pool, if not done yet, and
+			 * release any content not written.
+			 */
+			synchronized void release() {
+				if (this.released) {
+					return;
+				}
+				this.released = true;
+				if (this.compressingStream != null) {
+					try {
+						this.compressingStream.close();
+					}
+					catch (IOException ex) {
+						// ignore
+					}
+				}
+				if (this.output != null) {
+					DataBuffer buffer = this.output.drain();
+					if (buffer != null) {
+						DataBufferUtils.release(buffer);
+					}
+				}
+			}
+		}
+	}
+
+
+	/**
+	 * {@link CompressingResponseDecorator} for responses that support zero-copy
+	 * file transfers, which are passed through without compression.
+	 */
+	private class ZeroCopyCompressingResponseDecorator extends CompressingResponseDecorator
+			implements ZeroCopyHttpOutputMessage {
+
+		ZeroCopyCompressingResponseDecorator(ServerHttpResponse delegate, String contentCoding) {
+			super(delegate, contentCoding);
+		}
+
+		@Override
+		public Mono<Void> writeWith(Path file, long position, long count) {
+			return ((ZeroCopyHttpOutputMessage) getDelegate()).writeWith(file, position, count);
+		}
+	}
+
+
+	/**
+	 * {@code OutputStream} that writes to a {@link DataBuffer}, allocated as
+	 * needed, which is handed out and replaced by {@link #drain()}.
+	 */
+	private static class DataBufferOutputStream extends OutputStream {
+
+		private final DataBufferFactory bufferFactory;
+
+		@Nullable
+		private DataBuffer buffer;
+
+		DataBufferOutputStream(DataBufferFactory bufferFactory) {
+			this.bufferFactory = bufferFactory;
+		}
+
+		@Override
+		public void write(int b) {
+			getBuffer(1).write((byte) b);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			getBuffer(len).write(b, off, len);
+		}
+
+		private DataBuffer getBuffer(int length) {
+			if (this.buffer == null) {
+				this.buffer = this.bufferFactory.allocateBuffer(Math.max(length, 1024));
+			}
+			return this.buffer;
+		}
+
+		@Nullable
+		DataBuffer drain() {
+			DataBuffer buffer = this.buffer;
+			this.buffer = null;
+			return buffer;
+		}
+	}
+
+}
@@ -0,0 +1,315 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.filter.reactive;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.function.Supplier;
+import java.util.zip.Checksum;
+
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+
+/**
+ * Reactive {@link WebFilter} that generates an {@code ETag} value based on the
+ * content of the response, the equivalent of
+ * {@link org.springframework.web.filter.ShallowEtagHeaderFilter} for WebFlux.
+ * The ETag is compared to the {@code If-None-Match} request header, and if
+ * they are equal, the response content is not sent, but instead a
+ * {@code 304 "Not Modified"} status.
+ *
+ * <p>The hash for the ETag is calculated incrementally as data buffers are
+ * written, and the buffers are held back until the response is complete, or
+ * until the {@link #setContentCacheLimit content cache limit} is exceeded,
+ * in which case the content is streamed without an ETag.
+ *
+ * <p>Only applies to {@code GET} requests with a {@code 2xx} response status,
+ * and to content written through {@link ServerHttpResponse#writeWith}, i.e.
+ * not to streaming responses.
+ *
+ * @since 5.3.10
+ */
+public class ShallowEtagHeaderWebFilter implements WebFilter {
+
+	private static final String DIRECTIVE_NO_STORE = "no-store";
+
+
+	private boolean writeWeakETag = false;
+
+	private int contentCacheLimit = -1;
+
+	@Nullable
+	private Supplier<? extends Checksum> checksumSupplier;
+
+
+	/**
+	 * Set whether the ETag value written to the response should be weak, as per RFC 7232.
+	 * <p>By default this is set to {@code false}.
+	 * @see <a href="https://tools.ietf.org/html/rfc7232#section-2.3">RFC 7232 Section 2.3</a>
+	 */
+	public void setWriteWeakETag(boolean writeWeakETag) {
+		this.writeWeakETag = writeWeakETag;
+	}
+
+	/**
+	 * Return whether the ETag value written to the response should be weak, as per RFC 7232.
+	 */
+	public boolean isWriteWeakETag() {
+		return this.writeWeakETag;
+	}
+
+	/**
+	 * Set the maximum number of bytes of response content to hold back for
+	 * the purpose of sending a {@code 304 "Not Modified"} status instead.
+	 * Larger responses are streamed to the client as soon as the limit is
+	 * exceeded, without an ETag.
+	 * <p>By default this is -1, i.e. the entire content is held back.
+	 * @param contentCacheLimit the maximum number of bytes, or -1 for no limit
+	 */
+	public void setContentCacheLimit(int contentCacheLimit) {
+		this.contentCacheLimit = contentCacheLimit;
+	}
+
+	/**
+	 * Return the configured content cache limit.
+	 */
+	public int getContentCacheLimit() {
+		return this.contentCacheLimit;
+	}
+
+	/**
+	 * Set a supplier for a {@link Checksum} to calculate the ETag with, as a
+	 * faster alternative to the default MD5 hash, e.g. {@code CRC32::new}.
+	 * <p>By default this is not set, i.e. an MD5 hash is used.
+	 */
+	public void setChecksumSupplier(@Nullable Supplier<? extends Checksum> checksumSupplier) {
+		this.checksumSupplier = checksumSupplier;
+	}
+
+	/**
+	 * Return the configured checksum supplier, if any.
+	 */
+	@Nullable
+	public Supplier<? extends Checksum> getChecksumSupplier() {
+		return this.checksumSupplier;
+	}
+
+
+	@Override
+	public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+		if (exchange.getRequest().getMethod() != HttpMethod.GET) {
+			return chain.filter(exchange);
+		}
+		ServerHttpResponse response = new EtagResponseDecorator(exchange);
+		return chain.filter(exchange.mutate().response(response).build());
+	}
+
+	/**
+	 * Whether an ETag should be calculated for the given response, once the
+	 * content is written. By default this is {@code true} if the response
+	 * status is not set or in the {@code 2xx} series, and the
+	 * {@code Cache-Control} header does not contain "no-store".
+	 * @param response the HTTP response
+	 * @return {@code true} if eligible for ETag generation, {@code false} otherwise
+	 */
+	protected boolean isEligibleForEtag(ServerHttpResponse response) {
+		HttpStatus status = response.getStatusCode();
+		if (status != null && !status.is2xxSuccessful()) {
+			return false;
+		}
+		String cacheControl = response.getHeaders().getCacheControl();
+		return (cacheControl == null || !cacheControl.contains(DIRECTIVE_NO_STORE));
+	}
+
+
+	/**
+	 * Holds back the buffers written through {@link #writeWith} while hashing
+	 * them, and sets the ETag header once the content is complete.
+	 */
+	private class EtagResponseDecorator extends ServerHttpResponseDecorator {
+
+		private final ServerWebExchange exchange;
+
+		EtagResponseDecorator(ServerWebExchange exchange) {
+			super(exchange.getResponse());
+			this.exchange = exchange;
+		}
+
+		@Override
+		public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+			if (!isEligibleForEtag(this)) {
+				return super.writeWith(body);
+			}
+			return super.writeWith(Flux.defer(() -> {
+				EtagCalculator calculator = new EtagCalculator(contentCacheLimit,
+						(checksumSupplier != null ? checksumSupplier.get() : null));
+				return Flux.from(body)
+						.bufferUntil(calculator::update)
+						.concatMapIterable(buffers -> {
+							// A batch emitted under the limit can only be the complete content
+							if (calculator.isLimitExceeded() || !updateHeaders(calculator)) {
+								return buffers;
+							}
+							buffers.forEach(DataBufferUtils::release);
+							return Collections.<DataBuffer>emptyList();
+						});
+			}));
+		}
+
+		/**
+		 * Set the ETag header, if not set yet, and check the request.
+		 * @return {@code true} if the content should not be sent
+		 */
+		private boolean updateHeaders(EtagCalculator calculator) {
+			if (!isEligibleForEtag(this)) {
+				return false;
+			}
+			String eTag = getHeaders().getETag();
+			if (!StringUtils.hasText(eTag)) {
+				eTag = calculator.getETagHeaderValue(writeWeakETag);
+				getHeaders().setETag(eTag);
+			}
+			if (this.exchange.checkNotModified(eTag)) {
+				getHeaders().remove(HttpHeaders.CONTENT_LENGTH);
+				return true;
+			}
+			return false;
+		}
+	}
+
+
+	/**
+	 * Calculates the hash over the buffers of the response content, and keeps
+	 * track of whether the content cache limit has been exceeded.
+	 */
+	private static class EtagCalculator {
+
+		private static final char[] HEX_CHARS =
+				{'0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'a', 'b', 'c', 'd', 'e', 'f'};
+
+		private final int contentCacheLimit;
+
+		@Nullable
+		private final Checksum checksum;
+
+		@Nullable
+		private final MessageDigest messageDigest;
+
+		@Nullable
+		private byte[] checksumBuffer;
+
+		private long contentLength;
+
+		private boolean limitExceeded;
+
+		EtagCalculator(int contentCacheLimit, @Nullable Checksum checksum) {
+			this.contentCacheLimit = contentCacheLimit;
+			this.checksum = checksum;
+			this.messageDigest = (checksum == null ? createMd5Digest() : null);
+		}
+
+		private static MessageDigest createMd5Digest() {
+			try {
+				return MessageDigest.getInstance("MD5");
+			}
+			catch (NoSuchAlgorithmException ex) {
+				throw new IllegalStateException("Could not find MessageDigest with algorithm \"MD5\"", ex);
+			}
+		}
+
+		/**
+		 * Update the hash with the given buffer.
+		 * @return whether the limit has been exceeded, i.e. the buffers held
+		 * back so far, including the given one, should be written out
+		 */
+		boolean update(DataBuffer buffer) {
+			if (this.limitExceeded) {
+				return true;
+			}
+			ByteBuffer byteBuffer = buffer.asByteBuffer();
+			this.contentLength += byteBuffer.remaining();
+			if (this.contentCacheLimit >= 0 && this.contentLength > this.contentCacheLimit) {
+				this.limitExceeded = true;
+				return true;
+			}
+			if (this.messageDigest != null) {
+				this.messageDigest.update(byteBuffer);
+			}
+			else if (this.checksum != null) {
+				updateChecksum(this.checksum, byteBuffer);
+			}
+			return false;
+		}
+
+		private void updateChecksum(Checksum checksum, ByteBuffer byteBuffer) {
+			if (byteBuffer.hasArray()) {
+				checksum.update(byteBuffer.array(),
+						byteBuffer.arrayOffset() + byteBuffer.position(), byteBuffer.remaining());
+				return;
+			}
+			// Checksum#update(ByteBuffer) requires JDK 9
+			if (this.checksumBuffer == null) {
+				this.checksumBuffer = new byte[4096];
+			}
+			while (byteBuffer.hasRemaining()) {
+				int length = Math.min(byteBuffer.remaining(), this.checksumBuffer.length);
+				byteBuffer.get(this.checksumBuffer, 0, length);
+				checksum.update(this.checksumBuffer, 0, length);
+			}
+		}
+
+		boolean isLimitExceeded() {
+			return this.limitExceeded;
+		}
+
+		String getETagHeaderValue(boolean isWeak) {
+			// length of W/ + " + 0 + 32bits md5 hash + "
+			StringBuilder builder = new StringBuilder(37);
+			if (isWeak) {
+				builder.append("W/");
+			}
+			builder.append("\"0");
+			if (this.messageDigest != null) {
+				for (byte b : this.messageDigest.digest()) {
+					builder.append(HEX_CHARS[(b >> 4) & 0xf]).append(HEX_CHARS[b & 0xf]);
+				}
+			}
+			else if (this.checksum != null) {
+				builder.append(Long.toHexString(this.checksum.getValue()));
+			}
+			builder.append('"');
+			return builder.toString();
+		}
+	}
+
+}
@@ -0,0 +1,266 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * Pool of {@link Deflater} instances for compressing content with the
+ * {@code "gzip"} or {@code "deflate"} content coding, avoiding the
+ * allocation of native zlib state for every response.
+ *
+ * <p>Content is compressed through {@link #createOutputStream output streams}
+ * that return their {@code Deflater} to the pool when closed. Also provides
+ * the negotiation of the content coding to use from the values of the
+ * {@code Accept-Encoding} request header.
+ *
+ * @since 5.3.10
+ * @see org.springframework.web.filter.CompressionFilter
+ * @see org.springframework.web.filter.reactive.CompressionWebFilter
+ */
+public class DeflaterPool {
+
+	/** The "gzip" content coding. */
+	public static final String GZIP = "gzip";
+
+	/** The "deflate" content coding, i.e. the zlib format. */
+	public static final String DEFLATE = "deflate";
+
+	private static final int BUFFER_SIZE = 8192;
+
+	private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0};
+
+
+	private final int level;
+
+	private final BlockingQueue<Deflater> gzipDeflaters;
+
+	private final BlockingQueue<Deflater> deflateDeflaters;
+
+
+	/**
+	 * Create a pool with the default compression level, holding up to
+	 * 64 idle {@code Deflater} instances per content coding.
+	 */
+	public DeflaterPool() {
+		this(Deflater.DEFAULT_COMPRESSION, 64);
+	}
+
+	/**
+	 * Create a pool with the given compression level and size.
+	 * @param level the compression level (0-9), or -1 for the default
+	 * @param maxPoolSize the maximum number of idle {@code Deflater}
+	 * instances to hold per content coding
+	 */
+	public DeflaterPool(int level, int maxPoolSize) {
+		Assert.isTrue(level >= Deflater.DEFAULT_COMPRESSION && level <= Deflater.BEST_COMPRESSION,
+				"Invalid compression level: " + level);
+		Assert.isTrue(maxPoolSize > 0, "'maxPoolSize' must be positive");
+		this.level = level;
+		this.gzipDeflaters = new ArrayBlockingQueue<>(maxPoolSize);
+		this.deflateDeflaters = new ArrayBlockingQueue<>(maxPoolSize);
+	}
+
+
+	/**
+	 * Select the content coding to use from the values of the
+	 * {@code Accept-Encoding} request header, preferring "gzip" over
+	 * "deflate" unless a higher quality is given for the latter.
+	 * @param acceptEncodings the header values, each possibly comma-separated
+	 * @return {@link #GZIP}, {@link #DEFLATE}, or {@code null} if the client
+	 * does not accept either
+	 */
+	@Nullable
+	public String getContentCoding(List<String> acceptEncodings) {
+		double gzipQuality = -1;
+		double deflateQuality = -1;
+		double wildcardQuality = -1;
+		for (String value : acceptEncodings) {
+			for (String token : StringUtils.tokenizeToStringArray(value, ",")) {
+				int index = token.indexOf(';');
+				String coding = (index != -1 ? token.substring(0, index) : token).trim().toLowerCase(Locale.ROOT);
+				double quality = (index != -1 ? parseQuality(token.substring(index + 1)) : 1);
+				if (GZIP.equals(coding) || "x-gzip".equals(coding)) {
+					gzipQuality = Math.max(gzipQuality, quality);
+				}
+				else if (DEFLATE.equals(coding)) {
+					deflateQuality = Math.max(deflateQuality, quality);
+				}
+				else if ("*".equals(coding)) {
+					wildcardQuality = quality;
+				}
+			}
+		}
+		gzipQuality = (gzipQuality != -1 ? gzipQuality : wildcardQuality);
+		deflateQuality = (deflateQuality != -1 ? deflateQuality : wildcardQuality);
+		if (gzipQuality > 0 && gzipQuality >= deflateQuality) {
+			return GZIP;
+		}
+		return (deflateQuality > 0 ? DEFLATE : null);
+	}
+
+	private static double parseQuality(String parameters) {
+		for (String parameter : StringUtils.tokenizeToStringArray(parameters, ";")) {
+			int index = parameter.indexOf('=');
+			if (index != -1 && "q".equalsIgnoreCase(parameter.substring(0, index).trim())) {
+				try {
+					return Double.parseDouble(parameter.substring(index + 1).trim());
+				}
+				catch (NumberFormatException ex) {
+					return 0;
+				}
+			}
+		}
+		return 1;
+	}
+
+	/**
+	 * Create a stream that compresses the content written to it with a pooled
+	 * {@code Deflater}. Closing the stream writes the remaining compressed
+	 * content, returns the {@code Deflater} to the pool, and closes the
+	 * target stream.
+	 * @param out the stream to write the compressed content to
+	 * @param contentCoding {@link #GZIP} or {@link #DEFLATE}
+	 * @param syncFlush whether {@link OutputStream#flush()} should flush
+	 * the compressor, at the cost of a lower compression ratio
+	 * @return the compressing stream
+	 */
+	public DeflaterOutputStream createOutputStream(OutputStream out, String contentCoding, boolean syncFlush)
+			throws IOException {
+
+		boolean gzip = GZIP.equals(contentCoding);
+		Assert.isTrue(gzip || DEFLATE.equals(contentCoding), () -> "Unsupported content coding: " + contentCoding);
+		BlockingQueue<Deflater> deflaters = (gzip ? this.gzipDeflaters : this.deflateDeflaters);
+		Deflater deflater = deflaters.poll();
+		if (deflater == null) {
+			deflater = new Deflater(this.level, gzip);
+		}
+		return new PooledDeflaterOutputStream(out, deflater, deflaters, gzip, syncFlush);
+	}
+
+	/**
+	 * Return the {@code Deflater} of a stream created by this pool to the pool
+	 * without writing any remaining compressed content and without closing the
+	 * target stream, e.g. when the content is abandoned due to an error.
+	 * <p>Has no effect if the stream has been closed or discarded already.
+	 * @param stream a stream obtained from {@link #createOutputStream}
+	 */
+	public void discard(DeflaterOutputStream stream) {
+		Assert.isInstanceOf(PooledDeflaterOutputStream.class, stream, "Not created by this DeflaterPool");
+		((PooledDeflaterOutputStream) stream).discard();
+	}
+
+
+	/**
+	 * {@code DeflaterOutputStream} that writes the gzip header and trailer, if
+	 * necessary, and returns its {@code Deflater} to the pool when closed.
+	 */
+	private static class PooledDeflaterOutputStream extends DeflaterOutputStream {
+
+		private final BlockingQueue<Deflater> pool;
+
+		@Nullable
+		private final CRC32 crc;
+
+		private boolean finished;
+
+		private boolean closed;
+
+		PooledDeflaterOutputStream(OutputStream out, Deflater deflater, BlockingQueue<Deflater> pool,
+				boolean gzip, boolean syncFlush) throws IOException {
+
+			super(out, deflater, BUFFER_SIZE, syncFlush);
+			this.pool = pool;
+			this.crc = (gzip ? new CRC32() : null);
+			if (gzip) {
+				out.write(GZIP_HEADER);
+			}
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			super.write(b, off, len);
+			if (this.crc != null) {
+				this.crc.update(b, off, len);
+			}
+		}
+
+		@Override
+		public void finish() throws IOException {
+			if (this.finished) {
+				return;
+			}
+			super.finish();
+			this.finished = true;
+			if (this.crc != null) {
+				byte[] trailer = new byte[8];
+				writeInt((int) this.crc.getValue(), trailer, 0);
+				writeInt((int) this.def.getBytesRead(), trailer, 4);
+				this.out.write(trailer);
+			}
+		}
+
+		private static void writeInt(int value, byte[] bytes, int offset) {
+			bytes[offset] = (byte) value;
+			bytes[offset + 1] = (byte) (value >> 8);
+			bytes[offset + 2] = (byte) (value >> 16);
+			bytes[offset + 3] = (byte) (value >> 24);
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (this.closed) {
+				return;
+			}
+			this.closed = true;
+			try {
+				finish();
+			}
+			finally {
+				releaseDeflater();
+				this.out.close();
+			}
+		}
+
+		void discard() {
+			if (!this.closed) {
+				this.closed = true;
+				releaseDeflater();
+			}
+		}
+
+		private void releaseDeflater() {
+			this.def.reset();
+			if (!this.pool.offer(this.def)) {
+				this.def.end();
+			}
+		}
+	}
+
+}
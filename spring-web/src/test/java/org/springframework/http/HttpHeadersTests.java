@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -704,6 +704,26 @@ public class HttpHeadersTests {
 		assertThat(readOnlyHttpHeaders.entrySet()).extracting(Entry::getKey).containsExactly(expectedKeys);
 	}
 
+	@Test
+	void readOnlyHttpHeadersCacheParsedValues() {
+		headers.set(HttpHeaders.CONTENT_TYPE, "application/json");
+		headers.set(HttpHeaders.ACCEPT, "text/html, application/json");
+		headers.set(HttpHeaders.CONTENT_LENGTH, "42");
+		headers.set(HttpHeaders.HOST, "localhost:8080");
+		headers.set(HttpHeaders.IF_NONE_MATCH, "\"v2.6\", \"v2.7\"");
+
+		HttpHeaders readOnlyHttpHeaders = HttpHeaders.readOnlyHttpHeaders(headers);
+		assertThat(readOnlyHttpHeaders.getContentType()).isSameAs(readOnlyHttpHeaders.getContentType());
+		assertThat(readOnlyHttpHeaders.getAccept()).isSameAs(readOnlyHttpHeaders.getAccept());
+		assertThat(readOnlyHttpHeaders.getContentLength()).isEqualTo(42);
+		assertThat(readOnlyHttpHeaders.getHost()).isSameAs(readOnlyHttpHeaders.getHost());
+		assertThat(readOnlyHttpHeaders.getHost()).isEqualTo(InetSocketAddress.createUnresolved("localhost", 8080));
+		assertThat(readOnlyHttpHeaders.getIfNoneMatch()).isSameAs(readOnlyHttpHeaders.getIfNoneMatch());
+		assertThat(readOnlyHttpHeaders.getIfNoneMatch()).containsExactly("\"v2.6\"", "\"v2.7\"");
+		assertThatExceptionOfType(UnsupportedOperationException.class).isThrownBy(() ->
+				readOnlyHttpHeaders.getIfNoneMatch().add("\"v2.8\""));
+	}
+
 	@Test // gh-25034
 	void equalsUnwrapsHttpHeaders() {
 		HttpHeaders headers1 = new HttpHeaders();
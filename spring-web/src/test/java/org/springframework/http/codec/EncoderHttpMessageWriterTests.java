@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -199,6 +199,24 @@ class EncoderHttpMessageWriterTests {
 		assertThat((boolean) (Boolean) method.invoke(writer, TEXT_HTML)).isFalse();
 	}
 
+	@Test
+	void coalesceStreamingElements() {
+		DefaultDataBufferFactory factory = DefaultDataBufferFactory.sharedInstance;
+		Flux<DataBuffer> encoded = Flux.just("{\"a\":1}\n", "{\"b\":2}\n", "{\"c\":3}\n")
+				.map(value -> factory.wrap(value.getBytes(StandardCharsets.UTF_8)));
+		configureEncoder(encoded, MediaType.APPLICATION_NDJSON);
+		given(this.encoder.getStreamingMediaTypes()).willReturn(Arrays.asList(MediaType.APPLICATION_NDJSON));
+
+		EncoderHttpMessageWriter<String> writer = new EncoderHttpMessageWriter<>(this.encoder);
+		writer.setMaxCoalescedElements(2);
+		writer.write(Flux.just("a", "b", "c"), forClass(String.class), MediaType.APPLICATION_NDJSON,
+				this.response, NO_HINTS).block();
+
+		StepVerifier.create(this.response.getBody().map(buffer -> buffer.toString(StandardCharsets.UTF_8)))
+				.expectNext("{\"a\":1}\n{\"b\":2}\n", "{\"c\":3}\n")
+				.verifyComplete();
+	}
+
 	private void configureEncoder(MimeType... mimeTypes) {
 		configureEncoder(Flux.empty(), mimeTypes);
 	}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.codec;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.testfixture.io.buffer.AbstractLeakCheckingTests;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link FlushCoalescer}.
+ */
+class FlushCoalescerTests extends AbstractLeakCheckingTests {
+
+	@Test
+	void coalesceAvailableElements() {
+		FlushCoalescer coalescer = new FlushCoalescer(3, 1024, Duration.ZERO);
+
+		StepVerifier.create(coalesce(coalescer, Flux.just("a", "b", "c", "d", "e")))
+				.expectNext("abc", "de")
+				.verifyComplete();
+	}
+
+	@Test
+	void coalesceUpToMaxBytes() {
+		FlushCoalescer coalescer = new FlushCoalescer(10, 3, Duration.ZERO);
+
+		StepVerifier.create(coalesce(coalescer, Flux.just("ab", "c", "de", "f", "g")))
+				.expectNext("abc", "def", "g")
+				.verifyComplete();
+	}
+
+	@Test
+	void coalesceWithBackpressure() {
+		FlushCoalescer coalescer = new FlushCoalescer(2, 1024, Duration.ZERO);
+
+		StepVerifier.create(coalesce(coalescer, Flux.just("a", "b", "c", "d", "e")), 1)
+				.expectNext("ab")
+				.thenRequest(1)
+				.expectNext("cd")
+				.thenRequest(1)
+				.expectNext("e")
+				.verifyComplete();
+	}
+
+	@Test
+	void flushAfterMaxDelay() {
+		VirtualTimeScheduler scheduler = VirtualTimeScheduler.create();
+		FlushCoalescer coalescer = new FlushCoalescer(10, 1024, Duration.ofMillis(100), scheduler);
+		Sinks.Many<String> source = Sinks.many().unicast().onBackpressureBuffer();
+
+		StepVerifier.create(coalesce(coalescer, source.asFlux()))
+				.then(() -> source.tryEmitNext("a"))
+				.then(() -> scheduler.advanceTimeBy(Duration.ofMillis(50)))
+				.then(() -> source.tryEmitNext("b"))
+				.expectNoEvent(Duration.ZERO)
+				.then(() -> scheduler.advanceTimeBy(Duration.ofMillis(50)))
+				.expectNext("ab")
+				.then(() -> source.tryEmitNext("c"))
+				.then(() -> scheduler.advanceTimeBy(Duration.ofMillis(99)))
+				.expectNoEvent(Duration.ZERO)
+				.then(() -> scheduler.advanceTimeBy(Duration.ofMillis(1)))
+				.expectNext("c")
+				.then(source::tryEmitComplete)
+				.verifyComplete();
+	}
+
+	@Test
+	void flushBeforeError() {
+		FlushCoalescer coalescer = new FlushCoalescer(10, 1024, Duration.ofSeconds(10));
+		Flux<String> source = Flux.just("a", "b").concatWith(Flux.error(new IllegalStateException()));
+
+		StepVerifier.create(coalesce(coalescer, source))
+				.expectNext("ab")
+				.verifyError(IllegalStateException.class);
+	}
+
+	@Test
+	void cancelReleasesPendingBuffers() {
+		FlushCoalescer coalescer = new FlushCoalescer(10, 1024, Duration.ofSeconds(10));
+		Sinks.Many<String> source = Sinks.many().unicast().onBackpressureBuffer();
+
+		StepVerifier.create(coalesce(coalescer, source.asFlux()))
+				.then(() -> source.tryEmitNext("a"))
+				.then(() -> source.tryEmitNext("b"))
+				.thenCancel()
+				.verify();
+
+		assertThat(source.currentSubscriberCount()).isZero();
+	}
+
+
+	private Flux<String> coalesce(FlushCoalescer coalescer, Flux<String> source) {
+		Flux<List<DataBuffer>> elements = source.map(value -> Collections.singletonList(stringBuffer(value)));
+		Flux<Publisher<DataBuffer>> result = coalescer.coalesce(elements, this.bufferFactory);
+		return result.concatMap(publisher -> DataBufferUtils.join(publisher).map(buffer -> {
+			String value = buffer.toString(StandardCharsets.UTF_8);
+			DataBufferUtils.release(buffer);
+			return value;
+		}));
+	}
+
+	private DataBuffer stringBuffer(String value) {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		DataBuffer buffer = this.bufferFactory.allocateBuffer(bytes.length);
+		buffer.write(bytes);
+		return buffer;
+	}
+
+}
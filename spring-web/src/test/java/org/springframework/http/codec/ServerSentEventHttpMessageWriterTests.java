@@ -160,6 +160,23 @@ class ServerSentEventHttpMessageWriterTests extends AbstractDataBufferAllocating
 				.verify();
 	}
 
+	@ParameterizedDataBufferAllocatingTest
+	void writePojoCoalesced(String displayName, DataBufferFactory bufferFactory) {
+		super.bufferFactory = bufferFactory;
+		this.messageWriter.setMaxCoalescedEvents(2);
+
+		MockServerHttpResponse outputMessage = new MockServerHttpResponse(super.bufferFactory);
+		Flux<Pojo> source = Flux.just(new Pojo("foo", "bar"), new Pojo("foofoo", "barbar"), new Pojo("f", "b"));
+		testWrite(source, outputMessage, Pojo.class);
+
+		StepVerifier.create(outputMessage.getBody())
+				.consumeNextWith(stringConsumer("data:{\"foo\":\"foo\",\"bar\":\"bar\"}\n\n" +
+						"data:{\"foo\":\"foofoo\",\"bar\":\"barbar\"}\n\n"))
+				.consumeNextWith(stringConsumer("data:{\"foo\":\"f\",\"bar\":\"b\"}\n\n"))
+				.expectComplete()
+				.verify();
+	}
+
 	@ParameterizedDataBufferAllocatingTest  // SPR-14899
 	void writePojoWithPrettyPrint(String displayName, DataBufferFactory bufferFactory) {
 		super.bufferFactory = bufferFactory;
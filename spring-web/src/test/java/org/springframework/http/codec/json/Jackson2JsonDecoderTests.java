@@ -27,6 +27,7 @@ import java.util.Map;
 
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
@@ -208,6 +209,14 @@ public class Jackson2JsonDecoderTests extends AbstractDecoderTests<Jackson2JsonD
 		testDecode(input, Pojo.class, step -> step.verifyError(DecodingException.class));
 	}
 
+	@Test
+	public void invalidArraySeparators() {
+		for (String json : Arrays.asList("[1 2 3]", "[{\"a\":1} {\"a\":2}]", "[1,,2]", "[1,]")) {
+			Flux<DataBuffer> input = Flux.from(stringBuffer(json));
+			testDecode(input, Object.class, step -> step.verifyError(DecodingException.class));
+		}
+	}
+
 	@Test // gh-22042
 	public void decodeWithNullLiteral() {
 		Flux<Object> result = this.decoder.decode(Flux.concat(stringBuffer("null")),
@@ -296,6 +305,20 @@ public class Jackson2JsonDecoderTests extends AbstractDecoderTests<Jackson2JsonD
 				null);
 	}
 
+	@Test
+	public void decodeWithObjectMapperReconfiguredAfterUse() {
+		ObjectMapper mapper = new ObjectMapper();
+		Jackson2JsonDecoder decoder = new Jackson2JsonDecoder(mapper);
+		ResolvableType pojoType = ResolvableType.forClass(Pojo.class);
+		String json = "{\"foo\":\"f1\",\"bar\":\"b1\",\"baz\":\"z1\"}";
+
+		assertThatExceptionOfType(DecodingException.class).isThrownBy(() ->
+				decoder.decode(stringBuffer(json).block(), pojoType, APPLICATION_JSON, null));
+
+		mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+		assertThat(decoder.decode(stringBuffer(json).block(), pojoType, APPLICATION_JSON, null)).isEqualTo(this.pojo1);
+	}
+
 
 	private Mono<DataBuffer> stringBuffer(String value) {
 		return stringBuffer(value, StandardCharsets.UTF_8);
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -260,6 +260,23 @@ public class Jackson2JsonEncoderTests extends AbstractEncoderTests<Jackson2JsonE
 
 	}
 
+	@Test
+	public void encodeWithObjectMapperReconfiguredAfterUse() {
+		ObjectMapper mapper = new ObjectMapper();
+		Jackson2JsonEncoder encoder = new Jackson2JsonEncoder(mapper);
+		ResolvableType pojoType = ResolvableType.forClass(Pojo.class);
+		Pojo pojo = new Pojo("foo", "bar");
+
+		DataBuffer buffer = encoder.encodeValue(pojo, this.bufferFactory, pojoType, APPLICATION_JSON, null);
+		assertThat(buffer.toString(StandardCharsets.UTF_8)).isEqualTo("{\"foo\":\"foo\",\"bar\":\"bar\"}");
+		DataBufferUtils.release(buffer);
+
+		mapper.configure(SerializationFeature.INDENT_OUTPUT, true);
+		buffer = encoder.encodeValue(pojo, this.bufferFactory, pojoType, APPLICATION_JSON, null);
+		assertThat(buffer.toString(StandardCharsets.UTF_8)).contains("\n");
+		DataBufferUtils.release(buffer);
+	}
+
 
 	@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "type")
 	private static class ParentClass {
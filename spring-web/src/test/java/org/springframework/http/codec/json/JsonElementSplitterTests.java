@@ -0,0 +1,145 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.codec.json;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.testfixture.io.buffer.AbstractLeakCheckingTests;
+
+import static java.util.Arrays.asList;
+
+/**
+ * Unit tests for {@link JsonElementSplitter}.
+ */
+class JsonElementSplitterTests extends AbstractLeakCheckingTests {
+
+	@Test
+	void splitArray() {
+		testSplit(asList("[{\"foo\": \"foofoo\", \"bar\": \"barbar\"},", " {\"foo\": \"foofoo2\"}]"),
+				asList("{\"foo\": \"foofoo\", \"bar\": \"barbar\"}", "{\"foo\": \"foofoo2\"}"));
+
+		testSplit(asList("[1, \"two\" ,true,null", ",[3, 4], {\"five\": [6]}, 7]"),
+				asList("1", "\"two\"", "true", "null", "[3, 4]", "{\"five\": [6]}", "7"));
+
+		testSplit(asList("[", "]"), asList());
+	}
+
+	@Test
+	void splitArrayAcrossBuffers() {
+		testSplit(asList("[{\"foo\": \"foo", "foo\", \"ba", "r\": \"barbar\"}", ",12", "34]"),
+				asList("{\"foo\": \"foofoo\", \"bar\": \"barbar\"}", "1234"));
+	}
+
+	@Test
+	void splitNewlineDelimited() {
+		testSplit(asList("{\"foo\": \"foofoo\"}\n{\"bar\": ", "\"barbar\"}\n", "42\n\"baz\""),
+				asList("{\"foo\": \"foofoo\"}", "{\"bar\": \"barbar\"}", "42", "\"baz\""));
+	}
+
+	@Test
+	void stringsWithStructuralCharacters() {
+		testSplit(asList("[\"a]\", {\"b\\\"}\": \"{[,\\\\\"}, \"c\\", "\"d\"]"),
+				asList("\"a]\"", "{\"b\\\"}\": \"{[,\\\\\"}", "\"c\\\"d\""));
+	}
+
+	@Test
+	void byteOrderMark() {
+		testSplit(asList("\uFEFF[{\"foo\": 1}]"), asList("{\"foo\": 1}"));
+	}
+
+	@Test
+	void incompleteElement() {
+		testSplit(asList("[{\"foo\": \"foofoo\"}, {\"bar\": "), asList("{\"foo\": \"foofoo\"}", "{\"bar\": "));
+	}
+
+	@Test
+	void incompleteArray() {
+		Flux<String> result = split(asList("[{\"foo\": \"foofoo\"}"), -1);
+
+		StepVerifier.create(result)
+				.expectNext("{\"foo\": \"foofoo\"}")
+				.verifyError(DecodingException.class);
+	}
+
+	@Test
+	void invalidSeparators() {
+		List<List<String>> inputs = asList(asList("[1 2 3]"), asList("[{\"a\":1}", " {\"a\":2}]"),
+				asList("[1,", ",2]"), asList("[1,", "]"), asList("[,1]"));
+		for (List<String> input : inputs) {
+			StepVerifier.create(split(input, -1))
+					.thenConsumeWhile(element -> true)
+					.verifyError(DecodingException.class);
+		}
+	}
+
+	@Test
+	void limit() {
+		List<String> source = asList("[", "{\"id\":1,\"name\":\"Dan\"},", "{\"id\":2,", "\"name\":\"Bartholomew\"}", "]");
+
+		StepVerifier.create(split(source, 23))
+				.expectNext("{\"id\":1,\"name\":\"Dan\"}")
+				.verifyError(DataBufferLimitException.class);
+
+		StepVerifier.create(split(source, 31))
+				.expectNext("{\"id\":1,\"name\":\"Dan\"}", "{\"id\":2,\"name\":\"Bartholomew\"}")
+				.verifyComplete();
+	}
+
+	@Test
+	void errorInStream() {
+		Flux<DataBuffer> source = Flux.just(stringBuffer("[{\"id\":1}, {\"id\":"))
+				.concatWith(Flux.error(new RuntimeException()));
+
+		StepVerifier.create(JsonElementSplitter.split(source, -1).map(JsonElementSplitterTests::toString))
+				.expectNext("{\"id\":1}")
+				.verifyError(RuntimeException.class);
+	}
+
+
+	private void testSplit(List<String> input, List<String> output) {
+		StepVerifier.create(split(input, -1))
+				.expectNextSequence(output)
+				.verifyComplete();
+	}
+
+	private Flux<String> split(List<String> input, int maxInMemorySize) {
+		Flux<DataBuffer> source = Flux.fromIterable(input).map(this::stringBuffer);
+		return JsonElementSplitter.split(source, maxInMemorySize).map(JsonElementSplitterTests::toString);
+	}
+
+	private static String toString(ByteBuffer buffer) {
+		return new String(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining(),
+				StandardCharsets.UTF_8);
+	}
+
+	private DataBuffer stringBuffer(String value) {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		DataBuffer buffer = this.bufferFactory.allocateBuffer(bytes.length);
+		buffer.write(bytes);
+		return buffer;
+	}
+
+}
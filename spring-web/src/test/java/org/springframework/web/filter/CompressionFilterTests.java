@@ -0,0 +1,208 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.filter;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import javax.servlet.FilterChain;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.testfixture.servlet.MockFilterChain;
+import org.springframework.web.testfixture.servlet.MockHttpServletRequest;
+import org.springframework.web.testfixture.servlet.MockHttpServletResponse;
+import org.springframework.web.util.DeflaterPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Tests for {@link CompressionFilter}.
+ *
+ * @since 5.3.10
+ */
+class CompressionFilterTests {
+
+	private static final String CONTENT = content();
+
+	private final CompressionFilter filter = new CompressionFilter();
+
+	private final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/projects");
+
+	private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+
+	@Test
+	void gzipOutputStream() throws Exception {
+		this.request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate");
+		this.filter.doFilter(this.request, this.response, (request, response) -> {
+			response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+			byte[] bytes = CONTENT.getBytes(StandardCharsets.UTF_8);
+			response.getOutputStream().write(bytes, 0, 100);
+			response.getOutputStream().write(bytes, 100, bytes.length - 100);
+			response.getOutputStream().flush();
+		});
+
+		assertThat(this.response.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+		assertThat(this.response.getHeader(HttpHeaders.VARY)).isEqualTo(HttpHeaders.ACCEPT_ENCODING);
+		assertThat(this.response.getHeader(HttpHeaders.CONTENT_LENGTH)).isNull();
+		assertThat(gunzip(this.response.getContentAsByteArray())).isEqualTo(CONTENT);
+	}
+
+	@Test
+	void deflateWriter() throws Exception {
+		this.request.addHeader(HttpHeaders.ACCEPT_ENCODING, "deflate");
+		this.filter.doFilter(this.request, this.response, (request, response) -> {
+			response.setContentType("text/plain;charset=UTF-8");
+			response.getWriter().write(CONTENT);
+		});
+
+		assertThat(this.response.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("deflate");
+		InputStream in = new InflaterInputStream(new ByteArrayInputStream(this.response.getContentAsByteArray()));
+		assertThat(StreamUtils.copyToString(in, StandardCharsets.UTF_8)).isEqualTo(CONTENT);
+	}
+
+	@Test
+	void belowMinResponseSize() throws Exception {
+		this.request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+		this.filter.doFilter(this.request, this.response, (request, response) -> {
+			response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+			response.getOutputStream().write("{\"name\":\"spring\"}".getBytes(StandardCharsets.UTF_8));
+			response.getOutputStream().flush();
+		});
+
+		assertThat(this.response.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+		assertThat(this.response.getContentLength()).isEqualTo(17);
+		assertThat(this.response.getContentAsString()).isEqualTo("{\"name\":\"spring\"}");
+	}
+
+	@Test
+	void contentLengthBelowMinResponseSize() throws Exception {
+		this.request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+		this.filter.doFilter(this.request, this.response, (request, response) -> {
+			response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+			response.setContentLength(5);
+			response.getOutputStream().write("Hello".getBytes(StandardCharsets.UTF_8));
+			assertThat(this.response.getContentAsString()).isEqualTo("Hello");
+		});
+
+		assertThat(this.response.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+		assertThat(this.response.getContentLength()).isEqualTo(5);
+	}
+
+	@Test
+	void notCompressible() throws Exception {
+		assertNotCompressed("gzip", (request, response) -> {
+			response.setContentType(MediaType.IMAGE_PNG_VALUE);
+			response.getWriter().write(CONTENT);
+		});
+		assertNotCompressed("gzip", (request, response) -> {
+			response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+			((HttpServletResponse) response).setHeader(HttpHeaders.CONTENT_ENCODING, "br");
+			response.getWriter().write(CONTENT);
+		});
+		assertNotCompressed("gzip", (request, response) -> {
+			((HttpServletResponse) response).setStatus(500);
+			response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+			response.getWriter().write(CONTENT);
+		});
+		assertNotCompressed("br", (request, response) -> {
+			response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+			response.getWriter().write(CONTENT);
+		});
+	}
+
+	@Test
+	void streamingFlushesCompressor() throws Exception {
+		this.request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+		this.filter.doFilter(this.request, this.response, (request, response) -> {
+			response.setContentType(MediaType.TEXT_EVENT_STREAM_VALUE);
+			response.getOutputStream().write("data: first\n\n".getBytes(StandardCharsets.UTF_8));
+			response.flushBuffer();
+			assertThat(this.response.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+			assertThat(this.response.getContentAsByteArray()).isNotEmpty();
+			response.getOutputStream().write("data: second\n\n".getBytes(StandardCharsets.UTF_8));
+		});
+
+		assertThat(gunzip(this.response.getContentAsByteArray())).isEqualTo("data: first\n\ndata: second\n\n");
+	}
+
+	@Test
+	void compressorDiscardedWhenServletThrows() throws Exception {
+		List<DeflaterOutputStream> discarded = new ArrayList<>();
+		this.filter.setDeflaterPool(new DeflaterPool() {
+			@Override
+			public void discard(DeflaterOutputStream stream) {
+				discarded.add(stream);
+				super.discard(stream);
+			}
+		});
+		this.request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+		FilterChain filterChain = new MockFilterChain(new HttpServlet() {
+			@Override
+			protected void service(HttpServletRequest request, HttpServletResponse response) throws IOException {
+				response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+				response.getOutputStream().write(CONTENT.getBytes(StandardCharsets.UTF_8));
+				throw new IllegalStateException("Handler failure");
+			}
+		});
+
+		assertThatIllegalStateException().isThrownBy(() ->
+				this.filter.doFilter(this.request, this.response, filterChain))
+				.withMessage("Handler failure");
+		assertThat(this.response.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+		assertThat(discarded).hasSize(1);
+	}
+
+
+	private void assertNotCompressed(String acceptEncoding, FilterChain filterChain) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/projects");
+		request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		this.filter.doFilter(request, response, filterChain);
+		assertThat(response.getHeader(HttpHeaders.VARY)).isNull();
+		assertThat(response.getContentAsString()).isEqualTo(CONTENT);
+	}
+
+	private static String gunzip(byte[] content) throws IOException {
+		InputStream in = new GZIPInputStream(new ByteArrayInputStream(content));
+		return StreamUtils.copyToString(in, StandardCharsets.UTF_8);
+	}
+
+	private static String content() {
+		StringBuilder builder = new StringBuilder("[");
+		for (int i = 0; i < 200; i++) {
+			builder.append("{\"name\":\"spring").append(i).append("\",\"url\":\"https://spring.io\"},");
+		}
+		return builder.append("{}]").toString();
+	}
+
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.filter.reactive;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.testfixture.http.server.reactive.MockServerHttpRequest;
+import org.springframework.web.testfixture.server.MockServerWebExchange;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link CompressionWebFilter}.
+ *
+ * @since 5.3.10
+ */
+class CompressionWebFilterTests {
+
+	private static final String CONTENT = content();
+
+	private final CompressionWebFilter filter = new CompressionWebFilter();
+
+
+	@Test
+	void gzip() throws IOException {
+		MockServerWebExchange exchange = exchange("gzip, deflate");
+		this.filter.filter(exchange, chain(MediaType.APPLICATION_JSON, CONTENT.substring(0, 100),
+				CONTENT.substring(100))).block(Duration.ZERO);
+
+		HttpHeaders headers = exchange.getResponse().getHeaders();
+		assertThat(headers.getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+		assertThat(headers.getVary()).containsExactly(HttpHeaders.ACCEPT_ENCODING);
+		InputStream in = new GZIPInputStream(new ByteArrayInputStream(getBody(exchange)));
+		assertThat(StreamUtils.copyToString(in, StandardCharsets.UTF_8)).isEqualTo(CONTENT);
+	}
+
+	@Test
+	void deflateWithContentLength() throws IOException {
+		MockServerWebExchange exchange = exchange("deflate");
+		WebFilterChain chain = filterExchange -> {
+			filterExchange.getResponse().getHeaders().setContentLength(CONTENT.length());
+			return chain(MediaType.TEXT_PLAIN, CONTENT).filter(filterExchange);
+		};
+		this.filter.filter(exchange, chain).block(Duration.ZERO);
+
+		HttpHeaders headers = exchange.getResponse().getHeaders();
+		assertThat(headers.getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("deflate");
+		assertThat(headers.getContentLength()).isEqualTo(-1);
+		InputStream in = new InflaterInputStream(new ByteArrayInputStream(getBody(exchange)));
+		assertThat(StreamUtils.copyToString(in, StandardCharsets.UTF_8)).isEqualTo(CONTENT);
+	}
+
+	@Test
+	void belowMinResponseSize() {
+		MockServerWebExchange exchange = exchange("gzip");
+		this.filter.filter(exchange, chain(MediaType.APPLICATION_JSON, "{\"name\":", "\"spring\"}"))
+				.block(Duration.ZERO);
+
+		assertThat(exchange.getResponse().getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isNull();
+		assertThat(exchange.getResponse().getBodyAsString().block(Duration.ZERO)).isEqualTo("{\"name\":\"spring\"}");
+	}
+
+	@Test
+	void notCompressible() {
+		MockServerWebExchange exchange = exchange("gzip");
+		this.filter.filter(exchange, chain(MediaType.IMAGE_PNG, CONTENT)).block(Duration.ZERO);
+		assertThat(exchange.getResponse().getBodyAsString().block(Duration.ZERO)).isEqualTo(CONTENT);
+
+		exchange = exchange("gzip");
+		WebFilterChain chain = filterExchange -> {
+			filterExchange.getResponse().setStatusCode(HttpStatus.INTERNAL_SERVER_ERROR);
+			return chain(MediaType.TEXT_PLAIN, CONTENT).filter(filterExchange);
+		};
+		this.filter.filter(exchange, chain).block(Duration.ZERO);
+		assertThat(exchange.getResponse().getBodyAsString().block(Duration.ZERO)).isEqualTo(CONTENT);
+
+		exchange = exchange("br");
+		this.filter.filter(exchange, chain(MediaType.TEXT_PLAIN, CONTENT)).block(Duration.ZERO);
+		assertThat(exchange.getResponse().getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isNull();
+		assertThat(exchange.getResponse().getBodyAsString().block(Duration.ZERO)).isEqualTo(CONTENT);
+	}
+
+	@Test
+	void writeAndFlushWith() throws IOException {
+		MockServerWebExchange exchange = exchange("gzip");
+		this.filter.filter(exchange, filterExchange -> {
+			filterExchange.getResponse().getHeaders().setContentType(MediaType.TEXT_EVENT_STREAM);
+			return filterExchange.getResponse().writeAndFlushWith(Flux.just("data: first\n\n", "data: second\n\n")
+					.map(event -> Flux.just(buffer(event))));
+		}).block(Duration.ZERO);
+
+		assertThat(exchange.getResponse().getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+		InputStream in = new GZIPInputStream(new ByteArrayInputStream(getBody(exchange)));
+		assertThat(StreamUtils.copyToString(in, StandardCharsets.UTF_8)).isEqualTo("data: first\n\ndata: second\n\n");
+	}
+
+
+	private static MockServerWebExchange exchange(String acceptEncoding) {
+		return MockServerWebExchange.from(
+				MockServerHttpRequest.get("/projects").header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding));
+	}
+
+	private static WebFilterChain chain(MediaType contentType, String... chunks) {
+		return exchange -> {
+			exchange.getResponse().getHeaders().setContentType(contentType);
+			return exchange.getResponse().writeWith(Flux.fromArray(chunks).map(CompressionWebFilterTests::buffer));
+		};
+	}
+
+	private static DataBuffer buffer(String chunk) {
+		byte[] bytes = chunk.getBytes(StandardCharsets.UTF_8);
+		return DefaultDataBufferFactory.sharedInstance.allocateBuffer(bytes.length).write(bytes);
+	}
+
+	private static byte[] getBody(MockServerWebExchange exchange) {
+		DataBuffer buffer = DataBufferUtils.join(exchange.getResponse().getBody()).block(Duration.ZERO);
+		byte[] bytes = new byte[buffer.readableByteCount()];
+		buffer.read(bytes);
+		DataBufferUtils.release(buffer);
+		return bytes;
+	}
+
+	private static String content() {
+		StringBuilder builder = new StringBuilder("[");
+		for (int i = 0; i < 200; i++) {
+			builder.append("{\"name\":\"spring").append(i).append("\",\"url\":\"https://spring.io\"},");
+		}
+		return builder.append("{}]").toString();
+	}
+
+}
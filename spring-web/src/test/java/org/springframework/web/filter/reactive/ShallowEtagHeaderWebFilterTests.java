@@ -0,0 +1,135 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.filter.reactive;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.zip.CRC32;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.testfixture.http.server.reactive.MockServerHttpRequest;
+import org.springframework.web.testfixture.server.MockServerWebExchange;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link ShallowEtagHeaderWebFilter}.
+ *
+ * @since 5.3.10
+ */
+class ShallowEtagHeaderWebFilterTests {
+
+	private static final String ETAG = "\"0b10a8db164e0754105b7a99be72e3fe5\"";
+
+	private final ShallowEtagHeaderWebFilter filter = new ShallowEtagHeaderWebFilter();
+
+
+	@Test
+	void filterNoMatch() {
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/hotels"));
+		this.filter.filter(exchange, chain("Hello", " World")).block(Duration.ZERO);
+
+		assertThat(exchange.getResponse().getStatusCode()).isNull();
+		assertThat(exchange.getResponse().getHeaders().getETag()).isEqualTo(ETAG);
+		assertThat(exchange.getResponse().getBodyAsString().block(Duration.ZERO)).isEqualTo("Hello World");
+	}
+
+	@Test
+	void filterMatch() {
+		MockServerWebExchange exchange = MockServerWebExchange.from(
+				MockServerHttpRequest.get("/hotels").ifNoneMatch(ETAG));
+		this.filter.filter(exchange, chain("Hello", " World")).block(Duration.ZERO);
+
+		assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+		assertThat(exchange.getResponse().getHeaders().getETag()).isEqualTo(ETAG);
+		assertThat(exchange.getResponse().getBodyAsString().block(Duration.ZERO)).isEmpty();
+	}
+
+	@Test
+	void filterWeakETag() {
+		this.filter.setWriteWeakETag(true);
+		MockServerWebExchange exchange = MockServerWebExchange.from(
+				MockServerHttpRequest.get("/hotels").ifNoneMatch(ETAG));
+		this.filter.filter(exchange, chain("Hello World")).block(Duration.ZERO);
+
+		assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+		assertThat(exchange.getResponse().getHeaders().getETag()).isEqualTo("W/" + ETAG);
+	}
+
+	@Test
+	void filterAboveContentCacheLimit() {
+		this.filter.setContentCacheLimit(8);
+		MockServerWebExchange exchange = MockServerWebExchange.from(
+				MockServerHttpRequest.get("/hotels").ifNoneMatch(ETAG));
+		this.filter.filter(exchange, chain("Hello", " World", "!")).block(Duration.ZERO);
+
+		assertThat(exchange.getResponse().getStatusCode()).isNull();
+		assertThat(exchange.getResponse().getHeaders().getETag()).isNull();
+		assertThat(exchange.getResponse().getBodyAsString().block(Duration.ZERO)).isEqualTo("Hello World!");
+	}
+
+	@Test
+	void filterWithChecksum() {
+		this.filter.setChecksumSupplier(CRC32::new);
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/hotels"));
+		this.filter.filter(exchange, chain("Hello", " World")).block(Duration.ZERO);
+
+		CRC32 crc32 = new CRC32();
+		byte[] bytes = "Hello World".getBytes(StandardCharsets.UTF_8);
+		crc32.update(bytes, 0, bytes.length);
+		assertThat(exchange.getResponse().getHeaders().getETag())
+				.isEqualTo("\"0" + Long.toHexString(crc32.getValue()) + "\"");
+		assertThat(exchange.getResponse().getBodyAsString().block(Duration.ZERO)).isEqualTo("Hello World");
+	}
+
+	@Test
+	void filterNonGetRequest() {
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/hotels"));
+		this.filter.filter(exchange, chain("Hello World")).block(Duration.ZERO);
+
+		assertThat(exchange.getResponse().getHeaders().getETag()).isNull();
+		assertThat(exchange.getResponse().getBodyAsString().block(Duration.ZERO)).isEqualTo("Hello World");
+	}
+
+	@Test
+	void filterNoStore() {
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/hotels"));
+		WebFilterChain chain = filterExchange -> {
+			filterExchange.getResponse().getHeaders().setCacheControl("no-store");
+			return chain("Hello World").filter(filterExchange);
+		};
+		this.filter.filter(exchange, chain).block(Duration.ZERO);
+
+		assertThat(exchange.getResponse().getHeaders().getETag()).isNull();
+		assertThat(exchange.getResponse().getBodyAsString().block(Duration.ZERO)).isEqualTo("Hello World");
+	}
+
+
+	private static WebFilterChain chain(String... chunks) {
+		return exchange -> exchange.getResponse().writeWith(Flux.fromArray(chunks).map(chunk -> {
+			DataBuffer buffer = DefaultDataBufferFactory.sharedInstance.allocateBuffer(chunk.length());
+			return buffer.write(chunk, StandardCharsets.UTF_8);
+		}));
+	}
+
+}
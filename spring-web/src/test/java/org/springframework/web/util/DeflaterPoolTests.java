@@ -0,0 +1,132 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.util.StreamUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link DeflaterPool}.
+ *
+ * @since 5.3.10
+ */
+class DeflaterPoolTests {
+
+	private final DeflaterPool pool = new DeflaterPool();
+
+
+	@Test
+	void getContentCoding() {
+		assertThat(this.pool.getContentCoding(Collections.singletonList("gzip, deflate, br"))).isEqualTo("gzip");
+		assertThat(this.pool.getContentCoding(Arrays.asList("br", "deflate"))).isEqualTo("deflate");
+		assertThat(this.pool.getContentCoding(Collections.singletonList("gzip;q=0.5, deflate"))).isEqualTo("deflate");
+		assertThat(this.pool.getContentCoding(Collections.singletonList("gzip;q=0, deflate;q=0"))).isNull();
+		assertThat(this.pool.getContentCoding(Collections.singletonList("*"))).isEqualTo("gzip");
+		assertThat(this.pool.getContentCoding(Collections.singletonList("*, gzip;q=0"))).isEqualTo("deflate");
+		assertThat(this.pool.getContentCoding(Collections.singletonList("identity"))).isNull();
+		assertThat(this.pool.getContentCoding(Collections.emptyList())).isNull();
+	}
+
+	@Test
+	void gzip() throws IOException {
+		byte[] content = content();
+		for (int i = 0; i < 3; i++) {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			try (OutputStream os = this.pool.createOutputStream(out, DeflaterPool.GZIP, false)) {
+				os.write(content, 0, 1000);
+				os.write(content, 1000, content.length - 1000);
+			}
+			assertThat(out.size()).isLessThan(content.length / 10);
+			assertThat(inflate(new GZIPInputStream(new ByteArrayInputStream(out.toByteArray())))).isEqualTo(content);
+		}
+	}
+
+	@Test
+	void deflate() throws IOException {
+		byte[] content = content();
+		for (int i = 0; i < 3; i++) {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			try (OutputStream os = this.pool.createOutputStream(out, DeflaterPool.DEFLATE, false)) {
+				os.write(content);
+			}
+			assertThat(inflate(new InflaterInputStream(new ByteArrayInputStream(out.toByteArray())))).isEqualTo(content);
+		}
+	}
+
+	@Test
+	void syncFlush() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		OutputStream os = this.pool.createOutputStream(out, DeflaterPool.GZIP, true);
+		os.write("data: first\n\n".getBytes());
+		os.flush();
+		assertThat(out.size()).isGreaterThan(10);
+		os.close();
+		os.close();
+		assertThat(inflate(new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))))
+				.isEqualTo("data: first\n\n".getBytes());
+	}
+
+	@Test
+	void discard() throws IOException {
+		DeflaterPool pool = new DeflaterPool(-1, 1);
+		byte[] content = content();
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		DeflaterOutputStream os = pool.createOutputStream(out, DeflaterPool.GZIP, false);
+		os.write(content);
+		int size = out.size();
+		pool.discard(os);
+		pool.discard(os);
+		os.close();
+		assertThat(out.size()).isEqualTo(size);
+
+		out = new ByteArrayOutputStream();
+		try (OutputStream reused = pool.createOutputStream(out, DeflaterPool.GZIP, false)) {
+			reused.write(content);
+		}
+		assertThat(inflate(new GZIPInputStream(new ByteArrayInputStream(out.toByteArray())))).isEqualTo(content);
+	}
+
+
+	private static byte[] content() {
+		StringBuilder builder = new StringBuilder("[");
+		for (int i = 0; i < 500; i++) {
+			builder.append("{\"name\":\"spring").append(i).append("\",\"url\":\"https://spring.io\"},");
+		}
+		return builder.append("{}]").toString().getBytes();
+	}
+
+	private static byte[] inflate(InputStream inputStream) throws IOException {
+		try (InputStream in = inputStream) {
+			return StreamUtils.copyToByteArray(in);
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -91,6 +91,10 @@ public class RequestedContentTypeResolverBuilder {
 				this.candidates.stream().map(Supplier::get).collect(Collectors.toList()) :
 				Collections.singletonList(new HeaderContentTypeResolver()));
 
+		if (resolvers.size() == 1) {
+			return resolvers.get(0);
+		}
+
 		return exchange -> {
 			for (RequestedContentTypeResolver resolver : resolvers) {
 				List<MediaType> mediaTypes = resolver.resolveMediaTypes(exchange);
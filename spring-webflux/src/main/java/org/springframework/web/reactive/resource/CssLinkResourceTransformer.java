@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -36,6 +36,7 @@ import org.springframework.core.io.Resource;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.DataBufferFactory;
 import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
 import org.springframework.lang.Nullable;
 import org.springframework.util.StreamUtils;
 import org.springframework.util.StringUtils;
@@ -80,7 +81,8 @@ public class CssLinkResourceTransformer extends ResourceTransformerSupport {
 					String filename = outputResource.getFilename();
 					if (!"css".equals(StringUtils.getFilenameExtension(filename)) ||
 							inputResource instanceof EncodedResourceResolver.EncodedResource ||
-							inputResource instanceof GzipResourceResolver.GzippedResource) {
+							inputResource instanceof GzipResourceResolver.GzippedResource ||
+							isEncoded(inputResource)) {
 						return Mono.just(outputResource);
 					}
 
@@ -150,6 +152,16 @@ public class CssLinkResourceTransformer extends ResourceTransformerSupport {
 		return (schemeIndex > 0 && !link.substring(0, schemeIndex).contains("/")) || link.indexOf("//") == 0;
 	}
 
+	/**
+	 * Whether the given resource is a content-encoded variant, e.g. a gzip
+	 * variant kept in memory by an {@link InMemoryResourceResolver}, whose
+	 * content cannot be parsed as CSS.
+	 */
+	private boolean isEncoded(Resource resource) {
+		return (resource instanceof HttpResource &&
+				((HttpResource) resource).getResponseHeaders().containsKey(HttpHeaders.CONTENT_ENCODING));
+	}
+
 
 	/**
 	 * Extract content chunks that represent links.
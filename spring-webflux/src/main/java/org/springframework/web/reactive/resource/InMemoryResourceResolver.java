@@ -0,0 +1,363 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.reactive.resource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import reactor.core.publisher.Mono;
+
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ServerWebExchange;
+
+/**
+ * A {@link ResourceResolver} that keeps the content of small resources in
+ * memory, along with a gzip variant generated on first access, so that
+ * serving a cached resource does not involve the file system.
+ *
+ * <p>The cache is bounded by the {@link #setMaxCacheSize total number of bytes},
+ * evicting the least recently used resources first. The last-modified
+ * timestamp of a cached resource is checked at most once per
+ * {@link #setRevalidationInterval revalidation interval}, and the resource is
+ * reloaded if it has changed.
+ *
+ * <p>This resolver is expected to be ordered first, ahead of the resolvers
+ * that actually locate resources. Resources resolved to an encoded variant
+ * further down the chain, such as through an {@link EncodedResourceResolver},
+ * are not cached.
+ *
+ * @since 5.3.10
+ */
+public class InMemoryResourceResolver extends AbstractResourceResolver {
+
+	private static final String GZIP = "gzip";
+
+
+	private int maxResourceSize = 1024 * 1024;
+
+	private long maxCacheSize = 16 * 1024 * 1024;
+
+	private Duration revalidationInterval = Duration.ofSeconds(5);
+
+	private final Map<String, CacheEntry> cache = new LinkedHashMap<>(64, 0.75f, true);
+
+	private long cacheSize;
+
+
+	/**
+	 * Set the maximum size in bytes of a resource to keep in memory.
+	 * <p>By default this is set to 1 MB.
+	 */
+	public void setMaxResourceSize(int maxResourceSize) {
+		this.maxResourceSize = maxResourceSize;
+	}
+
+	/**
+	 * Return the configured maximum resource size.
+	 */
+	public int getMaxResourceSize() {
+		return this.maxResourceSize;
+	}
+
+	/**
+	 * Set the maximum number of bytes to keep in memory, including the gzip
+	 * variants of resources.
+	 * <p>By default this is set to 16 MB.
+	 */
+	public void setMaxCacheSize(long maxCacheSize) {
+		this.maxCacheSize = maxCacheSize;
+	}
+
+	/**
+	 * Return the configured maximum cache size.
+	 */
+	public long getMaxCacheSize() {
+		return this.maxCacheSize;
+	}
+
+	/**
+	 * Set the minimum time between checks of the last-modified timestamp of
+	 * a cached resource. A negative value disables the check, e.g. for
+	 * resources with content-based versions that never change.
+	 * <p>By default this is set to 5 seconds.
+	 */
+	public void setRevalidationInterval(Duration revalidationInterval) {
+		Assert.notNull(revalidationInterval, "Duration must not be null");
+		this.revalidationInterval = revalidationInterval;
+	}
+
+	/**
+	 * Return the configured revalidation interval.
+	 */
+	public Duration getRevalidationInterval() {
+		return this.revalidationInterval;
+	}
+
+	/**
+	 * Remove all resources from the cache.
+	 */
+	public void clearCache() {
+		synchronized (this.cache) {
+			this.cache.clear();
+			this.cacheSize = 0;
+		}
+	}
+
+
+	@Override
+	protected Mono<Resource> resolveResourceInternal(@Nullable ServerWebExchange exchange, String requestPath,
+			List<? extends Resource> locations, ResourceResolverChain chain) {
+
+		boolean gzip = (exchange != null &&
+				acceptsGzip(exchange.getRequest().getHeaders().getFirst(HttpHeaders.ACCEPT_ENCODING)));
+		CacheEntry entry;
+		synchronized (this.cache) {
+			entry = this.cache.get(requestPath);
+		}
+		if (entry != null && !entry.isStale(this.revalidationInterval.toNanos())) {
+			if (logger.isTraceEnabled()) {
+				logger.trace((exchange != null ? exchange.getLogPrefix() : "") + "Resource resolved from memory");
+			}
+			return Mono.just(getResource(requestPath, entry, gzip));
+		}
+
+		CacheEntry staleEntry = entry;
+		return chain.resolveResource(exchange, requestPath, locations)
+				.flatMap(resource -> {
+					if (!isCacheable(resource)) {
+						remove(requestPath, staleEntry);
+						return Mono.just(resource);
+					}
+					return DataBufferUtils.join(DataBufferUtils.read(resource, DefaultDataBufferFactory.sharedInstance, 4096))
+							.map(buffer -> {
+								byte[] content = new byte[buffer.readableByteCount()];
+								buffer.read(content);
+								DataBufferUtils.release(buffer);
+								return put(requestPath, new CacheEntry(resource, content), gzip);
+							})
+							.onErrorResume(IOException.class, ex -> {
+								if (logger.isDebugEnabled()) {
+									logger.debug("Failed to load content of " + resource, ex);
+								}
+								remove(requestPath, staleEntry);
+								return Mono.just(resource);
+							});
+				})
+				.switchIfEmpty(Mono.fromRunnable(() -> remove(requestPath, staleEntry)));
+	}
+
+	private Resource put(String requestPath, CacheEntry entry, boolean gzip) {
+		synchronized (this.cache) {
+			CacheEntry previous = this.cache.put(requestPath, entry);
+			this.cacheSize += entry.getSize() - (previous != null ? previous.getSize() : 0);
+			evict();
+		}
+		return getResource(requestPath, entry, gzip);
+	}
+
+	private boolean isCacheable(Resource resource) {
+		if (resource instanceof HttpResource &&
+				((HttpResource) resource).getResponseHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)) {
+			return false;
+		}
+		try {
+			long length = resource.contentLength();
+			return (length <= this.maxResourceSize && length <= this.maxCacheSize);
+		}
+		catch (IOException ex) {
+			return false;
+		}
+	}
+
+	private Resource getResource(String requestPath, CacheEntry entry, boolean gzip) {
+		if (gzip) {
+			if (!entry.gzipAttempted) {
+				InMemoryResource gzipResource = entry.compress();
+				synchronized (this.cache) {
+					if (!entry.gzipAttempted) {
+						entry.gzipAttempted = true;
+						entry.gzipResource = gzipResource;
+						if (gzipResource != null && this.cache.get(requestPath) == entry) {
+							this.cacheSize += gzipResource.getByteArray().length;
+							evict();
+						}
+					}
+				}
+			}
+			Resource gzipResource = entry.gzipResource;
+			if (gzipResource != null) {
+				return gzipResource;
+			}
+		}
+		return entry.resource;
+	}
+
+	private void remove(String requestPath, @Nullable CacheEntry entry) {
+		if (entry != null) {
+			synchronized (this.cache) {
+				if (this.cache.remove(requestPath, entry)) {
+					this.cacheSize -= entry.getSize();
+				}
+			}
+		}
+	}
+
+	private void evict() {
+		Iterator<CacheEntry> iterator = this.cache.values().iterator();
+		while (this.cacheSize > this.maxCacheSize && iterator.hasNext()) {
+			this.cacheSize -= iterator.next().getSize();
+			iterator.remove();
+		}
+	}
+
+	private static boolean acceptsGzip(@Nullable String acceptEncoding) {
+		if (!StringUtils.hasText(acceptEncoding)) {
+			return false;
+		}
+		for (String token : StringUtils.tokenizeToStringArray(acceptEncoding, ",")) {
+			int index = token.indexOf(';');
+			String coding = (index != -1 ? token.substring(0, index) : token).trim().toLowerCase(Locale.ROOT);
+			if (GZIP.equals(coding)) {
+				return (index == -1 || !token.substring(index + 1).replace(" ", "").matches("q=0(\\.0*)?"));
+			}
+		}
+		return false;
+	}
+
+	@Override
+	protected Mono<String> resolveUrlPathInternal(String resourceUrlPath,
+			List<? extends Resource> locations, ResourceResolverChain chain) {
+
+		return chain.resolveUrlPath(resourceUrlPath, locations);
+	}
+
+
+	/**
+	 * Cached content of a resource, along with its gzip variant once created.
+	 * The gzip variant is set while holding the lock on the cache, which
+	 * keeps track of the total size.
+	 */
+	private static final class CacheEntry {
+
+		final Resource original;
+
+		final InMemoryResource resource;
+
+		final long lastModified;
+
+		volatile long lastChecked = System.nanoTime();
+
+		@Nullable
+		volatile InMemoryResource gzipResource;
+
+		volatile boolean gzipAttempted;
+
+		CacheEntry(Resource original, byte[] content) {
+			this.original = original;
+			this.resource = new InMemoryResource(original, content, null);
+			this.lastModified = this.resource.lastModified();
+		}
+
+		boolean isStale(long revalidationNanos) {
+			long now = System.nanoTime();
+			if (revalidationNanos < 0 || now - this.lastChecked < revalidationNanos) {
+				return false;
+			}
+			this.lastChecked = now;
+			try {
+				return (!this.original.exists() || this.original.lastModified() != this.lastModified);
+			}
+			catch (IOException ex) {
+				return true;
+			}
+		}
+
+		/**
+		 * Create the gzip variant, or return {@code null} if compression does
+		 * not reduce the size of the resource enough.
+		 */
+		@Nullable
+		InMemoryResource compress() {
+			byte[] content = this.resource.getByteArray();
+			ByteArrayOutputStream out = new ByteArrayOutputStream(content.length / 2);
+			try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+				gzip.write(content);
+			}
+			catch (IOException ex) {
+				throw new IllegalStateException("Failed to compress content", ex);
+			}
+			if (out.size() >= content.length * 0.9) {
+				return null;
+			}
+			return new InMemoryResource(this.original, out.toByteArray(), GZIP);
+		}
+
+		int getSize() {
+			InMemoryResource gzipResource = this.gzipResource;
+			return this.resource.getByteArray().length +
+					(gzipResource != null ? gzipResource.getByteArray().length : 0);
+		}
+	}
+
+
+	/**
+	 * A {@link TransformedResource} that preserves the response headers of the
+	 * original resource, and adds the content coding, if encoded.
+	 */
+	private static final class InMemoryResource extends TransformedResource implements HttpResource {
+
+		@Nullable
+		private final HttpHeaders originalHeaders;
+
+		@Nullable
+		private final String coding;
+
+		InMemoryResource(Resource original, byte[] content, @Nullable String coding) {
+			super(original, content);
+			this.originalHeaders = (original instanceof HttpResource ?
+					((HttpResource) original).getResponseHeaders() : null);
+			this.coding = coding;
+		}
+
+		@Override
+		public HttpHeaders getResponseHeaders() {
+			HttpHeaders headers = new HttpHeaders();
+			if (this.originalHeaders != null) {
+				headers.putAll(this.originalHeaders);
+			}
+			if (this.coding != null) {
+				headers.add(HttpHeaders.CONTENT_ENCODING, this.coding);
+				headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+			}
+			return headers;
+		}
+	}
+
+}
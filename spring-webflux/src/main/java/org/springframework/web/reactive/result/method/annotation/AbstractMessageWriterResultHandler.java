@@ -16,9 +16,13 @@
 
 package org.springframework.web.reactive.result.method.annotation;
 
+import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
 import org.reactivestreams.Publisher;
 import reactor.core.publisher.Mono;
@@ -29,6 +33,7 @@ import org.springframework.core.ReactiveAdapter;
 import org.springframework.core.ReactiveAdapterRegistry;
 import org.springframework.core.ResolvableType;
 import org.springframework.core.codec.Hints;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.codec.HttpMessageWriter;
@@ -36,7 +41,11 @@ import org.springframework.http.converter.HttpMessageNotWritableException;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
+import org.springframework.util.ConcurrentLruCache;
+import org.springframework.util.ObjectUtils;
+import org.springframework.util.ReflectionUtils;
 import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.reactive.accept.HeaderContentTypeResolver;
 import org.springframework.web.reactive.accept.RequestedContentTypeResolver;
 import org.springframework.web.reactive.result.HandlerResultHandlerSupport;
 import org.springframework.web.server.NotAcceptableStatusException;
@@ -54,8 +63,15 @@ public abstract class AbstractMessageWriterResultHandler extends HandlerResultHa
 
 	private static final String COROUTINES_FLOW_CLASS_NAME = "kotlinx.coroutines.flow.Flow";
 
+	/* Maximum number of cached content negotiation results */
+	private static final int NEGOTIATION_CACHE_LIMIT = 256;
+
 	private final List<HttpMessageWriter<?>> messageWriters;
 
+	private final boolean negotiationCacheable;
+
+	private volatile NegotiationCache negotiationCache;
+
 
 	/**
 	 * Constructor with {@link HttpMessageWriter HttpMessageWriters} and a
@@ -82,6 +98,22 @@ public abstract class AbstractMessageWriterResultHandler extends HandlerResultHa
 		super(contentTypeResolver, adapterRegistry);
 		Assert.notEmpty(messageWriters, "At least one message writer is required");
 		this.messageWriters = messageWriters;
+		this.negotiationCacheable = isNegotiationCacheable();
+		this.negotiationCache = new NegotiationCache(messageWriters);
+	}
+
+	/**
+	 * Whether the outcome of content negotiation depends only on the request
+	 * "Accept" header, the type of the body, and the producible media types
+	 * of the request mapping, and can therefore be cached.
+	 */
+	private boolean isNegotiationCacheable() {
+		if (getContentTypeResolver().getClass() != HeaderContentTypeResolver.class) {
+			return false;
+		}
+		Method method = ReflectionUtils.findMethod(getClass(), "selectMediaType",
+				ServerWebExchange.class, Supplier.class);
+		return (method != null && method.getDeclaringClass() == HandlerResultHandlerSupport.class);
 	}
 
 
@@ -146,18 +178,32 @@ public abstract class AbstractMessageWriterResultHandler extends HandlerResultHa
 		}
 
 		MediaType bestMediaType;
-		try {
-			bestMediaType = selectMediaType(exchange, () -> getMediaTypesFor(elementType));
-		}
-		catch (NotAcceptableStatusException ex) {
-			HttpStatus statusCode = exchange.getResponse().getStatusCode();
-			if (statusCode != null && statusCode.isError()) {
-				if (logger.isDebugEnabled()) {
-					logger.debug("Ignoring error response content (if any). " + ex.getReason());
+		HttpMessageWriter<?> bestWriter = null;
+		NegotiationCache negotiationCache = getNegotiationCache();
+		NegotiationKey negotiationKey = (this.negotiationCacheable && !isContentTypePreset(exchange) ?
+				new NegotiationKey(exchange, elementType, actualElementType) : null);
+		NegotiationResult negotiationResult = (negotiationKey != null ? negotiationCache.get(negotiationKey) : null);
+		if (negotiationResult != null) {
+			bestMediaType = negotiationResult.mediaType;
+			bestWriter = negotiationResult.writer;
+			if (logger.isDebugEnabled()) {
+				logger.debug(exchange.getLogPrefix() + "Using '" + bestMediaType + "' from cached content negotiation");
+			}
+		}
+		else {
+			try {
+				bestMediaType = selectMediaType(exchange, () -> getMediaTypesFor(elementType));
+			}
+			catch (NotAcceptableStatusException ex) {
+				HttpStatus statusCode = exchange.getResponse().getStatusCode();
+				if (statusCode != null && statusCode.isError()) {
+					if (logger.isDebugEnabled()) {
+						logger.debug("Ignoring error response content (if any). " + ex.getReason());
+					}
+					return Mono.empty();
 				}
-				return Mono.empty();
+				throw ex;
 			}
-			throw ex;
 		}
 		if (bestMediaType != null) {
 			String logPrefix = exchange.getLogPrefix();
@@ -165,12 +211,21 @@ public abstract class AbstractMessageWriterResultHandler extends HandlerResultHa
 				logger.debug(logPrefix +
 						(publisher instanceof Mono ? "0..1" : "0..N") + " [" + elementType + "]");
 			}
-			for (HttpMessageWriter<?> writer : getMessageWriters()) {
-				if (writer.canWrite(actualElementType, bestMediaType)) {
-					return writer.write((Publisher) publisher, actualType, elementType,
-							bestMediaType, exchange.getRequest(), exchange.getResponse(),
-							Hints.from(Hints.LOG_PREFIX_HINT, logPrefix));
+			if (bestWriter == null) {
+				for (HttpMessageWriter<?> writer : getMessageWriters()) {
+					if (writer.canWrite(actualElementType, bestMediaType)) {
+						bestWriter = writer;
+						break;
+					}
 				}
+				if (bestWriter != null && negotiationKey != null) {
+					negotiationCache.put(negotiationKey, new NegotiationResult(bestMediaType, bestWriter));
+				}
+			}
+			if (bestWriter != null) {
+				return bestWriter.write((Publisher) publisher, actualType, elementType,
+						bestMediaType, exchange.getRequest(), exchange.getResponse(),
+						Hints.from(Hints.LOG_PREFIX_HINT, logPrefix));
 			}
 		}
 
@@ -202,6 +257,24 @@ public abstract class AbstractMessageWriterResultHandler extends HandlerResultHa
 		}
 	}
 
+	private boolean isContentTypePreset(ServerWebExchange exchange) {
+		MediaType contentType = exchange.getResponse().getHeaders().getContentType();
+		return (contentType != null && contentType.isConcrete());
+	}
+
+	/**
+	 * Return the cache of content negotiation results, replacing it first if
+	 * the configured message writers have changed since it was created.
+	 */
+	private NegotiationCache getNegotiationCache() {
+		NegotiationCache cache = this.negotiationCache;
+		if (!cache.isValidFor(this.messageWriters)) {
+			cache = new NegotiationCache(this.messageWriters);
+			this.negotiationCache = cache;
+		}
+		return cache;
+	}
+
 	private List<MediaType> getMediaTypesFor(ResolvableType elementType) {
 		List<MediaType> writableMediaTypes = new ArrayList<>();
 		for (HttpMessageWriter<?> converter : getMessageWriters()) {
@@ -212,4 +285,111 @@ public abstract class AbstractMessageWriterResultHandler extends HandlerResultHa
 		return writableMediaTypes;
 	}
 
+	/**
+	 * Key for a cached content negotiation result: the values of the "Accept"
+	 * header, the declared and actual type of the body elements, and the
+	 * producible media types of the request mapping, if any.
+	 */
+	private static final class NegotiationKey {
+
+		private final List<String> accept;
+
+		private final ResolvableType elementType;
+
+		private final ResolvableType actualElementType;
+
+		@Nullable
+		private final Set<MediaType> producibleTypes;
+
+		private final int hashCode;
+
+		NegotiationKey(ServerWebExchange exchange, ResolvableType elementType, ResolvableType actualElementType) {
+			List<String> accept = exchange.getRequest().getHeaders().get(HttpHeaders.ACCEPT);
+			this.accept = (accept != null ? accept : Collections.emptyList());
+			this.elementType = elementType;
+			this.actualElementType = actualElementType;
+			this.producibleTypes = exchange.getAttribute(HandlerMapping.PRODUCIBLE_MEDIA_TYPES_ATTRIBUTE);
+			int hashCode = this.accept.hashCode();
+			hashCode = 31 * hashCode + this.elementType.hashCode();
+			hashCode = 31 * hashCode + this.actualElementType.hashCode();
+			hashCode = 31 * hashCode + ObjectUtils.nullSafeHashCode(this.producibleTypes);
+			this.hashCode = hashCode;
+		}
+
+		@Override
+		public boolean equals(@Nullable Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof NegotiationKey)) {
+				return false;
+			}
+			NegotiationKey otherKey = (NegotiationKey) other;
+			return (this.accept.equals(otherKey.accept) && this.elementType.equals(otherKey.elementType) &&
+					this.actualElementType.equals(otherKey.actualElementType) &&
+					ObjectUtils.nullSafeEquals(this.producibleTypes, otherKey.producibleTypes));
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hashCode;
+		}
+	}
+
+
+	/**
+	 * The media type and message writer selected for a {@link NegotiationKey}.
+	 */
+	private static final class NegotiationResult {
+
+		final MediaType mediaType;
+
+		final HttpMessageWriter<?> writer;
+
+		NegotiationResult(MediaType mediaType, HttpMessageWriter<?> writer) {
+			this.mediaType = mediaType;
+			this.writer = writer;
+		}
+	}
+
+
+	/**
+	 * Cache of content negotiation results for a given list of message
+	 * writers, evicting the least recently used entry beyond
+	 * {@link #NEGOTIATION_CACHE_LIMIT} entries.
+	 */
+	private static final class NegotiationCache {
+
+		private final HttpMessageWriter<?>[] writers;
+
+		// Each key maps to a holder which is empty until a result has been put
+		private final ConcurrentLruCache<NegotiationKey, AtomicReference<NegotiationResult>> results =
+				new ConcurrentLruCache<>(NEGOTIATION_CACHE_LIMIT, key -> new AtomicReference<>());
+
+		NegotiationCache(List<HttpMessageWriter<?>> writers) {
+			this.writers = writers.toArray(new HttpMessageWriter<?>[0]);
+		}
+
+		boolean isValidFor(List<HttpMessageWriter<?>> writers) {
+			if (writers.size() != this.writers.length) {
+				return false;
+			}
+			for (int i = 0; i < this.writers.length; i++) {
+				if (writers.get(i) != this.writers[i]) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		@Nullable
+		NegotiationResult get(NegotiationKey key) {
+			return this.results.get(key).get();
+		}
+
+		void put(NegotiationKey key, NegotiationResult result) {
+			this.results.get(key).set(result);
+		}
+	}
+
 }
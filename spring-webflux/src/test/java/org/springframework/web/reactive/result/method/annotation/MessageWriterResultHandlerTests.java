@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -24,6 +24,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.fasterxml.jackson.annotation.JsonTypeName;
@@ -36,6 +37,7 @@ import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import org.springframework.core.MethodParameter;
+import org.springframework.core.ResolvableType;
 import org.springframework.core.codec.ByteBufferEncoder;
 import org.springframework.core.codec.CharSequenceEncoder;
 import org.springframework.core.io.ClassPathResource;
@@ -109,6 +111,69 @@ public class MessageWriterResultHandlerTests {
 		assertThat(this.exchange.getResponse().getHeaders().getContentType()).isEqualTo(MediaType.parseMediaType("application/json;charset=UTF-8"));
 	}
 
+	@Test
+	public void cachedContentNegotiation() throws Exception {
+		MethodParameter type = on(TestController.class).resolveReturnType(String.class);
+		for (MediaType accept : Arrays.asList(MediaType.TEXT_PLAIN, MediaType.TEXT_HTML, MediaType.TEXT_PLAIN)) {
+			MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/path").accept(accept));
+			this.resultHandler.writeBody("foo", type, exchange).block(Duration.ofSeconds(5));
+
+			assertThat(exchange.getResponse().getHeaders().getContentType()).isEqualTo(new MediaType(accept, UTF_8));
+		}
+	}
+
+	@Test
+	public void cachedContentNegotiationWithChangedWriters() throws Exception {
+		List<HttpMessageWriter<?>> writers = new ArrayList<>();
+		writers.add(new EncoderHttpMessageWriter<>(CharSequenceEncoder.textPlainOnly()));
+		RequestedContentTypeResolver resolver = new RequestedContentTypeResolverBuilder().build();
+		AbstractMessageWriterResultHandler handler = new AbstractMessageWriterResultHandler(writers, resolver) {};
+		MethodParameter type = on(TestController.class).resolveReturnType(String.class);
+
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/path"));
+		handler.writeBody("foo", type, exchange).block(Duration.ofSeconds(5));
+		assertThat(exchange.getResponse().getHeaders().getContentType()).isEqualTo(new MediaType(MediaType.TEXT_PLAIN, UTF_8));
+
+		writers.set(0, new EncoderHttpMessageWriter<>(new ByteBufferEncoder()));
+
+		exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/path"));
+		StepVerifier.create(handler.writeBody("foo", type, exchange))
+				.expectError(IllegalStateException.class)
+				.verify(Duration.ofSeconds(5));
+	}
+
+	@Test
+	public void cachedContentNegotiationWithFullCache() throws Exception {
+		AtomicInteger negotiationCount = new AtomicInteger();
+		CharSequenceEncoder encoder = CharSequenceEncoder.textPlainOnly();
+		HttpMessageWriter<CharSequence> writer = new EncoderHttpMessageWriter<CharSequence>(encoder) {
+			@Override
+			public List<MediaType> getWritableMediaTypes(ResolvableType elementType) {
+				negotiationCount.incrementAndGet();
+				return super.getWritableMediaTypes(elementType);
+			}
+		};
+		RequestedContentTypeResolver resolver = new RequestedContentTypeResolverBuilder().build();
+		AbstractMessageWriterResultHandler handler =
+				new AbstractMessageWriterResultHandler(Collections.singletonList(writer), resolver) {};
+		MethodParameter type = on(TestController.class).resolveReturnType(String.class);
+
+		for (int i = 0; i < 300; i++) {
+			MockServerWebExchange exchange = MockServerWebExchange.from(
+					MockServerHttpRequest.get("/path").header("Accept", "text/plain, application/x-" + i));
+			handler.writeBody("foo", type, exchange).block(Duration.ofSeconds(5));
+		}
+		for (int i = 0; i < 2; i++) {
+			MockServerWebExchange exchange = MockServerWebExchange.from(
+					MockServerHttpRequest.get("/path").header("Accept", "text/plain, application/x-new"));
+			handler.writeBody("foo", type, exchange).block(Duration.ofSeconds(5));
+			assertThat(exchange.getResponse().getHeaders().getContentType())
+					.isEqualTo(new MediaType(MediaType.TEXT_PLAIN, UTF_8));
+		}
+
+		assertThat(negotiationCount.get()).isEqualTo(301);
+	}
+
 	@Test
 	public void voidReturnType() throws Exception {
 		testVoid(null, on(TestController.class).resolveReturnType(void.class));
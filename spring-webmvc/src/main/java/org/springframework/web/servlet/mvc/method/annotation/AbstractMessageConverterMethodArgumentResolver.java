@@ -16,6 +16,7 @@
 
 package org.springframework.web.servlet.mvc.method.annotation;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.PushbackInputStream;
@@ -218,12 +219,18 @@ public abstract class AbstractMessageConverterMethodArgumentResolver implements
 
 	/**
 	 * Create a new {@link HttpInputMessage} from the given {@link NativeWebRequest}.
+	 * <p>As of 5.3.10, this uses the request body buffered by a
+	 * {@link NonBlockingRequestBodyInterceptor}, if any.
 	 * @param webRequest the web request to create an input message from
 	 * @return the input message
 	 */
 	protected ServletServerHttpRequest createInputMessage(NativeWebRequest webRequest) {
 		HttpServletRequest servletRequest = webRequest.getNativeRequest(HttpServletRequest.class);
 		Assert.state(servletRequest != null, "No HttpServletRequest");
+		Object body = servletRequest.getAttribute(NonBlockingRequestBodyInterceptor.BODY_ATTRIBUTE);
+		if (body instanceof byte[]) {
+			return new BufferedServletServerHttpRequest(servletRequest, (byte[]) body);
+		}
 		return new ServletServerHttpRequest(servletRequest);
 	}
 
@@ -342,4 +349,23 @@ public abstract class AbstractMessageConverterMethodArgumentResolver implements
 		}
 	}
 
+
+	/**
+	 * {@link ServletServerHttpRequest} with a body that has already been read.
+	 */
+	private static class BufferedServletServerHttpRequest extends ServletServerHttpRequest {
+
+		private final byte[] body;
+
+		public BufferedServletServerHttpRequest(HttpServletRequest servletRequest, byte[] body) {
+			super(servletRequest);
+			this.body = body;
+		}
+
+		@Override
+		public InputStream getBody() {
+			return new ByteArrayInputStream(this.body);
+		}
+	}
+
 }
@@ -17,14 +17,17 @@
 package org.springframework.web.servlet.mvc.method.annotation;
 
 import java.io.IOException;
+import java.lang.reflect.Method;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Enumeration;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 
 import javax.servlet.ServletRequest;
 import javax.servlet.http.HttpServletRequest;
@@ -53,9 +56,14 @@ import org.springframework.http.server.ServletServerHttpResponse;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
+import org.springframework.util.ConcurrentLruCache;
+import org.springframework.util.ObjectUtils;
+import org.springframework.util.ReflectionUtils;
 import org.springframework.util.StringUtils;
 import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.accept.ContentNegotiationManager;
+import org.springframework.web.accept.ContentNegotiationStrategy;
+import org.springframework.web.accept.HeaderContentNegotiationStrategy;
 import org.springframework.web.context.request.NativeWebRequest;
 import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
@@ -90,11 +98,18 @@ public abstract class AbstractMessageConverterMethodProcessor extends AbstractMe
 	private static final Type RESOURCE_REGION_LIST_TYPE =
 			new ParameterizedTypeReference<List<ResourceRegion>>() { }.getType();
 
+	/* Maximum number of cached content negotiation results */
+	private static final int NEGOTIATION_CACHE_LIMIT = 256;
+
 
 	private final ContentNegotiationManager contentNegotiationManager;
 
 	private final Set<String> safeExtensions = new HashSet<>();
 
+	private final boolean negotiationCacheable;
+
+	private volatile NegotiationCache negotiationCache;
+
 
 	/**
 	 * Constructor with list of converters only.
@@ -124,6 +139,27 @@ public abstract class AbstractMessageConverterMethodProcessor extends AbstractMe
 		this.contentNegotiationManager = (manager != null ? manager : new ContentNegotiationManager());
 		this.safeExtensions.addAll(this.contentNegotiationManager.getAllFileExtensions());
 		this.safeExtensions.addAll(SAFE_EXTENSIONS);
+		this.negotiationCacheable = isNegotiationCacheable();
+		this.negotiationCache = new NegotiationCache(this.messageConverters);
+	}
+
+	/**
+	 * Whether the outcome of content negotiation depends only on the request
+	 * "Accept" header, the type of the return value, and the producible media
+	 * types of the request mapping, and can therefore be cached.
+	 */
+	private boolean isNegotiationCacheable() {
+		if (this.contentNegotiationManager.getClass() != ContentNegotiationManager.class) {
+			return false;
+		}
+		for (ContentNegotiationStrategy strategy : this.contentNegotiationManager.getStrategies()) {
+			if (strategy.getClass() != HeaderContentNegotiationStrategy.class) {
+				return false;
+			}
+		}
+		Method method = ReflectionUtils.findMethod(getClass(), "getProducibleMediaTypes",
+				HttpServletRequest.class, Class.class, Type.class);
+		return (method != null && method.getDeclaringClass() == AbstractMessageConverterMethodProcessor.class);
 	}
 
 
@@ -203,14 +239,26 @@ public abstract class AbstractMessageConverterMethodProcessor extends AbstractMe
 		}
 
 		MediaType selectedMediaType = null;
+		HttpMessageConverter<?> selectedConverter = null;
 		MediaType contentType = outputMessage.getHeaders().getContentType();
 		boolean isContentTypePreset = contentType != null && contentType.isConcrete();
+		NegotiationCache negotiationCache = getNegotiationCache();
+		NegotiationKey negotiationKey = (!isContentTypePreset && this.negotiationCacheable ?
+				new NegotiationKey(inputMessage.getServletRequest(), valueType, targetType) : null);
+		NegotiationResult negotiationResult = (negotiationKey != null ? negotiationCache.get(negotiationKey) : null);
 		if (isContentTypePreset) {
 			if (logger.isDebugEnabled()) {
 				logger.debug("Found 'Content-Type:" + contentType + "' in response");
 			}
 			selectedMediaType = contentType;
 		}
+		else if (negotiationResult != null) {
+			selectedMediaType = negotiationResult.mediaType;
+			selectedConverter = negotiationResult.converter;
+			if (logger.isDebugEnabled()) {
+				logger.debug("Using '" + selectedMediaType + "' from cached content negotiation");
+			}
+		}
 		else {
 			HttpServletRequest request = inputMessage.getServletRequest();
 			List<MediaType> acceptableTypes;
@@ -272,37 +320,45 @@ public abstract class AbstractMessageConverterMethodProcessor extends AbstractMe
 			}
 		}
 
-		if (selectedMediaType != null) {
+		if (selectedMediaType != null && selectedConverter == null) {
 			selectedMediaType = selectedMediaType.removeQualityValue();
 			for (HttpMessageConverter<?> converter : this.messageConverters) {
-				GenericHttpMessageConverter genericConverter = (converter instanceof GenericHttpMessageConverter ?
-						(GenericHttpMessageConverter<?>) converter : null);
-				if (genericConverter != null ?
+				if (converter instanceof GenericHttpMessageConverter ?
 						((GenericHttpMessageConverter) converter).canWrite(targetType, valueType, selectedMediaType) :
 						converter.canWrite(valueType, selectedMediaType)) {
-					body = getAdvice().beforeBodyWrite(body, returnType, selectedMediaType,
-							(Class<? extends HttpMessageConverter<?>>) converter.getClass(),
-							inputMessage, outputMessage);
-					if (body != null) {
-						Object theBody = body;
-						LogFormatUtils.traceDebug(logger, traceOn ->
-								"Writing [" + LogFormatUtils.formatValue(theBody, !traceOn) + "]");
-						addContentDispositionHeader(inputMessage, outputMessage);
-						if (genericConverter != null) {
-							genericConverter.write(body, targetType, selectedMediaType, outputMessage);
-						}
-						else {
-							((HttpMessageConverter) converter).write(body, selectedMediaType, outputMessage);
-						}
-					}
-					else {
-						if (logger.isDebugEnabled()) {
-							logger.debug("Nothing to write: null body");
-						}
-					}
-					return;
+					selectedConverter = converter;
+					break;
+				}
+			}
+			if (selectedConverter != null && negotiationKey != null) {
+				negotiationCache.put(negotiationKey, new NegotiationResult(selectedMediaType, selectedConverter));
+			}
+		}
+
+		if (selectedMediaType != null && selectedConverter != null) {
+			GenericHttpMessageConverter genericConverter = (selectedConverter instanceof GenericHttpMessageConverter ?
+					(GenericHttpMessageConverter<?>) selectedConverter : null);
+			body = getAdvice().beforeBodyWrite(body, returnType, selectedMediaType,
+					(Class<? extends HttpMessageConverter<?>>) selectedConverter.getClass(),
+					inputMessage, outputMessage);
+			if (body != null) {
+				Object theBody = body;
+				LogFormatUtils.traceDebug(logger, traceOn ->
+						"Writing [" + LogFormatUtils.formatValue(theBody, !traceOn) + "]");
+				addContentDispositionHeader(inputMessage, outputMessage);
+				if (genericConverter != null) {
+					genericConverter.write(body, targetType, selectedMediaType, outputMessage);
+				}
+				else {
+					((HttpMessageConverter) selectedConverter).write(body, selectedMediaType, outputMessage);
+				}
+			}
+			else {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Nothing to write: null body");
 				}
 			}
+			return;
 		}
 
 		if (body != null) {
@@ -396,6 +452,19 @@ public abstract class AbstractMessageConverterMethodProcessor extends AbstractMe
 		return this.contentNegotiationManager.resolveMediaTypes(new ServletWebRequest(request));
 	}
 
+	/**
+	 * Return the cache of content negotiation results, replacing it first if
+	 * the configured message converters have changed since it was created.
+	 */
+	private NegotiationCache getNegotiationCache() {
+		NegotiationCache cache = this.negotiationCache;
+		if (!cache.isValidFor(this.messageConverters)) {
+			cache = new NegotiationCache(this.messageConverters);
+			this.negotiationCache = cache;
+		}
+		return cache;
+	}
+
 	/**
 	 * Return the more specific of the acceptable and the producible media types
 	 * with the q-value of the former.
@@ -495,4 +564,113 @@ public abstract class AbstractMessageConverterMethodProcessor extends AbstractMe
 				mediaType.getSubtype().endsWith("+xml"));
 	}
 
+
+	/**
+	 * Key for a cached content negotiation result: the values of the "Accept"
+	 * header, the type of the value to write, and the producible media types
+	 * of the request mapping, if any.
+	 */
+	private static final class NegotiationKey {
+
+		private final List<String> accept;
+
+		private final Class<?> valueType;
+
+		private final Type targetType;
+
+		@Nullable
+		private final Set<MediaType> producibleTypes;
+
+		private final int hashCode;
+
+		@SuppressWarnings("unchecked")
+		NegotiationKey(HttpServletRequest request, Class<?> valueType, Type targetType) {
+			Enumeration<String> values = request.getHeaders(HttpHeaders.ACCEPT);
+			this.accept = (values != null ? Collections.list(values) : Collections.emptyList());
+			this.valueType = valueType;
+			this.targetType = targetType;
+			this.producibleTypes = (Set<MediaType>) request.getAttribute(HandlerMapping.PRODUCIBLE_MEDIA_TYPES_ATTRIBUTE);
+			int hashCode = this.accept.hashCode();
+			hashCode = 31 * hashCode + this.valueType.hashCode();
+			hashCode = 31 * hashCode + this.targetType.hashCode();
+			hashCode = 31 * hashCode + ObjectUtils.nullSafeHashCode(this.producibleTypes);
+			this.hashCode = hashCode;
+		}
+
+		@Override
+		public boolean equals(@Nullable Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof NegotiationKey)) {
+				return false;
+			}
+			NegotiationKey otherKey = (NegotiationKey) other;
+			return (this.accept.equals(otherKey.accept) && this.valueType == otherKey.valueType &&
+					this.targetType.equals(otherKey.targetType) &&
+					ObjectUtils.nullSafeEquals(this.producibleTypes, otherKey.producibleTypes));
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hashCode;
+		}
+	}
+
+
+	/**
+	 * The media type and message converter selected for a {@link NegotiationKey}.
+	 */
+	private static final class NegotiationResult {
+
+		final MediaType mediaType;
+
+		final HttpMessageConverter<?> converter;
+
+		NegotiationResult(MediaType mediaType, HttpMessageConverter<?> converter) {
+			this.mediaType = mediaType;
+			this.converter = converter;
+		}
+	}
+
+
+	/**
+	 * Cache of content negotiation results for a given list of message
+	 * converters, evicting the least recently used entry beyond
+	 * {@link #NEGOTIATION_CACHE_LIMIT} entries.
+	 */
+	private static final class NegotiationCache {
+
+		private final HttpMessageConverter<?>[] converters;
+
+		// Each key maps to a holder which is empty until a result has been put
+		private final ConcurrentLruCache<NegotiationKey, AtomicReference<NegotiationResult>> results =
+				new ConcurrentLruCache<>(NEGOTIATION_CACHE_LIMIT, key -> new AtomicReference<>());
+
+		NegotiationCache(List<HttpMessageConverter<?>> converters) {
+			this.converters = converters.toArray(new HttpMessageConverter<?>[0]);
+		}
+
+		boolean isValidFor(List<HttpMessageConverter<?>> converters) {
+			if (converters.size() != this.converters.length) {
+				return false;
+			}
+			for (int i = 0; i < this.converters.length; i++) {
+				if (converters.get(i) != this.converters[i]) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		@Nullable
+		NegotiationResult get(NegotiationKey key) {
+			return this.results.get(key).get();
+		}
+
+		void put(NegotiationKey key, NegotiationResult result) {
+			this.results.get(key).set(result);
+		}
+	}
+
 }
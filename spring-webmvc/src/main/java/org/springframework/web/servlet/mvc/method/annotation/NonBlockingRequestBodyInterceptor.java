@@ -0,0 +1,368 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.servlet.mvc.method.annotation;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.DispatcherType;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.FastByteArrayOutputStream;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * {@link HandlerInterceptor} that reads the JSON body for
+ * {@link RequestBody @RequestBody} handler methods with Servlet 3.1
+ * non-blocking I/O, and invokes the handler only once the body has been
+ * received in full, so that slow clients do not hold on to a container
+ * thread while uploading.
+ *
+ * <p>On the initial dispatch, this interceptor starts async processing,
+ * registers a {@link ReadListener} and feeds the incoming bytes into Jackson's
+ * non-blocking parser, which detects malformed input as early as possible.
+ * Once all data has been read, the request is dispatched again and the
+ * buffered body is read by {@link RequestResponseBodyMethodProcessor}
+ * instead of the request input stream.
+ *
+ * <p>Requests that do not have a body, that are not UTF-8 encoded JSON, or
+ * that do not support async processing are passed through to regular,
+ * blocking reading. All filters in the chain must support async dispatches.
+ *
+ * @since 5.3.10
+ * @see org.springframework.web.servlet.config.annotation.InterceptorRegistry
+ */
+public class NonBlockingRequestBodyInterceptor implements HandlerInterceptor {
+
+	/**
+	 * Name of the request attribute that holds the buffered body as a
+	 * {@code byte[]}, or the failure that occurred while reading it.
+	 */
+	public static final String BODY_ATTRIBUTE = NonBlockingRequestBodyInterceptor.class.getName() + ".body";
+
+	private static final int BUFFER_SIZE = 8192;
+
+	private static final Log logger = LogFactory.getLog(NonBlockingRequestBodyInterceptor.class);
+
+
+	private final JsonFactory jsonFactory;
+
+	private final List<MediaType> supportedMediaTypes =
+			new ArrayList<>(Arrays.asList(MediaType.APPLICATION_JSON, new MediaType("application", "*+json")));
+
+	private int maxInMemorySize = 256 * 1024;
+
+	@Nullable
+	private Long timeout;
+
+
+	/**
+	 * Create an interceptor with a default {@link JsonFactory}.
+	 */
+	public NonBlockingRequestBodyInterceptor() {
+		this(new JsonFactory());
+	}
+
+	/**
+	 * Create an interceptor with the given {@link JsonFactory}, typically
+	 * obtained from the application's {@code ObjectMapper}.
+	 */
+	public NonBlockingRequestBodyInterceptor(JsonFactory jsonFactory) {
+		Assert.notNull(jsonFactory, "JsonFactory must not be null");
+		this.jsonFactory = jsonFactory;
+	}
+
+
+	/**
+	 * Set the media types of request bodies to read without blocking.
+	 * <p>By default this is {@code application/json} and
+	 * {@code application/*+json}.
+	 */
+	public void setSupportedMediaTypes(List<MediaType> supportedMediaTypes) {
+		Assert.notEmpty(supportedMediaTypes, "MediaType List must not be empty");
+		this.supportedMediaTypes.clear();
+		this.supportedMediaTypes.addAll(supportedMediaTypes);
+	}
+
+	/**
+	 * Return the configured media types of request bodies to read without blocking.
+	 */
+	public List<MediaType> getSupportedMediaTypes() {
+		return this.supportedMediaTypes;
+	}
+
+	/**
+	 * Set the max number of bytes of a request body to buffer. When the limit
+	 * is exceeded, the request is rejected with a 413 status.
+	 * <p>By default this is set to 256K.
+	 * @param byteCount the max number of bytes to buffer, or -1 for unlimited
+	 */
+	public void setMaxInMemorySize(int byteCount) {
+		this.maxInMemorySize = byteCount;
+	}
+
+	/**
+	 * Return the {@link #setMaxInMemorySize configured} byte count limit.
+	 */
+	public int getMaxInMemorySize() {
+		return this.maxInMemorySize;
+	}
+
+	/**
+	 * Set the time in milliseconds to wait for the request body to be
+	 * received, after which the request is rejected with a 408 status.
+	 * <p>By default this is not set, in which case the default async
+	 * request timeout of the Servlet container is used.
+	 */
+	public void setTimeout(@Nullable Long timeout) {
+		this.timeout = timeout;
+	}
+
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+			throws Exception {
+
+		Object body = request.getAttribute(BODY_ATTRIBUTE);
+		if (body != null) {
+			if (body instanceof Throwable) {
+				handleReadFailure((Throwable) body, request);
+			}
+			return true;
+		}
+		if (request.getDispatcherType() != DispatcherType.REQUEST || !(handler instanceof HandlerMethod) ||
+				!hasRequestBody((HandlerMethod) handler) || !hasBody(request) || !isSupported(request)) {
+			return true;
+		}
+		if (!request.isAsyncSupported()) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Async not supported, falling back on blocking read of request body");
+			}
+			return true;
+		}
+
+		AsyncContext asyncContext = request.startAsync(request, response);
+		if (this.timeout != null) {
+			asyncContext.setTimeout(this.timeout);
+		}
+		ServletInputStream inputStream = request.getInputStream();
+		BodyReadListener listener = new BodyReadListener(request, asyncContext, inputStream);
+		asyncContext.addListener(listener);
+		inputStream.setReadListener(listener);
+		return false;
+	}
+
+	private boolean hasRequestBody(HandlerMethod handlerMethod) {
+		for (MethodParameter parameter : handlerMethod.getMethodParameters()) {
+			if (parameter.hasParameterAnnotation(RequestBody.class)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean hasBody(HttpServletRequest request) {
+		return (request.getContentLengthLong() > 0 || request.getHeader(HttpHeaders.TRANSFER_ENCODING) != null);
+	}
+
+	private boolean isSupported(HttpServletRequest request) {
+		String contentType = request.getContentType();
+		if (!StringUtils.hasLength(contentType)) {
+			return false;
+		}
+		try {
+			MediaType mediaType = MediaType.parseMediaType(contentType);
+			Charset charset = mediaType.getCharset();
+			if (charset != null && !StandardCharsets.UTF_8.equals(charset)) {
+				// Jackson's non-blocking parser only handles UTF-8
+				return false;
+			}
+			for (MediaType supportedMediaType : this.supportedMediaTypes) {
+				if (supportedMediaType.includes(mediaType)) {
+					return true;
+				}
+			}
+		}
+		catch (InvalidMediaTypeException ex) {
+			// Leave it to the argument resolver to reject the request
+		}
+		return false;
+	}
+
+	private void handleReadFailure(Throwable failure, HttpServletRequest request) throws Exception {
+		if (failure instanceof JsonProcessingException) {
+			throw new HttpMessageNotReadableException(
+					"JSON parse error: " + ((JsonProcessingException) failure).getOriginalMessage(),
+					failure, new ServletServerHttpRequest(request));
+		}
+		else if (failure instanceof Exception) {
+			throw (Exception) failure;
+		}
+		else if (failure instanceof Error) {
+			throw (Error) failure;
+		}
+		throw new IllegalStateException("Failed to read request body", failure);
+	}
+
+
+	/**
+	 * Reads the request body as it becomes available and dispatches once
+	 * it is complete, or as soon as reading or parsing fails.
+	 */
+	private class BodyReadListener implements ReadListener, AsyncListener {
+
+		private final HttpServletRequest request;
+
+		private final AsyncContext asyncContext;
+
+		private final ServletInputStream inputStream;
+
+		private final JsonParser parser;
+
+		private final byte[] buffer = new byte[BUFFER_SIZE];
+
+		private final FastByteArrayOutputStream content = new FastByteArrayOutputStream(BUFFER_SIZE);
+
+		private final AtomicBoolean dispatched = new AtomicBoolean();
+
+		BodyReadListener(HttpServletRequest request, AsyncContext asyncContext, ServletInputStream inputStream)
+				throws IOException {
+
+			this.request = request;
+			this.asyncContext = asyncContext;
+			this.inputStream = inputStream;
+			this.parser = jsonFactory.createNonBlockingByteArrayParser();
+		}
+
+		@Override
+		public void onDataAvailable() {
+			try {
+				while (!this.dispatched.get() && this.inputStream.isReady()) {
+					int read = this.inputStream.read(this.buffer);
+					if (read == -1) {
+						return;
+					}
+					if (maxInMemorySize >= 0 && this.content.size() + read > maxInMemorySize) {
+						dispatch(new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+								"Exceeded limit on max bytes to buffer : " + maxInMemorySize));
+						return;
+					}
+					this.content.write(this.buffer, 0, read);
+					((ByteArrayFeeder) this.parser.getNonBlockingInputFeeder()).feedInput(this.buffer, 0, read);
+					parseAvailableTokens();
+				}
+			}
+			catch (IOException ex) {
+				dispatch(ex);
+			}
+		}
+
+		@Override
+		public void onAllDataRead() {
+			if (this.dispatched.get()) {
+				return;
+			}
+			try {
+				((ByteArrayFeeder) this.parser.getNonBlockingInputFeeder()).endOfInput();
+				parseAvailableTokens();
+				dispatch(this.content.toByteArray());
+			}
+			catch (IOException ex) {
+				dispatch(ex);
+			}
+		}
+
+		private void parseAvailableTokens() throws IOException {
+			JsonToken token = this.parser.nextToken();
+			while (token != null && token != JsonToken.NOT_AVAILABLE) {
+				token = this.parser.nextToken();
+			}
+		}
+
+		@Override
+		public void onError(Throwable ex) {
+			dispatch(ex);
+		}
+
+		private void dispatch(Object result) {
+			if (this.dispatched.compareAndSet(false, true)) {
+				try {
+					this.parser.close();
+				}
+				catch (IOException ex) {
+					// ignore
+				}
+				this.request.setAttribute(BODY_ATTRIBUTE, result);
+				this.asyncContext.dispatch();
+			}
+		}
+
+		// AsyncListener
+
+		@Override
+		public void onTimeout(AsyncEvent event) {
+			dispatch(new ResponseStatusException(HttpStatus.REQUEST_TIMEOUT, "Timed out reading request body"));
+		}
+
+		@Override
+		public void onError(AsyncEvent event) {
+			Throwable ex = event.getThrowable();
+			dispatch(ex != null ? ex : new IllegalStateException("Async error while reading request body"));
+		}
+
+		@Override
+		public void onStartAsync(AsyncEvent event) {
+		}
+
+		@Override
+		public void onComplete(AsyncEvent event) {
+		}
+	}
+
+}
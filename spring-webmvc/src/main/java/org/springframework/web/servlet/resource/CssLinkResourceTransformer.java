@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -31,6 +31,7 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.lang.Nullable;
 import org.springframework.util.FileCopyUtils;
 import org.springframework.util.StringUtils;
@@ -74,7 +75,7 @@ public class CssLinkResourceTransformer extends ResourceTransformerSupport {
 		String filename = resource.getFilename();
 		if (!"css".equals(StringUtils.getFilenameExtension(filename)) ||
 				resource instanceof EncodedResourceResolver.EncodedResource ||
-				resource instanceof GzipResourceResolver.GzippedResource) {
+				resource instanceof GzipResourceResolver.GzippedResource || isEncoded(resource)) {
 			return resource;
 		}
 
@@ -113,6 +114,16 @@ public class CssLinkResourceTransformer extends ResourceTransformerSupport {
 		return ((schemeIndex > 0 && !link.substring(0, schemeIndex).contains("/")) || link.indexOf("//") == 0);
 	}
 
+	/**
+	 * Whether the given resource is a content-encoded variant, e.g. a gzip
+	 * variant kept in memory by an {@link InMemoryResourceResolver}, whose
+	 * content cannot be parsed as CSS.
+	 */
+	private boolean isEncoded(Resource resource) {
+		return (resource instanceof HttpResource &&
+				((HttpResource) resource).getResponseHeaders().containsKey(HttpHeaders.CONTENT_ENCODING));
+	}
+
 
 	/**
 	 * Extract content chunks that represent links.
@@ -0,0 +1,263 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.servlet.mvc.method.annotation;
+
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.lang.Nullable;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.testfixture.servlet.MockAsyncContext;
+import org.springframework.web.testfixture.servlet.MockHttpServletRequest;
+import org.springframework.web.testfixture.servlet.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Tests for {@link NonBlockingRequestBodyInterceptor}.
+ *
+ * @since 5.3.10
+ */
+class NonBlockingRequestBodyInterceptorTests {
+
+	private final NonBlockingRequestBodyInterceptor interceptor = new NonBlockingRequestBodyInterceptor();
+
+	private final TestServletInputStream inputStream = new TestServletInputStream();
+
+	private final MockHttpServletRequest request = new MockHttpServletRequest("POST", "/bean") {
+		@Override
+		public ServletInputStream getInputStream() {
+			return inputStream;
+		}
+	};
+
+	private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+	private HandlerMethod handlerMethod;
+
+
+	@BeforeEach
+	void setup() throws Exception {
+		this.request.setAsyncSupported(true);
+		this.request.setContentType(MediaType.APPLICATION_JSON_VALUE);
+		this.handlerMethod = handlerMethod("handle", SimpleBean.class);
+	}
+
+
+	@Test
+	void readBodyBeforeInvokingHandler() throws Exception {
+		setContent("{\"name\":\"Jad\"}");
+		assertThat(this.interceptor.preHandle(this.request, this.response, this.handlerMethod)).isFalse();
+		assertThat(this.request.isAsyncStarted()).isTrue();
+
+		this.inputStream.offer("{\"name\"");
+		assertThat(getAsyncContext().getDispatchedPath()).isNull();
+		this.inputStream.offer(":\"Jad\"}");
+		assertThat(getAsyncContext().getDispatchedPath()).isNull();
+		this.inputStream.complete();
+		assertThat(getAsyncContext().getDispatchedPath()).isEqualTo("/bean");
+
+		this.request.setDispatcherType(DispatcherType.ASYNC);
+		assertThat(this.interceptor.preHandle(this.request, this.response, this.handlerMethod)).isTrue();
+
+		RequestResponseBodyMethodProcessor processor = new RequestResponseBodyMethodProcessor(
+				Collections.singletonList(new MappingJackson2HttpMessageConverter()));
+		Object result = processor.resolveArgument(this.handlerMethod.getMethodParameters()[0],
+				new ModelAndViewContainer(), new ServletWebRequest(this.request, this.response), null);
+		assertThat(result).isInstanceOf(SimpleBean.class);
+		assertThat(((SimpleBean) result).getName()).isEqualTo("Jad");
+	}
+
+	@Test
+	void malformedBodyDispatchesEarly() throws Exception {
+		setContent("{\"name\":]...........");
+		assertThat(this.interceptor.preHandle(this.request, this.response, this.handlerMethod)).isFalse();
+
+		this.inputStream.offer("{\"name\":]");
+		assertThat(getAsyncContext().getDispatchedPath()).isEqualTo("/bean");
+
+		this.request.setDispatcherType(DispatcherType.ASYNC);
+		assertThatExceptionOfType(HttpMessageNotReadableException.class).isThrownBy(() ->
+				this.interceptor.preHandle(this.request, this.response, this.handlerMethod));
+	}
+
+	@Test
+	void bodyExceedingMaxInMemorySize() throws Exception {
+		this.interceptor.setMaxInMemorySize(10);
+		setContent("{\"name\":\"Robert\"}");
+		assertThat(this.interceptor.preHandle(this.request, this.response, this.handlerMethod)).isFalse();
+
+		this.inputStream.offer("{\"name\":");
+		assertThat(getAsyncContext().getDispatchedPath()).isNull();
+		this.inputStream.offer("\"Robert\"}");
+		assertThat(getAsyncContext().getDispatchedPath()).isEqualTo("/bean");
+
+		this.request.setDispatcherType(DispatcherType.ASYNC);
+		assertThatExceptionOfType(ResponseStatusException.class)
+				.isThrownBy(() -> this.interceptor.preHandle(this.request, this.response, this.handlerMethod))
+				.satisfies(ex -> assertThat(ex.getStatus()).isEqualTo(HttpStatus.PAYLOAD_TOO_LARGE));
+	}
+
+	@Test
+	void passThroughWithoutRequestBodyParameter() throws Exception {
+		setContent("{\"name\":\"Jad\"}");
+		HandlerMethod handlerMethod = handlerMethod("handleWithoutBody", SimpleBean.class);
+		assertThat(this.interceptor.preHandle(this.request, this.response, handlerMethod)).isTrue();
+		assertThat(this.request.isAsyncStarted()).isFalse();
+	}
+
+	@Test
+	void passThroughForUnsupportedRequests() throws Exception {
+		assertThat(this.interceptor.preHandle(this.request, this.response, this.handlerMethod)).isTrue();
+
+		setContent("<name>Jad</name>");
+		this.request.setContentType(MediaType.APPLICATION_XML_VALUE);
+		assertThat(this.interceptor.preHandle(this.request, this.response, this.handlerMethod)).isTrue();
+
+		this.request.setContentType("application/vnd.example+json");
+		this.request.setAsyncSupported(false);
+		assertThat(this.interceptor.preHandle(this.request, this.response, this.handlerMethod)).isTrue();
+		assertThat(this.request.isAsyncStarted()).isFalse();
+	}
+
+	@Test
+	void passThroughForCharsetOtherThanUtf8() throws Exception {
+		this.request.setContent("{\"name\":\"Jad\"}".getBytes(StandardCharsets.UTF_16));
+		this.request.setContentType("application/json;charset=UTF-16");
+		assertThat(this.interceptor.preHandle(this.request, this.response, this.handlerMethod)).isTrue();
+
+		this.request.setContentType("application/json;charset=UTF-32");
+		assertThat(this.interceptor.preHandle(this.request, this.response, this.handlerMethod)).isTrue();
+		assertThat(this.request.isAsyncStarted()).isFalse();
+
+		setContent("{\"name\":\"Jad\"}");
+		this.request.setContentType("application/json;charset=UTF-8");
+		assertThat(this.interceptor.preHandle(this.request, this.response, this.handlerMethod)).isFalse();
+		assertThat(this.request.isAsyncStarted()).isTrue();
+	}
+
+
+	private void setContent(String content) {
+		this.request.setContent(content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private MockAsyncContext getAsyncContext() {
+		return (MockAsyncContext) this.request.getAsyncContext();
+	}
+
+	private HandlerMethod handlerMethod(String name, Class<?>... parameterTypes) throws Exception {
+		Method method = getClass().getDeclaredMethod(name, parameterTypes);
+		return new HandlerMethod(this, method);
+	}
+
+
+	@SuppressWarnings("unused")
+	String handle(@RequestBody SimpleBean bean) {
+		return bean.getName();
+	}
+
+	@SuppressWarnings("unused")
+	String handleWithoutBody(SimpleBean bean) {
+		return bean.getName();
+	}
+
+
+	private static class TestServletInputStream extends ServletInputStream {
+
+		private final Deque<byte[]> chunks = new ArrayDeque<>();
+
+		@Nullable
+		private ReadListener listener;
+
+		private boolean finished;
+
+		void offer(String chunk) throws Exception {
+			this.chunks.add(chunk.getBytes(StandardCharsets.UTF_8));
+			this.listener.onDataAvailable();
+		}
+
+		void complete() throws Exception {
+			this.finished = true;
+			this.listener.onAllDataRead();
+		}
+
+		@Override
+		public boolean isFinished() {
+			return this.finished;
+		}
+
+		@Override
+		public boolean isReady() {
+			return !this.chunks.isEmpty();
+		}
+
+		@Override
+		public void setReadListener(ReadListener listener) {
+			this.listener = listener;
+		}
+
+		@Override
+		public int read() {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public int read(byte[] buffer, int offset, int length) {
+			byte[] chunk = this.chunks.poll();
+			if (chunk == null) {
+				return -1;
+			}
+			System.arraycopy(chunk, 0, buffer, offset, chunk.length);
+			return chunk.length;
+		}
+	}
+
+
+	@SuppressWarnings("unused")
+	private static class SimpleBean {
+
+		private String name;
+
+		public String getName() {
+			return this.name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+	}
+
+}
@@ -18,6 +18,7 @@ package org.springframework.web.servlet.mvc.method.annotation;
 
 import java.lang.reflect.Method;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -323,6 +324,62 @@ public class RequestResponseBodyMethodProcessorMockTests {
 		verify(stringMessageConverter).write(eq(body), eq(accepted), isA(HttpOutputMessage.class));
 	}
 
+	@Test
+	public void handleReturnValueWithCachedContentNegotiation() throws Exception {
+		MediaType accepted = MediaType.TEXT_PLAIN;
+		given(stringMessageConverter.canWrite(String.class, null)).willReturn(true);
+		given(stringMessageConverter.canWrite(String.class, accepted)).willReturn(true);
+
+		for (int i = 0; i < 2; i++) {
+			MockHttpServletRequest request = new MockHttpServletRequest();
+			request.addHeader("Accept", accepted.toString());
+			NativeWebRequest nativeRequest = new ServletWebRequest(request, new MockHttpServletResponse());
+			processor.handleReturnValue("Foo", returnTypeString, new ModelAndViewContainer(), nativeRequest);
+		}
+
+		verify(stringMessageConverter, times(1)).canWrite(String.class, null);
+		verify(stringMessageConverter, times(2)).write(eq("Foo"), eq(accepted), isA(HttpOutputMessage.class));
+	}
+
+	@Test
+	public void handleReturnValueWithFullContentNegotiationCache() throws Exception {
+		given(stringMessageConverter.canWrite(String.class, null)).willReturn(true);
+		given(stringMessageConverter.canWrite(String.class, MediaType.TEXT_PLAIN)).willReturn(true);
+
+		for (int i = 0; i < 300; i++) {
+			handleWithAccept("text/plain, application/x-" + i);
+		}
+		handleWithAccept("text/plain, application/x-new");
+		handleWithAccept("text/plain, application/x-new");
+
+		verify(stringMessageConverter, times(301)).canWrite(String.class, null);
+		verify(stringMessageConverter, times(302)).write(eq("Foo"), eq(MediaType.TEXT_PLAIN), isA(HttpOutputMessage.class));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void handleReturnValueWithChangedConverters() throws Exception {
+		List<HttpMessageConverter<?>> converters = new ArrayList<>();
+		converters.add(stringMessageConverter);
+		processor = new RequestResponseBodyMethodProcessor(converters);
+		servletRequest.addHeader("Accept", MediaType.TEXT_PLAIN_VALUE);
+		given(stringMessageConverter.canWrite(String.class, null)).willReturn(true);
+		given(stringMessageConverter.canWrite(String.class, MediaType.TEXT_PLAIN)).willReturn(true);
+
+		processor.handleReturnValue("Foo", returnTypeString, mavContainer, webRequest);
+
+		HttpMessageConverter<String> otherConverter = mock(HttpMessageConverter.class);
+		given(otherConverter.getSupportedMediaTypes(any())).willReturn(Collections.singletonList(MediaType.TEXT_PLAIN));
+		given(otherConverter.canWrite(String.class, null)).willReturn(true);
+		given(otherConverter.canWrite(String.class, MediaType.TEXT_PLAIN)).willReturn(true);
+		converters.set(0, otherConverter);
+
+		processor.handleReturnValue("Bar", returnTypeString, mavContainer, webRequest);
+
+		verify(stringMessageConverter).write(eq("Foo"), eq(MediaType.TEXT_PLAIN), isA(HttpOutputMessage.class));
+		verify(otherConverter).write(eq("Bar"), eq(MediaType.TEXT_PLAIN), isA(HttpOutputMessage.class));
+	}
+
 	@Test
 	public void handleReturnValueProduces() throws Exception {
 		String body = "Foo";
@@ -431,6 +488,13 @@ public class RequestResponseBodyMethodProcessorMockTests {
 		assertThat(servletResponse.getStatus()).isEqualTo(416);
 	}
 
+	private void handleWithAccept(String accept) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.addHeader("Accept", accept);
+		NativeWebRequest nativeRequest = new ServletWebRequest(request, new MockHttpServletResponse());
+		processor.handleReturnValue("Foo", returnTypeString, new ModelAndViewContainer(), nativeRequest);
+	}
+
 
 	@SuppressWarnings("unused")
 	@ResponseBody
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.servlet.resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.testfixture.servlet.MockHttpServletRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link InMemoryResourceResolver}.
+ *
+ * @since 5.3.10
+ */
+class InMemoryResourceResolverTests {
+
+	private static final String CSS = String.join("", Collections.nCopies(50, "h1 { color: red; }\n"));
+
+	@TempDir
+	Path directory;
+
+	private final InMemoryResourceResolver resolver = new InMemoryResourceResolver();
+
+	private ResourceResolverChain chain;
+
+	private List<Resource> locations;
+
+
+	@BeforeEach
+	void setup() throws IOException {
+		this.chain = new DefaultResourceResolverChain(Arrays.asList(this.resolver, new PathResourceResolver()));
+		this.locations = Collections.singletonList(new FileSystemResource(this.directory.toString() + "/"));
+		write("app.css", CSS, 1_000_000);
+	}
+
+
+	@Test
+	void resolveFromMemory() throws IOException {
+		Resource resource = this.chain.resolveResource(new MockHttpServletRequest(), "app.css", this.locations);
+
+		assertThat(resource).isNotInstanceOf(FileSystemResource.class);
+		assertThat(resource.getFilename()).isEqualTo("app.css");
+		assertThat(resource.lastModified()).isEqualTo(1_000_000);
+		assertThat(resource.contentLength()).isEqualTo(CSS.length());
+		assertThat(StreamUtils.copyToString(resource.getInputStream(), StandardCharsets.UTF_8)).isEqualTo(CSS);
+
+		Files.delete(this.directory.resolve("app.css"));
+		assertThat(this.chain.resolveResource(new MockHttpServletRequest(), "app.css", this.locations))
+				.isSameAs(resource);
+	}
+
+	@Test
+	void resolveGzipVariant() throws IOException {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate, br");
+		Resource resource = this.chain.resolveResource(request, "app.css", this.locations);
+
+		assertThat(resource).isInstanceOf(HttpResource.class);
+		HttpHeaders headers = ((HttpResource) resource).getResponseHeaders();
+		assertThat(headers.getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+		assertThat(headers.getVary()).containsExactly(HttpHeaders.ACCEPT_ENCODING);
+		assertThat(resource.getFilename()).isEqualTo("app.css");
+		assertThat(resource.contentLength()).isLessThan(CSS.length());
+		try (InputStream in = new GZIPInputStream(resource.getInputStream())) {
+			assertThat(StreamUtils.copyToString(in, StandardCharsets.UTF_8)).isEqualTo(CSS);
+		}
+		assertThat(this.chain.resolveResource(request, "app.css", this.locations)).isSameAs(resource);
+
+		Resource identity = this.chain.resolveResource(new MockHttpServletRequest(), "app.css", this.locations);
+		assertThat(((HttpResource) identity).getResponseHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)).isFalse();
+		assertThat(identity.contentLength()).isEqualTo(CSS.length());
+
+		request = new MockHttpServletRequest();
+		request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0");
+		assertThat(this.chain.resolveResource(request, "app.css", this.locations)).isSameAs(identity);
+	}
+
+	@Test
+	void gzipVariantNotTransformedInVersionedChain() throws IOException {
+		// The CRC-32 and size in the gzip trailer of this content read "url(x)"
+		String css = String.join("", Collections.nCopies(558, "h1 { color: red; }\n")) + "/* aaexFR5L */";
+		write("main.css", css, 1_000_000);
+		VersionResourceResolver versionResolver = new VersionResourceResolver().addContentVersionStrategy("/**");
+		ResourceResolverChain chain = new DefaultResourceResolverChain(
+				Arrays.asList(this.resolver, versionResolver, new PathResourceResolver()));
+		ResourceTransformerChain transformerChain = new DefaultResourceTransformerChain(
+				chain, Collections.singletonList(new CssLinkResourceTransformer()));
+		String path = chain.resolveUrlPath("main.css", this.locations);
+		assertThat(path).matches("main-\\p{XDigit}{32}\\.css");
+
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/" + path);
+		request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+		for (int i = 0; i < 2; i++) {
+			Resource resource = chain.resolveResource(request, path, this.locations);
+			assertThat(((HttpResource) resource).getResponseHeaders().getFirst(HttpHeaders.CONTENT_ENCODING))
+					.isEqualTo("gzip");
+			assertThat(transformerChain.transform(request, resource)).isSameAs(resource);
+			try (InputStream in = new GZIPInputStream(resource.getInputStream())) {
+				assertThat(StreamUtils.copyToString(in, StandardCharsets.UTF_8)).isEqualTo(css);
+			}
+		}
+	}
+
+	@Test
+	void revalidateLastModified() throws IOException {
+		this.resolver.setRevalidationInterval(Duration.ZERO);
+		Resource resource = this.chain.resolveResource(null, "app.css", this.locations);
+		assertThat(this.chain.resolveResource(null, "app.css", this.locations)).isSameAs(resource);
+
+		write("app.css", "h1 { color: blue; }", 2_000_000);
+		resource = this.chain.resolveResource(null, "app.css", this.locations);
+		assertThat(resource.lastModified()).isEqualTo(2_000_000);
+		assertThat(StreamUtils.copyToString(resource.getInputStream(), StandardCharsets.UTF_8))
+				.isEqualTo("h1 { color: blue; }");
+
+		Files.delete(this.directory.resolve("app.css"));
+		assertThat(this.chain.resolveResource(null, "app.css", this.locations)).isNull();
+	}
+
+	@Test
+	void largeResourceNotCached() throws IOException {
+		this.resolver.setMaxResourceSize(100);
+		Resource resource = this.chain.resolveResource(null, "app.css", this.locations);
+		assertThat(resource).isInstanceOf(FileSystemResource.class);
+	}
+
+	@Test
+	void evictLeastRecentlyUsed() throws IOException {
+		this.resolver.setMaxCacheSize(CSS.length() * 2);
+		write("a.css", CSS, 1_000_000);
+		write("b.css", CSS, 1_000_000);
+		Resource app = this.chain.resolveResource(null, "app.css", this.locations);
+		Resource a = this.chain.resolveResource(null, "a.css", this.locations);
+		assertThat(this.chain.resolveResource(null, "app.css", this.locations)).isSameAs(app);
+
+		this.chain.resolveResource(null, "b.css", this.locations);
+		assertThat(this.chain.resolveResource(null, "app.css", this.locations)).isSameAs(app);
+		assertThat(this.chain.resolveResource(null, "a.css", this.locations)).isNotSameAs(a);
+	}
+
+
+	private void write(String filename, String content, long lastModified) throws IOException {
+		Path file = this.directory.resolve(filename);
+		Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+		Files.setLastModifiedTime(file, FileTime.fromMillis(lastModified));
+	}
+
+}